@@ -29,6 +29,11 @@ public class Commands {
   public static final String FIND_TESTS_FROM_ENTRY_COMMAND =
       "che.jdt.ls.extension.findTestFromEntry";
   public static final String FIND_TESTS_IN_FILE_COMMAND = "che.jdt.ls.extension.findTestInFile";
+  public static final String FIND_TESTS_BY_FRAMEWORK_COMMAND =
+      "che.jdt.ls.extension.findTestsByFramework";
+  public static final String FIND_TESTS_STREAM_COMMAND = "che.jdt.ls.extension.findTestsStream";
+  public static final String FIND_IMPACTED_TESTS_COMMAND =
+      "che.jdt.ls.extension.findImpactedTests";
   public static final String RESOLVE_CLASSPATH_COMMAND = "che.jdt.ls.extension.resolveClasspath";
   public static final String GET_OUTPUT_DIR_COMMAND = "che.jdt.ls.extension.outputDir";
   public static final String GET_EFFECTIVE_POM_COMMAND = "che.jdt.ls.extension.effectivePom";
@@ -54,6 +59,10 @@ public class Commands {
   public static final String IDENTIFY_FQN_IN_RESOURCE =
       "che.jdt.ls.extension.debug.identifyFqnInResource";
   public static final String USAGES_COMMAND = "che.jdt.ls.extension.usages";
+  public static final String USAGES_STREAM_COMMAND = "che.jdt.ls.extension.usages.stream";
+  public static final String USAGES_RESOLVE_COMMAND = "che.jdt.ls.extension.usages.resolve";
+  public static final String USAGES_BATCH_COMMAND = "che.jdt.ls.extension.usages.batch";
+  public static final String USAGES_REFRESH_COMMAND = "che.jdt.ls.extension.usages.refresh";
 
   public static final String UPDATE_WORKSPACE = "che.jdt.ls.extension.updateWorkspace";
 
@@ -103,5 +112,13 @@ public class Commands {
   public static final String VERIFY_MOVE_DESTINATION_COMMAND =
       "che.jdt.ls.extension.refactoring.move.verify.destination";
 
+  // diagnostics
+
+  public static final String GET_COMMAND_METRICS_COMMAND = "che.jdt.ls.extension.metrics";
+
+  // batch
+
+  public static final String BATCH_COMMAND = "che.jdt.ls.extension.batch";
+
   private Commands() {}
 }
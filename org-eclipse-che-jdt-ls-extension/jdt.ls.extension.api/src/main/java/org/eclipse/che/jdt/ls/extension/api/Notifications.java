@@ -23,4 +23,10 @@ public class Notifications {
       "che.jdt.ls.extension.workspace.clientUpdateProjectsClasspath";
   public static final String MAVEN_PROJECT_CREATED =
       "che.jdt.ls.extension.workspace.projectCreated";
+
+  // USAGES streaming
+  public static final String USAGES_PARTIAL_RESULT = "che.jdt.ls.extension.usages.partialResult";
+
+  // TESTS streaming
+  public static final String TESTS_PARTIAL_RESULT = "che.jdt.ls.extension.tests.partialResult";
 }
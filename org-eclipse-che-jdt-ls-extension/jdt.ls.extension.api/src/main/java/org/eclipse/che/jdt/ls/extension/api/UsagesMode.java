@@ -0,0 +1,22 @@
+/*
+ * Copyright (c) 2012-2018 Red Hat, Inc.
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *   Red Hat, Inc. - initial API and implementation
+ */
+package org.eclipse.che.jdt.ls.extension.api;
+
+/** Describes how the references found by the usages command are returned. */
+public enum UsagesMode {
+  // All the references, in a tree of packages, files, types and members
+  FULL,
+  // Number of references in every package and file only
+  COUNT,
+  // A page of references, continued by the continuation token of the response
+  PAGE
+}
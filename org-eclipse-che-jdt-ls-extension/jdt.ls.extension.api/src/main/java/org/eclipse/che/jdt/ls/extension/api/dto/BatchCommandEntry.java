@@ -0,0 +1,48 @@
+/*
+ * Copyright (c) 2012-2018 Red Hat, Inc.
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *   Red Hat, Inc. - initial API and implementation
+ */
+package org.eclipse.che.jdt.ls.extension.api.dto;
+
+import java.util.Collections;
+import java.util.List;
+
+/** Describes a single command of a batch request. */
+public class BatchCommandEntry {
+  private String commandId;
+  private List<Object> arguments;
+
+  public BatchCommandEntry() {
+    this.arguments = Collections.emptyList();
+  }
+
+  public BatchCommandEntry(String commandId, List<Object> arguments) {
+    this.commandId = commandId;
+    this.arguments = arguments;
+  }
+
+  /** Returns the id of the command to execute. */
+  public String getCommandId() {
+    return commandId;
+  }
+
+  public void setCommandId(String commandId) {
+    this.commandId = commandId;
+  }
+
+  /** Returns the arguments the command is executed with. */
+  public List<Object> getArguments() {
+    return arguments;
+  }
+
+  public void setArguments(List<Object> arguments) {
+    this.arguments = arguments;
+  }
+}
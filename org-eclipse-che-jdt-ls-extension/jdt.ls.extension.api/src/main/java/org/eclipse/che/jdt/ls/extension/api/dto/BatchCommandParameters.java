@@ -0,0 +1,36 @@
+/*
+ * Copyright (c) 2012-2018 Red Hat, Inc.
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *   Red Hat, Inc. - initial API and implementation
+ */
+package org.eclipse.che.jdt.ls.extension.api.dto;
+
+import java.util.Collections;
+import java.util.List;
+
+/** Parameters of the batch command: the commands to execute in the given order. */
+public class BatchCommandParameters {
+  private List<BatchCommandEntry> commands;
+
+  public BatchCommandParameters() {
+    this.commands = Collections.emptyList();
+  }
+
+  public BatchCommandParameters(List<BatchCommandEntry> commands) {
+    this.commands = commands;
+  }
+
+  public List<BatchCommandEntry> getCommands() {
+    return commands;
+  }
+
+  public void setCommands(List<BatchCommandEntry> commands) {
+    this.commands = commands;
+  }
+}
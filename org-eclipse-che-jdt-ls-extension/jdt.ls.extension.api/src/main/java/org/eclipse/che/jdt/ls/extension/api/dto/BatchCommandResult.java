@@ -0,0 +1,54 @@
+/*
+ * Copyright (c) 2012-2018 Red Hat, Inc.
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *   Red Hat, Inc. - initial API and implementation
+ */
+package org.eclipse.che.jdt.ls.extension.api.dto;
+
+/** Result of a single command of a batch request. */
+public class BatchCommandResult {
+  private String commandId;
+  private Object result;
+  private String error;
+
+  public BatchCommandResult() {}
+
+  public BatchCommandResult(String commandId, Object result, String error) {
+    this.commandId = commandId;
+    this.result = result;
+    this.error = error;
+  }
+
+  /** Returns the id of the executed command. */
+  public String getCommandId() {
+    return commandId;
+  }
+
+  public void setCommandId(String commandId) {
+    this.commandId = commandId;
+  }
+
+  /** Returns the result of the command, {@code null} if the command has failed. */
+  public Object getResult() {
+    return result;
+  }
+
+  public void setResult(Object result) {
+    this.result = result;
+  }
+
+  /** Returns the error message if the command has failed, otherwise {@code null}. */
+  public String getError() {
+    return error;
+  }
+
+  public void setError(String error) {
+    this.error = error;
+  }
+}
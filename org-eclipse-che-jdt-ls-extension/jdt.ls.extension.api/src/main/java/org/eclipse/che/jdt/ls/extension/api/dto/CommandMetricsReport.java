@@ -0,0 +1,155 @@
+/*
+ * Copyright (c) 2012-2018 Red Hat, Inc.
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *   Red Hat, Inc. - initial API and implementation
+ */
+package org.eclipse.che.jdt.ls.extension.api.dto;
+
+/** Execution statistics collected for a single extension command. */
+public class CommandMetricsReport {
+  private String commandId;
+  private long calls;
+  private long cancellations;
+  private long failures;
+  private long rejections;
+  private double p50Millis;
+  private double p95Millis;
+  private double p99Millis;
+  private double maxMillis;
+  private long allocatedBytes;
+  private long cacheHits;
+  private long cacheMisses;
+  private long coalesced;
+
+  /** Returns the id of the measured command. */
+  public String getCommandId() {
+    return commandId;
+  }
+
+  public void setCommandId(String commandId) {
+    this.commandId = commandId;
+  }
+
+  /** Returns the number of finished executions, including cancelled and failed ones. */
+  public long getCalls() {
+    return calls;
+  }
+
+  public void setCalls(long calls) {
+    this.calls = calls;
+  }
+
+  /** Returns the number of executions which were cancelled through the progress monitor. */
+  public long getCancellations() {
+    return cancellations;
+  }
+
+  public void setCancellations(long cancellations) {
+    this.cancellations = cancellations;
+  }
+
+  /**
+   * Returns the number of executions which ended with an exception, except cancellations and
+   * rejections.
+   */
+  public long getFailures() {
+    return failures;
+  }
+
+  public void setFailures(long failures) {
+    this.failures = failures;
+  }
+
+  /** Returns the number of executions rejected because of too many concurrent commands. */
+  public long getRejections() {
+    return rejections;
+  }
+
+  public void setRejections(long rejections) {
+    this.rejections = rejections;
+  }
+
+  /** Returns the median latency in milliseconds. */
+  public double getP50Millis() {
+    return p50Millis;
+  }
+
+  public void setP50Millis(double p50Millis) {
+    this.p50Millis = p50Millis;
+  }
+
+  /** Returns the 95th percentile of latency in milliseconds. */
+  public double getP95Millis() {
+    return p95Millis;
+  }
+
+  public void setP95Millis(double p95Millis) {
+    this.p95Millis = p95Millis;
+  }
+
+  /** Returns the 99th percentile of latency in milliseconds. */
+  public double getP99Millis() {
+    return p99Millis;
+  }
+
+  public void setP99Millis(double p99Millis) {
+    this.p99Millis = p99Millis;
+  }
+
+  /** Returns the longest observed latency in milliseconds. */
+  public double getMaxMillis() {
+    return maxMillis;
+  }
+
+  public void setMaxMillis(double maxMillis) {
+    this.maxMillis = maxMillis;
+  }
+
+  /**
+   * Returns the total amount of bytes allocated by the executing threads, or -1 if the JVM does
+   * not support allocation measurement.
+   */
+  public long getAllocatedBytes() {
+    return allocatedBytes;
+  }
+
+  public void setAllocatedBytes(long allocatedBytes) {
+    this.allocatedBytes = allocatedBytes;
+  }
+
+  /** Returns the number of executions answered from the result cache. */
+  public long getCacheHits() {
+    return cacheHits;
+  }
+
+  public void setCacheHits(long cacheHits) {
+    this.cacheHits = cacheHits;
+  }
+
+  /** Returns the number of executions of a cacheable command which had to be computed. */
+  public long getCacheMisses() {
+    return cacheMisses;
+  }
+
+  public void setCacheMisses(long cacheMisses) {
+    this.cacheMisses = cacheMisses;
+  }
+
+  /**
+   * Returns the number of requests which were answered by an identical concurrent execution. Such
+   * requests are not counted in {@link #getCalls()}.
+   */
+  public long getCoalesced() {
+    return coalesced;
+  }
+
+  public void setCoalesced(long coalesced) {
+    this.coalesced = coalesced;
+  }
+}
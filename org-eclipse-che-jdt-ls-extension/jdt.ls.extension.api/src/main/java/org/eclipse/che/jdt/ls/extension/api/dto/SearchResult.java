@@ -20,6 +20,8 @@ public class SearchResult {
   private String uri;
   private List<SearchResult> children;
   private List<LinearRange> matches;
+  private Integer matchCount;
+  private String handle;
 
   public SymbolKind getKind() {
     return kind;
@@ -60,4 +62,28 @@ public class SearchResult {
   public void setMatches(List<LinearRange> matches) {
     this.matches = matches;
   }
+
+  /**
+   * Returns the number of references in the node and its children if only the references have
+   * been counted, {@code null} otherwise.
+   */
+  public Integer getMatchCount() {
+    return matchCount;
+  }
+
+  public void setMatchCount(Integer matchCount) {
+    this.matchCount = matchCount;
+  }
+
+  /**
+   * Returns the handle identifier of the element if its label has not been computed, {@code null}
+   * otherwise.
+   */
+  public String getHandle() {
+    return handle;
+  }
+
+  public void setHandle(String handle) {
+    this.handle = handle;
+  }
 }
@@ -20,6 +20,7 @@ public class TestFindParameters {
   private String testClassAnnotation;
   private List<String> entryClasses;
   private int cursorOffset;
+  private List<TestFramework> frameworks;
 
   public TestFindParameters() {}
 
@@ -75,4 +76,16 @@ public class TestFindParameters {
   public void setEntryClasses(List<String> entryClasses) {
     this.entryClasses = entryClasses;
   }
+
+  /**
+   * @return frameworks detected in one pass, the annotations of the parameters are ignored if they
+   *     are set
+   */
+  public List<TestFramework> getFrameworks() {
+    return frameworks;
+  }
+
+  public void setFrameworks(List<TestFramework> frameworks) {
+    this.frameworks = frameworks;
+  }
 }
@@ -0,0 +1,37 @@
+/*
+ * Copyright (c) 2012-2018 Red Hat, Inc.
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *   Red Hat, Inc. - initial API and implementation
+ */
+package org.eclipse.che.jdt.ls.extension.api.dto;
+
+/**
+ * Parameters of the streaming test discovery command. The source URI is the one of a project,
+ * source folder or package. The request id is chosen by the client and is sent back with every
+ * partial result, so results of concurrent discoveries can be told apart.
+ */
+public class TestFindStreamParameters extends TestFindParameters {
+  private String requestId;
+
+  public TestFindStreamParameters() {}
+
+  public TestFindStreamParameters(
+      String requestId, String sourceUri, String testMethodAnnotation, String testClassAnnotation) {
+    super(sourceUri, testMethodAnnotation, testClassAnnotation, -1, null);
+    this.requestId = requestId;
+  }
+
+  public String getRequestId() {
+    return requestId;
+  }
+
+  public void setRequestId(String requestId) {
+    this.requestId = requestId;
+  }
+}
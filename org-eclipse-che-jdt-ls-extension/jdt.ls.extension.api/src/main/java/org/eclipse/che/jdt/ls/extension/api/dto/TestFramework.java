@@ -0,0 +1,56 @@
+/*
+ * Copyright (c) 2012-2018 Red Hat, Inc.
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *   Red Hat, Inc. - initial API and implementation
+ */
+package org.eclipse.che.jdt.ls.extension.api.dto;
+
+/**
+ * Describes a test framework by the annotations of its tests, e.g. JUnit 4 by {@code
+ * org.junit.Test} and {@code org.junit.runner.RunWith}.
+ */
+public class TestFramework {
+  private String name;
+  private String testMethodAnnotation;
+  private String testClassAnnotation;
+
+  public TestFramework() {}
+
+  public TestFramework(String name, String testMethodAnnotation, String testClassAnnotation) {
+    this.name = name;
+    this.testMethodAnnotation = testMethodAnnotation;
+    this.testClassAnnotation = testClassAnnotation;
+  }
+
+  /** @return the name tests of the framework are tagged with */
+  public String getName() {
+    return name;
+  }
+
+  public void setName(String name) {
+    this.name = name;
+  }
+
+  public String getTestMethodAnnotation() {
+    return testMethodAnnotation;
+  }
+
+  public void setTestMethodAnnotation(String testMethodAnnotation) {
+    this.testMethodAnnotation = testMethodAnnotation;
+  }
+
+  /** @return the annotation of test classes, may be {@code null} */
+  public String getTestClassAnnotation() {
+    return testClassAnnotation;
+  }
+
+  public void setTestClassAnnotation(String testClassAnnotation) {
+    this.testClassAnnotation = testClassAnnotation;
+  }
+}
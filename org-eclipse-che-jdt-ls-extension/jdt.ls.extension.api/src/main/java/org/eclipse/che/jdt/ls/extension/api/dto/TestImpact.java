@@ -0,0 +1,45 @@
+/*
+ * Copyright (c) 2012-2018 Red Hat, Inc.
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *   Red Hat, Inc. - initial API and implementation
+ */
+package org.eclipse.che.jdt.ls.extension.api.dto;
+
+import java.util.List;
+
+/** A test class affected by a change, with the affected test methods if not all of them are. */
+public class TestImpact {
+  private String testClass;
+  private List<String> testMethods;
+
+  public TestImpact() {}
+
+  public TestImpact(String testClass, List<String> testMethods) {
+    this.testClass = testClass;
+    this.testMethods = testMethods;
+  }
+
+  /** @return fully qualified name of the test class */
+  public String getTestClass() {
+    return testClass;
+  }
+
+  public void setTestClass(String testClass) {
+    this.testClass = testClass;
+  }
+
+  /** @return names of the affected test methods, {@code null} if the whole class is affected */
+  public List<String> getTestMethods() {
+    return testMethods;
+  }
+
+  public void setTestMethods(List<String> testMethods) {
+    this.testMethods = testMethods;
+  }
+}
@@ -0,0 +1,55 @@
+/*
+ * Copyright (c) 2012-2018 Red Hat, Inc.
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *   Red Hat, Inc. - initial API and implementation
+ */
+package org.eclipse.che.jdt.ls.extension.api.dto;
+
+import java.util.List;
+
+/** Parameters of the test impact command: the changed files and the test framework. */
+public class TestImpactParameters {
+  private List<String> changedFiles;
+  private String testMethodAnnotation;
+  private String testClassAnnotation;
+
+  public TestImpactParameters() {}
+
+  public TestImpactParameters(
+      List<String> changedFiles, String testMethodAnnotation, String testClassAnnotation) {
+    this.changedFiles = changedFiles;
+    this.testMethodAnnotation = testMethodAnnotation;
+    this.testClassAnnotation = testClassAnnotation;
+  }
+
+  /** @return URIs of the changed, added or removed Java files */
+  public List<String> getChangedFiles() {
+    return changedFiles;
+  }
+
+  public void setChangedFiles(List<String> changedFiles) {
+    this.changedFiles = changedFiles;
+  }
+
+  public String getTestMethodAnnotation() {
+    return testMethodAnnotation;
+  }
+
+  public void setTestMethodAnnotation(String testMethodAnnotation) {
+    this.testMethodAnnotation = testMethodAnnotation;
+  }
+
+  public String getTestClassAnnotation() {
+    return testClassAnnotation;
+  }
+
+  public void setTestClassAnnotation(String testClassAnnotation) {
+    this.testClassAnnotation = testClassAnnotation;
+  }
+}
@@ -17,6 +17,7 @@ public class TestPosition {
   private int testNameStartOffset;
   private int testBodyLength;
   private int testNameLength;
+  private String framework;
 
   /** @return the test name(it can be method, suite, or class name) */
   public String getTestName() {
@@ -53,4 +54,13 @@ public class TestPosition {
   public void setTestNameLength(int testNameLength) {
     this.testNameLength = testNameLength;
   }
+
+  /** @return the name of the test framework, set only if several frameworks were detected */
+  public String getFramework() {
+    return framework;
+  }
+
+  public void setFramework(String framework) {
+    this.framework = framework;
+  }
 }
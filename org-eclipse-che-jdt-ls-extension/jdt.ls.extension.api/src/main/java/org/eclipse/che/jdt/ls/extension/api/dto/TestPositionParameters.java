@@ -11,11 +11,14 @@
  */
 package org.eclipse.che.jdt.ls.extension.api.dto;
 
+import java.util.List;
+
 /** Parameter class for TestDetectionHandler. */
 public class TestPositionParameters {
   private String fileUri;
   private String testAnnotation;
   private int cursorOffset;
+  private List<TestFramework> frameworks;
 
   public TestPositionParameters() {}
 
@@ -48,4 +51,16 @@ public class TestPositionParameters {
   public void setCursorOffset(int cursorOffset) {
     this.cursorOffset = cursorOffset;
   }
+
+  /**
+   * @return frameworks detected in one pass, the annotations of the parameters are ignored if they
+   *     are set
+   */
+  public List<TestFramework> getFrameworks() {
+    return frameworks;
+  }
+
+  public void setFrameworks(List<TestFramework> frameworks) {
+    this.frameworks = frameworks;
+  }
 }
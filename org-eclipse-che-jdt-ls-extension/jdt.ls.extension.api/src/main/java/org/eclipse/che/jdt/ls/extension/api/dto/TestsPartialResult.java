@@ -0,0 +1,44 @@
+/*
+ * Copyright (c) 2012-2018 Red Hat, Inc.
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *   Red Hat, Inc. - initial API and implementation
+ */
+package org.eclipse.che.jdt.ls.extension.api.dto;
+
+import java.util.List;
+
+/** Test classes found by a part of a streaming test discovery. */
+public class TestsPartialResult {
+  private String requestId;
+  private List<String> testClasses;
+
+  public TestsPartialResult() {}
+
+  public TestsPartialResult(String requestId, List<String> testClasses) {
+    this.requestId = requestId;
+    this.testClasses = testClasses;
+  }
+
+  public String getRequestId() {
+    return requestId;
+  }
+
+  public void setRequestId(String requestId) {
+    this.requestId = requestId;
+  }
+
+  /** @return fully qualified names of the test classes */
+  public List<String> getTestClasses() {
+    return testClasses;
+  }
+
+  public void setTestClasses(List<String> testClasses) {
+    this.testClasses = testClasses;
+  }
+}
@@ -0,0 +1,45 @@
+/*
+ * Copyright (c) 2012-2018 Red Hat, Inc.
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *   Red Hat, Inc. - initial API and implementation
+ */
+package org.eclipse.che.jdt.ls.extension.api.dto;
+
+/**
+ * Result of the streaming test discovery command, returned once all the partial results have been
+ * sent.
+ */
+public class TestsSummary {
+  private String requestId;
+  private int testClassCount;
+
+  public TestsSummary() {}
+
+  public TestsSummary(String requestId, int testClassCount) {
+    this.requestId = requestId;
+    this.testClassCount = testClassCount;
+  }
+
+  public String getRequestId() {
+    return requestId;
+  }
+
+  public void setRequestId(String requestId) {
+    this.requestId = requestId;
+  }
+
+  /** Returns the number of test classes sent, every class is sent once. */
+  public int getTestClassCount() {
+    return testClassCount;
+  }
+
+  public void setTestClassCount(int testClassCount) {
+    this.testClassCount = testClassCount;
+  }
+}
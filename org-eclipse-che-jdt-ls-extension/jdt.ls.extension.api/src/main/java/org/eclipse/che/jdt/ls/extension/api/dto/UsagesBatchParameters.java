@@ -0,0 +1,58 @@
+/*
+ * Copyright (c) 2012-2018 Red Hat, Inc.
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *   Red Hat, Inc. - initial API and implementation
+ */
+package org.eclipse.che.jdt.ls.extension.api.dto;
+
+import java.util.ArrayList;
+import java.util.List;
+import org.eclipse.lsp4j.TextDocumentPositionParams;
+
+/**
+ * Parameters of the batch usages command. The searched elements are given by positions in
+ * documents, by handle identifiers or both, the response has one entry for each of them in the
+ * same order, positions first.
+ */
+public class UsagesBatchParameters {
+  private List<TextDocumentPositionParams> positions = new ArrayList<>();
+  private List<String> handles = new ArrayList<>();
+  private boolean deferLabels;
+
+  public UsagesBatchParameters() {}
+
+  public UsagesBatchParameters(List<TextDocumentPositionParams> positions, List<String> handles) {
+    this.positions = positions;
+    this.handles = handles;
+  }
+
+  public List<TextDocumentPositionParams> getPositions() {
+    return positions;
+  }
+
+  public void setPositions(List<TextDocumentPositionParams> positions) {
+    this.positions = positions;
+  }
+
+  public List<String> getHandles() {
+    return handles;
+  }
+
+  public void setHandles(List<String> handles) {
+    this.handles = handles;
+  }
+
+  public boolean isDeferLabels() {
+    return deferLabels;
+  }
+
+  public void setDeferLabels(boolean deferLabels) {
+    this.deferLabels = deferLabels;
+  }
+}
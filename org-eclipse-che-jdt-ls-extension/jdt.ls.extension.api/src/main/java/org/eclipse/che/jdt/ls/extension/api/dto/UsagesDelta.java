@@ -0,0 +1,96 @@
+/*
+ * Copyright (c) 2012-2018 Red Hat, Inc.
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *   Red Hat, Inc. - initial API and implementation
+ */
+package org.eclipse.che.jdt.ls.extension.api.dto;
+
+import java.util.List;
+import org.eclipse.lsp4j.SymbolKind;
+
+/**
+ * Result of the usages refresh command: the references added and removed since the previous
+ * result for the same element. If the server has no previous result anymore, {@code reset} is set
+ * and {@code added} holds all the references, which replace the ones known by the client.
+ */
+public class UsagesDelta {
+  private String searchedElement;
+  private SymbolKind elementKind;
+  private boolean reset;
+  private List<SearchResult> added;
+  private List<SearchResult> removed;
+  private int matchCount;
+
+  public UsagesDelta() {}
+
+  public UsagesDelta(
+      String searchedElement,
+      SymbolKind elementKind,
+      List<SearchResult> added,
+      List<SearchResult> removed) {
+    this.searchedElement = searchedElement;
+    this.elementKind = elementKind;
+    this.added = added;
+    this.removed = removed;
+  }
+
+  public String getSearchedElement() {
+    return searchedElement;
+  }
+
+  public void setSearchedElement(String searchedElement) {
+    this.searchedElement = searchedElement;
+  }
+
+  public SymbolKind getElementKind() {
+    return elementKind;
+  }
+
+  public void setElementKind(SymbolKind elementKind) {
+    this.elementKind = elementKind;
+  }
+
+  public boolean isReset() {
+    return reset;
+  }
+
+  public void setReset(boolean reset) {
+    this.reset = reset;
+  }
+
+  /** Returns package nodes of the added references, like {@link UsagesResponse}. */
+  public List<SearchResult> getAdded() {
+    return added;
+  }
+
+  public void setAdded(List<SearchResult> added) {
+    this.added = added;
+  }
+
+  /**
+   * Returns a file node for every compilation unit with removed references. The elements which
+   * contained them may not exist anymore, so there are no member nodes.
+   */
+  public List<SearchResult> getRemoved() {
+    return removed;
+  }
+
+  public void setRemoved(List<SearchResult> removed) {
+    this.removed = removed;
+  }
+
+  /** Returns the number of all the references after the refresh. */
+  public int getMatchCount() {
+    return matchCount;
+  }
+
+  public void setMatchCount(int matchCount) {
+    this.matchCount = matchCount;
+  }
+}
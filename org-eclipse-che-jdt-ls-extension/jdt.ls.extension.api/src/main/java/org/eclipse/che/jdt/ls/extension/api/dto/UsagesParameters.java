@@ -0,0 +1,85 @@
+/*
+ * Copyright (c) 2012-2018 Red Hat, Inc.
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *   Red Hat, Inc. - initial API and implementation
+ */
+package org.eclipse.che.jdt.ls.extension.api.dto;
+
+import org.eclipse.che.jdt.ls.extension.api.UsagesMode;
+import org.eclipse.lsp4j.Position;
+import org.eclipse.lsp4j.TextDocumentIdentifier;
+import org.eclipse.lsp4j.TextDocumentPositionParams;
+
+/**
+ * Parameters of the usages command. Without a mode all the references are returned, so plain
+ * {@link TextDocumentPositionParams} are accepted as well. A continuation token replaces the
+ * position when the next page of a search is requested.
+ */
+public class UsagesParameters extends TextDocumentPositionParams {
+  private UsagesMode mode;
+  private int pageSize;
+  private String continuationToken;
+  private boolean deferLabels;
+  private boolean parallel;
+
+  public UsagesParameters() {}
+
+  public UsagesParameters(
+      TextDocumentIdentifier textDocument, Position position, UsagesMode mode, int pageSize) {
+    super(textDocument, position);
+    this.mode = mode;
+    this.pageSize = pageSize;
+  }
+
+  public UsagesMode getMode() {
+    return mode;
+  }
+
+  public void setMode(UsagesMode mode) {
+    this.mode = mode;
+  }
+
+  /** Returns the maximum number of references in a page, a default is used if not positive. */
+  public int getPageSize() {
+    return pageSize;
+  }
+
+  public void setPageSize(int pageSize) {
+    this.pageSize = pageSize;
+  }
+
+  public String getContinuationToken() {
+    return continuationToken;
+  }
+
+  public void setContinuationToken(String continuationToken) {
+    this.continuationToken = continuationToken;
+  }
+
+  /**
+   * Returns whether labels of types and members are left out of the result. Their nodes carry
+   * handles instead, which are resolved by {@code che.jdt.ls.extension.usages.resolve}.
+   */
+  public boolean isDeferLabels() {
+    return deferLabels;
+  }
+
+  public void setDeferLabels(boolean deferLabels) {
+    this.deferLabels = deferLabels;
+  }
+
+  /** Returns whether the workspace is searched by several threads at once. */
+  public boolean isParallel() {
+    return parallel;
+  }
+
+  public void setParallel(boolean parallel) {
+    this.parallel = parallel;
+  }
+}
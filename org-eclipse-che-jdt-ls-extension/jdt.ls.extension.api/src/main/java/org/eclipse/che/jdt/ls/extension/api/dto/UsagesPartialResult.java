@@ -0,0 +1,43 @@
+/*
+ * Copyright (c) 2012-2018 Red Hat, Inc.
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *   Red Hat, Inc. - initial API and implementation
+ */
+package org.eclipse.che.jdt.ls.extension.api.dto;
+
+import java.util.List;
+
+/** Package nodes of a streamed usages search, sent as soon as the package has been searched. */
+public class UsagesPartialResult {
+  private String requestId;
+  private List<SearchResult> searchResults;
+
+  public UsagesPartialResult() {}
+
+  public UsagesPartialResult(String requestId, List<SearchResult> searchResults) {
+    this.requestId = requestId;
+    this.searchResults = searchResults;
+  }
+
+  public String getRequestId() {
+    return requestId;
+  }
+
+  public void setRequestId(String requestId) {
+    this.requestId = requestId;
+  }
+
+  public List<SearchResult> getSearchResults() {
+    return searchResults;
+  }
+
+  public void setSearchResults(List<SearchResult> searchResults) {
+    this.searchResults = searchResults;
+  }
+}
@@ -18,6 +18,8 @@ public class UsagesResponse {
   private String searchedElement;
   private SymbolKind elementKind;
   private List<SearchResult> searchResults;
+  private int matchCount;
+  private String continuationToken;
 
   public UsagesResponse() {}
 
@@ -51,4 +53,22 @@ public class UsagesResponse {
   public void setSearchResults(List<SearchResult> searchResults) {
     this.searchResults = searchResults;
   }
+
+  /** Returns the number of all the references, including the ones not in this response. */
+  public int getMatchCount() {
+    return matchCount;
+  }
+
+  public void setMatchCount(int matchCount) {
+    this.matchCount = matchCount;
+  }
+
+  /** Returns the token to request the next page with, or {@code null} on the last page. */
+  public String getContinuationToken() {
+    return continuationToken;
+  }
+
+  public void setContinuationToken(String continuationToken) {
+    this.continuationToken = continuationToken;
+  }
 }
@@ -0,0 +1,40 @@
+/*
+ * Copyright (c) 2012-2018 Red Hat, Inc.
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *   Red Hat, Inc. - initial API and implementation
+ */
+package org.eclipse.che.jdt.ls.extension.api.dto;
+
+import org.eclipse.lsp4j.Position;
+import org.eclipse.lsp4j.TextDocumentIdentifier;
+import org.eclipse.lsp4j.TextDocumentPositionParams;
+
+/**
+ * Parameters of the streaming usages command. The request id is chosen by the client and is sent
+ * back with every partial result, so results of concurrent searches can be told apart.
+ */
+public class UsagesStreamParameters extends TextDocumentPositionParams {
+  private String requestId;
+
+  public UsagesStreamParameters() {}
+
+  public UsagesStreamParameters(
+      String requestId, TextDocumentIdentifier textDocument, Position position) {
+    super(textDocument, position);
+    this.requestId = requestId;
+  }
+
+  public String getRequestId() {
+    return requestId;
+  }
+
+  public void setRequestId(String requestId) {
+    this.requestId = requestId;
+  }
+}
@@ -0,0 +1,81 @@
+/*
+ * Copyright (c) 2012-2018 Red Hat, Inc.
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *   Red Hat, Inc. - initial API and implementation
+ */
+package org.eclipse.che.jdt.ls.extension.api.dto;
+
+import org.eclipse.lsp4j.SymbolKind;
+
+/**
+ * Result of the streaming usages command, returned once all the partial results have been sent.
+ */
+public class UsagesSummary {
+  private String requestId;
+  private String searchedElement;
+  private SymbolKind elementKind;
+  private int packageCount;
+  private int matchCount;
+
+  public UsagesSummary() {}
+
+  public UsagesSummary(
+      String requestId,
+      String searchedElement,
+      SymbolKind elementKind,
+      int packageCount,
+      int matchCount) {
+    this.requestId = requestId;
+    this.searchedElement = searchedElement;
+    this.elementKind = elementKind;
+    this.packageCount = packageCount;
+    this.matchCount = matchCount;
+  }
+
+  public String getRequestId() {
+    return requestId;
+  }
+
+  public void setRequestId(String requestId) {
+    this.requestId = requestId;
+  }
+
+  public String getSearchedElement() {
+    return searchedElement;
+  }
+
+  public void setSearchedElement(String searchedElement) {
+    this.searchedElement = searchedElement;
+  }
+
+  public SymbolKind getElementKind() {
+    return elementKind;
+  }
+
+  public void setElementKind(SymbolKind elementKind) {
+    this.elementKind = elementKind;
+  }
+
+  /** Returns the number of package nodes sent, a package may have been sent more than once. */
+  public int getPackageCount() {
+    return packageCount;
+  }
+
+  public void setPackageCount(int packageCount) {
+    this.packageCount = packageCount;
+  }
+
+  public int getMatchCount() {
+    return matchCount;
+  }
+
+  public void setMatchCount(int matchCount) {
+    this.matchCount = matchCount;
+  }
+}
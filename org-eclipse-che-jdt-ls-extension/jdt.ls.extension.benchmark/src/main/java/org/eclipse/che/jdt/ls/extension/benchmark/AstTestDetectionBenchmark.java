@@ -0,0 +1,125 @@
+/*
+ * Copyright (c) 2012-2018 Red Hat, Inc.
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *   Red Hat, Inc. - initial API and implementation
+ */
+package org.eclipse.che.jdt.ls.extension.benchmark;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static java.util.Collections.singletonList;
+import static org.eclipse.che.jdt.ls.extension.benchmark.BenchmarkWorkspace.TEST_PROJECT;
+
+import java.io.ByteArrayInputStream;
+import java.util.List;
+import org.eclipse.che.jdt.ls.extension.api.dto.TestFramework;
+import org.eclipse.che.jdt.ls.extension.api.dto.TestPosition;
+import org.eclipse.che.jdt.ls.extension.core.internal.testdetection.AstTestDetector;
+import org.eclipse.che.jdt.ls.extension.core.internal.testdetection.TestIndex;
+import org.eclipse.core.resources.IFile;
+import org.eclipse.core.runtime.NullProgressMonitor;
+import org.eclipse.jdt.core.IBuffer;
+import org.eclipse.jdt.core.ICompilationUnit;
+import org.eclipse.jdt.core.JavaCore;
+import org.eclipse.jdt.core.manipulation.CoreASTProvider;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+/**
+ * Compares detection of the tests of a file open in an editor in the shared AST by {@link
+ * AstTestDetector} with the model based detection of the {@link TestIndex}. The file has {@link
+ * #testMethods} test methods. Every invocation changes the working copy and reconciles it first,
+ * like typing in the editor does, so the AST is parsed again and the unit is read again.
+ */
+@State(Scope.Benchmark)
+public class AstTestDetectionBenchmark {
+  private static final String TEST_METHOD_ANNOTATION = "org.junit.Test";
+  private static final String PACKAGE = "org.eclipse.che.examples";
+
+  @Param({"100", "500"})
+  public int testMethods;
+
+  private IFile file;
+  private ICompilationUnit unit;
+  private List<TestFramework> frameworks;
+  private int edits;
+
+  @Setup(Level.Trial)
+  public void setup(BenchmarkWorkspace workspace) throws Exception {
+    String name = "ManyTests" + testMethods;
+    String path = "src/test/java/" + PACKAGE.replace('.', '/') + "/" + name + ".java";
+    file = workspace.getProject(TEST_PROJECT).getFile(path);
+    if (!file.exists()) {
+      file.create(
+          new ByteArrayInputStream(source(name).getBytes(UTF_8)), true, new NullProgressMonitor());
+    }
+    unit = JavaCore.createCompilationUnitFrom(file);
+    // the language server opens a working copy for an editor and shares the AST of the active one
+    unit.becomeWorkingCopy(new NullProgressMonitor());
+    CoreASTProvider.getInstance().setActiveJavaElement(unit);
+    frameworks = singletonList(new TestFramework(null, TEST_METHOD_ANNOTATION, null));
+  }
+
+  @TearDown(Level.Trial)
+  public void tearDown() throws Exception {
+    CoreASTProvider.getInstance().setActiveJavaElement(null);
+    unit.discardWorkingCopy();
+    // leaves the fixture of the other benchmarks as it was
+    file.delete(true, new NullProgressMonitor());
+  }
+
+  @Benchmark
+  public List<TestPosition> ast() throws Exception {
+    edit();
+    // the shared AST is created again on request, as after a reconcile in the language server
+    CoreASTProvider.getInstance().disposeAST();
+    return AstTestDetector.detect(unit, frameworks, -1, new NullProgressMonitor());
+  }
+
+  @Benchmark
+  public List<TestPosition> model() throws Exception {
+    edit();
+    // the unit is read again, as after the reconcile delta in the language server
+    TestIndex.getInstance().clear();
+    return TestIndex.getInstance()
+        .get(unit, new NullProgressMonitor())
+        .getTests(TEST_METHOD_ANNOTATION);
+  }
+
+  /** Changes the trailing comment of the working copy and reconciles it. */
+  private void edit() throws Exception {
+    IBuffer buffer = unit.getBuffer();
+    buffer.replace(buffer.getLength() - 2, 1, String.valueOf(edits++ % 10));
+    unit.reconcile(ICompilationUnit.NO_AST, false, null, new NullProgressMonitor());
+  }
+
+  private String source(String name) {
+    StringBuilder source = new StringBuilder();
+    source.append("package ").append(PACKAGE).append(";\n\n");
+    source.append("import static org.junit.Assert.assertTrue;\n\n");
+    source.append("import org.junit.Test;\n\n");
+    source.append("public class ").append(name).append(" {\n");
+    for (int i = 0; i < testMethods; i++) {
+      source.append("\n  @Test\n");
+      source.append("  public void test").append(i).append("() {\n");
+      source.append("    assertTrue(").append(i).append(" >= 0);\n");
+      source.append("  }\n");
+      if (i % 10 == 0) {
+        source.append("\n  public void helper").append(i).append("() {}\n");
+      }
+    }
+    source.append("}\n");
+    source.append("// 0\n");
+    return source.toString();
+  }
+}
@@ -0,0 +1,78 @@
+/*
+ * Copyright (c) 2012-2018 Red Hat, Inc.
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *   Red Hat, Inc. - initial API and implementation
+ */
+package org.eclipse.che.jdt.ls.extension.benchmark;
+
+import static org.junit.Assert.assertFalse;
+
+import java.util.Collection;
+import java.util.concurrent.TimeUnit;
+import org.junit.Test;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.results.RunResult;
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.openjdk.jmh.runner.options.TimeValue;
+
+/**
+ * Runs the benchmarks inside the OSGi test runtime started by Tycho. JMH can not fork a JVM with
+ * the workspace and the language server bundles, so benchmarks run in the test JVM and share one
+ * workspace per trial.
+ *
+ * <p>The run is configured by system properties:
+ *
+ * <ul>
+ *   <li>{@code jmh.include} - regular expression selecting the benchmarks, all by default
+ *   <li>{@code jmh.result} - file the JSON results are written to
+ *   <li>{@code jmh.workspace.sizes} - comma separated sizes of the generated project in classes
+ *   <li>{@code jmh.warmups} and {@code jmh.iterations} - number of warmup and measurement
+ *       iterations
+ * </ul>
+ */
+public class BenchmarkRunner {
+
+  @Test
+  public void runBenchmarks() throws Exception {
+    Options options =
+        new OptionsBuilder()
+            .include(BenchmarkRunner.class.getPackage().getName() + "\\.(" + include() + ")")
+            .forks(0)
+            .threads(1)
+            .mode(Mode.AverageTime)
+            .timeUnit(TimeUnit.MILLISECONDS)
+            .warmupIterations(Integer.getInteger("jmh.warmups", 3))
+            .warmupTime(TimeValue.seconds(2))
+            .measurementIterations(Integer.getInteger("jmh.iterations", 5))
+            .measurementTime(TimeValue.seconds(2))
+            .param("classes", System.getProperty("jmh.workspace.sizes", "1000").split(","))
+            .resultFormat(ResultFormatType.JSON)
+            .result(System.getProperty("jmh.result", "target/jmh-result.json"))
+            .shouldFailOnError(true)
+            .build();
+
+    Thread thread = Thread.currentThread();
+    ClassLoader contextClassLoader = thread.getContextClassLoader();
+    // the generated benchmark classes are loaded through the bundle class loader
+    thread.setContextClassLoader(BenchmarkRunner.class.getClassLoader());
+    try {
+      Collection<RunResult> results = new Runner(options).run();
+      assertFalse("No benchmark matches " + include(), results.isEmpty());
+    } finally {
+      thread.setContextClassLoader(contextClassLoader);
+    }
+  }
+
+  private static String include() {
+    return System.getProperty("jmh.include", ".*");
+  }
+}
@@ -0,0 +1,201 @@
+/*
+ * Copyright (c) 2012-2018 Red Hat, Inc.
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *   Red Hat, Inc. - initial API and implementation
+ */
+package org.eclipse.che.jdt.ls.extension.benchmark;
+
+import java.io.IOException;
+import java.nio.file.FileVisitResult;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.eclipse.che.jdt.ls.extension.generator.WorkspaceGenerator;
+import org.eclipse.core.resources.IProject;
+import org.eclipse.core.resources.IResource;
+import org.eclipse.core.resources.ResourcesPlugin;
+import org.eclipse.core.runtime.CoreException;
+import org.eclipse.core.runtime.IPath;
+import org.eclipse.core.runtime.NullProgressMonitor;
+import org.eclipse.core.runtime.jobs.Job;
+import org.eclipse.jdt.core.JavaCore;
+import org.eclipse.jdt.core.search.IJavaSearchConstants;
+import org.eclipse.jdt.core.search.SearchEngine;
+import org.eclipse.jdt.core.search.SearchPattern;
+import org.eclipse.jdt.core.search.TypeNameRequestor;
+import org.eclipse.jdt.ls.core.internal.JavaLanguageServerPlugin;
+import org.eclipse.jdt.ls.core.internal.ResourceUtils;
+import org.eclipse.jdt.ls.core.internal.managers.ProjectsManager;
+import org.eclipse.jdt.ls.core.internal.preferences.PreferenceManager;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+/**
+ * Workspace shared by the benchmarks of a trial. It contains the Maven fixtures of the test
+ * fragment and a project written by {@link WorkspaceGenerator} with {@link #classes} classes.
+ */
+@State(Scope.Benchmark)
+public class BenchmarkWorkspace {
+  public static final String TEST_PROJECT = "testproject";
+  public static final String USAGES_PROJECT = "usages";
+  public static final String DEBUG_PROJECT = "debugproject";
+  public static final String GENERATED_PROJECT = "generated";
+
+  static final int CLASSES_PER_PACKAGE = 50;
+
+  private static final Path FIXTURES =
+      Paths.get("..", "jdt.ls.extension.test", "projects", "maven");
+  private static final Path WORKING_DIRECTORY = Paths.get("target", "benchmarkProjects");
+  private static final long IDLE_TIMEOUT = TimeUnit.MINUTES.toMillis(10);
+
+  /** Number of classes in the generated project, overridden by the runner. */
+  @Param("1000")
+  public int classes;
+
+  @Setup(Level.Trial)
+  public void importProjects() throws Exception {
+    if (JavaLanguageServerPlugin.getPreferencesManager() == null) {
+      JavaLanguageServerPlugin.setPreferencesManager(new PreferenceManager());
+    }
+    deleteProjects();
+    Files.createDirectories(WORKING_DIRECTORY);
+    List<IPath> roots = new ArrayList<>();
+    for (String fixture : new String[] {TEST_PROJECT, USAGES_PROJECT, DEBUG_PROJECT}) {
+      Path target = WORKING_DIRECTORY.resolve(fixture);
+      copyDirectory(FIXTURES.resolve(fixture), target);
+      roots.add(org.eclipse.core.runtime.Path.fromOSString(target.toAbsolutePath().toString()));
+    }
+    Path generated =
+        new WorkspaceGenerator(GENERATED_PROJECT)
+            .packages(Math.max(1, classes / CLASSES_PER_PACKAGE))
+            .classesPerPackage(Math.min(classes, CLASSES_PER_PACKAGE))
+            .inheritanceDepth(CLASSES_PER_PACKAGE)
+            .generate(WORKING_DIRECTORY);
+    roots.add(org.eclipse.core.runtime.Path.fromOSString(generated.toAbsolutePath().toString()));
+
+    ProjectsManager projectsManager =
+        new ProjectsManager(JavaLanguageServerPlugin.getPreferencesManager());
+    JavaCore.run(monitor -> projectsManager.initializeProjects(roots, monitor), null, null);
+    waitUntilIdle();
+  }
+
+  @TearDown(Level.Trial)
+  public void deleteProjects() throws Exception {
+    for (IProject project : ResourcesPlugin.getWorkspace().getRoot().getProjects()) {
+      project.delete(true, true, new NullProgressMonitor());
+    }
+    if (Files.exists(WORKING_DIRECTORY)) {
+      deleteDirectory(WORKING_DIRECTORY);
+    }
+  }
+
+  /** Returns the project with the given name. */
+  public IProject getProject(String name) {
+    return ResourcesPlugin.getWorkspace().getRoot().getProject(name);
+  }
+
+  /** Returns the URI of the project as the client sends it. */
+  public String getProjectUri(String project) {
+    return ResourceUtils.fixURI(getProject(project).getRawLocationURI());
+  }
+
+  /** Returns the URI of a file of the project as the client sends it. */
+  public String getFileUri(String project, String path) {
+    return ResourceUtils.fixURI(getProject(project).getFile(path).getRawLocationURI());
+  }
+
+  /** Returns the path of a generated main class relative to the generated project. */
+  public static String generatedSource(int packageIndex, int classIndex) {
+    return "src/main/java/"
+        + WorkspaceGenerator.BASE_PACKAGE.replace('.', '/')
+        + packageIndex
+        + "/Class"
+        + classIndex
+        + ".java";
+  }
+
+  /** Returns the index of the last class of a generated package, the deepest one in hierarchy. */
+  public int getDeepestClassIndex() {
+    return Math.min(classes, CLASSES_PER_PACKAGE) - 1;
+  }
+
+  /** Waits for the import, build and indexing jobs. */
+  private static void waitUntilIdle() throws CoreException, InterruptedException {
+    long deadline = System.currentTimeMillis() + IDLE_TIMEOUT;
+    while (!Job.getJobManager().isIdle() && System.currentTimeMillis() < deadline) {
+      Thread.sleep(100);
+    }
+    ResourcesPlugin.getWorkspace()
+        .getRoot()
+        .refreshLocal(IResource.DEPTH_INFINITE, new NullProgressMonitor());
+    new SearchEngine()
+        .searchAllTypeNames(
+            null,
+            SearchPattern.R_EXACT_MATCH,
+            "!@$#!@".toCharArray(),
+            SearchPattern.R_PATTERN_MATCH | SearchPattern.R_CASE_SENSITIVE,
+            IJavaSearchConstants.CLASS,
+            SearchEngine.createWorkspaceScope(),
+            new TypeNameRequestor() {},
+            IJavaSearchConstants.WAIT_UNTIL_READY_TO_SEARCH,
+            null);
+  }
+
+  private static void copyDirectory(Path from, Path to) throws IOException {
+    Files.walkFileTree(
+        from,
+        new SimpleFileVisitor<Path>() {
+          @Override
+          public FileVisitResult preVisitDirectory(Path dir, BasicFileAttributes attrs)
+              throws IOException {
+            Files.createDirectories(to.resolve(from.relativize(dir).toString()));
+            return FileVisitResult.CONTINUE;
+          }
+
+          @Override
+          public FileVisitResult visitFile(Path file, BasicFileAttributes attrs)
+              throws IOException {
+            Files.copy(
+                file,
+                to.resolve(from.relativize(file).toString()),
+                StandardCopyOption.REPLACE_EXISTING);
+            return FileVisitResult.CONTINUE;
+          }
+        });
+  }
+
+  private static void deleteDirectory(Path directory) throws IOException {
+    Files.walkFileTree(
+        directory,
+        new SimpleFileVisitor<Path>() {
+          @Override
+          public FileVisitResult visitFile(Path file, BasicFileAttributes attrs)
+              throws IOException {
+            Files.delete(file);
+            return FileVisitResult.CONTINUE;
+          }
+
+          @Override
+          public FileVisitResult postVisitDirectory(Path dir, IOException e) throws IOException {
+            Files.delete(dir);
+            return FileVisitResult.CONTINUE;
+          }
+        });
+  }
+}
@@ -0,0 +1,48 @@
+/*
+ * Copyright (c) 2012-2018 Red Hat, Inc.
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *   Red Hat, Inc. - initial API and implementation
+ */
+package org.eclipse.che.jdt.ls.extension.benchmark;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import org.eclipse.che.jdt.ls.extension.api.dto.TestFindParameters;
+import org.eclipse.che.jdt.ls.extension.core.internal.CommandParameterBinder;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Measures {@link CommandParameterBinder} on an argument tree shaped as the language server
+ * receives it from the client. It does not need a workspace.
+ */
+@State(Scope.Benchmark)
+public class CommandParameterBinderBenchmark {
+  private final Map<String, Object> argument = new HashMap<>();
+
+  public CommandParameterBinderBenchmark() {
+    List<Object> entries = new ArrayList<>();
+    for (int i = 0; i < 20; i++) {
+      entries.add("file:///projects/app/src/test/java/org/example/Test" + i + ".java");
+    }
+    argument.put("sourceUri", "file:///projects/app/src/test/java/org/example/AppTest.java");
+    argument.put("testMethodAnnotation", "org.junit.Test");
+    argument.put("testClassAnnotation", "org.junit.runner.RunWith");
+    argument.put("cursorOffset", 700.0);
+    argument.put("entryClasses", entries);
+  }
+
+  @Benchmark
+  public TestFindParameters bind() {
+    return CommandParameterBinder.bind(argument, TestFindParameters.class);
+  }
+}
@@ -0,0 +1,69 @@
+/*
+ * Copyright (c) 2012-2018 Red Hat, Inc.
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *   Red Hat, Inc. - initial API and implementation
+ */
+package org.eclipse.che.jdt.ls.extension.benchmark;
+
+import static org.eclipse.che.jdt.ls.extension.benchmark.BenchmarkWorkspace.GENERATED_PROJECT;
+
+import java.util.ArrayList;
+import java.util.List;
+import org.eclipse.che.jdt.ls.extension.generator.WorkspaceGenerator;
+import org.eclipse.jdt.core.IJavaElement;
+import org.eclipse.jdt.core.IJavaProject;
+import org.eclipse.jdt.core.IType;
+import org.eclipse.jdt.core.ITypeHierarchy;
+import org.eclipse.jdt.core.JavaCore;
+import org.eclipse.jdt.core.JavaModelException;
+import org.eclipse.jdt.ls.core.internal.hover.JavaElementLabels;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Measures {@link JavaElementLabels}, which renders the names of all the elements returned by the
+ * usages and navigation commands. Labels are computed for the members of the subtypes of the
+ * generated root class.
+ */
+@State(Scope.Benchmark)
+public class ElementLabelBenchmark {
+  private final List<IJavaElement> elements = new ArrayList<>();
+
+  @Setup(Level.Trial)
+  public void setup(BenchmarkWorkspace workspace) throws JavaModelException {
+    IJavaProject project = JavaCore.create(workspace.getProject(GENERATED_PROJECT));
+    IType root = project.findType(WorkspaceGenerator.ROOT_CLASS);
+    ITypeHierarchy hierarchy = root.newTypeHierarchy(project, null);
+    elements.add(root);
+    for (IType type : hierarchy.getAllSubtypes(root)) {
+      elements.add(type);
+      for (IJavaElement member : type.getChildren()) {
+        elements.add(member);
+      }
+    }
+  }
+
+  @Benchmark
+  public void allDefault(Blackhole blackhole) {
+    for (IJavaElement element : elements) {
+      blackhole.consume(JavaElementLabels.getElementLabel(element, JavaElementLabels.ALL_DEFAULT));
+    }
+  }
+
+  @Benchmark
+  public void simple(Blackhole blackhole) {
+    for (IJavaElement element : elements) {
+      blackhole.consume(JavaElementLabels.getElementLabel(element, 0));
+    }
+  }
+}
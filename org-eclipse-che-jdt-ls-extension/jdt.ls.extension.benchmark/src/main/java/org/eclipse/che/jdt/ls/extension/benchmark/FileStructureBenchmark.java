@@ -0,0 +1,66 @@
+/*
+ * Copyright (c) 2012-2018 Red Hat, Inc.
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *   Red Hat, Inc. - initial API and implementation
+ */
+package org.eclipse.che.jdt.ls.extension.benchmark;
+
+import static java.util.Collections.singletonList;
+import static org.eclipse.che.jdt.ls.extension.benchmark.BenchmarkWorkspace.GENERATED_PROJECT;
+import static org.eclipse.che.jdt.ls.extension.benchmark.BenchmarkWorkspace.TEST_PROJECT;
+
+import java.util.List;
+import org.eclipse.che.jdt.ls.extension.api.dto.ExtendedSymbolInformation;
+import org.eclipse.che.jdt.ls.extension.api.dto.FileStructureCommandParameters;
+import org.eclipse.che.jdt.ls.extension.core.internal.FileStructureCommand;
+import org.eclipse.core.runtime.NullProgressMonitor;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/** Measures {@link FileStructureCommand} on a small class and on the deepest generated class. */
+@State(Scope.Benchmark)
+public class FileStructureBenchmark {
+
+  @Param({"false", "true"})
+  public boolean showInherited;
+
+  private List<Object> fixtureArguments;
+  private List<Object> generatedArguments;
+
+  @Setup(Level.Trial)
+  public void setup(BenchmarkWorkspace workspace) {
+    fixtureArguments =
+        singletonList(
+            new FileStructureCommandParameters(
+                workspace.getFileUri(
+                    TEST_PROJECT, "src/main/java/org/eclipse/che/examples/ChildClass.java"),
+                showInherited));
+    generatedArguments =
+        singletonList(
+            new FileStructureCommandParameters(
+                workspace.getFileUri(
+                    GENERATED_PROJECT,
+                    BenchmarkWorkspace.generatedSource(0, workspace.getDeepestClassIndex())),
+                showInherited));
+  }
+
+  @Benchmark
+  public List<ExtendedSymbolInformation> fixture() {
+    return FileStructureCommand.execute(fixtureArguments, new NullProgressMonitor());
+  }
+
+  @Benchmark
+  public List<ExtendedSymbolInformation> generated() {
+    return FileStructureCommand.execute(generatedArguments, new NullProgressMonitor());
+  }
+}
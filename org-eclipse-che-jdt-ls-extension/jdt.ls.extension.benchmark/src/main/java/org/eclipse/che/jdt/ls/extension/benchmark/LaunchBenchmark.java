@@ -0,0 +1,77 @@
+/*
+ * Copyright (c) 2012-2018 Red Hat, Inc.
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *   Red Hat, Inc. - initial API and implementation
+ */
+package org.eclipse.che.jdt.ls.extension.benchmark;
+
+import static java.util.Arrays.asList;
+import static java.util.Collections.singletonList;
+import static org.eclipse.che.jdt.ls.extension.benchmark.BenchmarkWorkspace.DEBUG_PROJECT;
+import static org.eclipse.che.jdt.ls.extension.benchmark.BenchmarkWorkspace.GENERATED_PROJECT;
+import static org.eclipse.che.jdt.ls.extension.benchmark.BenchmarkWorkspace.TEST_PROJECT;
+
+import java.util.List;
+import org.eclipse.che.jdt.ls.extension.core.internal.classpath.ResolveClassPathsHandler;
+import org.eclipse.che.jdt.ls.extension.core.internal.debug.FqnDiscover;
+import org.eclipse.core.runtime.NullProgressMonitor;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Measures the commands used to launch and debug an application: {@link ResolveClassPathsHandler}
+ * and {@link FqnDiscover}.
+ */
+@State(Scope.Benchmark)
+public class LaunchBenchmark {
+  private List<Object> fixtureProject;
+  private List<Object> generatedProject;
+  private List<Object> fixtureLocation;
+  private List<Object> generatedLocation;
+
+  @Setup(Level.Trial)
+  public void setup(BenchmarkWorkspace workspace) {
+    fixtureProject = singletonList(workspace.getProjectUri(TEST_PROJECT));
+    generatedProject = singletonList(workspace.getProjectUri(GENERATED_PROJECT));
+    fixtureLocation =
+        asList(
+            workspace.getFileUri(
+                DEBUG_PROJECT, "src/main/java/org/eclipse/che/examples/HelloWorld.java"),
+            "15");
+    generatedLocation =
+        asList(
+            workspace.getFileUri(
+                GENERATED_PROJECT,
+                BenchmarkWorkspace.generatedSource(0, workspace.getDeepestClassIndex())),
+            "6");
+  }
+
+  @Benchmark
+  public List<String> resolveClasspathOfFixture() {
+    return ResolveClassPathsHandler.resolveClasspaths(fixtureProject, new NullProgressMonitor());
+  }
+
+  @Benchmark
+  public List<String> resolveClasspathOfGenerated() {
+    return ResolveClassPathsHandler.resolveClasspaths(generatedProject, new NullProgressMonitor());
+  }
+
+  @Benchmark
+  public String identifyFqnInFixture() {
+    return FqnDiscover.identifyFqnInResource(fixtureLocation, new NullProgressMonitor());
+  }
+
+  @Benchmark
+  public String identifyFqnInGenerated() {
+    return FqnDiscover.identifyFqnInResource(generatedLocation, new NullProgressMonitor());
+  }
+}
@@ -0,0 +1,70 @@
+/*
+ * Copyright (c) 2012-2018 Red Hat, Inc.
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *   Red Hat, Inc. - initial API and implementation
+ */
+package org.eclipse.che.jdt.ls.extension.benchmark;
+
+import static java.util.Collections.singletonList;
+import static org.eclipse.che.jdt.ls.extension.benchmark.BenchmarkWorkspace.GENERATED_PROJECT;
+
+import java.util.List;
+import org.eclipse.che.jdt.ls.extension.api.UsagesMode;
+import org.eclipse.che.jdt.ls.extension.api.dto.UsagesParameters;
+import org.eclipse.che.jdt.ls.extension.api.dto.UsagesResponse;
+import org.eclipse.che.jdt.ls.extension.core.internal.UsagesCommand;
+import org.eclipse.che.jdt.ls.extension.core.internal.usages.ParallelSearch;
+import org.eclipse.che.jdt.ls.extension.core.internal.usages.ReferenceIndex;
+import org.eclipse.core.runtime.NullProgressMonitor;
+import org.eclipse.lsp4j.Position;
+import org.eclipse.lsp4j.TextDocumentIdentifier;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Compares the serial search of {@link UsagesCommand} with the parallel one, see {@link
+ * ParallelSearch}, for the method of the generated project which is called by every generated
+ * class. The reference index is cleared before every invocation, so every invocation searches,
+ * and only counts are requested, so building the result tree does not blur the difference.
+ */
+@State(Scope.Benchmark)
+public class ParallelUsagesBenchmark {
+  @Param({"false", "true"})
+  public boolean parallel;
+
+  private List<Object> arguments;
+
+  @Setup(Level.Trial)
+  public void setup(BenchmarkWorkspace workspace) {
+    // "  public static int shared(int value) {" is the fourth line of the root class
+    UsagesParameters parameters =
+        new UsagesParameters(
+            new TextDocumentIdentifier(
+                workspace.getFileUri(GENERATED_PROJECT, BenchmarkWorkspace.generatedSource(0, 0))),
+            new Position(3, 22),
+            UsagesMode.COUNT,
+            0);
+    parameters.setParallel(parallel);
+    arguments = singletonList(parameters);
+  }
+
+  @Setup(Level.Invocation)
+  public void clearIndex() {
+    ReferenceIndex.getInstance().clear();
+  }
+
+  @Benchmark
+  public List<UsagesResponse> generated() {
+    return UsagesCommand.execute(arguments, new NullProgressMonitor());
+  }
+}
@@ -0,0 +1,87 @@
+/*
+ * Copyright (c) 2012-2018 Red Hat, Inc.
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *   Red Hat, Inc. - initial API and implementation
+ */
+package org.eclipse.che.jdt.ls.extension.benchmark;
+
+import static java.util.Collections.singletonList;
+import static org.eclipse.che.jdt.ls.extension.benchmark.BenchmarkWorkspace.GENERATED_PROJECT;
+import static org.eclipse.che.jdt.ls.extension.benchmark.BenchmarkWorkspace.TEST_PROJECT;
+
+import java.util.List;
+import org.eclipse.che.jdt.ls.extension.api.dto.TestPosition;
+import org.eclipse.che.jdt.ls.extension.api.dto.TestPositionParameters;
+import org.eclipse.che.jdt.ls.extension.core.internal.testdetection.JavaTestFinder;
+import org.eclipse.che.jdt.ls.extension.core.internal.testdetection.TestDetectionHandler;
+import org.eclipse.che.jdt.ls.extension.core.internal.testdetection.TestIndex;
+import org.eclipse.che.jdt.ls.extension.core.internal.testdetection.TestRegistry;
+import org.eclipse.core.runtime.NullProgressMonitor;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Measures detection of the test methods of a file by {@link TestDetectionHandler} and discovery
+ * of all the test classes of a project by {@link JavaTestFinder}. The {@link TestIndex} and the
+ * {@link TestRegistry} are cleared before every invocation, so the units are read every time.
+ */
+@State(Scope.Benchmark)
+public class TestDetectionBenchmark {
+  private static final String TEST_METHOD_ANNOTATION = "org.junit.Test";
+  private static final String TEST_CLASS_ANNOTATION = "org.junit.runner.RunWith";
+
+  private List<Object> detectArguments;
+  private String fixtureProjectUri;
+  private String generatedProjectUri;
+
+  @Setup(Level.Trial)
+  public void setup(BenchmarkWorkspace workspace) {
+    detectArguments =
+        singletonList(
+            new TestPositionParameters(
+                workspace.getFileUri(
+                    TEST_PROJECT, "src/test/java/org/eclipse/che/examples/AppOneTest.java"),
+                TEST_METHOD_ANNOTATION,
+                -1));
+    fixtureProjectUri = workspace.getProjectUri(TEST_PROJECT);
+    generatedProjectUri = workspace.getProjectUri(GENERATED_PROJECT);
+  }
+
+  @Setup(Level.Invocation)
+  public void clearCaches() {
+    TestIndex.getInstance().clear();
+    TestRegistry.getInstance().clear();
+  }
+
+  @Benchmark
+  public List<TestPosition> detect() {
+    return TestDetectionHandler.detect(detectArguments, new NullProgressMonitor());
+  }
+
+  @Benchmark
+  public List<String> findTestClassesInFixture() {
+    return JavaTestFinder.findTestClassesInProject(
+        fixtureProjectUri,
+        TEST_METHOD_ANNOTATION,
+        TEST_CLASS_ANNOTATION,
+        new NullProgressMonitor());
+  }
+
+  @Benchmark
+  public List<String> findTestClassesInGenerated() {
+    return JavaTestFinder.findTestClassesInProject(
+        generatedProjectUri,
+        TEST_METHOD_ANNOTATION,
+        TEST_CLASS_ANNOTATION,
+        new NullProgressMonitor());
+  }
+}
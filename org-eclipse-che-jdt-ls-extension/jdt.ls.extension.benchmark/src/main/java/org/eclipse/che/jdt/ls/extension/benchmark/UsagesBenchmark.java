@@ -0,0 +1,76 @@
+/*
+ * Copyright (c) 2012-2018 Red Hat, Inc.
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *   Red Hat, Inc. - initial API and implementation
+ */
+package org.eclipse.che.jdt.ls.extension.benchmark;
+
+import static java.util.Collections.singletonList;
+import static org.eclipse.che.jdt.ls.extension.benchmark.BenchmarkWorkspace.GENERATED_PROJECT;
+import static org.eclipse.che.jdt.ls.extension.benchmark.BenchmarkWorkspace.USAGES_PROJECT;
+
+import java.util.List;
+import org.eclipse.che.jdt.ls.extension.api.dto.UsagesResponse;
+import org.eclipse.che.jdt.ls.extension.core.internal.UsagesCommand;
+import org.eclipse.che.jdt.ls.extension.core.internal.usages.ReferenceIndex;
+import org.eclipse.core.runtime.NullProgressMonitor;
+import org.eclipse.lsp4j.Position;
+import org.eclipse.lsp4j.TextDocumentIdentifier;
+import org.eclipse.lsp4j.TextDocumentPositionParams;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Measures {@link UsagesCommand} for the interface of the usages fixture and for the method of the
+ * generated project which is called by every generated class. The {@link ReferenceIndex} is
+ * cleared before every invocation, so the search itself is measured.
+ */
+@State(Scope.Benchmark)
+public class UsagesBenchmark {
+  private List<Object> fixtureArguments;
+  private List<Object> generatedArguments;
+
+  @Setup(Level.Trial)
+  public void setup(BenchmarkWorkspace workspace) {
+    fixtureArguments =
+        singletonList(
+            position(
+                workspace.getFileUri(USAGES_PROJECT, "src/main/java/pkg1/AInterface.java"), 2, 22));
+    // "  public static int shared(int value) {" is the fourth line of the root class
+    generatedArguments =
+        singletonList(
+            position(
+                workspace.getFileUri(GENERATED_PROJECT, BenchmarkWorkspace.generatedSource(0, 0)),
+                3,
+                22));
+  }
+
+  @Setup(Level.Invocation)
+  public void clearIndex() {
+    ReferenceIndex.getInstance().clear();
+  }
+
+  @Benchmark
+  public List<UsagesResponse> fixture() {
+    return UsagesCommand.execute(fixtureArguments, new NullProgressMonitor());
+  }
+
+  @Benchmark
+  public List<UsagesResponse> generated() {
+    return UsagesCommand.execute(generatedArguments, new NullProgressMonitor());
+  }
+
+  private static TextDocumentPositionParams position(String uri, int line, int character) {
+    return new TextDocumentPositionParams(
+        new TextDocumentIdentifier(uri), new Position(line, character));
+  }
+}
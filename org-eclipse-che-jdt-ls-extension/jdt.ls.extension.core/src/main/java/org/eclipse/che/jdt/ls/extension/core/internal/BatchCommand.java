@@ -0,0 +1,73 @@
+/*
+ * Copyright (c) 2012-2018 Red Hat, Inc.
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *   Red Hat, Inc. - initial API and implementation
+ */
+package org.eclipse.che.jdt.ls.extension.core.internal;
+
+import static org.eclipse.che.jdt.ls.extension.core.internal.Utils.ensureNotCancelled;
+
+import com.google.common.base.Preconditions;
+import java.util.ArrayList;
+import java.util.List;
+import org.eclipse.che.jdt.ls.extension.api.Commands;
+import org.eclipse.che.jdt.ls.extension.api.dto.BatchCommandEntry;
+import org.eclipse.che.jdt.ls.extension.api.dto.BatchCommandParameters;
+import org.eclipse.che.jdt.ls.extension.api.dto.BatchCommandResult;
+import org.eclipse.core.runtime.IProgressMonitor;
+import org.eclipse.core.runtime.OperationCanceledException;
+import org.eclipse.jdt.ls.core.internal.JavaLanguageServerPlugin;
+
+/**
+ * Executes several commands in a single request. Commands are executed one by one on the request
+ * thread and share its progress monitor, so cancelling the batch cancels the rest of the commands.
+ */
+public class BatchCommand {
+
+  /**
+   * Executes the given commands.
+   *
+   * @param arguments {@link BatchCommandParameters} expected
+   * @param pm a progress monitor
+   * @return results in the order of the requested commands, failed commands are reported by their
+   *     error message
+   */
+  public static List<BatchCommandResult> execute(List<Object> arguments, IProgressMonitor pm) {
+    Preconditions.checkArgument(
+        !arguments.isEmpty(), BatchCommandParameters.class.getName() + " expected.");
+
+    BatchCommandParameters parameters =
+        JavaModelUtil.convertCommandParameter(arguments.get(0), BatchCommandParameters.class);
+
+    List<BatchCommandResult> results = new ArrayList<>(parameters.getCommands().size());
+    for (BatchCommandEntry entry : parameters.getCommands()) {
+      ensureNotCancelled(pm);
+      results.add(execute(entry, pm));
+    }
+    return results;
+  }
+
+  private static BatchCommandResult execute(BatchCommandEntry entry, IProgressMonitor pm) {
+    String commandId = entry.getCommandId();
+    if (Commands.BATCH_COMMAND.equals(commandId)) {
+      return new BatchCommandResult(commandId, null, "Nested batch commands are not supported");
+    }
+
+    try {
+      Object result = CheDelegateCommandHandler.dispatch(commandId, entry.getArguments(), pm);
+      return new BatchCommandResult(commandId, result, null);
+    } catch (OperationCanceledException e) {
+      throw e;
+    } catch (Exception e) {
+      JavaLanguageServerPlugin.logException("Batched command '" + commandId + "' has failed", e);
+      String message = e.getMessage();
+      return new BatchCommandResult(commandId, null, message != null ? message : e.toString());
+    }
+  }
+}
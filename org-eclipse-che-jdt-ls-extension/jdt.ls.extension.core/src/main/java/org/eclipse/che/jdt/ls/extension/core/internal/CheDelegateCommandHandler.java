@@ -11,11 +11,19 @@
  */
 package org.eclipse.che.jdt.ls.extension.core.internal;
 
+import java.util.EnumMap;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Callable;
 import java.util.function.BiFunction;
+import java.util.function.Function;
 import org.eclipse.che.jdt.ls.extension.api.Commands;
+import org.eclipse.che.jdt.ls.extension.api.dto.TestFindParameters;
+import org.eclipse.che.jdt.ls.extension.api.dto.TestPositionParameters;
+import org.eclipse.che.jdt.ls.extension.core.internal.cache.CommandResultCache;
 import org.eclipse.che.jdt.ls.extension.core.internal.classpath.ResolveClassPathsHandler;
 import org.eclipse.che.jdt.ls.extension.core.internal.configuration.GetJavaCoreOptionsCommand;
 import org.eclipse.che.jdt.ls.extension.core.internal.configuration.GetPreferencesCommand;
@@ -27,6 +35,10 @@ import org.eclipse.che.jdt.ls.extension.core.internal.externallibrary.LibraryChi
 import org.eclipse.che.jdt.ls.extension.core.internal.externallibrary.LibraryEntryCommand;
 import org.eclipse.che.jdt.ls.extension.core.internal.externallibrary.ProjectExternalLibraryCommand;
 import org.eclipse.che.jdt.ls.extension.core.internal.imports.OrganizeImportsCommand;
+import org.eclipse.che.jdt.ls.extension.core.internal.jfr.EventSpan;
+import org.eclipse.che.jdt.ls.extension.core.internal.jfr.ExtensionEvents;
+import org.eclipse.che.jdt.ls.extension.core.internal.metrics.CommandMetrics;
+import org.eclipse.che.jdt.ls.extension.core.internal.metrics.GetCommandMetricsCommand;
 import org.eclipse.che.jdt.ls.extension.core.internal.navigation.FindImplementersHandler;
 import org.eclipse.che.jdt.ls.extension.core.internal.plain.AddJarsCommand;
 import org.eclipse.che.jdt.ls.extension.core.internal.plain.CreateSimpleProjectCommand;
@@ -45,9 +57,14 @@ import org.eclipse.che.jdt.ls.extension.core.internal.refactoring.rename.GetLink
 import org.eclipse.che.jdt.ls.extension.core.internal.refactoring.rename.GetRenamingElementInfoCommand;
 import org.eclipse.che.jdt.ls.extension.core.internal.refactoring.rename.RenameCommand;
 import org.eclipse.che.jdt.ls.extension.core.internal.refactoring.rename.ValidateNewNameCommand;
+import org.eclipse.che.jdt.ls.extension.core.internal.scheduling.Bulkhead;
+import org.eclipse.che.jdt.ls.extension.core.internal.scheduling.CoalescingScheduler;
+import org.eclipse.che.jdt.ls.extension.core.internal.scheduling.CommandClass;
+import org.eclipse.che.jdt.ls.extension.core.internal.scheduling.SupersedingScheduler;
 import org.eclipse.che.jdt.ls.extension.core.internal.testdetection.TestDetectionHandler;
 import org.eclipse.che.jdt.ls.extension.core.internal.testdetection.TestFinderHandler;
 import org.eclipse.core.runtime.IProgressMonitor;
+import org.eclipse.core.runtime.OperationCanceledException;
 import org.eclipse.jdt.ls.core.internal.IDelegateCommandHandler;
 
 /**
@@ -57,6 +74,20 @@ import org.eclipse.jdt.ls.core.internal.IDelegateCommandHandler;
 public class CheDelegateCommandHandler implements IDelegateCommandHandler {
   private static final Map<String, BiFunction<List<Object>, IProgressMonitor, ? extends Object>>
       commands;
+  /** Read-only commands whose results are cached until the workspace is changed. */
+  private static final Set<String> cacheableCommands;
+  /**
+   * Commands driven by the cursor position, mapped to the function which extracts the document uri
+   * from the arguments. A new request for the same document cancels the previous one.
+   */
+  private static final Map<String, Function<List<Object>, String>> supersedableCommands;
+  /** Read-only commands whose identical concurrent requests share one execution. */
+  private static final Set<String> coalescibleCommands;
+  /**
+   * Class of each command, commands of the same class share a {@link Bulkhead}. Commands without a
+   * class, e.g. the batch command which dispatches other commands, are not limited.
+   */
+  private static final Map<String, CommandClass> commandClasses;
 
   static {
     commands = new HashMap<String, BiFunction<List<Object>, IProgressMonitor, ? extends Object>>();
@@ -68,6 +99,10 @@ public class CheDelegateCommandHandler implements IDelegateCommandHandler {
     commands.put(Commands.FIND_TESTS_FROM_FOLDER_COMMAND, TestFinderHandler::getClassesFromFolder);
     commands.put(Commands.FIND_TESTS_FROM_ENTRY_COMMAND, TestFinderHandler::getClassesFromSet);
     commands.put(Commands.FIND_TESTS_IN_FILE_COMMAND, TestFinderHandler::getClassFqn);
+    commands.put(
+        Commands.FIND_TESTS_BY_FRAMEWORK_COMMAND, TestFinderHandler::getClassesByFramework);
+    commands.put(Commands.FIND_TESTS_STREAM_COMMAND, TestFinderHandler::streamClasses);
+    commands.put(Commands.FIND_IMPACTED_TESTS_COMMAND, TestFinderHandler::getImpactedTests);
     commands.put(Commands.RESOLVE_CLASSPATH_COMMAND, ResolveClassPathsHandler::resolveClasspaths);
     commands.put(Commands.GET_OUTPUT_DIR_COMMAND, ResolveClassPathsHandler::getOutputDirectory);
     commands.put(Commands.GET_EFFECTIVE_POM_COMMAND, EffectivePomHandler::getEffectivePom);
@@ -93,6 +128,10 @@ public class CheDelegateCommandHandler implements IDelegateCommandHandler {
     commands.put(Commands.GET_SOURCE_FOLDERS, GetSourceFoldersCommand::execute);
     commands.put(Commands.FIND_IMPLEMENTERS_COMMAND, FindImplementersHandler::getImplementers);
     commands.put(Commands.USAGES_COMMAND, UsagesCommand::execute);
+    commands.put(Commands.USAGES_STREAM_COMMAND, UsagesCommand::stream);
+    commands.put(Commands.USAGES_RESOLVE_COMMAND, UsagesCommand::resolve);
+    commands.put(Commands.USAGES_BATCH_COMMAND, UsagesCommand::executeBatch);
+    commands.put(Commands.USAGES_REFRESH_COMMAND, UsagesCommand::refresh);
     commands.put(Commands.GET_JAVA_CORE_OPTIONS_СOMMAND, GetJavaCoreOptionsCommand::execute);
     commands.put(Commands.UPDATE_JAVA_CORE_OPTIONS_СOMMAND, UpdateJavaCoreOptionsCommand::execute);
     commands.put(Commands.GET_PREFERENCES_СOMMAND, GetPreferencesCommand::execute);
@@ -108,15 +147,188 @@ public class CheDelegateCommandHandler implements IDelegateCommandHandler {
     commands.put(Commands.MOVE_COMMAND, MoveCommand::execute);
     commands.put(Commands.VALIDATE_MOVE_COMMAND, ValidateMoveCommand::execute);
     commands.put(Commands.VERIFY_MOVE_DESTINATION_COMMAND, VerifyMoveDestinationCommand::execute);
+    commands.put(Commands.GET_COMMAND_METRICS_COMMAND, GetCommandMetricsCommand::execute);
+    commands.put(Commands.BATCH_COMMAND, BatchCommand::execute);
+
+    cacheableCommands = new HashSet<>();
+    cacheableCommands.add(Commands.GET_CLASS_PATH_TREE_COMMAND);
+    cacheableCommands.add(Commands.GET_SOURCE_FOLDERS);
+    cacheableCommands.add(Commands.GET_EXTERNAL_LIBRARIES_COMMAND);
+    cacheableCommands.add(Commands.GET_MAVEN_PROJECTS_COMMAND);
+    cacheableCommands.add(Commands.GET_EFFECTIVE_POM_COMMAND);
+
+    coalescibleCommands = new HashSet<>(cacheableCommands);
+    coalescibleCommands.add(Commands.RESOLVE_CLASSPATH_COMMAND);
+    coalescibleCommands.add(Commands.GET_OUTPUT_DIR_COMMAND);
+    coalescibleCommands.add(Commands.GET_EXTERNAL_LIBRARIES_CHILDREN_COMMAND);
+    coalescibleCommands.add(Commands.GET_LIBRARY_CHILDREN_COMMAND);
+    coalescibleCommands.add(Commands.GET_LIBRARY_ENTRY_COMMAND);
+    coalescibleCommands.add(Commands.GET_PROJECT_SOURCE_LOCATIONS_COMMAND);
+    coalescibleCommands.add(Commands.USAGES_COMMAND);
+    coalescibleCommands.add(Commands.USAGES_RESOLVE_COMMAND);
+    coalescibleCommands.add(Commands.USAGES_BATCH_COMMAND);
+    coalescibleCommands.add(Commands.USAGES_REFRESH_COMMAND);
+    coalescibleCommands.add(Commands.FIND_IMPLEMENTERS_COMMAND);
+    coalescibleCommands.add(Commands.FIND_TESTS_FROM_PROJECT_COMMAND);
+    coalescibleCommands.add(Commands.FIND_TESTS_FROM_FOLDER_COMMAND);
+    coalescibleCommands.add(Commands.FIND_TESTS_FROM_ENTRY_COMMAND);
+    coalescibleCommands.add(Commands.FIND_TESTS_BY_FRAMEWORK_COMMAND);
+    coalescibleCommands.add(Commands.FIND_IMPACTED_TESTS_COMMAND);
+
+    supersedableCommands = new HashMap<>();
+    supersedableCommands.put(
+        Commands.TEST_DETECT_COMMAND,
+        arguments ->
+            JavaModelUtil.convertCommandParameter(arguments.get(0), TestPositionParameters.class)
+                .getFileUri());
+    supersedableCommands.put(
+        Commands.FIND_TEST_BY_CURSOR_COMMAND,
+        arguments ->
+            JavaModelUtil.convertCommandParameter(arguments.get(0), TestFindParameters.class)
+                .getSourceUri());
+    supersedableCommands.put(
+        Commands.IDENTIFY_FQN_IN_RESOURCE, arguments -> (String) arguments.get(0));
+
+    Map<CommandClass, String[]> classes = new EnumMap<>(CommandClass.class);
+    classes.put(
+        CommandClass.INTERACTIVE,
+        new String[] {
+          Commands.FILE_STRUCTURE_COMMAND,
+          Commands.USAGES_RESOLVE_COMMAND,
+          Commands.TEST_DETECT_COMMAND,
+          Commands.FIND_TEST_BY_CURSOR_COMMAND,
+          Commands.FIND_TESTS_IN_FILE_COMMAND,
+          Commands.IDENTIFY_FQN_IN_RESOURCE,
+          Commands.RESOLVE_CLASSPATH_COMMAND,
+          Commands.GET_OUTPUT_DIR_COMMAND,
+          Commands.GET_EFFECTIVE_POM_COMMAND,
+          Commands.GET_MAVEN_PROJECTS_COMMAND,
+          Commands.GET_CLASS_PATH_TREE_COMMAND,
+          Commands.GET_EXTERNAL_LIBRARIES_COMMAND,
+          Commands.GET_EXTERNAL_LIBRARIES_CHILDREN_COMMAND,
+          Commands.GET_LIBRARY_CHILDREN_COMMAND,
+          Commands.GET_LIBRARY_ENTRY_COMMAND,
+          Commands.GET_SOURCE_FOLDERS,
+          Commands.GET_PROJECT_SOURCE_LOCATIONS_COMMAND,
+          Commands.GET_JAVA_CORE_OPTIONS_СOMMAND,
+          Commands.GET_PREFERENCES_СOMMAND,
+          Commands.GET_RENAME_TYPE_COMMAND,
+          Commands.VALIDATE_RENAMED_NAME_COMMAND,
+          Commands.GET_LINKED_ELEMENTS_COMMAND,
+          Commands.GET_DESTINATIONS_COMMAND,
+          Commands.VALIDATE_MOVE_COMMAND,
+          Commands.VERIFY_MOVE_DESTINATION_COMMAND
+        });
+    classes.put(
+        CommandClass.SEARCH,
+        new String[] {
+          Commands.USAGES_COMMAND,
+          Commands.USAGES_STREAM_COMMAND,
+          Commands.USAGES_BATCH_COMMAND,
+          Commands.USAGES_REFRESH_COMMAND,
+          Commands.FIND_IMPLEMENTERS_COMMAND,
+          Commands.FIND_RESOURCES_BY_FQN,
+          Commands.FIND_TESTS_FROM_PROJECT_COMMAND,
+          Commands.FIND_TESTS_FROM_FOLDER_COMMAND,
+          Commands.FIND_TESTS_FROM_ENTRY_COMMAND,
+          Commands.FIND_TESTS_BY_FRAMEWORK_COMMAND,
+          Commands.FIND_TESTS_STREAM_COMMAND,
+          Commands.FIND_IMPACTED_TESTS_COMMAND
+        });
+    classes.put(
+        CommandClass.REFACTORING,
+        new String[] {Commands.RENAME_COMMAND, Commands.MOVE_COMMAND, Commands.ORGANIZE_IMPORTS});
+    classes.put(
+        CommandClass.BUILD,
+        new String[] {
+          Commands.REIMPORT_MAVEN_PROJECTS_COMMAND,
+          Commands.RECOMPUTE_POM_DIAGNOSTICS,
+          Commands.UPDATE_WORKSPACE,
+          Commands.CREATE_SIMPLE_PROJECT,
+          Commands.ADD_JARS_COMMAND,
+          Commands.UPDATE_PROJECT_CLASSPATH,
+          Commands.UPDATE_JAVA_CORE_OPTIONS_СOMMAND,
+          Commands.UPDATE_PREFERENCES_СOMMAND
+        });
+    commandClasses = new HashMap<>();
+    classes.forEach(
+        (commandClass, ids) -> {
+          for (String id : ids) {
+            commandClasses.put(id, commandClass);
+          }
+        });
   }
 
   @Override
   public Object executeCommand(String commandId, List<Object> arguments, IProgressMonitor progress)
       throws Exception {
+    return dispatch(commandId, arguments, progress);
+  }
+
+  /**
+   * Executes the registered command. Used by {@link BatchCommand} to run batched commands through
+   * the same pipeline as the commands sent by the client.
+   */
+  static Object dispatch(String commandId, List<Object> arguments, IProgressMonitor progress)
+      throws Exception {
     BiFunction<List<Object>, IProgressMonitor, ? extends Object> command = commands.get(commandId);
-    if (command != null) {
-      return command.apply(arguments, progress);
+    if (command == null) {
+      throw new UnsupportedOperationException(
+          String.format("Unsupported command '%s'!", commandId));
+    }
+    Function<List<Object>, String> documentUri = supersedableCommands.get(commandId);
+    if (documentUri != null && !arguments.isEmpty()) {
+      return SupersedingScheduler.getInstance()
+          .execute(
+              commandId,
+              documentUri.apply(arguments),
+              progress,
+              monitor -> execute(commandId, command, arguments, monitor));
+    }
+    if (coalescibleCommands.contains(commandId)) {
+      return CoalescingScheduler.getInstance()
+          .execute(
+              commandId,
+              arguments,
+              progress,
+              monitor -> execute(commandId, command, arguments, monitor));
+    }
+    return execute(commandId, command, arguments, progress);
+  }
+
+  private static Object execute(
+      String commandId,
+      BiFunction<List<Object>, IProgressMonitor, ? extends Object> command,
+      List<Object> arguments,
+      IProgressMonitor progress)
+      throws Exception {
+    Callable<Object> execution = () -> command.apply(arguments, progress);
+    CommandClass commandClass = commandClasses.get(commandId);
+    if (commandClass != null) {
+      Callable<Object> limited = execution;
+      execution = () -> Bulkhead.of(commandClass).execute(commandId, progress, limited);
+    }
+    if (cacheableCommands.contains(commandId)) {
+      Callable<Object> compute = execution;
+      execution = () -> CommandResultCache.getInstance().get(commandId, arguments, compute);
+    }
+    EventSpan event = ExtensionEvents.COMMAND.begin();
+    Object result = null;
+    boolean cancelled = false;
+    try {
+      result = CommandMetrics.getInstance().execute(commandId, progress, execution);
+      return result;
+    } catch (OperationCanceledException e) {
+      cancelled = true;
+      throw e;
+    } finally {
+      if (event.isRecording()) {
+        event.commit(
+            commandId,
+            ExtensionEvents.sizeOf(arguments),
+            ExtensionEvents.sizeOf(result),
+            cancelled || (progress != null && progress.isCanceled()));
+      }
     }
-    throw new UnsupportedOperationException(String.format("Unsupported command '%s'!", commandId));
   }
 }
@@ -0,0 +1,99 @@
+/*
+ * Copyright (c) 2012-2018 Red Hat, Inc.
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *   Red Hat, Inc. - initial API and implementation
+ */
+package org.eclipse.che.jdt.ls.extension.core.internal;
+
+import com.google.gson.Gson;
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonNull;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonPrimitive;
+import com.google.gson.TypeAdapter;
+import java.util.Collection;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Binds command arguments to DTOs. Arguments arrive already parsed by the JSON-RPC layer as trees
+ * of maps, lists and primitives, so instead of printing them back to a JSON string and parsing it
+ * again the tree is converted to a {@link JsonElement} directly and read by a cached type adapter.
+ */
+public class CommandParameterBinder {
+  private static final Gson gson = GsonUtils.getInstance();
+  private static final ConcurrentMap<Class<?>, TypeAdapter<?>> adapters = new ConcurrentHashMap<>();
+
+  private CommandParameterBinder() {}
+
+  /**
+   * Converts a command argument to an instance of the given class.
+   *
+   * @param param the argument as received by the command
+   * @param clazz expected type of the argument
+   * @return bound argument, {@code null} if the argument is {@code null}
+   */
+  public static <T> T bind(Object param, Class<T> clazz) {
+    if (param == null) {
+      return null;
+    }
+    if (clazz.isInstance(param)) {
+      // the argument has been created in-process, e.g. by a batch or a test
+      return clazz.cast(param);
+    }
+    return getAdapter(clazz).fromJsonTree(toJsonTree(param));
+  }
+
+  /**
+   * Converts an already parsed argument to a {@link JsonElement} without intermediate
+   * serialization.
+   *
+   * @param value map, collection, primitive or any other object
+   * @return tree representation of the value
+   */
+  public static JsonElement toJsonTree(Object value) {
+    if (value == null) {
+      return JsonNull.INSTANCE;
+    }
+    if (value instanceof JsonElement) {
+      return (JsonElement) value;
+    }
+    if (value instanceof String) {
+      return new JsonPrimitive((String) value);
+    }
+    if (value instanceof Number) {
+      return new JsonPrimitive((Number) value);
+    }
+    if (value instanceof Boolean) {
+      return new JsonPrimitive((Boolean) value);
+    }
+    if (value instanceof Map) {
+      JsonObject object = new JsonObject();
+      for (Map.Entry<?, ?> entry : ((Map<?, ?>) value).entrySet()) {
+        object.add(String.valueOf(entry.getKey()), toJsonTree(entry.getValue()));
+      }
+      return object;
+    }
+    if (value instanceof Collection) {
+      JsonArray array = new JsonArray();
+      for (Object item : (Collection<?>) value) {
+        array.add(toJsonTree(item));
+      }
+      return array;
+    }
+    return gson.toJsonTree(value);
+  }
+
+  @SuppressWarnings("unchecked")
+  private static <T> TypeAdapter<T> getAdapter(Class<T> clazz) {
+    return (TypeAdapter<T>) adapters.computeIfAbsent(clazz, gson::getAdapter);
+  }
+}
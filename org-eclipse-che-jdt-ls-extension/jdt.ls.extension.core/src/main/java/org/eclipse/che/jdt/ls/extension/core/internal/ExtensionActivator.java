@@ -11,6 +11,20 @@
  */
 package org.eclipse.che.jdt.ls.extension.core.internal;
 
+import org.eclipse.che.jdt.ls.extension.core.internal.cache.WorkspaceGeneration;
+import org.eclipse.che.jdt.ls.extension.core.internal.metrics.CommandMetricsLogJob;
+import org.eclipse.che.jdt.ls.extension.core.internal.testdetection.DependencyGraph;
+import org.eclipse.che.jdt.ls.extension.core.internal.testdetection.FqnResolver;
+import org.eclipse.che.jdt.ls.extension.core.internal.testdetection.ParallelTestFinder;
+import org.eclipse.che.jdt.ls.extension.core.internal.testdetection.TestIndex;
+import org.eclipse.che.jdt.ls.extension.core.internal.testdetection.TestRegistry;
+import org.eclipse.che.jdt.ls.extension.core.internal.usages.ParallelSearch;
+import org.eclipse.che.jdt.ls.extension.core.internal.usages.ReferenceIndex;
+import org.eclipse.core.resources.IResourceChangeEvent;
+import org.eclipse.core.resources.ISavedState;
+import org.eclipse.core.resources.ResourcesPlugin;
+import org.eclipse.core.runtime.Platform;
+import org.eclipse.jdt.core.ElementChangedEvent;
 import org.eclipse.jdt.core.JavaCore;
 import org.eclipse.m2e.core.MavenPlugin;
 import org.osgi.framework.BundleActivator;
@@ -22,19 +36,65 @@ public class ExtensionActivator implements BundleActivator {
   // The plug-in ID
   public static final String PLUGIN_ID = "jdt.ls.extension.core";
 
+  private static final String USAGES_INDEX_FILE = "usages-index.json";
+
   // The shared instance
   private static ExtensionActivator plugin;
   private static final JavaModelEventProvider javaModelEventProvider = new JavaModelEventProvider();
   private static final MavenProjectConfigurator mavenProjectConfigurator =
       new MavenProjectConfigurator();
+  private CommandMetricsLogJob commandMetricsLogJob;
 
   public void start(BundleContext context) throws Exception {
     plugin = this;
     JavaCore.addElementChangedListener(javaModelEventProvider);
     MavenPlugin.getMavenProjectRegistry().addMavenProjectChangedListener(mavenProjectConfigurator);
+    WorkspaceGeneration workspaceGeneration = WorkspaceGeneration.getInstance();
+    ResourcesPlugin.getWorkspace()
+        .addResourceChangeListener(workspaceGeneration, IResourceChangeEvent.POST_CHANGE);
+    JavaCore.addElementChangedListener(workspaceGeneration, ElementChangedEvent.POST_CHANGE);
+    ReferenceIndex referenceIndex = ReferenceIndex.getInstance();
+    ISavedState savedState =
+        ResourcesPlugin.getWorkspace().addSaveParticipant(PLUGIN_ID, referenceIndex);
+    // parsing a large index and replaying the saved state would delay the start of the server
+    referenceIndex.scheduleLoad(
+        Platform.getStateLocation(context.getBundle()).append(USAGES_INDEX_FILE).toFile(),
+        savedState);
+    JavaCore.addElementChangedListener(
+        referenceIndex, ElementChangedEvent.POST_CHANGE | ElementChangedEvent.POST_RECONCILE);
+    JavaCore.addElementChangedListener(
+        TestIndex.getInstance(),
+        ElementChangedEvent.POST_CHANGE | ElementChangedEvent.POST_RECONCILE);
+    JavaCore.addElementChangedListener(
+        TestRegistry.getInstance(),
+        ElementChangedEvent.POST_CHANGE | ElementChangedEvent.POST_RECONCILE);
+    JavaCore.addElementChangedListener(
+        FqnResolver.getInstance(),
+        ElementChangedEvent.POST_CHANGE | ElementChangedEvent.POST_RECONCILE);
+    JavaCore.addElementChangedListener(
+        DependencyGraph.getInstance(),
+        ElementChangedEvent.POST_CHANGE | ElementChangedEvent.POST_RECONCILE);
+    commandMetricsLogJob = CommandMetricsLogJob.scheduleIfEnabled();
   }
 
   public void stop(BundleContext context) throws Exception {
+    if (commandMetricsLogJob != null) {
+      commandMetricsLogJob.stop();
+      commandMetricsLogJob = null;
+    }
+    JavaCore.removeElementChangedListener(DependencyGraph.getInstance());
+    JavaCore.removeElementChangedListener(FqnResolver.getInstance());
+    JavaCore.removeElementChangedListener(TestRegistry.getInstance());
+    JavaCore.removeElementChangedListener(TestIndex.getInstance());
+    ReferenceIndex referenceIndex = ReferenceIndex.getInstance();
+    JavaCore.removeElementChangedListener(referenceIndex);
+    ResourcesPlugin.getWorkspace().removeSaveParticipant(PLUGIN_ID);
+    referenceIndex.save();
+    ParallelSearch.getInstance().shutdown();
+    ParallelTestFinder.getInstance().shutdown();
+    WorkspaceGeneration workspaceGeneration = WorkspaceGeneration.getInstance();
+    JavaCore.removeElementChangedListener(workspaceGeneration);
+    ResourcesPlugin.getWorkspace().removeResourceChangeListener(workspaceGeneration);
     MavenPlugin.getMavenProjectRegistry()
         .removeMavenProjectChangedListener(mavenProjectConfigurator);
     JavaCore.removeElementChangedListener(javaModelEventProvider);
@@ -20,6 +20,8 @@ import java.util.Set;
 import org.eclipse.che.jdt.ls.extension.api.Visibility;
 import org.eclipse.che.jdt.ls.extension.api.dto.ExtendedSymbolInformation;
 import org.eclipse.che.jdt.ls.extension.api.dto.FileStructureCommandParameters;
+import org.eclipse.che.jdt.ls.extension.core.internal.jfr.EventSpan;
+import org.eclipse.che.jdt.ls.extension.core.internal.jfr.ExtensionEvents;
 import org.eclipse.core.runtime.IProgressMonitor;
 import org.eclipse.jdt.core.Flags;
 import org.eclipse.jdt.core.IInitializer;
@@ -129,7 +131,12 @@ public class FileStructureCommand {
         }
         if (showInherited && parent == null && element instanceof IType) {
           IType type = (IType) element;
+          EventSpan hierarchyEvent = ExtensionEvents.TYPE_HIERARCHY.begin();
           ITypeHierarchy th = type.newSupertypeHierarchy(pm);
+          if (hierarchyEvent.isRecording()) {
+            hierarchyEvent.commit(
+                "fileStructure", type.getFullyQualifiedName(), th.getAllSupertypes(type).length);
+          }
           for (IType superType : th.getAllSupertypes(type)) {
             for (IJavaElement child : superType.getChildren()) {
               if (!(child instanceof IInitializer)
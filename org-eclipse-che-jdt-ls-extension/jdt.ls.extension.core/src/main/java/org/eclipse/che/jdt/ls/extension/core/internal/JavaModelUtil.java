@@ -11,7 +11,6 @@
  */
 package org.eclipse.che.jdt.ls.extension.core.internal;
 
-import com.google.gson.Gson;
 import java.util.Arrays;
 import java.util.List;
 import java.util.stream.Collectors;
@@ -46,8 +45,6 @@ import org.eclipse.lsp4j.SymbolKind;
 public class JavaModelUtil {
   public static final String JDT_LS_JAVA_PROJECT = "jdt.ls-java-project";
 
-  private static final Gson gson = GsonUtils.getInstance();
-
   /**
    * Finds java project {@link IJavaProject} by URI
    *
@@ -91,8 +88,13 @@ public class JavaModelUtil {
         .collect(Collectors.toList());
   }
 
+  /**
+   * Converts a command argument to the given DTO type.
+   *
+   * @see CommandParameterBinder#bind(Object, Class)
+   */
   public static <T> T convertCommandParameter(Object param, Class<T> clazz) {
-    return gson.fromJson(gson.toJson(param), clazz);
+    return CommandParameterBinder.bind(param, clazz);
   }
 
   static SymbolKind mapKind(IJavaElement element) {
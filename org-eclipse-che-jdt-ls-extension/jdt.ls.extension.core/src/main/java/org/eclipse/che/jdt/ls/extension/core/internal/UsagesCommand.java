@@ -11,30 +11,43 @@
  */
 package org.eclipse.che.jdt.ls.extension.core.internal;
 
-import java.net.URI;
-import java.net.URISyntaxException;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
-import java.util.stream.Collectors;
+import java.util.function.Consumer;
+import org.eclipse.che.jdt.ls.extension.api.Notifications;
+import org.eclipse.che.jdt.ls.extension.api.UsagesMode;
 import org.eclipse.che.jdt.ls.extension.api.dto.LinearRange;
 import org.eclipse.che.jdt.ls.extension.api.dto.SearchResult;
+import org.eclipse.che.jdt.ls.extension.api.dto.UsagesBatchParameters;
+import org.eclipse.che.jdt.ls.extension.api.dto.UsagesDelta;
+import org.eclipse.che.jdt.ls.extension.api.dto.UsagesParameters;
+import org.eclipse.che.jdt.ls.extension.api.dto.UsagesPartialResult;
 import org.eclipse.che.jdt.ls.extension.api.dto.UsagesResponse;
-import org.eclipse.core.resources.IResource;
-import org.eclipse.core.resources.ResourcesPlugin;
+import org.eclipse.che.jdt.ls.extension.api.dto.UsagesStreamParameters;
+import org.eclipse.che.jdt.ls.extension.api.dto.UsagesSummary;
+import org.eclipse.che.jdt.ls.extension.core.internal.jfr.EventSpan;
+import org.eclipse.che.jdt.ls.extension.core.internal.jfr.ExtensionEvents;
+import org.eclipse.che.jdt.ls.extension.core.internal.usages.IndexedMatch;
+import org.eclipse.che.jdt.ls.extension.core.internal.usages.MatchCollector;
+import org.eclipse.che.jdt.ls.extension.core.internal.usages.MultiElementSearch;
+import org.eclipse.che.jdt.ls.extension.core.internal.usages.ParallelSearch;
+import org.eclipse.che.jdt.ls.extension.core.internal.usages.ReferenceIndex;
+import org.eclipse.che.jdt.ls.extension.core.internal.usages.SearchScopes;
+import org.eclipse.che.jdt.ls.extension.core.internal.usages.UsagesPages;
+import org.eclipse.che.jdt.ls.extension.core.internal.usages.UsagesPages.Search;
+import org.eclipse.che.jdt.ls.extension.core.internal.usages.UsagesRequestor;
 import org.eclipse.core.runtime.CoreException;
 import org.eclipse.core.runtime.IProgressMonitor;
 import org.eclipse.jdt.core.IClasspathContainer;
 import org.eclipse.jdt.core.IClasspathEntry;
 import org.eclipse.jdt.core.IJavaElement;
-import org.eclipse.jdt.core.IJavaProject;
-import org.eclipse.jdt.core.IPackageFragment;
 import org.eclipse.jdt.core.IPackageFragmentRoot;
-import org.eclipse.jdt.core.ISourceReference;
 import org.eclipse.jdt.core.ITypeRoot;
 import org.eclipse.jdt.core.JavaCore;
 import org.eclipse.jdt.core.JavaModelException;
@@ -44,146 +57,510 @@ import org.eclipse.jdt.core.search.SearchEngine;
 import org.eclipse.jdt.core.search.SearchMatch;
 import org.eclipse.jdt.core.search.SearchParticipant;
 import org.eclipse.jdt.core.search.SearchPattern;
-import org.eclipse.jdt.core.search.SearchRequestor;
 import org.eclipse.jdt.ls.core.internal.JDTUtils;
 import org.eclipse.jdt.ls.core.internal.JavaLanguageServerPlugin;
-import org.eclipse.jdt.ls.core.internal.ResourceUtils;
+import org.eclipse.jdt.ls.core.internal.handlers.JDTLanguageServer;
 import org.eclipse.jdt.ls.core.internal.hover.JavaElementLabels;
-import org.eclipse.lsp4j.Location;
 import org.eclipse.lsp4j.SymbolKind;
 import org.eclipse.lsp4j.TextDocumentPositionParams;
 
 public class UsagesCommand {
-  private static final class UsagesRequestor extends SearchRequestor {
-    private final Map<IJavaElement, SearchResult> results = new HashMap<>();
+  private static final int DEFAULT_PAGE_SIZE = 500;
 
-    @Override
-    public void acceptSearchMatch(SearchMatch match) throws CoreException {
-      Object o = match.getElement();
-      if (o instanceof IJavaElement) {
-        IJavaElement element = (IJavaElement) o;
-        SearchResult result = ensureCreated(element);
-        result.getMatches().add(new LinearRange(match.getOffset(), match.getLength()));
+  public static List<UsagesResponse> execute(List<Object> parameters, IProgressMonitor pm) {
+    UsagesParameters param =
+        JavaModelUtil.convertCommandParameter(parameters.get(0), UsagesParameters.class);
+    int pageSize = param.getPageSize() > 0 ? param.getPageSize() : DEFAULT_PAGE_SIZE;
+
+    try {
+      String token = param.getContinuationToken();
+      if (token != null) {
+        Search search = UsagesPages.getInstance().get(token);
+        return Collections.singletonList(
+            page(search, UsagesPages.offset(token), pageSize, param.isDeferLabels()));
+      }
+
+      ITypeRoot typeRoot = JDTUtils.resolveTypeRoot(param.getTextDocument().getUri());
+      IJavaElement elementToSearch = findElement(typeRoot, param, pm);
+      if (elementToSearch == null) {
+        return Collections.emptyList();
       }
+      String searchTerm =
+          JavaElementLabels.getElementLabel(elementToSearch, JavaElementLabels.ALL_DEFAULT);
+      SymbolKind elementKind = JavaModelUtil.mapKind(elementToSearch);
+      boolean includeJRE = isInsideJRE(typeRoot);
+      boolean parallel = param.isParallel();
+
+      UsagesMode mode = param.getMode() == null ? UsagesMode.FULL : param.getMode();
+      switch (mode) {
+        case COUNT:
+          List<IndexedMatch> matches = findMatches(elementToSearch, includeJRE, parallel, pm);
+          return Collections.singletonList(count(searchTerm, elementKind, matches));
+        case PAGE:
+          Search search =
+              UsagesPages.getInstance()
+                  .put(
+                      searchTerm,
+                      elementKind,
+                      findMatches(elementToSearch, includeJRE, parallel, pm));
+          return Collections.singletonList(page(search, 0, pageSize, param.isDeferLabels()));
+        default:
+          UsagesRequestor requestor = new UsagesRequestor();
+          requestor.setDeferLabels(param.isDeferLabels());
+          collect(elementToSearch, includeJRE, parallel, requestor, pm);
+          UsagesResponse response =
+              new UsagesResponse(searchTerm, elementKind, requestor.getPackageResults());
+          response.setMatchCount(requestor.getMatchCount());
+          return Collections.singletonList(response);
+      }
+    } catch (CoreException e) {
+      throw new RuntimeException(e);
     }
+  }
 
-    private SearchResult ensureCreated(IJavaElement element) throws JavaModelException {
-      try {
-        while (element != null && !isInteresting(element)) {
-          // transparent elements don't show up in result
-          element = element.getParent();
+  /**
+   * Finds the references like {@link #execute} but sends every package node to the client in a
+   * {@link Notifications#USAGES_PARTIAL_RESULT} notification as soon as the package has been
+   * searched.
+   *
+   * @return summary of the search, sent after the last partial result
+   */
+  public static UsagesSummary stream(List<Object> parameters, IProgressMonitor pm) {
+    return stream(parameters, pm, UsagesCommand::notifyClient);
+  }
+
+  static UsagesSummary stream(
+      List<Object> parameters, IProgressMonitor pm, Consumer<UsagesPartialResult> client) {
+    UsagesStreamParameters param =
+        JavaModelUtil.convertCommandParameter(parameters.get(0), UsagesStreamParameters.class);
+    String requestId = param.getRequestId();
+
+    try {
+      ITypeRoot typeRoot = JDTUtils.resolveTypeRoot(param.getTextDocument().getUri());
+      IJavaElement elementToSearch = findElement(typeRoot, param, pm);
+      if (elementToSearch == null) {
+        return new UsagesSummary(requestId, null, null, 0, 0);
+      }
+      UsagesRequestor requestor = new UsagesRequestor();
+      requestor.setPackageConsumer(
+          node ->
+              client.accept(new UsagesPartialResult(requestId, Collections.singletonList(node))));
+      collect(elementToSearch, isInsideJRE(typeRoot), false, requestor, pm);
+
+      return new UsagesSummary(
+          requestId,
+          JavaElementLabels.getElementLabel(elementToSearch, JavaElementLabels.ALL_DEFAULT),
+          JavaModelUtil.mapKind(elementToSearch),
+          requestor.getPackageCount(),
+          requestor.getMatchCount());
+    } catch (CoreException e) {
+      throw new RuntimeException(e);
+    }
+  }
+
+  /**
+   * Finds the references to several elements like {@link #execute}, but with a single search for
+   * all the elements which are not in the reference index, see {@link MultiElementSearch}. Elements
+   * whose search includes the system libraries are searched separately.
+   *
+   * @return a response for every position and handle of the parameters, {@code null} if there is
+   *     no element at the position or the handle does not exist anymore
+   */
+  public static List<UsagesResponse> executeBatch(List<Object> parameters, IProgressMonitor pm) {
+    UsagesBatchParameters param =
+        JavaModelUtil.convertCommandParameter(parameters.get(0), UsagesBatchParameters.class);
+
+    try {
+      List<IJavaElement> elements = new ArrayList<>();
+      List<Boolean> includeJRE = new ArrayList<>();
+      for (TextDocumentPositionParams position : param.getPositions()) {
+        ITypeRoot typeRoot = JDTUtils.resolveTypeRoot(position.getTextDocument().getUri());
+        IJavaElement element = typeRoot != null ? findElement(typeRoot, position, pm) : null;
+        includeJRE.add(element != null && isInsideJRE(typeRoot));
+        elements.add(element);
+      }
+      for (String handle : param.getHandles()) {
+        IJavaElement element = JavaCore.create(handle);
+        if (element == null || !element.exists()) {
+          element = null;
+        }
+        includeJRE.add(element != null && isInsideJRE(element));
+        elements.add(element);
+      }
+
+      // elements are searched in separate scopes with and without the system libraries
+      ReferenceIndex index = ReferenceIndex.getInstance();
+      Map<Boolean, Map<IJavaElement, List<IndexedMatch>>> matches = new HashMap<>();
+      Map<Boolean, List<IJavaElement>> toSearch = new HashMap<>();
+      for (int i = 0; i < elements.size(); i++) {
+        IJavaElement element = elements.get(i);
+        if (element == null) {
+          continue;
         }
-        SearchResult r = results.get(element);
-        if (r == null) {
-          r = new SearchResult();
-          r.setChildren(new ArrayList<>());
-          r.setMatches(new ArrayList<>());
-          r.setKind(JavaModelUtil.mapKind(element));
-          r.setName(JavaElementLabels.getElementLabel(element, JavaElementLabels.ALL_DEFAULT));
-          if (element instanceof ISourceReference) {
-            Location l = JDTUtils.toLocation(element);
-            r.setUri(l.getUri());
-            SearchResult parent = ensureCreated(element.getParent());
-            parent.getChildren().add(r);
-          } else if (element instanceof IPackageFragment) {
-            IJavaElement parent = element.getParent();
-            IResource resource = parent.getCorrespondingResource();
-            if (resource != null) {
-              r.setUri(ResourceUtils.fixURI(resource.getLocationURI()));
-            } else {
-              r.setUri(
-                  new URI(
-                          "jdt",
-                          "/"
-                              + parent.getJavaProject().getElementName()
-                              + "/"
-                              + parent.getElementName(),
-                          element.getElementName())
-                      .toString());
-            }
+        boolean jre = includeJRE.get(i);
+        Map<IJavaElement, List<IndexedMatch>> found =
+            matches.computeIfAbsent(jre, scope -> new HashMap<>());
+        List<IJavaElement> missing = toSearch.computeIfAbsent(jre, scope -> new ArrayList<>());
+        if (found.containsKey(element) || missing.contains(element)) {
+          continue;
+        }
+        List<IndexedMatch> indexed = index.get(element, jre);
+        if (indexed != null) {
+          found.put(element, indexed);
+        } else {
+          missing.add(element);
+        }
+      }
+      for (Map.Entry<Boolean, List<IJavaElement>> scope : toSearch.entrySet()) {
+        if (scope.getValue().isEmpty()) {
+          continue;
+        }
+        boolean jre = scope.getKey();
+        long sequence = index.getSequence();
+        for (Map.Entry<IJavaElement, List<SearchMatch>> entry :
+            search(scope.getValue(), jre, pm).entrySet()) {
+          MatchCollector collector = new MatchCollector();
+          for (SearchMatch match : entry.getValue()) {
+            collector.acceptSearchMatch(match);
           }
-          results.put(element, r);
+          index.put(entry.getKey(), jre, collector.getIndexedMatches(), sequence);
+          matches.get(jre).put(entry.getKey(), collector.getIndexedMatches());
+        }
+      }
+
+      List<UsagesResponse> responses = new ArrayList<>(elements.size());
+      for (int i = 0; i < elements.size(); i++) {
+        IJavaElement element = elements.get(i);
+        if (element == null) {
+          responses.add(null);
+          continue;
         }
-        return r;
-      } catch (URISyntaxException e) {
-        JavaLanguageServerPlugin.logException("Uri syntax should not happen", e);
+        UsagesRequestor requestor = new UsagesRequestor();
+        requestor.setDeferLabels(param.isDeferLabels());
+        replay(matches.get(includeJRE.get(i)).get(element), requestor);
+        UsagesResponse response =
+            new UsagesResponse(
+                JavaElementLabels.getElementLabel(element, JavaElementLabels.ALL_DEFAULT),
+                JavaModelUtil.mapKind(element),
+                requestor.getPackageResults());
+        response.setMatchCount(requestor.getMatchCount());
+        responses.add(response);
+      }
+      return responses;
+    } catch (CoreException e) {
+      throw new RuntimeException(e);
+    }
+  }
+
+  /**
+   * Brings the last references found for an element up to date. Only the compilation units changed
+   * since they have been found are searched again, see {@link ReferenceIndex#getSnapshot}.
+   *
+   * @return the references added and removed since the last result, {@code null} if there is no
+   *     element at the position
+   */
+  public static UsagesDelta refresh(List<Object> parameters, IProgressMonitor pm) {
+    UsagesParameters param =
+        JavaModelUtil.convertCommandParameter(parameters.get(0), UsagesParameters.class);
+
+    try {
+      ITypeRoot typeRoot = JDTUtils.resolveTypeRoot(param.getTextDocument().getUri());
+      IJavaElement elementToSearch = findElement(typeRoot, param, pm);
+      if (elementToSearch == null) {
         return null;
       }
+      String searchTerm =
+          JavaElementLabels.getElementLabel(elementToSearch, JavaElementLabels.ALL_DEFAULT);
+      SymbolKind elementKind = JavaModelUtil.mapKind(elementToSearch);
+      boolean includeJRE = isInsideJRE(typeRoot);
+      UsagesRequestor requestor = new UsagesRequestor();
+      requestor.setDeferLabels(param.isDeferLabels());
+
+      ReferenceIndex index = ReferenceIndex.getInstance();
+      long sequence = index.getSequence();
+      ReferenceIndex.Snapshot previous = index.getSnapshot(elementToSearch, includeJRE);
+      if (previous == null) {
+        collect(elementToSearch, includeJRE, param.isParallel(), requestor, pm);
+        UsagesDelta delta =
+            new UsagesDelta(
+                searchTerm, elementKind, requestor.getPackageResults(), Collections.emptyList());
+        delta.setReset(true);
+        delta.setMatchCount(requestor.getMatchCount());
+        return delta;
+      }
+
+      Set<String> changedUnits = previous.getChangedUnits();
+      List<IndexedMatch> found =
+          searchUnits(elementToSearch, changedUnits, includeJRE, pm).getIndexedMatches();
+      Set<IndexedMatch> foundSet = new HashSet<>(found);
+      Set<IndexedMatch> previousSet = new HashSet<>(previous.getMatches());
+      List<IndexedMatch> matches = new ArrayList<>();
+      Map<String, List<IndexedMatch>> removed = new LinkedHashMap<>();
+      for (IndexedMatch match : previous.getMatches()) {
+        if (!changedUnits.contains(match.getUnitHandle())) {
+          matches.add(match);
+        } else if (!foundSet.contains(match)) {
+          removed.computeIfAbsent(match.getUnitHandle(), u -> new ArrayList<>()).add(match);
+        }
+      }
+      for (IndexedMatch match : found) {
+        matches.add(match);
+        if (!previousSet.contains(match)) {
+          requestor.accept(match.getElement(), match.getOffset(), match.getLength());
+        }
+      }
+      index.put(elementToSearch, includeJRE, matches, sequence);
+
+      UsagesDelta delta =
+          new UsagesDelta(searchTerm, elementKind, requestor.getPackageResults(), toFiles(removed));
+      delta.setMatchCount(matches.size());
+      return delta;
+    } catch (CoreException e) {
+      throw new RuntimeException(e);
     }
+  }
 
-    private boolean isInteresting(IJavaElement element) {
-      return INTERESTING_ELEMENT_TYPES.contains(element.getElementType());
+  /**
+   * Resolves labels and URIs of nodes whose labels have been deferred.
+   *
+   * @param arguments handle identifiers of the nodes
+   * @return a node without children for every handle, {@code null} if the element does not exist
+   *     anymore
+   */
+  public static List<SearchResult> resolve(List<Object> arguments, IProgressMonitor pm) {
+    List<SearchResult> resolved = new ArrayList<>(arguments.size());
+    for (Object argument : arguments) {
+      String handle = (String) argument;
+      IJavaElement element = JavaCore.create(handle);
+      SearchResult result = null;
+      if (element != null && element.exists()) {
+        result = new SearchResult();
+        result.setHandle(handle);
+        result.setKind(JavaModelUtil.mapKind(element));
+        result.setName(JavaElementLabels.getElementLabel(element, JavaElementLabels.ALL_DEFAULT));
+        result.setUri(UsagesRequestor.toUri(element));
+      }
+      resolved.add(result);
     }
+    return resolved;
+  }
+
+  private static IJavaElement findElement(
+      ITypeRoot typeRoot, TextDocumentPositionParams param, IProgressMonitor pm)
+      throws JavaModelException {
+    return JDTUtils.findElementAtSelection(
+        typeRoot,
+        param.getPosition().getLine(),
+        param.getPosition().getCharacter(),
+        JavaLanguageServerPlugin.getPreferencesManager(),
+        pm);
+  }
 
-    public Map<IJavaElement, SearchResult> getResults() {
-      return results;
+  /** Passes the references to the requestor, from the reference index if it is fresh. */
+  private static void collect(
+      IJavaElement elementToSearch,
+      boolean includeJRE,
+      boolean parallel,
+      UsagesRequestor requestor,
+      IProgressMonitor pm)
+      throws CoreException {
+    ReferenceIndex index = ReferenceIndex.getInstance();
+    List<IndexedMatch> indexed = index.get(elementToSearch, includeJRE);
+    if (indexed != null) {
+      replay(indexed, requestor);
+    } else {
+      long sequence = index.getSequence();
+      search(elementToSearch, includeJRE, parallel, requestor, pm);
+      index.put(elementToSearch, includeJRE, requestor.getIndexedMatches(), sequence);
     }
+    requestor.complete();
   }
 
-  private static final Set<Integer> INTERESTING_ELEMENT_TYPES;
+  /** Passes indexed references to the requestor, skipping those whose element is gone. */
+  private static void replay(List<IndexedMatch> matches, MatchCollector requestor)
+      throws JavaModelException {
+    for (IndexedMatch match : matches) {
+      IJavaElement element = match.getElement();
+      if (element != null) {
+        requestor.accept(element, match.getOffset(), match.getLength());
+      }
+    }
+  }
 
-  static {
-    INTERESTING_ELEMENT_TYPES = new HashSet<>();
-    INTERESTING_ELEMENT_TYPES.add(IJavaElement.METHOD);
-    INTERESTING_ELEMENT_TYPES.add(IJavaElement.INITIALIZER);
-    INTERESTING_ELEMENT_TYPES.add(IJavaElement.TYPE);
-    INTERESTING_ELEMENT_TYPES.add(IJavaElement.CLASS_FILE);
-    INTERESTING_ELEMENT_TYPES.add(IJavaElement.COMPILATION_UNIT);
-    INTERESTING_ELEMENT_TYPES.add(IJavaElement.PACKAGE_FRAGMENT);
+  /** Returns the references from the reference index if it is fresh, or searches for them. */
+  private static List<IndexedMatch> findMatches(
+      IJavaElement elementToSearch, boolean includeJRE, boolean parallel, IProgressMonitor pm)
+      throws CoreException {
+    ReferenceIndex index = ReferenceIndex.getInstance();
+    List<IndexedMatch> indexed = index.get(elementToSearch, includeJRE);
+    if (indexed != null) {
+      return indexed;
+    }
+    MatchCollector collector = new MatchCollector();
+    long sequence = index.getSequence();
+    search(elementToSearch, includeJRE, parallel, collector, pm);
+    index.put(elementToSearch, includeJRE, collector.getIndexedMatches(), sequence);
+    return collector.getIndexedMatches();
   }
 
-  public static List<UsagesResponse> execute(List<Object> parameters, IProgressMonitor pm) {
-    TextDocumentPositionParams param =
-        JavaModelUtil.convertCommandParameter(parameters.get(0), TextDocumentPositionParams.class);
-    SearchEngine engine = new SearchEngine();
+  /** Searches the compilation units for references, units which do not exist are skipped. */
+  private static MatchCollector searchUnits(
+      IJavaElement elementToSearch, Set<String> units, boolean includeJRE, IProgressMonitor pm)
+      throws CoreException {
+    MatchCollector collector = new MatchCollector();
+    IJavaSearchScope referencesScope = SearchScopes.referencesScope(elementToSearch, includeJRE);
+    List<IJavaElement> existing = new ArrayList<>();
+    for (String unit : units) {
+      IJavaElement element = JavaCore.create(unit);
+      if (element != null && element.exists() && referencesScope.encloses(element)) {
+        existing.add(element);
+      }
+    }
+    if (!existing.isEmpty()) {
+      IJavaSearchScope scope =
+          SearchEngine.createJavaSearchScope(existing.toArray(new IJavaElement[existing.size()]));
+      search(elementToSearch, scope, false, collector, pm);
+    }
+    return collector;
+  }
 
-    try {
-      ITypeRoot typeRoot = JDTUtils.resolveTypeRoot(param.getTextDocument().getUri());
-      IJavaElement elementToSearch =
-          JDTUtils.findElementAtSelection(
-              typeRoot,
-              param.getPosition().getLine(),
-              param.getPosition().getCharacter(),
-              JavaLanguageServerPlugin.getPreferencesManager(),
-              pm);
+  /** Builds a file node with the locations of the references for every compilation unit. */
+  private static List<SearchResult> toFiles(Map<String, List<IndexedMatch>> matchesByUnit) {
+    List<SearchResult> files = new ArrayList<>(matchesByUnit.size());
+    for (Map.Entry<String, List<IndexedMatch>> entry : matchesByUnit.entrySet()) {
+      IJavaElement unit = JavaCore.create(entry.getKey());
+      if (unit == null) {
+        continue;
+      }
+      SearchResult file = new SearchResult();
+      file.setKind(JavaModelUtil.mapKind(unit));
+      file.setName(unit.getElementName());
+      file.setUri(UsagesRequestor.toUri(unit));
+      file.setChildren(new ArrayList<>());
+      List<LinearRange> ranges = new ArrayList<>();
+      for (IndexedMatch match : entry.getValue()) {
+        ranges.add(new LinearRange(match.getOffset(), match.getLength()));
+      }
+      file.setMatches(ranges);
+      files.add(file);
+    }
+    return files;
+  }
 
-      if (elementToSearch == null) {
-        return Collections.emptyList();
+  /** Builds the package and file nodes with the number of references in each of them. */
+  private static UsagesResponse count(
+      String searchTerm, SymbolKind elementKind, List<IndexedMatch> matches)
+      throws JavaModelException {
+    Map<String, Integer> counts = new LinkedHashMap<>();
+    for (IndexedMatch match : matches) {
+      if (match.getUnitHandle() != null) {
+        counts.merge(match.getUnitHandle(), 1, Integer::sum);
       }
-      IJavaProject[] projects =
-          JavaCore.create(ResourcesPlugin.getWorkspace().getRoot()).getJavaProjects();
-      int flags = IJavaSearchScope.SOURCES | IJavaSearchScope.APPLICATION_LIBRARIES;
-      if (isInsideJRE(typeRoot)) {
-        flags |= IJavaSearchScope.SYSTEM_LIBRARIES;
+    }
+    UsagesRequestor requestor = new UsagesRequestor();
+    for (Map.Entry<String, Integer> entry : counts.entrySet()) {
+      IJavaElement unit = JavaCore.create(entry.getKey());
+      if (unit != null) {
+        requestor.acceptCount(unit, entry.getValue());
       }
-      IJavaSearchScope scope = SearchEngine.createJavaSearchScope(projects, flags);
+    }
+    UsagesResponse response =
+        new UsagesResponse(searchTerm, elementKind, requestor.getPackageResults());
+    response.setMatchCount(matches.size());
+    return response;
+  }
 
-      SearchPattern pattern =
-          SearchPattern.createPattern(elementToSearch, IJavaSearchConstants.REFERENCES);
-      UsagesRequestor requestor = new UsagesRequestor();
-      engine.search(
-          pattern,
-          new SearchParticipant[] {SearchEngine.getDefaultSearchParticipant()},
-          scope,
-          requestor,
-          pm);
+  /** Builds the tree of the references of a page, only they get labels and locations. */
+  private static UsagesResponse page(
+      Search search, int offset, int pageSize, boolean deferLabels) throws JavaModelException {
+    List<IndexedMatch> matches = search.getMatches();
+    if (offset < 0 || offset > matches.size()) {
+      throw new IllegalArgumentException("Continuation token out of range: " + offset);
+    }
+    int end = Math.min(matches.size(), offset + pageSize);
+    UsagesRequestor requestor = new UsagesRequestor();
+    requestor.setDeferLabels(deferLabels);
+    replay(matches.subList(offset, end), requestor);
+    UsagesResponse response =
+        new UsagesResponse(
+            search.getSearchedElement(), search.getElementKind(), requestor.getPackageResults());
+    response.setMatchCount(matches.size());
+    if (end < matches.size()) {
+      response.setContinuationToken(search.token(end));
+    }
+    return response;
+  }
 
-      String searchTerm =
-          JavaElementLabels.getElementLabel(elementToSearch, JavaElementLabels.ALL_DEFAULT);
-      SymbolKind elementKind = JavaModelUtil.mapKind(elementToSearch);
-      return Collections.singletonList(
-          new UsagesResponse(
-              searchTerm,
-              elementKind,
-              requestor
-                  .getResults()
-                  .entrySet()
-                  .stream()
-                  .filter(entry -> entry.getKey() instanceof IPackageFragment)
-                  .map(e -> e.getValue())
-                  .collect(Collectors.toList())));
-    } catch (CoreException e) {
-      throw new RuntimeException(e);
+  @SuppressWarnings("restriction")
+  private static void notifyClient(UsagesPartialResult result) {
+    JDTLanguageServer ls = JavaLanguageServerPlugin.getInstance().getProtocol();
+    if (ls != null) {
+      ls.getClientConnection().sendNotification(Notifications.USAGES_PARTIAL_RESULT, result);
+    }
+  }
+
+  private static void search(
+      IJavaElement elementToSearch,
+      boolean includeJRE,
+      boolean parallel,
+      MatchCollector requestor,
+      IProgressMonitor pm)
+      throws CoreException {
+    search(
+        elementToSearch,
+        SearchScopes.referencesScope(elementToSearch, includeJRE),
+        parallel,
+        requestor,
+        pm);
+  }
+
+  private static void search(
+      IJavaElement elementToSearch,
+      IJavaSearchScope scope,
+      boolean parallel,
+      MatchCollector requestor,
+      IProgressMonitor pm)
+      throws CoreException {
+    SearchPattern pattern =
+        SearchPattern.createPattern(elementToSearch, IJavaSearchConstants.REFERENCES);
+    EventSpan searchEvent = ExtensionEvents.SEARCH.begin();
+    try {
+      ParallelSearch parallelSearch = ParallelSearch.getInstance();
+      if (parallel && parallelSearch.isEnabled()) {
+        for (SearchMatch match : parallelSearch.search(pattern, scope, pm)) {
+          requestor.acceptSearchMatch(match);
+        }
+      } else {
+        new SearchEngine()
+            .search(
+                pattern,
+                new SearchParticipant[] {SearchEngine.getDefaultSearchParticipant()},
+                scope,
+                requestor,
+                pm);
+      }
+    } finally {
+      if (searchEvent.isRecording()) {
+        searchEvent.commit("usages", pattern.toString(), requestor.getMatchCount());
+      }
+    }
+  }
+
+  private static Map<IJavaElement, List<SearchMatch>> search(
+      List<IJavaElement> elements, boolean includeJRE, IProgressMonitor pm) throws CoreException {
+    IJavaSearchScope scope = SearchScopes.referencesScope(elements, includeJRE);
+    EventSpan searchEvent = ExtensionEvents.SEARCH.begin();
+    Map<IJavaElement, List<SearchMatch>> matches = Collections.emptyMap();
+    try {
+      matches = MultiElementSearch.search(elements, scope, pm);
+      return matches;
+    } finally {
+      if (searchEvent.isRecording()) {
+        searchEvent.commit(
+            "usages",
+            elements.size() + " elements",
+            matches.values().stream().mapToInt(List::size).sum());
+      }
     }
   }
 
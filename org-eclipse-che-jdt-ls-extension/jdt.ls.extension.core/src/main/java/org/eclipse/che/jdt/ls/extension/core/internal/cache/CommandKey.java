@@ -0,0 +1,89 @@
+/*
+ * Copyright (c) 2012-2018 Red Hat, Inc.
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *   Red Hat, Inc. - initial API and implementation
+ */
+package org.eclipse.che.jdt.ls.extension.core.internal.cache;
+
+import com.google.gson.JsonElement;
+import java.util.List;
+import java.util.Objects;
+import org.eclipse.che.jdt.ls.extension.core.internal.CommandParameterBinder;
+
+/**
+ * Identifies a command invocation by the command id and its arguments. The arguments are compared
+ * by their JSON tree, so that the order of object properties and the difference between integral
+ * and floating point representation of the same number do not matter.
+ */
+public final class CommandKey {
+  private final String commandId;
+  private final JsonElement arguments;
+  private final int hashCode;
+
+  public CommandKey(String commandId, List<Object> arguments) {
+    this.commandId = commandId;
+    this.arguments = CommandParameterBinder.toJsonTree(arguments);
+    this.hashCode = 31 * commandId.hashCode() + hash(this.arguments);
+  }
+
+  public String getCommandId() {
+    return commandId;
+  }
+
+  @Override
+  public boolean equals(Object obj) {
+    if (this == obj) {
+      return true;
+    }
+    if (!(obj instanceof CommandKey)) {
+      return false;
+    }
+    CommandKey other = (CommandKey) obj;
+    return hashCode == other.hashCode
+        && commandId.equals(other.commandId)
+        && arguments.equals(other.arguments);
+  }
+
+  @Override
+  public int hashCode() {
+    return hashCode;
+  }
+
+  @Override
+  public String toString() {
+    return commandId + arguments;
+  }
+
+  /**
+   * {@link JsonElement#hashCode()} distinguishes {@code 1} from {@code 1.0} while {@code equals}
+   * does not, so numbers are hashed by their double value.
+   */
+  private static int hash(JsonElement element) {
+    if (element.isJsonPrimitive() && element.getAsJsonPrimitive().isNumber()) {
+      return Double.hashCode(element.getAsDouble());
+    }
+    if (element.isJsonArray()) {
+      int result = 1;
+      for (JsonElement item : element.getAsJsonArray()) {
+        result = 31 * result + hash(item);
+      }
+      return result;
+    }
+    if (element.isJsonObject()) {
+      // property order does not matter
+      return element
+          .getAsJsonObject()
+          .entrySet()
+          .stream()
+          .mapToInt(entry -> entry.getKey().hashCode() ^ hash(entry.getValue()))
+          .sum();
+    }
+    return Objects.hashCode(element);
+  }
+}
@@ -0,0 +1,117 @@
+/*
+ * Copyright (c) 2012-2018 Red Hat, Inc.
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *   Red Hat, Inc. - initial API and implementation
+ */
+package org.eclipse.che.jdt.ls.extension.core.internal.cache;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import org.eclipse.che.jdt.ls.extension.core.internal.metrics.CommandMetrics;
+
+/**
+ * Memoizes results of read-only commands. An entry is valid only for the {@link
+ * WorkspaceGeneration} it has been computed in, so any change of the workspace invalidates all the
+ * entries at once. The number of entries is bounded, least recently used entries are evicted
+ * first. Cache hits and misses are reported to {@link CommandMetrics}.
+ *
+ * <p>Cached results are shared between callers and must not be modified.
+ */
+public class CommandResultCache {
+  public static final String SIZE_PROPERTY = "che.jdt.ls.extension.cache.size";
+
+  private static final int DEFAULT_SIZE = 128;
+  private static final CommandResultCache INSTANCE =
+      new CommandResultCache(Integer.getInteger(SIZE_PROPERTY, DEFAULT_SIZE));
+
+  private final int maxSize;
+  private final WorkspaceGeneration generation;
+  private final Map<CommandKey, Entry> entries;
+
+  CommandResultCache(int maxSize) {
+    this.maxSize = maxSize;
+    this.generation = WorkspaceGeneration.getInstance();
+    this.entries =
+        new LinkedHashMap<CommandKey, Entry>(16, 0.75f, true) {
+          @Override
+          protected boolean removeEldestEntry(Map.Entry<CommandKey, Entry> eldest) {
+            return size() > CommandResultCache.this.maxSize;
+          }
+        };
+  }
+
+  public static CommandResultCache getInstance() {
+    return INSTANCE;
+  }
+
+  /**
+   * Returns the result of the command computed in the current workspace generation, or computes
+   * and caches it. Failed computations are not cached.
+   *
+   * @param commandId id of the command
+   * @param arguments arguments of the command
+   * @param command computes the result
+   * @return result of the command
+   */
+  public Object get(String commandId, List<Object> arguments, Callable<?> command)
+      throws Exception {
+    if (maxSize <= 0) {
+      return command.call();
+    }
+
+    CommandKey key = new CommandKey(commandId, arguments);
+    long currentGeneration = generation.get();
+    synchronized (entries) {
+      Entry entry = entries.get(key);
+      if (entry != null) {
+        if (entry.generation == currentGeneration) {
+          CommandMetrics.getInstance().recordCacheHit(commandId);
+          return entry.value;
+        }
+        entries.remove(key);
+      }
+    }
+
+    CommandMetrics.getInstance().recordCacheMiss(commandId);
+    Object value = command.call();
+    // the workspace might have been changed while computing, then the result may already be stale
+    if (generation.get() == currentGeneration) {
+      synchronized (entries) {
+        entries.put(key, new Entry(currentGeneration, value));
+      }
+    }
+    return value;
+  }
+
+  /** Returns the number of cached entries, including the stale ones. */
+  public int size() {
+    synchronized (entries) {
+      return entries.size();
+    }
+  }
+
+  /** Removes all the entries. */
+  public void clear() {
+    synchronized (entries) {
+      entries.clear();
+    }
+  }
+
+  private static class Entry {
+    private final long generation;
+    private final Object value;
+
+    Entry(long generation, Object value) {
+      this.generation = generation;
+      this.value = value;
+    }
+  }
+}
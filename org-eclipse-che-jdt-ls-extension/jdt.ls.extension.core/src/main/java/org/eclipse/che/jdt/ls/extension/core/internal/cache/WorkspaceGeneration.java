@@ -0,0 +1,62 @@
+/*
+ * Copyright (c) 2012-2018 Red Hat, Inc.
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *   Red Hat, Inc. - initial API and implementation
+ */
+package org.eclipse.che.jdt.ls.extension.core.internal.cache;
+
+import java.util.concurrent.atomic.AtomicLong;
+import org.eclipse.core.resources.IResourceChangeEvent;
+import org.eclipse.core.resources.IResourceChangeListener;
+import org.eclipse.jdt.core.ElementChangedEvent;
+import org.eclipse.jdt.core.IElementChangedListener;
+
+/**
+ * Counter which is incremented on every change of the workspace resources or of the Java model.
+ * Values computed for a given generation stay valid as long as the generation is not changed.
+ *
+ * <p>The instance has to be registered as a {@code POST_CHANGE} listener of both the workspace and
+ * the Java model. Reconcile events are not taken into account since they do not affect the
+ * persisted state of the projects.
+ */
+public class WorkspaceGeneration implements IResourceChangeListener, IElementChangedListener {
+  private static final WorkspaceGeneration INSTANCE = new WorkspaceGeneration();
+
+  private final AtomicLong generation = new AtomicLong();
+
+  private WorkspaceGeneration() {}
+
+  public static WorkspaceGeneration getInstance() {
+    return INSTANCE;
+  }
+
+  /** Returns the current generation. */
+  public long get() {
+    return generation.get();
+  }
+
+  /** Marks all values computed so far as stale. */
+  public void increment() {
+    generation.incrementAndGet();
+  }
+
+  @Override
+  public void resourceChanged(IResourceChangeEvent event) {
+    if (event.getType() == IResourceChangeEvent.POST_CHANGE) {
+      increment();
+    }
+  }
+
+  @Override
+  public void elementChanged(ElementChangedEvent event) {
+    if (event.getType() == ElementChangedEvent.POST_CHANGE) {
+      increment();
+    }
+  }
+}
@@ -15,19 +15,16 @@ import static java.util.Collections.emptyList;
 import static org.eclipse.che.jdt.ls.extension.core.internal.Utils.ensureNotCancelled;
 
 import com.google.common.base.Preconditions;
-import com.google.gson.Gson;
 import java.util.Hashtable;
 import java.util.List;
 import org.eclipse.che.jdt.ls.extension.api.dto.JavaCoreOptions;
-import org.eclipse.che.jdt.ls.extension.core.internal.GsonUtils;
+import org.eclipse.che.jdt.ls.extension.core.internal.JavaModelUtil;
 import org.eclipse.core.runtime.IProgressMonitor;
 import org.eclipse.jdt.core.JavaCore;
 
 /** @author Anatolii Bazko */
 public class UpdateJavaCoreOptionsCommand {
 
-  private static final Gson GSON = GsonUtils.getInstance();
-
   /**
    * Updates Java Core options.
    *
@@ -38,7 +35,8 @@ public class UpdateJavaCoreOptionsCommand {
     ensureNotCancelled(pm);
 
     JavaCoreOptions currentOptions = GetJavaCoreOptionsCommand.execute(emptyList(), pm);
-    JavaCoreOptions newOptions = GSON.fromJson(GSON.toJson(params.get(0)), JavaCoreOptions.class);
+    JavaCoreOptions newOptions =
+        JavaModelUtil.convertCommandParameter(params.get(0), JavaCoreOptions.class);
 
     merge(currentOptions, newOptions);
     updateJavaCoreOptions(currentOptions);
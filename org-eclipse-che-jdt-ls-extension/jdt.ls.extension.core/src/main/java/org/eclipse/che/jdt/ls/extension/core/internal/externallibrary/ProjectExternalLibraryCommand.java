@@ -11,11 +11,10 @@
  */
 package org.eclipse.che.jdt.ls.extension.core.internal.externallibrary;
 
-import com.google.gson.Gson;
 import java.util.List;
 import org.eclipse.che.jdt.ls.extension.api.dto.ExternalLibrariesParameters;
 import org.eclipse.che.jdt.ls.extension.api.dto.Jar;
-import org.eclipse.che.jdt.ls.extension.core.internal.GsonUtils;
+import org.eclipse.che.jdt.ls.extension.core.internal.JavaModelUtil;
 import org.eclipse.core.runtime.IProgressMonitor;
 import org.eclipse.jdt.core.JavaModelException;
 
@@ -25,8 +24,6 @@ import org.eclipse.jdt.core.JavaModelException;
  * @author Valeriy Svydenko
  */
 public class ProjectExternalLibraryCommand {
-  private static final Gson gson = GsonUtils.getInstance();
-
   /**
    * Gets list of project dependencies.
    *
@@ -37,7 +34,7 @@ public class ProjectExternalLibraryCommand {
    */
   public static List<Jar> execute(List<Object> parameters, IProgressMonitor pm) {
     ExternalLibrariesParameters params =
-        gson.fromJson(gson.toJson(parameters.get(0)), ExternalLibrariesParameters.class);
+        JavaModelUtil.convertCommandParameter(parameters.get(0), ExternalLibrariesParameters.class);
     try {
       return LibraryNavigation.getProjectDependencyJars(params.getProjectUri(), pm);
     } catch (JavaModelException e) {
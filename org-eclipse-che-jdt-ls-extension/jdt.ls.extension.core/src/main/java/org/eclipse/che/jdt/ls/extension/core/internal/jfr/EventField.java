@@ -0,0 +1,37 @@
+/*
+ * Copyright (c) 2012-2018 Red Hat, Inc.
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *   Red Hat, Inc. - initial API and implementation
+ */
+package org.eclipse.che.jdt.ls.extension.core.internal.jfr;
+
+/** Describes a field of an {@link ExtensionEventType}. */
+class EventField {
+  private final Class<?> type;
+  private final String name;
+  private final String label;
+
+  EventField(Class<?> type, String name, String label) {
+    this.type = type;
+    this.name = name;
+    this.label = label;
+  }
+
+  Class<?> getType() {
+    return type;
+  }
+
+  String getName() {
+    return name;
+  }
+
+  String getLabel() {
+    return label;
+  }
+}
@@ -0,0 +1,42 @@
+/*
+ * Copyright (c) 2012-2018 Red Hat, Inc.
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *   Red Hat, Inc. - initial API and implementation
+ */
+package org.eclipse.che.jdt.ls.extension.core.internal.jfr;
+
+/** A started flight recorder event. */
+public class EventSpan {
+  static final EventSpan DISABLED = new EventSpan(null);
+
+  private final Object event;
+
+  EventSpan(Object event) {
+    this.event = event;
+  }
+
+  /**
+   * Returns {@code true} if the event is being recorded. Field values which are expensive to
+   * compute should be computed only in this case.
+   */
+  public boolean isRecording() {
+    return event != null;
+  }
+
+  /**
+   * Ends the event and writes it to the recording if its duration exceeds the configured threshold.
+   *
+   * @param values values of the event fields in the order of their declaration
+   */
+  public void commit(Object... values) {
+    if (event != null) {
+      FlightRecorderSupport.commit(event, values);
+    }
+  }
+}
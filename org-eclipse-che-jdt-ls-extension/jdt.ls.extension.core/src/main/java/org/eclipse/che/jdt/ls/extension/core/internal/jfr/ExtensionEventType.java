@@ -0,0 +1,42 @@
+/*
+ * Copyright (c) 2012-2018 Red Hat, Inc.
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *   Red Hat, Inc. - initial API and implementation
+ */
+package org.eclipse.che.jdt.ls.extension.core.internal.jfr;
+
+import java.util.Arrays;
+
+/** Flight recorder event type emitted by the extension. */
+public class ExtensionEventType {
+  private final String name;
+  private final Object factory;
+
+  ExtensionEventType(String name, String label, String description, EventField... fields) {
+    this.name = name;
+    this.factory =
+        FlightRecorderSupport.createFactory(name, label, description, Arrays.asList(fields));
+  }
+
+  /**
+   * Starts timing a new event. The returned span has to be committed with the values of the event
+   * fields in the order of their declaration.
+   *
+   * @return started event, or a span which records nothing if the event type is not enabled
+   */
+  public EventSpan begin() {
+    Object event = FlightRecorderSupport.begin(factory);
+    return event == null ? EventSpan.DISABLED : new EventSpan(event);
+  }
+
+  @Override
+  public String toString() {
+    return name;
+  }
+}
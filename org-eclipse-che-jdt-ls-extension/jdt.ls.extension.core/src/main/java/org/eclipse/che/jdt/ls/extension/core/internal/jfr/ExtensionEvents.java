@@ -0,0 +1,81 @@
+/*
+ * Copyright (c) 2012-2018 Red Hat, Inc.
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *   Red Hat, Inc. - initial API and implementation
+ */
+package org.eclipse.che.jdt.ls.extension.core.internal.jfr;
+
+import org.eclipse.che.jdt.ls.extension.core.internal.CommandParameterBinder;
+
+/**
+ * Flight recorder events emitted by the extension, all of them belong to the "Eclipse Che / JDT LS
+ * Extension" category. Events are recorded only on a JVM which provides the {@code jdk.jfr} API
+ * and only while a recording with the event enabled is running.
+ */
+public class ExtensionEvents {
+
+  /** Execution of an extension command. */
+  public static final ExtensionEventType COMMAND =
+      new ExtensionEventType(
+          "Command",
+          "Extension Command",
+          "Execution of a command of the Che JDT LS extension",
+          new EventField(String.class, "commandId", "Command Id"),
+          new EventField(int.class, "argumentSize", "Argument Size"),
+          new EventField(int.class, "resultSize", "Result Size"),
+          new EventField(boolean.class, "cancelled", "Cancelled"));
+
+  /** A {@code SearchEngine.search} call. */
+  public static final ExtensionEventType SEARCH =
+      new ExtensionEventType(
+          "Search",
+          "Java Search",
+          "Search in the Java model performed by the extension",
+          new EventField(String.class, "origin", "Origin"),
+          new EventField(String.class, "pattern", "Pattern"),
+          new EventField(int.class, "matches", "Matches"));
+
+  /** Construction of a type hierarchy. */
+  public static final ExtensionEventType TYPE_HIERARCHY =
+      new ExtensionEventType(
+          "TypeHierarchy",
+          "Type Hierarchy",
+          "Construction of a type hierarchy performed by the extension",
+          new EventField(String.class, "origin", "Origin"),
+          new EventField(String.class, "focus", "Focus"),
+          new EventField(int.class, "types", "Types"));
+
+  /** Update of a Maven project requested through the extension. */
+  public static final ExtensionEventType MAVEN_PROJECT_UPDATE =
+      new ExtensionEventType(
+          "MavenProjectUpdate",
+          "Maven Project Update",
+          "Update of a Maven project configuration",
+          new EventField(String.class, "project", "Project"),
+          new EventField(boolean.class, "successful", "Successful"));
+
+  private ExtensionEvents() {}
+
+  /**
+   * Returns the length of the JSON representation of the value. It is expensive, so it should be
+   * computed only for events which are being recorded.
+   *
+   * @return the length or -1 if the value can not be represented as JSON
+   */
+  public static int sizeOf(Object value) {
+    if (value == null) {
+      return 0;
+    }
+    try {
+      return CommandParameterBinder.toJsonTree(value).toString().length();
+    } catch (RuntimeException e) {
+      return -1;
+    }
+  }
+}
@@ -0,0 +1,162 @@
+/*
+ * Copyright (c) 2012-2018 Red Hat, Inc.
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *   Red Hat, Inc. - initial API and implementation
+ */
+package org.eclipse.che.jdt.ls.extension.core.internal.jfr;
+
+import static java.util.Collections.singletonList;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.reflect.Constructor;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import org.eclipse.jdt.ls.core.internal.JavaLanguageServerPlugin;
+
+/**
+ * Accesses the JDK Flight Recorder API reflectively. The bundle is compiled for Java 8 where the
+ * {@code jdk.jfr} package does not exist, so event types are defined at runtime through {@code
+ * jdk.jfr.EventFactory}. On a JVM without the API all the operations are no-ops.
+ */
+class FlightRecorderSupport {
+  private static final String EVENT_NAME_PREFIX = "org.eclipse.che.jdt.ls.extension.";
+  private static final String[] CATEGORY = {"Eclipse Che", "JDT LS Extension"};
+
+  private static MethodHandle createFactory;
+  private static MethodHandle newEvent;
+  private static MethodHandle eventBegin;
+  private static MethodHandle eventEnd;
+  private static MethodHandle eventIsEnabled;
+  private static MethodHandle eventShouldCommit;
+  private static MethodHandle eventSet;
+  private static MethodHandle eventCommit;
+  private static Constructor<?> annotationElement;
+  private static Constructor<?> valueDescriptor;
+  private static Class<?> nameAnnotation;
+  private static Class<?> labelAnnotation;
+  private static Class<?> descriptionAnnotation;
+  private static Class<?> categoryAnnotation;
+  private static volatile boolean available;
+
+  static {
+    try {
+      ClassLoader loader = ClassLoader.getSystemClassLoader();
+      Class<?> factoryClass = loader.loadClass("jdk.jfr.EventFactory");
+      Class<?> eventClass = loader.loadClass("jdk.jfr.Event");
+      MethodHandles.Lookup lookup = MethodHandles.publicLookup();
+      createFactory = lookup.unreflect(factoryClass.getMethod("create", List.class, List.class));
+      newEvent = lookup.unreflect(factoryClass.getMethod("newEvent"));
+      eventBegin = lookup.unreflect(eventClass.getMethod("begin"));
+      eventEnd = lookup.unreflect(eventClass.getMethod("end"));
+      eventIsEnabled = lookup.unreflect(eventClass.getMethod("isEnabled"));
+      eventShouldCommit = lookup.unreflect(eventClass.getMethod("shouldCommit"));
+      eventSet = lookup.unreflect(eventClass.getMethod("set", int.class, Object.class));
+      eventCommit = lookup.unreflect(eventClass.getMethod("commit"));
+      annotationElement =
+          loader.loadClass("jdk.jfr.AnnotationElement").getConstructor(Class.class, Object.class);
+      valueDescriptor =
+          loader
+              .loadClass("jdk.jfr.ValueDescriptor")
+              .getConstructor(Class.class, String.class, List.class);
+      nameAnnotation = loader.loadClass("jdk.jfr.Name");
+      labelAnnotation = loader.loadClass("jdk.jfr.Label");
+      descriptionAnnotation = loader.loadClass("jdk.jfr.Description");
+      categoryAnnotation = loader.loadClass("jdk.jfr.Category");
+      available = true;
+    } catch (ReflectiveOperationException | LinkageError | RuntimeException e) {
+      JavaLanguageServerPlugin.logInfo("JDK Flight Recorder events are not available: " + e);
+    }
+  }
+
+  private FlightRecorderSupport() {}
+
+  /**
+   * Defines a new event type.
+   *
+   * @return factory of the events or {@code null} if the flight recorder is not available
+   */
+  static Object createFactory(
+      String name, String label, String description, List<EventField> fields) {
+    if (!available) {
+      return null;
+    }
+    try {
+      List<Object> annotations =
+          Arrays.asList(
+              annotation(nameAnnotation, EVENT_NAME_PREFIX + name),
+              annotation(labelAnnotation, label),
+              annotation(descriptionAnnotation, description),
+              annotation(categoryAnnotation, CATEGORY));
+      List<Object> descriptors = new ArrayList<>(fields.size());
+      for (EventField field : fields) {
+        descriptors.add(
+            valueDescriptor.newInstance(
+                field.getType(),
+                field.getName(),
+                singletonList(annotation(labelAnnotation, field.getLabel()))));
+      }
+      return createFactory.invoke(annotations, descriptors);
+    } catch (Throwable e) {
+      disable(e);
+      return null;
+    }
+  }
+
+  /**
+   * Creates and begins a new event if the event type is enabled in any running recording.
+   *
+   * @return the event or {@code null} if the event is not recorded
+   */
+  static Object begin(Object factory) {
+    if (!available || factory == null) {
+      return null;
+    }
+    try {
+      Object event = newEvent.invoke(factory);
+      if (!(boolean) eventIsEnabled.invoke(event)) {
+        return null;
+      }
+      eventBegin.invoke(event);
+      return event;
+    } catch (Throwable e) {
+      disable(e);
+      return null;
+    }
+  }
+
+  /** Ends the event and commits it with the given field values if it passes the thresholds. */
+  static void commit(Object event, Object... values) {
+    try {
+      eventEnd.invoke(event);
+      if (!(boolean) eventShouldCommit.invoke(event)) {
+        return;
+      }
+      for (int i = 0; i < values.length; i++) {
+        eventSet.invoke(event, i, values[i]);
+      }
+      eventCommit.invoke(event);
+    } catch (Throwable e) {
+      disable(e);
+    }
+  }
+
+  private static Object annotation(Class<?> type, Object value)
+      throws ReflectiveOperationException {
+    return annotationElement.newInstance(type, value);
+  }
+
+  private static void disable(Throwable e) {
+    if (available) {
+      available = false;
+      JavaLanguageServerPlugin.logException("JDK Flight Recorder events are disabled", e);
+    }
+  }
+}
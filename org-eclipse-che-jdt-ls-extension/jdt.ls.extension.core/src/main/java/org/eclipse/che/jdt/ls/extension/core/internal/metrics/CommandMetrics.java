@@ -0,0 +1,117 @@
+/*
+ * Copyright (c) 2012-2018 Red Hat, Inc.
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *   Red Hat, Inc. - initial API and implementation
+ */
+package org.eclipse.che.jdt.ls.extension.core.internal.metrics;
+
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.stream.Collectors;
+import org.eclipse.che.jdt.ls.extension.api.dto.CommandMetricsReport;
+import org.eclipse.core.runtime.IProgressMonitor;
+import org.eclipse.core.runtime.OperationCanceledException;
+
+/**
+ * Collects per-command execution statistics: number of calls, latency percentiles, cancellations,
+ * rejections, failures and bytes allocated by the executing thread.
+ */
+public class CommandMetrics {
+  private static final CommandMetrics INSTANCE = new CommandMetrics();
+
+  private final ConcurrentMap<String, CommandStatistics> statistics = new ConcurrentHashMap<>();
+
+  public static CommandMetrics getInstance() {
+    return INSTANCE;
+  }
+
+  /**
+   * Executes the command and records its statistics.
+   *
+   * @param commandId id of the executed command
+   * @param pm progress monitor of the command, used to detect cancellation
+   * @param command the command to execute
+   * @return result of the command
+   */
+  public <T> T execute(String commandId, IProgressMonitor pm, Callable<T> command)
+      throws Exception {
+    CommandStatistics commandStatistics =
+        statistics.computeIfAbsent(commandId, CommandStatistics::new);
+    long allocatedBefore = ThreadAllocationCounter.currentThreadAllocatedBytes();
+    long start = System.nanoTime();
+    boolean cancelled = false;
+    boolean rejected = false;
+    boolean failed = false;
+    try {
+      return command.call();
+    } catch (Exception | Error e) {
+      cancelled = isCancellation(e);
+      rejected = e instanceof RejectedExecutionException;
+      failed = true;
+      throw e;
+    } finally {
+      long duration = System.nanoTime() - start;
+      long allocatedAfter = ThreadAllocationCounter.currentThreadAllocatedBytes();
+      if (!cancelled && pm != null && pm.isCanceled()) {
+        cancelled = true;
+      }
+      commandStatistics.record(
+          duration,
+          allocatedBefore == ThreadAllocationCounter.UNSUPPORTED
+              ? ThreadAllocationCounter.UNSUPPORTED
+              : allocatedAfter - allocatedBefore,
+          cancelled,
+          rejected,
+          failed);
+    }
+  }
+
+  /** Records that the command has been answered from the result cache. */
+  public void recordCacheHit(String commandId) {
+    statistics.computeIfAbsent(commandId, CommandStatistics::new).recordCacheLookup(true);
+  }
+
+  /** Records that the result of the command was not cached and had to be computed. */
+  public void recordCacheMiss(String commandId) {
+    statistics.computeIfAbsent(commandId, CommandStatistics::new).recordCacheLookup(false);
+  }
+
+  /** Records that the request has joined an identical execution of the command in flight. */
+  public void recordCoalesced(String commandId) {
+    statistics.computeIfAbsent(commandId, CommandStatistics::new).recordCoalesced();
+  }
+
+  /** Returns the statistics of all commands executed so far, sorted by command id. */
+  public List<CommandMetricsReport> getReports() {
+    return statistics
+        .values()
+        .stream()
+        .map(CommandStatistics::toReport)
+        .sorted(Comparator.comparing(CommandMetricsReport::getCommandId))
+        .collect(Collectors.toList());
+  }
+
+  /** Discards all collected statistics. */
+  public void reset() {
+    statistics.clear();
+  }
+
+  private static boolean isCancellation(Throwable e) {
+    for (Throwable cause = e; cause != null; cause = cause.getCause()) {
+      if (cause instanceof OperationCanceledException) {
+        return true;
+      }
+    }
+    return false;
+  }
+}
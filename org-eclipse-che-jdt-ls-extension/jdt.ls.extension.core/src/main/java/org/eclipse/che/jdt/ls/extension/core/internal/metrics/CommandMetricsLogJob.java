@@ -0,0 +1,103 @@
+/*
+ * Copyright (c) 2012-2018 Red Hat, Inc.
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *   Red Hat, Inc. - initial API and implementation
+ */
+package org.eclipse.che.jdt.ls.extension.core.internal.metrics;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.eclipse.che.jdt.ls.extension.api.dto.CommandMetricsReport;
+import org.eclipse.core.runtime.IProgressMonitor;
+import org.eclipse.core.runtime.IStatus;
+import org.eclipse.core.runtime.Status;
+import org.eclipse.core.runtime.jobs.Job;
+import org.eclipse.jdt.ls.core.internal.JavaLanguageServerPlugin;
+
+/**
+ * Periodically writes command statistics to the workspace log. The job is enabled by setting the
+ * {@value #INTERVAL_PROPERTY} system property to the dump interval in seconds.
+ */
+public class CommandMetricsLogJob extends Job {
+  public static final String INTERVAL_PROPERTY = "che.jdt.ls.extension.metrics.logInterval";
+
+  private final long intervalMillis;
+  private volatile boolean stopped;
+
+  private CommandMetricsLogJob(long intervalMillis) {
+    super("Command metrics logger");
+    this.intervalMillis = intervalMillis;
+    setSystem(true);
+  }
+
+  /**
+   * Creates and schedules the job if it is enabled by the {@value #INTERVAL_PROPERTY} system
+   * property.
+   *
+   * @return scheduled job or {@code null} if periodic logging is disabled
+   */
+  public static CommandMetricsLogJob scheduleIfEnabled() {
+    long intervalSeconds = Long.getLong(INTERVAL_PROPERTY, 0);
+    if (intervalSeconds <= 0) {
+      return null;
+    }
+    CommandMetricsLogJob job = new CommandMetricsLogJob(TimeUnit.SECONDS.toMillis(intervalSeconds));
+    job.schedule(job.intervalMillis);
+    return job;
+  }
+
+  /** Stops periodic logging. */
+  public void stop() {
+    stopped = true;
+    cancel();
+  }
+
+  @Override
+  public boolean shouldSchedule() {
+    return !stopped;
+  }
+
+  @Override
+  protected IStatus run(IProgressMonitor monitor) {
+    if (monitor.isCanceled()) {
+      return Status.CANCEL_STATUS;
+    }
+    List<CommandMetricsReport> reports = CommandMetrics.getInstance().getReports();
+    if (!reports.isEmpty()) {
+      JavaLanguageServerPlugin.logInfo(format(reports));
+    }
+    schedule(intervalMillis);
+    return Status.OK_STATUS;
+  }
+
+  private static String format(List<CommandMetricsReport> reports) {
+    StringBuilder message = new StringBuilder("Extension command metrics:");
+    for (CommandMetricsReport report : reports) {
+      message.append(
+          String.format(
+              "%n  %s calls=%d cancelled=%d rejected=%d failed=%d"
+                  + " p50=%.1fms p95=%.1fms p99=%.1fms max=%.1fms"
+                  + " allocated=%dB cacheHits=%d cacheMisses=%d coalesced=%d",
+              report.getCommandId(),
+              report.getCalls(),
+              report.getCancellations(),
+              report.getRejections(),
+              report.getFailures(),
+              report.getP50Millis(),
+              report.getP95Millis(),
+              report.getP99Millis(),
+              report.getMaxMillis(),
+              report.getAllocatedBytes(),
+              report.getCacheHits(),
+              report.getCacheMisses(),
+              report.getCoalesced()));
+    }
+    return message.toString();
+  }
+}
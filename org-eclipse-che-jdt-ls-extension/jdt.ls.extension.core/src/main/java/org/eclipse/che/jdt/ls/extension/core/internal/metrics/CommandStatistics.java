@@ -0,0 +1,87 @@
+/*
+ * Copyright (c) 2012-2018 Red Hat, Inc.
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *   Red Hat, Inc. - initial API and implementation
+ */
+package org.eclipse.che.jdt.ls.extension.core.internal.metrics;
+
+import java.util.concurrent.atomic.AtomicLong;
+import org.eclipse.che.jdt.ls.extension.api.dto.CommandMetricsReport;
+
+/** Accumulates execution statistics of a single command. */
+public class CommandStatistics {
+  private final String commandId;
+  private final LatencyHistogram latency = new LatencyHistogram();
+  private final AtomicLong cancellations = new AtomicLong();
+  private final AtomicLong failures = new AtomicLong();
+  private final AtomicLong rejections = new AtomicLong();
+  private final AtomicLong allocatedBytes = new AtomicLong();
+  private final AtomicLong cacheHits = new AtomicLong();
+  private final AtomicLong cacheMisses = new AtomicLong();
+  private final AtomicLong coalesced = new AtomicLong();
+
+  CommandStatistics(String commandId) {
+    this.commandId = commandId;
+  }
+
+  /**
+   * Records a finished execution.
+   *
+   * @param nanos execution time in nanoseconds
+   * @param allocated bytes allocated by the executing thread, negative if unknown
+   * @param cancelled whether the execution was cancelled
+   * @param rejected whether the execution was rejected by a bulkhead
+   * @param failed whether the execution ended with an exception
+   */
+  void record(long nanos, long allocated, boolean cancelled, boolean rejected, boolean failed) {
+    latency.record(nanos);
+    if (allocated > 0) {
+      allocatedBytes.addAndGet(allocated);
+    }
+    if (cancelled) {
+      cancellations.incrementAndGet();
+    } else if (rejected) {
+      rejections.incrementAndGet();
+    } else if (failed) {
+      failures.incrementAndGet();
+    }
+  }
+
+  /** Records whether an execution has been answered from the result cache. */
+  void recordCacheLookup(boolean hit) {
+    (hit ? cacheHits : cacheMisses).incrementAndGet();
+  }
+
+  /** Records a request which has joined an identical execution in flight. */
+  void recordCoalesced() {
+    coalesced.incrementAndGet();
+  }
+
+  /** Returns a snapshot of the collected statistics. */
+  public CommandMetricsReport toReport() {
+    CommandMetricsReport report = new CommandMetricsReport();
+    report.setCommandId(commandId);
+    report.setCalls(latency.getCount());
+    report.setCancellations(cancellations.get());
+    report.setFailures(failures.get());
+    report.setRejections(rejections.get());
+    report.setP50Millis(latency.getPercentile(50));
+    report.setP95Millis(latency.getPercentile(95));
+    report.setP99Millis(latency.getPercentile(99));
+    report.setMaxMillis(latency.getMax());
+    report.setAllocatedBytes(
+        ThreadAllocationCounter.isSupported()
+            ? allocatedBytes.get()
+            : ThreadAllocationCounter.UNSUPPORTED);
+    report.setCacheHits(cacheHits.get());
+    report.setCacheMisses(cacheMisses.get());
+    report.setCoalesced(coalesced.get());
+    return report;
+  }
+}
@@ -0,0 +1,41 @@
+/*
+ * Copyright (c) 2012-2018 Red Hat, Inc.
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *   Red Hat, Inc. - initial API and implementation
+ */
+package org.eclipse.che.jdt.ls.extension.core.internal.metrics;
+
+import static org.eclipse.che.jdt.ls.extension.core.internal.Utils.ensureNotCancelled;
+
+import java.util.List;
+import org.eclipse.che.jdt.ls.extension.api.dto.CommandMetricsReport;
+import org.eclipse.core.runtime.IProgressMonitor;
+
+/** Command to get execution statistics of the extension commands. */
+public class GetCommandMetricsCommand {
+
+  /**
+   * Returns execution statistics of all commands executed since the start of the language server.
+   *
+   * @param arguments optional boolean argument, if {@code true} the statistics are reset after
+   *     being collected
+   * @param pm a progress monitor
+   * @return statistics per command
+   */
+  public static List<CommandMetricsReport> execute(List<Object> arguments, IProgressMonitor pm) {
+    ensureNotCancelled(pm);
+
+    CommandMetrics metrics = CommandMetrics.getInstance();
+    List<CommandMetricsReport> reports = metrics.getReports();
+    if (!arguments.isEmpty() && Boolean.parseBoolean(String.valueOf(arguments.get(0)))) {
+      metrics.reset();
+    }
+    return reports;
+  }
+}
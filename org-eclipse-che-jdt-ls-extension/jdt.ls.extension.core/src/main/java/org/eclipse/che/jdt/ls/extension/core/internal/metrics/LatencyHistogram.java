@@ -0,0 +1,99 @@
+/*
+ * Copyright (c) 2012-2018 Red Hat, Inc.
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *   Red Hat, Inc. - initial API and implementation
+ */
+package org.eclipse.che.jdt.ls.extension.core.internal.metrics;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Lock-free latency histogram with logarithmic buckets. Every bucket is 25% wider than the
+ * previous one, so reported percentiles have at most 25% relative error, which is plenty to tell a
+ * 20ms command from a 2s one.
+ */
+public class LatencyHistogram {
+  private static final double GROWTH_FACTOR = 1.25;
+  private static final int BUCKET_COUNT = 96;
+
+  /** Upper bounds of the buckets in microseconds, the last bucket is unbounded. */
+  private static final long[] UPPER_BOUNDS;
+
+  static {
+    UPPER_BOUNDS = new long[BUCKET_COUNT];
+    double bound = 1;
+    for (int i = 0; i < BUCKET_COUNT; i++) {
+      UPPER_BOUNDS[i] = (long) Math.ceil(bound);
+      bound *= GROWTH_FACTOR;
+    }
+    UPPER_BOUNDS[BUCKET_COUNT - 1] = Long.MAX_VALUE;
+  }
+
+  private final AtomicLongArray buckets = new AtomicLongArray(BUCKET_COUNT);
+  private final AtomicLong count = new AtomicLong();
+  private final AtomicLong max = new AtomicLong();
+
+  /**
+   * Records a single observation.
+   *
+   * @param nanos measured latency in nanoseconds
+   */
+  public void record(long nanos) {
+    long micros = Math.max(0, nanos / 1000);
+    int index = Arrays.binarySearch(UPPER_BOUNDS, micros);
+    if (index < 0) {
+      index = -index - 1;
+    }
+    buckets.incrementAndGet(index);
+    count.incrementAndGet();
+
+    long currentMax;
+    while ((currentMax = max.get()) < micros && !max.compareAndSet(currentMax, micros)) {
+      // retry until the maximum is updated or another thread recorded a bigger value
+    }
+  }
+
+  /**
+   * Returns the approximated value at the given percentile.
+   *
+   * @param percentile value in the range (0, 100]
+   * @return latency in milliseconds, 0 if nothing has been recorded
+   */
+  public double getPercentile(double percentile) {
+    long total = count.get();
+    if (total == 0) {
+      return 0;
+    }
+    long threshold = (long) Math.ceil(total * percentile / 100);
+    long seen = 0;
+    for (int i = 0; i < BUCKET_COUNT; i++) {
+      seen += buckets.get(i);
+      if (seen >= threshold) {
+        return toMillis(Math.min(UPPER_BOUNDS[i], max.get()));
+      }
+    }
+    return getMax();
+  }
+
+  /** Returns the biggest recorded latency in milliseconds. */
+  public double getMax() {
+    return toMillis(max.get());
+  }
+
+  /** Returns the number of recorded observations. */
+  public long getCount() {
+    return count.get();
+  }
+
+  private static double toMillis(long micros) {
+    return micros / 1000.0;
+  }
+}
@@ -0,0 +1,73 @@
+/*
+ * Copyright (c) 2012-2018 Red Hat, Inc.
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *   Red Hat, Inc. - initial API and implementation
+ */
+package org.eclipse.che.jdt.ls.extension.core.internal.metrics;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.lang.reflect.Method;
+import org.eclipse.jdt.ls.core.internal.JavaLanguageServerPlugin;
+
+/**
+ * Reads the amount of bytes allocated by the current thread. The HotSpot specific {@code
+ * com.sun.management.ThreadMXBean} is accessed reflectively because the package is not exported to
+ * OSGi bundles.
+ */
+class ThreadAllocationCounter {
+  static final long UNSUPPORTED = -1;
+
+  private static final ThreadMXBean THREAD_BEAN = ManagementFactory.getThreadMXBean();
+  private static final Method GET_ALLOCATED_BYTES = findAllocatedBytesMethod();
+
+  private ThreadAllocationCounter() {}
+
+  /**
+   * Returns the total amount of bytes allocated by the current thread so far.
+   *
+   * @return allocated bytes or {@link #UNSUPPORTED} if the JVM does not provide the information
+   */
+  static long currentThreadAllocatedBytes() {
+    if (GET_ALLOCATED_BYTES == null) {
+      return UNSUPPORTED;
+    }
+    try {
+      return (Long) GET_ALLOCATED_BYTES.invoke(THREAD_BEAN, Thread.currentThread().getId());
+    } catch (ReflectiveOperationException e) {
+      return UNSUPPORTED;
+    }
+  }
+
+  static boolean isSupported() {
+    return GET_ALLOCATED_BYTES != null;
+  }
+
+  private static Method findAllocatedBytesMethod() {
+    try {
+      Class<?> beanInterface =
+          ClassLoader.getSystemClassLoader().loadClass("com.sun.management.ThreadMXBean");
+      if (!beanInterface.isInstance(THREAD_BEAN)) {
+        return null;
+      }
+      Method isSupported = beanInterface.getMethod("isThreadAllocatedMemorySupported");
+      if (!(Boolean) isSupported.invoke(THREAD_BEAN)) {
+        return null;
+      }
+      beanInterface
+          .getMethod("setThreadAllocatedMemoryEnabled", boolean.class)
+          .invoke(THREAD_BEAN, true);
+      return beanInterface.getMethod("getThreadAllocatedBytes", long.class);
+    } catch (ReflectiveOperationException | RuntimeException e) {
+      JavaLanguageServerPlugin.logInfo(
+          "Thread allocation measurement is not available: " + e.getMessage());
+      return null;
+    }
+  }
+}
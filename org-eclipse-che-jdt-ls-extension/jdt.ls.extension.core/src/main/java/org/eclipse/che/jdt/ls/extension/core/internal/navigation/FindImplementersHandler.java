@@ -13,12 +13,12 @@ package org.eclipse.che.jdt.ls.extension.core.internal.navigation;
 
 import static org.eclipse.che.jdt.ls.extension.core.internal.Utils.ensureNotCancelled;
 
-import com.google.gson.Gson;
 import java.util.ArrayList;
 import java.util.List;
 import org.eclipse.che.jdt.ls.extension.api.dto.ImplementersResponse;
-import org.eclipse.che.jdt.ls.extension.core.internal.GsonUtils;
 import org.eclipse.che.jdt.ls.extension.core.internal.JavaModelUtil;
+import org.eclipse.che.jdt.ls.extension.core.internal.jfr.EventSpan;
+import org.eclipse.che.jdt.ls.extension.core.internal.jfr.ExtensionEvents;
 import org.eclipse.core.runtime.IProgressMonitor;
 import org.eclipse.jdt.core.IJavaElement;
 import org.eclipse.jdt.core.IMethod;
@@ -42,8 +42,6 @@ import org.eclipse.lsp4j.TextDocumentPositionParams;
  * @author dbocharo
  */
 public class FindImplementersHandler {
-  private static final Gson gson = GsonUtils.getInstance();
-
   /**
    * Finds implementers for an element defined by position
    *
@@ -56,7 +54,7 @@ public class FindImplementersHandler {
   @SuppressWarnings("restriction")
   public static ImplementersResponse getImplementers(List<Object> parameters, IProgressMonitor pm) {
     TextDocumentPositionParams param =
-        gson.fromJson(gson.toJson(parameters.get(0)), TextDocumentPositionParams.class);
+        JavaModelUtil.convertCommandParameter(parameters.get(0), TextDocumentPositionParams.class);
 
     ITypeRoot typeRoot = JDTUtils.resolveTypeRoot(param.getTextDocument().getUri());
 
@@ -92,8 +90,12 @@ public class FindImplementersHandler {
       IJavaElement element, List<SymbolInformation> implementers, IProgressMonitor pm)
       throws JavaModelException {
     IType type = (IType) element;
+    EventSpan hierarchyEvent = ExtensionEvents.TYPE_HIERARCHY.begin();
     ITypeHierarchy typeHierarchy = type.newTypeHierarchy(pm);
     IType[] implTypes = typeHierarchy.getAllSubtypes(type);
+    if (hierarchyEvent.isRecording()) {
+      hierarchyEvent.commit("implementers", type.getFullyQualifiedName(), implTypes.length);
+    }
 
     for (IType implType : implTypes) {
       addImplementer(implType, implementers);
@@ -109,8 +111,12 @@ public class FindImplementersHandler {
     if (parentType == null) {
       return;
     }
+    EventSpan hierarchyEvent = ExtensionEvents.TYPE_HIERARCHY.begin();
     ITypeHierarchy typeHierarchy = parentType.newTypeHierarchy(pm);
     IType[] subTypes = typeHierarchy.getAllSubtypes(parentType);
+    if (hierarchyEvent.isRecording()) {
+      hierarchyEvent.commit("implementers", parentType.getFullyQualifiedName(), subTypes.length);
+    }
 
     MethodOverrideTester methodOverrideTester = new MethodOverrideTester(parentType, typeHierarchy);
 
@@ -13,17 +13,22 @@ package org.eclipse.che.jdt.ls.extension.core.internal.pom;
 
 import static org.eclipse.che.jdt.ls.extension.core.internal.Utils.ensureNotCancelled;
 
-import com.google.gson.Gson;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
 import org.eclipse.che.jdt.ls.extension.api.dto.ReImportMavenProjectsCommandParameters;
-import org.eclipse.che.jdt.ls.extension.core.internal.GsonUtils;
+import org.eclipse.che.jdt.ls.extension.core.internal.JavaModelUtil;
+import org.eclipse.che.jdt.ls.extension.core.internal.jfr.EventSpan;
+import org.eclipse.che.jdt.ls.extension.core.internal.jfr.ExtensionEvents;
 import org.eclipse.core.resources.IFile;
 import org.eclipse.core.resources.IProject;
 import org.eclipse.core.runtime.IProgressMonitor;
+import org.eclipse.core.runtime.IStatus;
+import org.eclipse.core.runtime.jobs.IJobChangeEvent;
 import org.eclipse.core.runtime.jobs.Job;
+import org.eclipse.core.runtime.jobs.JobChangeAdapter;
 import org.eclipse.jdt.ls.core.internal.JDTUtils;
 import org.eclipse.jdt.ls.core.internal.JavaLanguageServerPlugin;
 
@@ -33,8 +38,6 @@ import org.eclipse.jdt.ls.core.internal.JavaLanguageServerPlugin;
  * @author Mykola Morhun
  */
 public class ReImportMavenProjectsHandler {
-  private static final Gson gson = GsonUtils.getInstance();
-
   /**
    * Updates given maven projects.
    *
@@ -46,7 +49,8 @@ public class ReImportMavenProjectsHandler {
       List<Object> arguments, IProgressMonitor progressMonitor) {
 
     ReImportMavenProjectsCommandParameters parameters =
-        gson.fromJson(gson.toJson(arguments.get(0)), ReImportMavenProjectsCommandParameters.class);
+        JavaModelUtil.convertCommandParameter(
+            arguments.get(0), ReImportMavenProjectsCommandParameters.class);
 
     ensureNotCancelled(progressMonitor);
     final Map<String, IProject> projects =
@@ -90,10 +94,32 @@ public class ReImportMavenProjectsHandler {
   public static List<Job> updateProjects(Map<String, IProject> projects) {
     List<Job> updatedJobs = new ArrayList<>(projects.size());
     for (String uri : projects.keySet()) {
+      EventSpan updateEvent = ExtensionEvents.MAVEN_PROJECT_UPDATE.begin();
       Job job =
           JavaLanguageServerPlugin.getProjectsManager().updateProject(projects.get(uri), true);
+      if (updateEvent.isRecording() && job != null) {
+        recordWhenDone(job, updateEvent, uri);
+      }
       updatedJobs.add(job);
     }
     return updatedJobs;
   }
+
+  private static void recordWhenDone(Job job, EventSpan updateEvent, String uri) {
+    AtomicBoolean recorded = new AtomicBoolean();
+    job.addJobChangeListener(
+        new JobChangeAdapter() {
+          @Override
+          public void done(IJobChangeEvent event) {
+            if (recorded.compareAndSet(false, true)) {
+              updateEvent.commit(uri, event.getResult().isOK());
+            }
+          }
+        });
+    // the job might have finished before the listener was added
+    IStatus result = job.getResult();
+    if (result != null && recorded.compareAndSet(false, true)) {
+      updateEvent.commit(uri, result.isOK());
+    }
+  }
 }
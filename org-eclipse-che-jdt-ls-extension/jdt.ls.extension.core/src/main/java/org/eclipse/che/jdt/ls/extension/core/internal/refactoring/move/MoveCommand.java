@@ -15,7 +15,6 @@ import static org.eclipse.che.jdt.ls.extension.core.internal.ChangeUtil.convertR
 import static org.eclipse.che.jdt.ls.extension.core.internal.Utils.ensureNotCancelled;
 
 import com.google.common.base.Preconditions;
-import com.google.gson.Gson;
 import java.net.URI;
 import java.util.LinkedList;
 import java.util.List;
@@ -24,7 +23,7 @@ import org.eclipse.che.jdt.ls.extension.api.dto.MoveSettings;
 import org.eclipse.che.jdt.ls.extension.api.dto.RefactoringResult;
 import org.eclipse.che.jdt.ls.extension.api.dto.Resource;
 import org.eclipse.che.jdt.ls.extension.core.internal.ChangeUtil;
-import org.eclipse.che.jdt.ls.extension.core.internal.GsonUtils;
+import org.eclipse.che.jdt.ls.extension.core.internal.JavaModelUtil;
 import org.eclipse.core.resources.IFolder;
 import org.eclipse.core.resources.IProject;
 import org.eclipse.core.resources.IResource;
@@ -53,8 +52,6 @@ import org.eclipse.ltk.core.refactoring.Change;
  * @author Valeriy Svydenko
  */
 public class MoveCommand {
-  private static final Gson GSON = GsonUtils.getInstance();
-
   /**
    * The command executes Move refactoring.
    *
@@ -70,7 +67,8 @@ public class MoveCommand {
     CheWorkspaceEdit edit = new CheWorkspaceEdit();
     result.setCheWorkspaceEdit(edit);
 
-    MoveSettings moveSettings = GSON.fromJson(GSON.toJson(arguments.get(0)), MoveSettings.class);
+    MoveSettings moveSettings =
+        JavaModelUtil.convertCommandParameter(arguments.get(0), MoveSettings.class);
 
     String destinationUri = moveSettings.getDestination();
     if (destinationUri == null || destinationUri.isEmpty()) {
@@ -14,12 +14,11 @@ package org.eclipse.che.jdt.ls.extension.core.internal.refactoring.move;
 import static org.eclipse.che.jdt.ls.extension.core.internal.Utils.ensureNotCancelled;
 
 import com.google.common.base.Preconditions;
-import com.google.gson.Gson;
 import java.util.List;
 import java.util.function.Function;
 import org.eclipse.che.jdt.ls.extension.api.dto.CreateMoveParams;
 import org.eclipse.che.jdt.ls.extension.api.dto.Resource;
-import org.eclipse.che.jdt.ls.extension.core.internal.GsonUtils;
+import org.eclipse.che.jdt.ls.extension.core.internal.JavaModelUtil;
 import org.eclipse.core.resources.IResource;
 import org.eclipse.core.runtime.IProgressMonitor;
 import org.eclipse.jdt.core.IJavaElement;
@@ -34,8 +33,6 @@ import org.eclipse.jdt.ls.core.internal.corext.refactoring.RefactoringAvailabili
  * @author Valeriy Svydenko
  */
 public class ValidateMoveCommand {
-  private static final Gson GSON = GsonUtils.getInstance();
-
   /**
    * The command checks if it's possible to execute Move refactoring.
    *
@@ -47,7 +44,7 @@ public class ValidateMoveCommand {
     ensureNotCancelled(pm);
 
     CreateMoveParams moveParams =
-        GSON.fromJson(GSON.toJson(arguments.get(0)), CreateMoveParams.class);
+        JavaModelUtil.convertCommandParameter(arguments.get(0), CreateMoveParams.class);
 
     Function<Resource, IJavaElement> mapper =
         resource -> {
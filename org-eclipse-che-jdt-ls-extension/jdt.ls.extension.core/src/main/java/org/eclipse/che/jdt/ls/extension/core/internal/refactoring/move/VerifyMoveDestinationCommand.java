@@ -14,7 +14,6 @@ package org.eclipse.che.jdt.ls.extension.core.internal.refactoring.move;
 import static org.eclipse.che.jdt.ls.extension.core.internal.Utils.ensureNotCancelled;
 
 import com.google.common.base.Preconditions;
-import com.google.gson.Gson;
 import java.net.URI;
 import java.util.Collections;
 import java.util.LinkedList;
@@ -24,7 +23,7 @@ import org.eclipse.che.jdt.ls.extension.api.dto.MoveSettings;
 import org.eclipse.che.jdt.ls.extension.api.dto.RefactoringStatus;
 import org.eclipse.che.jdt.ls.extension.api.dto.RefactoringStatusEntry;
 import org.eclipse.che.jdt.ls.extension.api.dto.Resource;
-import org.eclipse.che.jdt.ls.extension.core.internal.GsonUtils;
+import org.eclipse.che.jdt.ls.extension.core.internal.JavaModelUtil;
 import org.eclipse.core.resources.IFolder;
 import org.eclipse.core.resources.IProject;
 import org.eclipse.core.resources.IResource;
@@ -52,8 +51,6 @@ import org.eclipse.jdt.ls.core.internal.corext.refactoring.reorg.ReorgPolicyFact
  * @author Valeriy Svydenko
  */
 public class VerifyMoveDestinationCommand {
-  private static final Gson GSON = GsonUtils.getInstance();
-
   /**
    * The command checks if destination is available.
    *
@@ -64,7 +61,8 @@ public class VerifyMoveDestinationCommand {
     validateArguments(arguments);
     ensureNotCancelled(pm);
 
-    MoveSettings moveSettings = GSON.fromJson(GSON.toJson(arguments.get(0)), MoveSettings.class);
+    MoveSettings moveSettings =
+        JavaModelUtil.convertCommandParameter(arguments.get(0), MoveSettings.class);
     String destinationUri = moveSettings.getDestination();
 
     if (destinationUri == null || destinationUri.isEmpty()) {
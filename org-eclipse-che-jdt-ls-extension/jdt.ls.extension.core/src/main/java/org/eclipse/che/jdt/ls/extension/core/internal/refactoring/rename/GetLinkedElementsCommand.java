@@ -14,12 +14,11 @@ package org.eclipse.che.jdt.ls.extension.core.internal.refactoring.rename;
 import static java.util.Collections.emptyList;
 
 import com.google.common.base.Preconditions;
-import com.google.gson.Gson;
 import java.util.Arrays;
 import java.util.Comparator;
 import java.util.LinkedList;
 import java.util.List;
-import org.eclipse.che.jdt.ls.extension.core.internal.GsonUtils;
+import org.eclipse.che.jdt.ls.extension.core.internal.JavaModelUtil;
 import org.eclipse.core.runtime.IProgressMonitor;
 import org.eclipse.jdt.core.ICompilationUnit;
 import org.eclipse.jdt.core.JavaModelException;
@@ -46,8 +45,6 @@ import org.eclipse.lsp4j.TextDocumentPositionParams;
  * @author Valeriy Svydenko
  */
 public class GetLinkedElementsCommand {
-  private static final Gson GSON = GsonUtils.getInstance();
-
   /**
    * Analyzes cursor position and finds ranges of linked elements in opened CU.
    *
@@ -59,7 +56,7 @@ public class GetLinkedElementsCommand {
     validateArguments(arguments);
 
     TextDocumentPositionParams params =
-        GSON.fromJson(GSON.toJson(arguments.get(0)), TextDocumentPositionParams.class);
+        JavaModelUtil.convertCommandParameter(arguments.get(0), TextDocumentPositionParams.class);
 
     TextDocumentIdentifier textDocument = params.getTextDocument();
     Position position = params.getPosition();
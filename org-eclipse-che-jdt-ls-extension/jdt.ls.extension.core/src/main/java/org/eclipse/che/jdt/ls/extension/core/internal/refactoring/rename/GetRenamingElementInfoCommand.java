@@ -14,12 +14,10 @@ package org.eclipse.che.jdt.ls.extension.core.internal.refactoring.rename;
 import static org.eclipse.che.jdt.ls.extension.core.internal.Utils.ensureNotCancelled;
 
 import com.google.common.base.Preconditions;
-import com.google.gson.Gson;
 import java.util.List;
 import org.eclipse.che.jdt.ls.extension.api.RenameKind;
 import org.eclipse.che.jdt.ls.extension.api.dto.RenameSelectionParams;
 import org.eclipse.che.jdt.ls.extension.api.dto.RenamingElementInfo;
-import org.eclipse.che.jdt.ls.extension.core.internal.GsonUtils;
 import org.eclipse.che.jdt.ls.extension.core.internal.JavaModelUtil;
 import org.eclipse.core.runtime.CoreException;
 import org.eclipse.core.runtime.IProgressMonitor;
@@ -38,8 +36,6 @@ import org.eclipse.jdt.ls.core.internal.JavaLanguageServerPlugin;
  * @author Valeriy Svydenko
  */
 public class GetRenamingElementInfoCommand {
-  private static final Gson GSON = GsonUtils.getInstance();
-
   /**
    * Analyzes curesor position and finds type of selected element.
    *
@@ -55,7 +51,7 @@ public class GetRenamingElementInfoCommand {
     RenamingElementInfo result = new RenamingElementInfo();
 
     RenameSelectionParams params =
-        GSON.fromJson(GSON.toJson(arguments.get(0)), RenameSelectionParams.class);
+        JavaModelUtil.convertCommandParameter(arguments.get(0), RenameSelectionParams.class);
 
     try {
       RenameKind selectedElement = params.getRenameKind();
@@ -15,14 +15,12 @@ import static org.eclipse.che.jdt.ls.extension.core.internal.ChangeUtil.convertR
 import static org.eclipse.che.jdt.ls.extension.core.internal.Utils.ensureNotCancelled;
 
 import com.google.common.base.Preconditions;
-import com.google.gson.Gson;
 import java.util.List;
 import org.eclipse.che.jdt.ls.extension.api.RenameKind;
 import org.eclipse.che.jdt.ls.extension.api.dto.CheWorkspaceEdit;
 import org.eclipse.che.jdt.ls.extension.api.dto.RefactoringResult;
 import org.eclipse.che.jdt.ls.extension.api.dto.RenameSettings;
 import org.eclipse.che.jdt.ls.extension.core.internal.ChangeUtil;
-import org.eclipse.che.jdt.ls.extension.core.internal.GsonUtils;
 import org.eclipse.che.jdt.ls.extension.core.internal.JavaModelUtil;
 import org.eclipse.core.runtime.CoreException;
 import org.eclipse.core.runtime.IProgressMonitor;
@@ -51,8 +49,6 @@ import org.eclipse.ltk.core.refactoring.participants.RenameRefactoring;
  * @author Valeriy Svydenko
  */
 public class RenameCommand {
-  private static final Gson GSON = GsonUtils.getInstance();
-
   /**
    * The command executes Rename refactoring.
    *
@@ -69,7 +65,7 @@ public class RenameCommand {
     result.setCheWorkspaceEdit(edit);
 
     RenameSettings renameSettings =
-        GSON.fromJson(GSON.toJson(arguments.get(0)), RenameSettings.class);
+        JavaModelUtil.convertCommandParameter(arguments.get(0), RenameSettings.class);
     RenameParams params = renameSettings.getRenameParams();
 
     try {
@@ -14,13 +14,11 @@ package org.eclipse.che.jdt.ls.extension.core.internal.refactoring.rename;
 import static org.eclipse.che.jdt.ls.extension.core.internal.Utils.ensureNotCancelled;
 
 import com.google.common.base.Preconditions;
-import com.google.gson.Gson;
 import java.util.List;
 import org.eclipse.che.jdt.ls.extension.api.RenameKind;
 import org.eclipse.che.jdt.ls.extension.api.dto.RefactoringStatus;
 import org.eclipse.che.jdt.ls.extension.api.dto.RenameSelectionParams;
 import org.eclipse.che.jdt.ls.extension.core.internal.ChangeUtil;
-import org.eclipse.che.jdt.ls.extension.core.internal.GsonUtils;
 import org.eclipse.che.jdt.ls.extension.core.internal.JavaModelUtil;
 import org.eclipse.core.runtime.CoreException;
 import org.eclipse.core.runtime.IProgressMonitor;
@@ -37,8 +35,6 @@ import org.eclipse.lsp4j.Position;
  * @author Valeriy Svydenko
  */
 public class ValidateNewNameCommand {
-  private static final Gson GSON = GsonUtils.getInstance();
-
   /**
    * Validates new name.
    *
@@ -51,7 +47,7 @@ public class ValidateNewNameCommand {
     ensureNotCancelled(pm);
 
     RenameSelectionParams params =
-        GSON.fromJson(GSON.toJson(arguments.get(0)), RenameSelectionParams.class);
+        JavaModelUtil.convertCommandParameter(arguments.get(0), RenameSelectionParams.class);
 
     RefactoringStatus status = new RefactoringStatus();
 
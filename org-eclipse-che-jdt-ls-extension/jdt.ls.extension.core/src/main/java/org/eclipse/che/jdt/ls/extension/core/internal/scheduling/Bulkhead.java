@@ -0,0 +1,113 @@
+/*
+ * Copyright (c) 2012-2018 Red Hat, Inc.
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *   Red Hat, Inc. - initial API and implementation
+ */
+package org.eclipse.che.jdt.ls.extension.core.internal.scheduling;
+
+import static org.eclipse.che.jdt.ls.extension.core.internal.Utils.ensureNotCancelled;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.eclipse.core.runtime.IProgressMonitor;
+import org.eclipse.core.runtime.OperationCanceledException;
+
+/**
+ * Limits the number of concurrently executed commands of a {@link CommandClass}. Commands run on
+ * the request threads of the language server, so a command waiting for a permit still occupies a
+ * thread; the number of waiting commands is therefore bounded too and any command over the limit is
+ * rejected immediately with {@link RejectedExecutionException}.
+ */
+public class Bulkhead {
+  private static final long POLL_INTERVAL_MILLIS = 50;
+  private static final Map<CommandClass, Bulkhead> bulkheads = new EnumMap<>(CommandClass.class);
+
+  static {
+    for (CommandClass commandClass : CommandClass.values()) {
+      bulkheads.put(
+          commandClass,
+          new Bulkhead(
+              commandClass.name(), commandClass.getPermits(), commandClass.getQueueDepth()));
+    }
+  }
+
+  private final String name;
+  private final Semaphore permits;
+  private final int queueDepth;
+  private final AtomicInteger waiting = new AtomicInteger();
+
+  Bulkhead(String name, int permits, int queueDepth) {
+    this.name = name;
+    this.permits = new Semaphore(Math.max(1, permits), true);
+    this.queueDepth = Math.max(0, queueDepth);
+  }
+
+  /** Returns the bulkhead shared by all the commands of the class. */
+  public static Bulkhead of(CommandClass commandClass) {
+    return bulkheads.get(commandClass);
+  }
+
+  /**
+   * Executes the command as soon as a permit is available.
+   *
+   * @param commandId id of the command, used for error reporting
+   * @param pm progress monitor of the command, waiting for a permit stops when it is cancelled
+   * @param command the command to execute
+   * @return result of the command
+   * @throws RejectedExecutionException if too many commands are waiting for a permit
+   */
+  public <T> T execute(String commandId, IProgressMonitor pm, Callable<T> command)
+      throws Exception {
+    acquire(commandId, pm);
+    try {
+      return command.call();
+    } finally {
+      permits.release();
+    }
+  }
+
+  /** Returns the number of commands waiting for a permit. */
+  public int getWaitingCount() {
+    return waiting.get();
+  }
+
+  private void acquire(String commandId, IProgressMonitor pm) {
+    // the timed variant honours fairness, the untimed one would barge ahead of queued commands
+    try {
+      if (permits.tryAcquire(0, TimeUnit.MILLISECONDS)) {
+        return;
+      }
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new OperationCanceledException();
+    }
+    if (waiting.incrementAndGet() > queueDepth) {
+      waiting.decrementAndGet();
+      throw new RejectedExecutionException(
+          String.format(
+              "Command '%s' rejected: too many %s commands are in progress",
+              commandId, name.toLowerCase()));
+    }
+    try {
+      while (!permits.tryAcquire(POLL_INTERVAL_MILLIS, TimeUnit.MILLISECONDS)) {
+        ensureNotCancelled(pm);
+      }
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new OperationCanceledException();
+    } finally {
+      waiting.decrementAndGet();
+    }
+  }
+}
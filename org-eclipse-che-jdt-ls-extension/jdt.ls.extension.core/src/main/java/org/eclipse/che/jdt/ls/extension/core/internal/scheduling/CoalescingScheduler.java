@@ -0,0 +1,158 @@
+/*
+ * Copyright (c) 2012-2018 Red Hat, Inc.
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *   Red Hat, Inc. - initial API and implementation
+ */
+package org.eclipse.che.jdt.ls.extension.core.internal.scheduling;
+
+import static org.eclipse.che.jdt.ls.extension.core.internal.Utils.ensureNotCancelled;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import org.eclipse.che.jdt.ls.extension.core.internal.cache.CommandKey;
+import org.eclipse.che.jdt.ls.extension.core.internal.cache.WorkspaceGeneration;
+import org.eclipse.che.jdt.ls.extension.core.internal.metrics.CommandMetrics;
+import org.eclipse.core.runtime.IProgressMonitor;
+import org.eclipse.core.runtime.NullProgressMonitor;
+import org.eclipse.core.runtime.OperationCanceledException;
+
+/**
+ * Shares one computation between identical concurrent requests. The first request computes the
+ * result on its own thread, the requests with the same command id and arguments which arrive in
+ * the meantime wait for that result. A request joins a computation only if the workspace has not
+ * been changed since the computation started.
+ *
+ * <p>The computation observes a monitor which is cancelled only when all the waiting requests are
+ * cancelled, so one caller cancelling does not stop the computation for the others. A cancelled
+ * caller which is not computing returns immediately.
+ */
+public class CoalescingScheduler {
+  private static final long POLL_INTERVAL_MILLIS = 50;
+  private static final CoalescingScheduler INSTANCE = new CoalescingScheduler();
+
+  private final ConcurrentMap<CommandKey, Flight> inFlight = new ConcurrentHashMap<>();
+
+  public static CoalescingScheduler getInstance() {
+    return INSTANCE;
+  }
+
+  /**
+   * Executes the command or waits for the identical command which is already in flight.
+   *
+   * @param commandId id of the command
+   * @param arguments arguments of the command
+   * @param pm progress monitor of the request
+   * @param command the command to execute, has to observe the given monitor
+   * @return result of the command
+   */
+  public Object execute(
+      String commandId, List<Object> arguments, IProgressMonitor pm, MonitoredCallable<?> command)
+      throws Exception {
+    IProgressMonitor monitor = pm == null ? new NullProgressMonitor() : pm;
+    CommandKey key = new CommandKey(commandId, arguments);
+    while (true) {
+      long generation = WorkspaceGeneration.getInstance().get();
+      Flight flight = new Flight(generation, monitor);
+      Flight existing = inFlight.putIfAbsent(key, flight);
+      if (existing == null) {
+        return lead(key, flight, command);
+      }
+      if (existing.join(generation, monitor)) {
+        CommandMetrics.getInstance().recordCoalesced(commandId);
+        return existing.await(monitor);
+      }
+      // the computation is stale or abandoned by all its callers, start a new one
+      inFlight.remove(key, existing);
+    }
+  }
+
+  /** Returns the number of computations shared by concurrent requests. */
+  public int getInFlightCount() {
+    return inFlight.size();
+  }
+
+  private Object lead(CommandKey key, Flight flight, MonitoredCallable<?> command)
+      throws Exception {
+    try {
+      Object result = command.call(flight.sharedMonitor);
+      flight.complete(key, result, null);
+      return result;
+    } catch (Exception | Error e) {
+      flight.complete(key, null, e);
+      throw e;
+    }
+  }
+
+  private class Flight {
+    private final long generation;
+    private final List<IProgressMonitor> callers = new CopyOnWriteArrayList<>();
+    private final CompletableFuture<Object> result = new CompletableFuture<>();
+    private final SharedMonitor sharedMonitor = new SharedMonitor();
+    private boolean done;
+
+    Flight(long generation, IProgressMonitor leader) {
+      this.generation = generation;
+      callers.add(leader);
+    }
+
+    synchronized boolean join(long currentGeneration, IProgressMonitor caller) {
+      if (done || generation != currentGeneration || sharedMonitor.isCanceled()) {
+        return false;
+      }
+      callers.add(caller);
+      return true;
+    }
+
+    void complete(CommandKey key, Object value, Throwable error) {
+      synchronized (this) {
+        done = true;
+      }
+      inFlight.remove(key, this);
+      if (error == null) {
+        result.complete(value);
+      } else {
+        result.completeExceptionally(error);
+      }
+    }
+
+    Object await(IProgressMonitor caller) throws Exception {
+      while (true) {
+        ensureNotCancelled(caller);
+        try {
+          return result.get(POLL_INTERVAL_MILLIS, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+          // check the caller's monitor again
+        } catch (InterruptedException e) {
+          Thread.currentThread().interrupt();
+          throw new OperationCanceledException();
+        } catch (ExecutionException e) {
+          Throwable cause = e.getCause();
+          if (cause instanceof Exception) {
+            throw (Exception) cause;
+          }
+          throw (Error) cause;
+        }
+      }
+    }
+
+    /** Monitor of the computation, cancelled when all the callers are cancelled. */
+    private class SharedMonitor extends NullProgressMonitor {
+      @Override
+      public boolean isCanceled() {
+        return super.isCanceled() || callers.stream().allMatch(IProgressMonitor::isCanceled);
+      }
+    }
+  }
+}
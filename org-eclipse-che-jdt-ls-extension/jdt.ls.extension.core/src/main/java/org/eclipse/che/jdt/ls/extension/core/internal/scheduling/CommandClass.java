@@ -0,0 +1,56 @@
+/*
+ * Copyright (c) 2012-2018 Red Hat, Inc.
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *   Red Hat, Inc. - initial API and implementation
+ */
+package org.eclipse.che.jdt.ls.extension.core.internal.scheduling;
+
+/**
+ * Classes of commands which share a {@link Bulkhead}. Each class has its own limit of concurrently
+ * executed commands and of commands waiting for execution, so that heavy commands of one class can
+ * not stall the commands of the others.
+ */
+public enum CommandClass {
+  /** Cheap commands answering user interaction, e.g. file structure or test detection. */
+  INTERACTIVE(16, 64),
+  /** Commands searching the whole workspace, e.g. usages or implementers. */
+  SEARCH(2, 4),
+  /** Commands changing the sources, e.g. rename, move or organize imports. */
+  REFACTORING(1, 4),
+  /** Commands updating projects, their class paths or the workspace configuration. */
+  BUILD(1, 8);
+
+  private final int defaultPermits;
+  private final int defaultQueueDepth;
+
+  CommandClass(int defaultPermits, int defaultQueueDepth) {
+    this.defaultPermits = defaultPermits;
+    this.defaultQueueDepth = defaultQueueDepth;
+  }
+
+  /**
+   * Returns the maximum number of concurrently executed commands, configured by the {@code
+   * che.jdt.ls.extension.bulkhead.<class>.permits} system property.
+   */
+  public int getPermits() {
+    return Integer.getInteger(propertyPrefix() + "permits", defaultPermits);
+  }
+
+  /**
+   * Returns the maximum number of commands waiting for a permit, configured by the {@code
+   * che.jdt.ls.extension.bulkhead.<class>.queue} system property.
+   */
+  public int getQueueDepth() {
+    return Integer.getInteger(propertyPrefix() + "queue", defaultQueueDepth);
+  }
+
+  private String propertyPrefix() {
+    return "che.jdt.ls.extension.bulkhead." + name().toLowerCase() + '.';
+  }
+}
@@ -0,0 +1,27 @@
+/*
+ * Copyright (c) 2012-2018 Red Hat, Inc.
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *   Red Hat, Inc. - initial API and implementation
+ */
+package org.eclipse.che.jdt.ls.extension.core.internal.scheduling;
+
+import org.eclipse.core.runtime.IProgressMonitor;
+
+/** A computation which is executed with the progress monitor provided by a scheduler. */
+@FunctionalInterface
+public interface MonitoredCallable<T> {
+
+  /**
+   * Runs the computation.
+   *
+   * @param pm progress monitor the computation has to observe for cancellation
+   * @return result of the computation
+   */
+  T call(IProgressMonitor pm) throws Exception;
+}
@@ -0,0 +1,86 @@
+/*
+ * Copyright (c) 2012-2018 Red Hat, Inc.
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *   Red Hat, Inc. - initial API and implementation
+ */
+package org.eclipse.che.jdt.ls.extension.core.internal.scheduling;
+
+import static java.util.Collections.singletonList;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import org.eclipse.che.jdt.ls.extension.core.internal.cache.CommandKey;
+import org.eclipse.core.runtime.IProgressMonitor;
+import org.eclipse.core.runtime.NullProgressMonitor;
+import org.eclipse.core.runtime.ProgressMonitorWrapper;
+
+/**
+ * Runs commands whose results are only interesting for the latest request about a document, e.g.
+ * commands driven by the cursor position. When a new request of the same command arrives for the
+ * same document, the request which is still in flight is cancelled through its progress monitor.
+ */
+public class SupersedingScheduler {
+  private static final SupersedingScheduler INSTANCE = new SupersedingScheduler();
+
+  private final ConcurrentMap<CommandKey, SupersedableMonitor> inFlight =
+      new ConcurrentHashMap<>();
+
+  public static SupersedingScheduler getInstance() {
+    return INSTANCE;
+  }
+
+  /**
+   * Executes the command, cancelling the previous in-flight execution of the same command for the
+   * same document.
+   *
+   * @param commandId id of the command
+   * @param documentUri uri of the document the command is executed for
+   * @param pm progress monitor of the request
+   * @param command the command to execute, has to observe the given monitor
+   * @return result of the command
+   */
+  public <T> T execute(
+      String commandId, String documentUri, IProgressMonitor pm, MonitoredCallable<T> command)
+      throws Exception {
+    CommandKey key = new CommandKey(commandId, singletonList(documentUri));
+    SupersedableMonitor monitor =
+        new SupersedableMonitor(pm == null ? new NullProgressMonitor() : pm);
+    SupersedableMonitor previous = inFlight.put(key, monitor);
+    if (previous != null) {
+      previous.supersede();
+    }
+    try {
+      return command.call(monitor);
+    } finally {
+      inFlight.remove(key, monitor);
+    }
+  }
+
+  /** Returns the number of supersedable commands which are being executed. */
+  public int getInFlightCount() {
+    return inFlight.size();
+  }
+
+  private static class SupersedableMonitor extends ProgressMonitorWrapper {
+    private volatile boolean superseded;
+
+    SupersedableMonitor(IProgressMonitor monitor) {
+      super(monitor);
+    }
+
+    void supersede() {
+      superseded = true;
+    }
+
+    @Override
+    public boolean isCanceled() {
+      return superseded || super.isCanceled();
+    }
+  }
+}
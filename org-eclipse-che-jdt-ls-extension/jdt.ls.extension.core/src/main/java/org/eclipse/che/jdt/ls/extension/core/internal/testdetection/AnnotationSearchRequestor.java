@@ -70,7 +70,7 @@ public class AnnotationSearchRequestor extends SearchRequestor {
     return false;
   }
 
-  private static boolean isAccessibleClass(IType type) throws JavaModelException {
+  static boolean isAccessibleClass(IType type) throws JavaModelException {
     int flags = type.getFlags();
     if (Flags.isInterface(flags)) {
       return false;
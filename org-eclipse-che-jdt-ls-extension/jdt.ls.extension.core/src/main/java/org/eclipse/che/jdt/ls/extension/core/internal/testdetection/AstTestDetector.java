@@ -0,0 +1,214 @@
+/*
+ * Copyright (c) 2012-2018 Red Hat, Inc.
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *   Red Hat, Inc. - initial API and implementation
+ */
+package org.eclipse.che.jdt.ls.extension.core.internal.testdetection;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import org.eclipse.che.jdt.ls.extension.api.dto.TestFramework;
+import org.eclipse.che.jdt.ls.extension.api.dto.TestPosition;
+import org.eclipse.core.runtime.IProgressMonitor;
+import org.eclipse.jdt.core.ICompilationUnit;
+import org.eclipse.jdt.core.dom.ASTVisitor;
+import org.eclipse.jdt.core.dom.Annotation;
+import org.eclipse.jdt.core.dom.AnonymousClassDeclaration;
+import org.eclipse.jdt.core.dom.CompilationUnit;
+import org.eclipse.jdt.core.dom.IAnnotationBinding;
+import org.eclipse.jdt.core.dom.IExtendedModifier;
+import org.eclipse.jdt.core.dom.ImportDeclaration;
+import org.eclipse.jdt.core.dom.MethodDeclaration;
+import org.eclipse.jdt.core.dom.Modifier;
+import org.eclipse.jdt.core.dom.PrimitiveType;
+import org.eclipse.jdt.core.dom.Type;
+import org.eclipse.jdt.core.dom.TypeDeclarationStatement;
+import org.eclipse.jdt.core.manipulation.CoreASTProvider;
+
+/**
+ * Detects the test methods of the compilation unit of the active editor from its AST. The language
+ * server keeps the AST of the active editor up to date with every change, so detection reuses it
+ * instead of walking the Java model of a working copy which changes all the time. The ASTs of the
+ * other editors are not kept, parsing them would cost more than the model based {@link TestIndex}.
+ *
+ * <p>All the tests are found in a single visit. An annotation type is resolved once for every name
+ * it is written with in the unit, annotations whose binding can not be resolved, e.g. because of
+ * an incomplete classpath, are matched by their name and the imports like the model based {@link
+ * IndexedUnit} does.
+ */
+public final class AstTestDetector extends ASTVisitor {
+  private final List<TestFramework> frameworks;
+  private final int cursorOffset;
+  private final String[] imports;
+  // framework of every annotation name met so far, null if the annotation is not a test one
+  private final Map<String, TestFramework> resolved = new HashMap<>();
+  private final List<TestPosition> tests = new ArrayList<>();
+  // depth of the local and anonymous types being visited, their methods are not run as tests
+  private int localDepth;
+  private MethodDeclaration atCursor;
+
+  private AstTestDetector(List<TestFramework> frameworks, int cursorOffset, String[] imports) {
+    this.frameworks = frameworks;
+    this.cursorOffset = cursorOffset;
+    this.imports = imports;
+  }
+
+  /**
+   * Detects the tests of the compilation unit in the shared AST.
+   *
+   * @param unit working copy of an open editor
+   * @param frameworks frameworks whose tests are detected, every test is tagged with the first of
+   *     them it belongs to
+   * @param cursorOffset offset of the cursor, or -1 to detect all the tests of the member types
+   * @return test positions, the test at the cursor only if the cursor is in a method, or {@code
+   *     null} if the unit is not the one of the active editor
+   */
+  public static List<TestPosition> detect(
+      ICompilationUnit unit,
+      List<TestFramework> frameworks,
+      int cursorOffset,
+      IProgressMonitor pm) {
+    CompilationUnit ast =
+        CoreASTProvider.getInstance().getAST(unit, CoreASTProvider.WAIT_ACTIVE_ONLY, pm);
+    return ast == null ? null : detect(ast, frameworks, cursorOffset);
+  }
+
+  /**
+   * Detects the tests in the AST, see {@link #detect(ICompilationUnit, List, int,
+   * IProgressMonitor)}.
+   */
+  static List<TestPosition> detect(
+      CompilationUnit ast, List<TestFramework> frameworks, int cursorOffset) {
+    List<?> declarations = ast.imports();
+    String[] imports = new String[declarations.size()];
+    for (int i = 0; i < imports.length; i++) {
+      ImportDeclaration declaration = (ImportDeclaration) declarations.get(i);
+      String name = declaration.getName().getFullyQualifiedName();
+      imports[i] = declaration.isOnDemand() ? name + ".*" : name;
+    }
+    AstTestDetector detector = new AstTestDetector(frameworks, cursorOffset, imports);
+    ast.accept(detector);
+    if (detector.atCursor == null) {
+      // outside of the methods, e.g. on the class name, all the tests can be run
+      return detector.tests;
+    }
+    List<TestPosition> result = new ArrayList<>(1);
+    TestFramework framework = detector.getFramework(detector.atCursor);
+    if (framework != null) {
+      result.add(toTestPosition(detector.atCursor, framework));
+    }
+    return result;
+  }
+
+  @Override
+  public boolean visit(AnonymousClassDeclaration node) {
+    localDepth++;
+    return true;
+  }
+
+  @Override
+  public void endVisit(AnonymousClassDeclaration node) {
+    localDepth--;
+  }
+
+  @Override
+  public boolean visit(TypeDeclarationStatement node) {
+    localDepth++;
+    return true;
+  }
+
+  @Override
+  public void endVisit(TypeDeclarationStatement node) {
+    localDepth--;
+  }
+
+  @Override
+  public boolean visit(MethodDeclaration node) {
+    if (localDepth == 0) {
+      TestFramework framework = getFramework(node);
+      if (framework != null) {
+        tests.add(toTestPosition(node, framework));
+      }
+    }
+    if (cursorOffset != -1 && contains(node, cursorOffset)) {
+      // the innermost method containing the cursor is the last one visited
+      atCursor = node;
+      return true;
+    }
+    // the body may declare local and anonymous types, but their methods are not tests
+    return false;
+  }
+
+  private TestFramework getFramework(MethodDeclaration method) {
+    if (!isCandidate(method)) {
+      return null;
+    }
+    for (Object modifier : method.modifiers()) {
+      if (((IExtendedModifier) modifier).isAnnotation()) {
+        Annotation annotation = (Annotation) modifier;
+        String name = annotation.getTypeName().getFullyQualifiedName();
+        if (!resolved.containsKey(name)) {
+          resolved.put(name, resolve(annotation, name));
+        }
+        TestFramework framework = resolved.get(name);
+        if (framework != null) {
+          return framework;
+        }
+      }
+    }
+    return null;
+  }
+
+  private TestFramework resolve(Annotation annotation, String name) {
+    IAnnotationBinding binding = annotation.resolveAnnotationBinding();
+    String qualifiedName =
+        binding == null || binding.getAnnotationType() == null
+            ? null
+            : binding.getAnnotationType().getQualifiedName();
+    for (TestFramework framework : frameworks) {
+      String testAnnotation = framework.getTestMethodAnnotation();
+      if (qualifiedName != null
+          ? testAnnotation.equals(qualifiedName)
+          : JavaTestFinder.isTest(new String[] {name}, imports, testAnnotation)) {
+        return framework;
+      }
+    }
+    return null;
+  }
+
+  /** Returns {@code true} for a public, non static, non abstract void method. */
+  private static boolean isCandidate(MethodDeclaration method) {
+    int modifiers = method.getModifiers();
+    Type returnType = method.getReturnType2();
+    return !method.isConstructor()
+        && Modifier.isPublic(modifiers)
+        && !Modifier.isAbstract(modifiers)
+        && !Modifier.isStatic(modifiers)
+        && returnType != null
+        && returnType.isPrimitiveType()
+        && ((PrimitiveType) returnType).getPrimitiveTypeCode() == PrimitiveType.VOID;
+  }
+
+  private static boolean contains(MethodDeclaration method, int offset) {
+    int start = method.getStartPosition();
+    return start <= offset && offset <= start + method.getLength();
+  }
+
+  private static TestPosition toTestPosition(MethodDeclaration method, TestFramework framework) {
+    TestPosition testPosition = new TestPosition();
+    testPosition.setTestBodyLength(method.getLength());
+    testPosition.setTestNameLength(method.getName().getLength());
+    testPosition.setTestNameStartOffset(method.getName().getStartPosition());
+    testPosition.setTestName(method.getName().getIdentifier());
+    testPosition.setFramework(framework.getName());
+    return testPosition;
+  }
+}
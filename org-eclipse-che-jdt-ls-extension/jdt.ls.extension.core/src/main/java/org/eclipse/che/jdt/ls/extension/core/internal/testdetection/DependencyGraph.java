@@ -0,0 +1,386 @@
+/*
+ * Copyright (c) 2012-2018 Red Hat, Inc.
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *   Red Hat, Inc. - initial API and implementation
+ */
+package org.eclipse.che.jdt.ls.extension.core.internal.testdetection;
+
+import static org.eclipse.che.jdt.ls.extension.core.internal.Utils.ensureNotCancelled;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import org.eclipse.core.runtime.IProgressMonitor;
+import org.eclipse.jdt.core.ElementChangedEvent;
+import org.eclipse.jdt.core.ICompilationUnit;
+import org.eclipse.jdt.core.IElementChangedListener;
+import org.eclipse.jdt.core.IJavaElement;
+import org.eclipse.jdt.core.IJavaElementDelta;
+import org.eclipse.jdt.core.IJavaProject;
+import org.eclipse.jdt.core.JavaModelException;
+import org.eclipse.jdt.core.dom.ASTNode;
+import org.eclipse.jdt.core.dom.ASTParser;
+import org.eclipse.jdt.core.dom.ASTRequestor;
+import org.eclipse.jdt.core.dom.ASTVisitor;
+import org.eclipse.jdt.core.dom.AbstractTypeDeclaration;
+import org.eclipse.jdt.core.dom.AnnotationTypeDeclaration;
+import org.eclipse.jdt.core.dom.CompilationUnit;
+import org.eclipse.jdt.core.dom.EnumDeclaration;
+import org.eclipse.jdt.core.dom.IBinding;
+import org.eclipse.jdt.core.dom.IMethodBinding;
+import org.eclipse.jdt.core.dom.ITypeBinding;
+import org.eclipse.jdt.core.dom.IVariableBinding;
+import org.eclipse.jdt.core.dom.ImportDeclaration;
+import org.eclipse.jdt.core.dom.MethodDeclaration;
+import org.eclipse.jdt.core.dom.SimpleName;
+import org.eclipse.jdt.core.dom.TypeDeclaration;
+import org.eclipse.jdt.internal.corext.dom.IASTSharedValues;
+
+/**
+ * Type level dependency graph of the source folders of projects, maintained from Java model deltas
+ * like the {@link TestRegistry}.
+ *
+ * <p>For every compilation unit the graph keeps the types declared in it and the source types it
+ * refers to, by their fully qualified names. References are resolved from the ASTs of the units,
+ * which are parsed in batches with a shared binding environment. References in the bodies of the
+ * methods of member types are kept by method as well, so the tests a change affects can be told
+ * apart within a test class. A changed unit is parsed again on the next query, the other units are
+ * not touched, except the units referring to names which could not be resolved: they are parsed
+ * again when a type is added, it may be the one they refer to.
+ */
+public class DependencyGraph implements IElementChangedListener {
+  private static final int CLASSPATH_CHANGED =
+      IJavaElementDelta.F_CLASSPATH_CHANGED
+          | IJavaElementDelta.F_RESOLVED_CLASSPATH_CHANGED
+          | IJavaElementDelta.F_ADDED_TO_CLASSPATH
+          | IJavaElementDelta.F_REMOVED_FROM_CLASSPATH
+          | IJavaElementDelta.F_OPENED
+          | IJavaElementDelta.F_CLOSED;
+  // units parsed at once, bounds the memory held by the shared binding environment
+  private static final int BATCH_SIZE = 200;
+  private static final DependencyGraph INSTANCE = new DependencyGraph();
+
+  private final Map<String, ProjectDependencies> projects = new HashMap<>();
+
+  DependencyGraph() {}
+
+  public static DependencyGraph getInstance() {
+    return INSTANCE;
+  }
+
+  /**
+   * Brings the dependencies of the projects up to date.
+   *
+   * @return the dependencies of the units of all the projects, by handle of the primary unit
+   */
+  public Map<String, UnitDependencies> getDependencies(
+      Iterable<IJavaProject> projects, IProgressMonitor pm) throws JavaModelException {
+    Map<String, UnitDependencies> result = new HashMap<>();
+    for (IJavaProject project : projects) {
+      ProjectDependencies dependencies;
+      synchronized (this) {
+        dependencies =
+            this.projects.computeIfAbsent(
+                project.getHandleIdentifier(), p -> new ProjectDependencies());
+      }
+      dependencies.update(project, pm);
+      dependencies.copyTo(result);
+    }
+    return result;
+  }
+
+  /** Forgets all the projects. */
+  public synchronized void clear() {
+    projects.clear();
+  }
+
+  @Override
+  public void elementChanged(ElementChangedEvent event) {
+    visit(event.getDelta());
+  }
+
+  private void visit(IJavaElementDelta delta) {
+    IJavaElement element = delta.getElement();
+    switch (element.getElementType()) {
+      case IJavaElement.JAVA_PROJECT:
+        if (delta.getKind() != IJavaElementDelta.CHANGED
+            || (delta.getFlags() & CLASSPATH_CHANGED) != 0) {
+          remove(element);
+          return;
+        }
+        break;
+      case IJavaElement.PACKAGE_FRAGMENT_ROOT:
+      case IJavaElement.PACKAGE_FRAGMENT:
+        if (delta.getKind() != IJavaElementDelta.CHANGED) {
+          remove(element.getJavaProject());
+          return;
+        }
+        break;
+      case IJavaElement.COMPILATION_UNIT:
+        ProjectDependencies dependencies;
+        List<ProjectDependencies> all;
+        synchronized (this) {
+          dependencies = projects.get(element.getJavaProject().getHandleIdentifier());
+          all = new ArrayList<>(projects.values());
+        }
+        if (dependencies != null) {
+          dependencies.changed(ProjectUnits.unitKey((ICompilationUnit) element));
+        }
+        if (ProjectUnits.declaresTypes(delta)) {
+          // the new types may be referred to by units of this or of dependent projects which
+          // could not resolve them before
+          for (ProjectDependencies project : all) {
+            project.changedIf(UnitDependencies::hasUnresolvedReferences);
+          }
+        }
+        return;
+      default:
+        break;
+    }
+    for (IJavaElementDelta child : delta.getAffectedChildren()) {
+      visit(child);
+    }
+  }
+
+  private synchronized void remove(IJavaElement project) {
+    projects.remove(project.getHandleIdentifier());
+  }
+
+  /** The compilation units of a project, parsed completely once and then unit by unit. */
+  private static class ProjectDependencies extends ProjectUnits<UnitDependencies> {
+    synchronized void copyTo(Map<String, UnitDependencies> result) {
+      result.putAll(units);
+    }
+
+    @Override
+    protected void compute(
+        IJavaProject project,
+        List<ICompilationUnit> toCompute,
+        Map<String, UnitDependencies> read,
+        IProgressMonitor pm) {
+      for (int start = 0; start < toCompute.size(); start += BATCH_SIZE) {
+        ensureNotCancelled(pm);
+        List<ICompilationUnit> batch =
+            toCompute.subList(start, Math.min(toCompute.size(), start + BATCH_SIZE));
+        ASTParser parser = ASTParser.newParser(IASTSharedValues.SHARED_AST_LEVEL);
+        parser.setProject(project);
+        parser.setResolveBindings(true);
+        parser.setBindingsRecovery(true);
+        parser.createASTs(
+            batch.toArray(new ICompilationUnit[batch.size()]),
+            new String[0],
+            new ASTRequestor() {
+              @Override
+              public void acceptAST(ICompilationUnit source, CompilationUnit ast) {
+                read.put(unitKey(source), UnitDependencies.of(ast));
+              }
+            },
+            pm);
+      }
+    }
+  }
+
+  /** The types declared in a compilation unit and the source types they refer to. */
+  public static final class UnitDependencies {
+    private final Set<String> types;
+    private final Set<String> references;
+    // references outside of the bodies of the methods of member types
+    private final Set<String> outsideReferences;
+    // references in the bodies of the methods of member types, by type name '#' method name
+    private final Map<String, Set<String>> methodReferences;
+    // names which could not be resolved, e.g. of types which do not exist yet
+    private final boolean unresolvedReferences;
+
+    private UnitDependencies(
+        Set<String> types,
+        Set<String> references,
+        Set<String> outsideReferences,
+        Map<String, Set<String>> methodReferences,
+        boolean unresolvedReferences) {
+      this.types = types;
+      this.references = references;
+      this.outsideReferences = outsideReferences;
+      this.methodReferences = methodReferences;
+      this.unresolvedReferences = unresolvedReferences;
+    }
+
+    static UnitDependencies of(CompilationUnit ast) {
+      Set<String> types = new HashSet<>();
+      Set<String> references = new HashSet<>();
+      Set<String> outsideReferences = new HashSet<>();
+      Map<String, Set<String>> methodReferences = new HashMap<>();
+      boolean[] unresolved = new boolean[1];
+      ast.accept(
+          new ASTVisitor() {
+            // method of a member type whose body is visited, references are kept for it as well
+            private MethodDeclaration method;
+            private Set<String> current;
+
+            @Override
+            public boolean visit(ImportDeclaration node) {
+              // an import is not a use, the imported types are referred to where they are used
+              return false;
+            }
+
+            @Override
+            public boolean visit(TypeDeclaration node) {
+              return declare(node);
+            }
+
+            @Override
+            public boolean visit(EnumDeclaration node) {
+              return declare(node);
+            }
+
+            @Override
+            public boolean visit(AnnotationTypeDeclaration node) {
+              return declare(node);
+            }
+
+            @Override
+            public boolean visit(MethodDeclaration node) {
+              IMethodBinding binding = node.resolveBinding();
+              if (method == null && binding != null && isNamed(binding.getDeclaringClass())) {
+                method = node;
+                current =
+                    methodReferences.computeIfAbsent(
+                        binding.getDeclaringClass().getErasure().getQualifiedName()
+                            + '#'
+                            + node.getName().getIdentifier(),
+                        m -> new HashSet<>());
+              }
+              return true;
+            }
+
+            @Override
+            public void endVisit(MethodDeclaration node) {
+              if (node == method) {
+                method = null;
+                current = null;
+              }
+            }
+
+            @Override
+            public boolean visit(SimpleName node) {
+              IBinding binding = node.resolveBinding();
+              if (binding == null || binding.isRecovered()) {
+                unresolved[0] = true;
+                return false;
+              }
+              String type = referencedType(binding);
+              if (type != null) {
+                references.add(type);
+                if (current != null && isInBody(node)) {
+                  current.add(type);
+                } else {
+                  outsideReferences.add(type);
+                }
+              }
+              return false;
+            }
+
+            private boolean declare(AbstractTypeDeclaration node) {
+              ITypeBinding binding = node.resolveBinding();
+              if (isNamed(binding)) {
+                types.add(binding.getQualifiedName());
+              }
+              return true;
+            }
+
+            private boolean isInBody(ASTNode node) {
+              for (ASTNode parent = node; parent != null; parent = parent.getParent()) {
+                if (parent == method.getBody()) {
+                  return true;
+                }
+              }
+              return false;
+            }
+          });
+      references.removeAll(types);
+      outsideReferences.removeAll(types);
+      for (Set<String> methodTypes : methodReferences.values()) {
+        methodTypes.removeAll(types);
+      }
+      return new UnitDependencies(
+          types, references, outsideReferences, methodReferences, unresolved[0]);
+    }
+
+    /**
+     * Returns {@code true} if the unit refers to names which could not be resolved, its references
+     * may change when types are added.
+     */
+    boolean hasUnresolvedReferences() {
+      return unresolvedReferences;
+    }
+
+    /** Returns the fully qualified names of the top level and member types of the unit. */
+    public Set<String> getTypes() {
+      return types;
+    }
+
+    /** Returns the source types of other units the unit refers to. */
+    public Set<String> getReferences() {
+      return references;
+    }
+
+    /**
+     * Returns the source types of other units the body of a method refers to.
+     *
+     * @param type fully qualified name of the member type declaring the method
+     * @param method name of the method, the references of overloads are merged
+     * @return the referenced types, or {@code null} if the unit has no such method
+     */
+    public Set<String> getMethodReferences(String type, String method) {
+      return methodReferences.get(type + '#' + method);
+    }
+
+    /**
+     * Returns the source types referred to outside of the bodies of the given methods, e.g. by
+     * fields, initializers, declarations or any other method of the unit.
+     *
+     * @param methods methods as type name '#' method name
+     */
+    public Set<String> getReferencesOutside(Set<String> methods) {
+      Set<String> result = new HashSet<>(outsideReferences);
+      for (Map.Entry<String, Set<String>> entry : methodReferences.entrySet()) {
+        if (!methods.contains(entry.getKey())) {
+          result.addAll(entry.getValue());
+        }
+      }
+      return result;
+    }
+
+    private static String referencedType(IBinding binding) {
+      ITypeBinding type = null;
+      if (binding instanceof ITypeBinding) {
+        type = (ITypeBinding) binding;
+      } else if (binding instanceof IMethodBinding) {
+        type = ((IMethodBinding) binding).getDeclaringClass();
+      } else if (binding instanceof IVariableBinding && ((IVariableBinding) binding).isField()) {
+        type = ((IVariableBinding) binding).getDeclaringClass();
+      }
+      if (type == null) {
+        return null;
+      }
+      type = type.getErasure();
+      while (type.isArray()) {
+        type = type.getElementType().getErasure();
+      }
+      return type.isFromSource() && isNamed(type) ? type.getQualifiedName() : null;
+    }
+
+    private static boolean isNamed(ITypeBinding type) {
+      // local and anonymous types have no qualified name, they belong to their unit anyway
+      return type != null && !type.getQualifiedName().isEmpty() && !type.isTypeVariable();
+    }
+  }
+}
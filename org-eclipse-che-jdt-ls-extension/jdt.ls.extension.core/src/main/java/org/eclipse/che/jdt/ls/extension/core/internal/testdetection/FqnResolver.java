@@ -0,0 +1,372 @@
+/*
+ * Copyright (c) 2012-2018 Red Hat, Inc.
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *   Red Hat, Inc. - initial API and implementation
+ */
+package org.eclipse.che.jdt.ls.extension.core.internal.testdetection;
+
+import static org.eclipse.jdt.ls.core.internal.JDTUtils.resolveCompilationUnit;
+
+import java.net.URI;
+import java.net.URISyntaxException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import org.eclipse.core.resources.IContainer;
+import org.eclipse.core.resources.IFile;
+import org.eclipse.core.resources.IResource;
+import org.eclipse.core.resources.IWorkspaceRoot;
+import org.eclipse.core.resources.ResourcesPlugin;
+import org.eclipse.core.runtime.IPath;
+import org.eclipse.core.runtime.IProgressMonitor;
+import org.eclipse.core.runtime.Path;
+import org.eclipse.jdt.core.ElementChangedEvent;
+import org.eclipse.jdt.core.ICompilationUnit;
+import org.eclipse.jdt.core.IElementChangedListener;
+import org.eclipse.jdt.core.IJavaElement;
+import org.eclipse.jdt.core.IJavaElementDelta;
+import org.eclipse.jdt.core.IJavaProject;
+import org.eclipse.jdt.core.IPackageFragment;
+import org.eclipse.jdt.core.IPackageFragmentRoot;
+import org.eclipse.jdt.core.IType;
+import org.eclipse.jdt.core.JavaCore;
+import org.eclipse.jdt.core.JavaModelException;
+import org.eclipse.jdt.core.search.IJavaSearchConstants;
+import org.eclipse.jdt.core.search.SearchEngine;
+import org.eclipse.jdt.core.search.TypeNameRequestor;
+import org.eclipse.jdt.ls.core.internal.JDTUtils;
+import org.eclipse.jdt.ls.core.internal.JavaLanguageServerPlugin;
+
+/**
+ * Resolves the URIs of Java files to the fully qualified names of their primary types, for test
+ * runs of many selected files. The files are grouped by their directory, which is resolved to a
+ * package once, and the packages by project. A single search of the type names in the index per
+ * project then finds the primary types without opening the compilation units.
+ *
+ * <p>Resolved names are kept by URI and dropped as soon as a Java model delta reports a change of
+ * their compilation unit. Files the search does not find, e.g. new files which are not indexed
+ * yet, are resolved one by one from the Java model.
+ */
+public class FqnResolver implements IElementChangedListener {
+  public static final String SIZE_PROPERTY = "che.jdt.ls.extension.tests.fqns.size";
+
+  private static final int DEFAULT_SIZE = 4096;
+  private static final String JAVA_EXTENSION = ".java";
+  private static final FqnResolver INSTANCE =
+      new FqnResolver(Integer.getInteger(SIZE_PROPERTY, DEFAULT_SIZE));
+
+  private final int maxSize;
+  private final Map<String, Resolved> fqns;
+  // URIs of the cached names by handle of their compilation unit, for removal on a change
+  private final Map<String, Set<String>> urisByUnit = new HashMap<>();
+  // incremented by every change, a name resolved concurrently with a change is not kept
+  private long sequence;
+
+  FqnResolver(int maxSize) {
+    this.maxSize = maxSize;
+    this.fqns =
+        new LinkedHashMap<String, Resolved>(16, 0.75f, true) {
+          @Override
+          protected boolean removeEldestEntry(Map.Entry<String, Resolved> eldest) {
+            if (size() > FqnResolver.this.maxSize) {
+              forget(eldest.getKey(), eldest.getValue());
+              return true;
+            }
+            return false;
+          }
+        };
+  }
+
+  public static FqnResolver getInstance() {
+    return INSTANCE;
+  }
+
+  /** Returns {@code false} if the cache is disabled by {@link #SIZE_PROPERTY}. */
+  public boolean isEnabled() {
+    return maxSize > 0;
+  }
+
+  /**
+   * Resolves the files to the fully qualified names of their primary types.
+   *
+   * @param uris URIs of Java files
+   * @return the names in the order of the URIs, files without a primary type are left out
+   */
+  public List<String> resolve(List<String> uris, IProgressMonitor pm) {
+    Map<String, Resolved> found = new HashMap<>();
+    Set<String> missing = new LinkedHashSet<>();
+    long start;
+    synchronized (this) {
+      for (String uri : uris) {
+        Resolved resolved = fqns.get(uri);
+        if (resolved != null) {
+          found.put(uri, resolved);
+        } else {
+          missing.add(uri);
+        }
+      }
+      start = sequence;
+    }
+    if (!missing.isEmpty()) {
+      Map<String, Resolved> resolved = resolveAll(missing, pm);
+      found.putAll(resolved);
+      synchronized (this) {
+        if (isEnabled() && sequence == start) {
+          for (Map.Entry<String, Resolved> entry : resolved.entrySet()) {
+            put(entry.getKey(), entry.getValue());
+          }
+        }
+      }
+    }
+
+    List<String> result = new ArrayList<>(uris.size());
+    for (String uri : uris) {
+      Resolved resolved = found.get(uri);
+      if (resolved != null) {
+        result.add(resolved.fqn);
+      }
+    }
+    return result;
+  }
+
+  /** Returns the number of cached names. */
+  public synchronized int size() {
+    return fqns.size();
+  }
+
+  /** Removes all the cached names. */
+  public synchronized void clear() {
+    fqns.clear();
+    urisByUnit.clear();
+    sequence++;
+  }
+
+  @Override
+  public void elementChanged(ElementChangedEvent event) {
+    visit(event.getDelta());
+  }
+
+  private void visit(IJavaElementDelta delta) {
+    IJavaElement element = delta.getElement();
+    switch (element.getElementType()) {
+      case IJavaElement.JAVA_PROJECT:
+      case IJavaElement.PACKAGE_FRAGMENT_ROOT:
+      case IJavaElement.PACKAGE_FRAGMENT:
+        if (delta.getKind() != IJavaElementDelta.CHANGED) {
+          clear();
+          return;
+        }
+        break;
+      case IJavaElement.COMPILATION_UNIT:
+        remove(((ICompilationUnit) element).getPrimary().getHandleIdentifier());
+        return;
+      default:
+        break;
+    }
+    for (IJavaElementDelta child : delta.getAffectedChildren()) {
+      visit(child);
+    }
+  }
+
+  private synchronized void remove(String unitHandle) {
+    Set<String> uris = urisByUnit.remove(unitHandle);
+    if (uris != null) {
+      fqns.keySet().removeAll(uris);
+    }
+    sequence++;
+  }
+
+  private void put(String uri, Resolved resolved) {
+    Resolved previous = fqns.put(uri, resolved);
+    if (previous != null) {
+      forget(uri, previous);
+    }
+    urisByUnit.computeIfAbsent(resolved.unitHandle, unit -> new HashSet<>()).add(uri);
+  }
+
+  private void forget(String uri, Resolved resolved) {
+    Set<String> uris = urisByUnit.get(resolved.unitHandle);
+    if (uris != null && uris.remove(uri) && uris.isEmpty()) {
+      urisByUnit.remove(resolved.unitHandle);
+    }
+  }
+
+  private static Map<String, Resolved> resolveAll(Set<String> uris, IProgressMonitor pm) {
+    Map<String, Resolved> resolved = new HashMap<>();
+    Map<IJavaProject, List<PackageFiles>> projects = new LinkedHashMap<>();
+    for (PackageFiles files : groupByPackage(uris)) {
+      projects
+          .computeIfAbsent(files.pkg.getJavaProject(), project -> new ArrayList<>())
+          .add(files);
+    }
+    for (List<PackageFiles> packages : projects.values()) {
+      try {
+        search(packages, resolved, pm);
+      } catch (JavaModelException e) {
+        JavaLanguageServerPlugin.logException("Problem with resolving test classes", e);
+      }
+    }
+
+    // not indexed yet or not in a package of a source folder
+    for (String uri : uris) {
+      if (!resolved.containsKey(uri)) {
+        ICompilationUnit unit = resolveCompilationUnit(uri);
+        IType primaryType = unit == null ? null : unit.findPrimaryType();
+        if (primaryType != null) {
+          resolved.put(
+              uri,
+              new Resolved(
+                  primaryType.getFullyQualifiedName(),
+                  unit.getPrimary().getHandleIdentifier()));
+        }
+      }
+    }
+    return resolved;
+  }
+
+  /** Resolves the directory of every file once and groups the files by package. */
+  private static List<PackageFiles> groupByPackage(Set<String> uris) {
+    Map<URI, Map<String, String>> directories = new LinkedHashMap<>();
+    for (String uri : uris) {
+      URI location = JDTUtils.toURI(uri);
+      if (location == null || location.getPath() == null) {
+        continue;
+      }
+      IPath path = new Path(location.getPath());
+      if (!JAVA_EXTENSION.equals('.' + path.getFileExtension())) {
+        continue;
+      }
+      try {
+        URI directory =
+            new URI(
+                location.getScheme(),
+                location.getAuthority(),
+                path.removeLastSegments(1).toString(),
+                null,
+                null);
+        directories
+            .computeIfAbsent(directory, d -> new LinkedHashMap<>())
+            .put(path.lastSegment(), uri);
+      } catch (URISyntaxException e) {
+        JavaLanguageServerPlugin.logException("Uri syntax should not happen", e);
+      }
+    }
+
+    List<PackageFiles> packages = new ArrayList<>();
+    IWorkspaceRoot root = ResourcesPlugin.getWorkspace().getRoot();
+    for (Map.Entry<URI, Map<String, String>> entry : directories.entrySet()) {
+      IResource resource =
+          JDTUtils.findResource(entry.getKey(), root::findContainersForLocationURI);
+      IJavaElement element = resource == null ? null : JavaCore.create(resource);
+      IPackageFragment pkg = null;
+      if (element instanceof IPackageFragment) {
+        pkg = (IPackageFragment) element;
+      } else if (element instanceof IPackageFragmentRoot) {
+        pkg = ((IPackageFragmentRoot) element).getPackageFragment("");
+      }
+      if (pkg != null) {
+        packages.add(new PackageFiles(pkg, (IContainer) resource, entry.getValue()));
+      }
+    }
+    return packages;
+  }
+
+  /** Searches the primary types of the files of the packages of a project in the index. */
+  private static void search(
+      List<PackageFiles> packages, Map<String, Resolved> resolved, IProgressMonitor pm)
+      throws JavaModelException {
+    Map<String, String> uris = new HashMap<>();
+    Map<String, String> units = new HashMap<>();
+    Set<String> qualifications = new LinkedHashSet<>();
+    Set<String> typeNames = new LinkedHashSet<>();
+    IJavaElement[] scope = new IJavaElement[packages.size()];
+    for (int i = 0; i < scope.length; i++) {
+      PackageFiles files = packages.get(i);
+      scope[i] = files.pkg;
+      qualifications.add(files.pkg.getElementName());
+      for (Map.Entry<String, String> file : files.files.entrySet()) {
+        IFile resource = files.container.getFile(new Path(file.getKey()));
+        String fullPath = resource.getFullPath().toString();
+        uris.put(fullPath, file.getValue());
+        units.put(fullPath, files.pkg.getCompilationUnit(file.getKey()).getHandleIdentifier());
+        String name = file.getKey();
+        typeNames.add(name.substring(0, name.length() - JAVA_EXTENSION.length()));
+      }
+    }
+
+    new SearchEngine()
+        .searchAllTypeNames(
+            toCharArrays(qualifications),
+            toCharArrays(typeNames),
+            SearchEngine.createJavaSearchScope(scope, false),
+            new TypeNameRequestor() {
+              @Override
+              public void acceptType(
+                  int modifiers,
+                  char[] packageName,
+                  char[] simpleTypeName,
+                  char[][] enclosingTypeNames,
+                  String path) {
+                String uri = uris.get(path);
+                String name = new String(simpleTypeName);
+                // the primary type has the name of its file
+                if (uri == null
+                    || enclosingTypeNames.length > 0
+                    || !path.endsWith('/' + name + JAVA_EXTENSION)) {
+                  return;
+                }
+                String qualifier = new String(packageName);
+                resolved.put(
+                    uri,
+                    new Resolved(
+                        qualifier.isEmpty() ? name : qualifier + '.' + name, units.get(path)));
+              }
+            },
+            IJavaSearchConstants.WAIT_UNTIL_READY_TO_SEARCH,
+            pm);
+  }
+
+  private static char[][] toCharArrays(Set<String> strings) {
+    char[][] result = new char[strings.size()][];
+    int i = 0;
+    for (String string : strings) {
+      result[i++] = string.toCharArray();
+    }
+    return result;
+  }
+
+  /** Files of a package, by file name. */
+  private static class PackageFiles {
+    private final IPackageFragment pkg;
+    private final IContainer container;
+    private final Map<String, String> files;
+
+    PackageFiles(IPackageFragment pkg, IContainer container, Map<String, String> files) {
+      this.pkg = pkg;
+      this.container = container;
+      this.files = files;
+    }
+  }
+
+  private static class Resolved {
+    private final String fqn;
+    // primary compilation unit of the file, the name is dropped when it changes
+    private final String unitHandle;
+
+    Resolved(String fqn, String unitHandle) {
+      this.fqn = fqn;
+      this.unitHandle = unitHandle;
+    }
+  }
+}
@@ -0,0 +1,248 @@
+/*
+ * Copyright (c) 2012-2018 Red Hat, Inc.
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *   Red Hat, Inc. - initial API and implementation
+ */
+package org.eclipse.che.jdt.ls.extension.core.internal.testdetection;
+
+import static org.eclipse.che.jdt.ls.extension.core.internal.Utils.ensureNotCancelled;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import org.eclipse.che.jdt.ls.extension.api.dto.TestFramework;
+import org.eclipse.che.jdt.ls.extension.api.dto.TestPosition;
+import org.eclipse.core.runtime.IProgressMonitor;
+import org.eclipse.jdt.core.Flags;
+import org.eclipse.jdt.core.IAnnotation;
+import org.eclipse.jdt.core.ICompilationUnit;
+import org.eclipse.jdt.core.IField;
+import org.eclipse.jdt.core.IImportDeclaration;
+import org.eclipse.jdt.core.IInitializer;
+import org.eclipse.jdt.core.IJavaElement;
+import org.eclipse.jdt.core.IMethod;
+import org.eclipse.jdt.core.IParent;
+import org.eclipse.jdt.core.ISourceRange;
+import org.eclipse.jdt.core.IType;
+import org.eclipse.jdt.core.JavaModelException;
+
+/**
+ * The methods of a compilation unit as seen by test detection. Everything needed to tell test
+ * methods of any test framework apart is read from the Java model once, so the unit is not walked
+ * again as long as it does not change.
+ */
+public final class IndexedUnit {
+  private final String primaryType;
+  private final String[] imports;
+  // methods of the types in the order of ICompilationUnit#getAllTypes, local types included
+  private final List<Method> methods;
+  private final Map<String, List<TestPosition>> tests = new ConcurrentHashMap<>();
+
+  private IndexedUnit(String primaryType, String[] imports, List<Method> methods) {
+    this.primaryType = primaryType;
+    this.imports = imports;
+    this.methods = methods;
+  }
+
+  /** Reads the methods of the compilation unit. */
+  static IndexedUnit of(ICompilationUnit unit, IProgressMonitor pm) throws JavaModelException {
+    IType primary = unit.findPrimaryType();
+    IImportDeclaration[] declarations = unit.getImports();
+    String[] imports = new String[declarations.length];
+    for (int i = 0; i < declarations.length; i++) {
+      imports[i] = declarations[i].getElementName();
+    }
+    List<Method> methods = new ArrayList<>();
+    for (IType type : unit.getTypes()) {
+      ensureNotCancelled(pm);
+      collectType(type, true, methods);
+    }
+    return new IndexedUnit(
+        primary == null ? null : primary.getFullyQualifiedName(), imports, methods);
+  }
+
+  /** Returns the fully qualified name of the primary type, or {@code null} if there is none. */
+  public String getPrimaryType() {
+    return primaryType;
+  }
+
+  /**
+   * Returns the innermost method whose declaration contains the offset, like {@link
+   * ICompilationUnit#getElementAt} would.
+   *
+   * @return the method, or {@code null} if the offset is not inside of a method
+   */
+  public Method getMethodAt(int offset) {
+    Method found = null;
+    for (Method method : methods) {
+      if (method.contains(offset) && (found == null || method.length < found.length)) {
+        found = method;
+      }
+    }
+    return found;
+  }
+
+  /** Returns {@code true} if the method is a test of the framework with the test annotation. */
+  public boolean isTest(Method method, String testAnnotation) {
+    return method.candidate && JavaTestFinder.isTest(method.annotations, imports, testAnnotation);
+  }
+
+  /** Returns the test methods of the member types, which can be run from the unit. */
+  public List<TestPosition> getTests(String testAnnotation) {
+    return tests.computeIfAbsent(
+        testAnnotation,
+        annotation -> {
+          List<TestPosition> positions = new ArrayList<>();
+          for (Method method : methods) {
+            if (method.member && isTest(method, annotation)) {
+              positions.add(method.toTestPosition());
+            }
+          }
+          return Collections.unmodifiableList(positions);
+        });
+  }
+
+  /**
+   * Returns the first of the frameworks the method is a test of.
+   *
+   * @return the framework, or {@code null} if the method is not a test of any of them
+   */
+  public TestFramework getFramework(Method method, List<TestFramework> frameworks) {
+    if (!method.candidate) {
+      return null;
+    }
+    for (TestFramework framework : frameworks) {
+      if (JavaTestFinder.isTest(
+          method.annotations, imports, framework.getTestMethodAnnotation())) {
+        return framework;
+      }
+    }
+    return null;
+  }
+
+  /**
+   * Returns the test methods of the member types for several frameworks at once, every position
+   * is tagged with the framework of the test.
+   */
+  public List<TestPosition> getTests(List<TestFramework> frameworks) {
+    List<TestPosition> positions = new ArrayList<>();
+    for (Method method : methods) {
+      TestFramework framework = method.member ? getFramework(method, frameworks) : null;
+      if (framework != null) {
+        positions.add(method.toTestPosition(framework));
+      }
+    }
+    return positions;
+  }
+
+  private static void collectType(IType type, boolean member, List<Method> methods)
+      throws JavaModelException {
+    for (IMethod method : type.getMethods()) {
+      methods.add(Method.of(method, member));
+      collectLocalTypes(method, methods);
+    }
+    for (IJavaElement child : type.getChildren()) {
+      if (child instanceof IType) {
+        collectType((IType) child, member, methods);
+      } else if (child instanceof IField || child instanceof IInitializer) {
+        collectLocalTypes((IParent) child, methods);
+      }
+    }
+  }
+
+  private static void collectLocalTypes(IParent parent, List<Method> methods)
+      throws JavaModelException {
+    for (IJavaElement child : parent.getChildren()) {
+      if (child instanceof IType) {
+        collectType((IType) child, false, methods);
+      }
+    }
+  }
+
+  /** A method with its location and the parts of its declaration which make it a test. */
+  public static final class Method {
+    private final String name;
+    private final int offset;
+    private final int length;
+    private final int nameOffset;
+    private final int nameLength;
+    // declared in a member type, methods of local and anonymous types are not run as tests
+    private final boolean member;
+    // public, non static, non abstract void method
+    private final boolean candidate;
+    private final String[] annotations;
+
+    private Method(
+        String name,
+        ISourceRange sourceRange,
+        ISourceRange nameRange,
+        boolean member,
+        boolean candidate,
+        String[] annotations) {
+      this.name = name;
+      this.offset = sourceRange.getOffset();
+      this.length = sourceRange.getLength();
+      this.nameOffset = nameRange.getOffset();
+      this.nameLength = nameRange.getLength();
+      this.member = member;
+      this.candidate = candidate;
+      this.annotations = annotations;
+    }
+
+    private static Method of(IMethod method, boolean member) throws JavaModelException {
+      int flags = method.getFlags();
+      // 'V' is void signature
+      boolean candidate =
+          !method.isConstructor()
+              && Flags.isPublic(flags)
+              && !Flags.isAbstract(flags)
+              && !Flags.isStatic(flags)
+              && "V".equals(method.getReturnType());
+      IAnnotation[] declared = method.getAnnotations();
+      String[] annotations = new String[declared.length];
+      for (int i = 0; i < declared.length; i++) {
+        annotations[i] = declared[i].getElementName();
+      }
+      return new Method(
+          method.getElementName(),
+          method.getSourceRange(),
+          method.getNameRange(),
+          member,
+          candidate,
+          annotations);
+    }
+
+    public String getName() {
+      return name;
+    }
+
+    public TestPosition toTestPosition() {
+      return toTestPosition(null);
+    }
+
+    /** Creates the position of the test tagged with the framework. */
+    public TestPosition toTestPosition(TestFramework framework) {
+      TestPosition testPosition = new TestPosition();
+      testPosition.setTestBodyLength(length);
+      testPosition.setTestNameLength(nameLength);
+      testPosition.setTestNameStartOffset(nameOffset);
+      testPosition.setTestName(name);
+      if (framework != null) {
+        testPosition.setFramework(framework.getName());
+      }
+      return testPosition;
+    }
+
+    private boolean contains(int position) {
+      return offset <= position && position <= offset + length;
+    }
+  }
+}
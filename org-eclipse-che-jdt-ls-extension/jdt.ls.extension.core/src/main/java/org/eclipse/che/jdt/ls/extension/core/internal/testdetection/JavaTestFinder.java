@@ -14,11 +14,13 @@ package org.eclipse.che.jdt.ls.extension.core.internal.testdetection;
 import static java.util.Collections.emptyList;
 import static java.util.Collections.singletonList;
 import static org.eclipse.che.jdt.ls.extension.core.internal.JavaModelUtil.getJavaProject;
-import static org.eclipse.jdt.ls.core.internal.JDTUtils.resolveCompilationUnit;
 
 import java.util.HashSet;
 import java.util.LinkedList;
 import java.util.List;
+import org.eclipse.che.jdt.ls.extension.core.internal.jfr.EventSpan;
+import org.eclipse.che.jdt.ls.extension.core.internal.jfr.ExtensionEvents;
+import org.eclipse.core.runtime.IProgressMonitor;
 import org.eclipse.jdt.core.IAnnotation;
 import org.eclipse.jdt.core.ICompilationUnit;
 import org.eclipse.jdt.core.IImportDeclaration;
@@ -54,18 +56,19 @@ public class JavaTestFinder {
     if (compilationUnit == null) {
       return emptyList();
     }
-    IType primaryType = compilationUnit.findPrimaryType();
-    String qualifiedName = primaryType.getFullyQualifiedName();
     try {
-      IJavaElement element = compilationUnit.getElementAt(cursorOffset);
-      if (element instanceof IMethod) {
-        IMethod method = (IMethod) element;
-        qualifiedName = qualifiedName + '#' + method.getElementName();
+      IndexedUnit indexed = TestIndex.getInstance().get(compilationUnit, null);
+      if (indexed.getPrimaryType() == null) {
+        return emptyList();
       }
+      IndexedUnit.Method method = indexed.getMethodAt(cursorOffset);
+      return singletonList(
+          method == null
+              ? indexed.getPrimaryType()
+              : indexed.getPrimaryType() + '#' + method.getName());
     } catch (JavaModelException e) {
       return emptyList();
     }
-    return singletonList(qualifiedName);
   }
 
   /**
@@ -119,10 +122,14 @@ public class JavaTestFinder {
    * @param projectUri URI of java project
    * @param testMethodAnnotation java annotation which describes test method in the test framework
    * @param testClassAnnotation java annotation which describes test class in the test framework
+   * @param pm a progress monitor, the first read of a project can be long
    * @return list of test classes which should be ran.
    */
   public static List<String> findTestClassesInProject(
-      String projectUri, String testMethodAnnotation, String testClassAnnotation) {
+      String projectUri,
+      String testMethodAnnotation,
+      String testClassAnnotation,
+      IProgressMonitor pm) {
 
     IJavaProject javaProject = getJavaProject(projectUri);
 
@@ -130,7 +137,12 @@ public class JavaTestFinder {
       return emptyList();
     }
 
-    return findClassesInContainer(javaProject, testMethodAnnotation, testClassAnnotation);
+    try {
+      return TestRegistry.getInstance()
+          .findTestClasses(javaProject, testMethodAnnotation, testClassAnnotation, pm);
+    } catch (JavaModelException e) {
+      return emptyList();
+    }
   }
 
   /**
@@ -145,62 +157,66 @@ public class JavaTestFinder {
       IMethod method, ICompilationUnit compilationUnit, String testAnnotation) {
     try {
       IAnnotation[] annotations = method.getAnnotations();
-      IAnnotation test = null;
-      for (IAnnotation annotation : annotations) {
-        String annotationElementName = annotation.getElementName();
-        if ("Test".equals(annotationElementName)) {
-          test = annotation;
-          break;
-        }
-        if (testAnnotation.equals(annotationElementName)) {
-          return true;
-        }
+      String[] annotationNames = new String[annotations.length];
+      for (int i = 0; i < annotations.length; i++) {
+        annotationNames[i] = annotations[i].getElementName();
+      }
+      IImportDeclaration[] imports = compilationUnit.getImports();
+      String[] importNames = new String[imports.length];
+      for (int i = 0; i < imports.length; i++) {
+        importNames[i] = imports[i].getElementName();
       }
-      return test != null && isImportOfTestAnnotationExist(compilationUnit, testAnnotation);
+      return isTest(annotationNames, importNames, testAnnotation);
     } catch (JavaModelException e) {
       return false;
     }
   }
 
   /**
-   * Gets fqns of the classes.
+   * Checks if a method is test method by the names of its annotations.
+   *
+   * @param annotations names of the annotations of the method, as written in the source
+   * @param imports names of the imports of the compilation unit, on demand imports end with ".*"
+   * @param testAnnotation java annotation which describes test method in the test framework
+   * @return {@code true} if the method is test method
+   */
+  static boolean isTest(String[] annotations, String[] imports, String testAnnotation) {
+    boolean test = false;
+    for (String annotation : annotations) {
+      if ("Test".equals(annotation)) {
+        test = true;
+        break;
+      }
+      if (testAnnotation.equals(annotation)) {
+        return true;
+      }
+    }
+    return test && isImportOfTestAnnotationExist(imports, testAnnotation);
+  }
+
+  /**
+   * Gets fqns of the classes, see {@link FqnResolver}.
    *
    * @param classes list of classes
-   * @return list of fqns
+   * @return list of fqns, in the order of the classes
    */
   public static List<String> getFqns(List<String> classes) {
     if (classes == null) {
       return emptyList();
     }
-    List<String> result = new LinkedList<>();
-    for (String classPath : classes) {
-      ICompilationUnit compilationUnit = resolveCompilationUnit(classPath);
-      if (compilationUnit != null) {
-        IType primaryType = compilationUnit.findPrimaryType();
-        result.add(primaryType.getFullyQualifiedName());
-      }
-    }
-
-    return result;
+    return FqnResolver.getInstance().resolve(classes, null);
   }
 
-  private static boolean isImportOfTestAnnotationExist(
-      ICompilationUnit compilationUnit, String testAnnotation) {
-    try {
-      IImportDeclaration[] imports = compilationUnit.getImports();
-      for (IImportDeclaration importDeclaration : imports) {
-        String elementName = importDeclaration.getElementName();
-        if (testAnnotation.equals(elementName)) {
-          return true;
-        }
-        if (importDeclaration.isOnDemand()
-            && testAnnotation.startsWith(
-                elementName.substring(0, elementName.length() - 2))) { // remove .*
-          return true;
-        }
+  private static boolean isImportOfTestAnnotationExist(String[] imports, String testAnnotation) {
+    for (String elementName : imports) {
+      if (testAnnotation.equals(elementName)) {
+        return true;
+      }
+      if (elementName.endsWith(".*")
+          && testAnnotation.startsWith(
+              elementName.substring(0, elementName.length() - 2))) { // remove .*
+        return true;
       }
-    } catch (JavaModelException e) {
-      return false;
     }
     return false;
   }
@@ -210,7 +226,12 @@ public class JavaTestFinder {
     List<String> result = new LinkedList<>();
     try {
       IRegion region = getRegion(container);
+      EventSpan hierarchyEvent = ExtensionEvents.TYPE_HIERARCHY.begin();
       ITypeHierarchy hierarchy = JavaCore.newTypeHierarchy(region, null, null);
+      if (hierarchyEvent.isRecording()) {
+        hierarchyEvent.commit(
+            "testFinder", container.getElementName(), hierarchy.getAllClasses().length);
+      }
       IType[] allClasses = hierarchy.getAllClasses();
 
       // search for all types with references to RunWith and Test and all subclasses
@@ -240,7 +261,14 @@ public class JavaTestFinder {
       SearchPattern annotationsPattern = SearchPattern.createOrPattern(runWithPattern, testPattern);
       SearchParticipant[] searchParticipants =
           new SearchParticipant[] {SearchEngine.getDefaultSearchParticipant()};
-      new SearchEngine().search(annotationsPattern, searchParticipants, scope, requestor, null);
+      EventSpan searchEvent = ExtensionEvents.SEARCH.begin();
+      try {
+        new SearchEngine().search(annotationsPattern, searchParticipants, scope, requestor, null);
+      } finally {
+        if (searchEvent.isRecording()) {
+          searchEvent.commit("testFinder", annotationsPattern.toString(), candidates.size());
+        }
+      }
 
       for (IType candidate : candidates) {
         result.add(candidate.getFullyQualifiedName());
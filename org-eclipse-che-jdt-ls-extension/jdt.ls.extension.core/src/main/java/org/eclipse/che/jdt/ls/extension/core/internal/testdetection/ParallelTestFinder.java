@@ -0,0 +1,416 @@
+/*
+ * Copyright (c) 2012-2018 Red Hat, Inc.
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *   Red Hat, Inc. - initial API and implementation
+ */
+package org.eclipse.che.jdt.ls.extension.core.internal.testdetection;
+
+import static org.eclipse.che.jdt.ls.extension.core.internal.Utils.ensureNotCancelled;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+import org.eclipse.core.runtime.CoreException;
+import org.eclipse.core.runtime.IProgressMonitor;
+import org.eclipse.core.runtime.NullProgressMonitor;
+import org.eclipse.core.runtime.OperationCanceledException;
+import org.eclipse.jdt.core.Flags;
+import org.eclipse.jdt.core.IJavaElement;
+import org.eclipse.jdt.core.IJavaProject;
+import org.eclipse.jdt.core.IMethod;
+import org.eclipse.jdt.core.IPackageFragment;
+import org.eclipse.jdt.core.IPackageFragmentRoot;
+import org.eclipse.jdt.core.IRegion;
+import org.eclipse.jdt.core.IType;
+import org.eclipse.jdt.core.ITypeHierarchy;
+import org.eclipse.jdt.core.JavaCore;
+import org.eclipse.jdt.core.JavaModelException;
+import org.eclipse.jdt.core.search.IJavaSearchConstants;
+import org.eclipse.jdt.core.search.SearchEngine;
+import org.eclipse.jdt.core.search.SearchMatch;
+import org.eclipse.jdt.core.search.SearchParticipant;
+import org.eclipse.jdt.core.search.SearchPattern;
+import org.eclipse.jdt.core.search.SearchRequestor;
+
+/**
+ * Finds the test classes of a project, source folder or package in parallel. The source packages
+ * of the container are dealt into partitions, every partition builds the type hierarchy of its
+ * packages and searches them for the test annotations on a bounded {@link ForkJoinPool}. All the
+ * partitions share one progress monitor, so cancelling the discovery or a failure of one
+ * partition stops them all.
+ *
+ * <p>Test classes are passed on as soon as a partition has found them: the annotated classes and
+ * their subclasses in the same partition first, the subclasses of annotated classes of other
+ * partitions once all the partitions have been searched. As in the {@link TestRegistry}, abstract
+ * classes are not tests but their subclasses are.
+ *
+ * <p>Annotations are matched differently than in the {@link TestRegistry}: only accurate search
+ * matches, resolved against the classpath, count here, whereas the registry compares the simple or
+ * qualified annotation names with the imports and the package of the unit. Both agree on a project
+ * with a complete classpath; if the test framework is missing from it this finder finds nothing
+ * while the registry still finds the classes that import its annotations.
+ */
+public class ParallelTestFinder {
+  public static final String PARALLELISM_PROPERTY = "che.jdt.ls.extension.tests.parallelism";
+
+  // more partitions than threads even out partitions of different cost
+  private static final int PARTITIONS_PER_THREAD = 4;
+  private static final ParallelTestFinder INSTANCE =
+      new ParallelTestFinder(
+          Integer.getInteger(PARALLELISM_PROPERTY, Runtime.getRuntime().availableProcessors()));
+
+  private final int parallelism;
+  private ForkJoinPool pool;
+
+  ParallelTestFinder(int parallelism) {
+    this.parallelism = Math.max(1, parallelism);
+  }
+
+  public static ParallelTestFinder getInstance() {
+    return INSTANCE;
+  }
+
+  /**
+   * Finds the test classes in the container.
+   *
+   * @param container java project, source folder or package
+   * @param testMethodAnnotation java annotation which describes test method in the test framework
+   * @param testClassAnnotation java annotation which describes test class in the test framework
+   * @param consumer receives the fully qualified names of the test classes as they are found, once
+   *     for every class, it is called by one thread at a time
+   * @return the fully qualified names of all the test classes, sorted
+   * @throws OperationCanceledException if the discovery has been cancelled
+   */
+  public List<String> find(
+      IJavaElement container,
+      String testMethodAnnotation,
+      String testClassAnnotation,
+      Consumer<List<String>> consumer,
+      IProgressMonitor pm)
+      throws CoreException {
+    List<IJavaElement[]> partitions = partition(container, parallelism * PARTITIONS_PER_THREAD);
+    SearchPattern pattern = createPattern(testMethodAnnotation, testClassAnnotation);
+    SharedMonitor monitor = new SharedMonitor(pm);
+    Set<IType> found = ConcurrentHashMap.newKeySet();
+    Consumer<Collection<IType>> sink =
+        types -> {
+          List<String> names = new ArrayList<>(types.size());
+          for (IType type : types) {
+            if (found.add(type)) {
+              names.add(type.getFullyQualifiedName());
+            }
+          }
+          if (!names.isEmpty()) {
+            synchronized (consumer) {
+              consumer.accept(names);
+            }
+          }
+        };
+
+    List<Partition> searched =
+        run(
+            () ->
+                partitions
+                    .parallelStream()
+                    .map(partition -> search(partition, pattern, sink, monitor))
+                    .collect(Collectors.toList()),
+            monitor);
+
+    Set<IType> annotated = new HashSet<>();
+    Map<IType, Partition> owners = new HashMap<>();
+    for (Partition partition : searched) {
+      annotated.addAll(partition.annotated);
+      for (IType type : partition.classes) {
+        owners.put(type, partition);
+      }
+    }
+    run(
+        () -> {
+          searched
+              .parallelStream()
+              .forEach(partition -> partition.inherit(annotated, owners, found, sink, monitor));
+          return null;
+        },
+        monitor);
+
+    List<String> result = new ArrayList<>(found.size());
+    for (IType type : found) {
+      result.add(type.getFullyQualifiedName());
+    }
+    Collections.sort(result);
+    return result;
+  }
+
+  /** Stops the threads of the pool, a following discovery starts new ones. */
+  public synchronized void shutdown() {
+    if (pool != null) {
+      pool.shutdown();
+      pool = null;
+    }
+  }
+
+  private synchronized ForkJoinPool getPool() {
+    if (pool == null) {
+      pool = new ForkJoinPool(parallelism);
+    }
+    return pool;
+  }
+
+  private <T> T run(Callable<T> task, SharedMonitor monitor)
+      throws CoreException {
+    try {
+      T result = getPool().submit(task).get();
+      ensureNotCancelled(monitor);
+      return result;
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new OperationCanceledException();
+    } catch (ExecutionException e) {
+      Throwable cause = e.getCause();
+      if (cause instanceof PartitionFailure) {
+        throw ((PartitionFailure) cause).getCause();
+      }
+      if (cause instanceof RuntimeException) {
+        throw (RuntimeException) cause;
+      }
+      throw new IllegalStateException(cause);
+    }
+  }
+
+  private static Partition search(
+      IJavaElement[] packages,
+      SearchPattern pattern,
+      Consumer<Collection<IType>> sink,
+      SharedMonitor monitor) {
+    try {
+      ensureNotCancelled(monitor);
+      IRegion region = JavaCore.newRegion();
+      for (IJavaElement pkg : packages) {
+        region.add(pkg);
+      }
+      ITypeHierarchy hierarchy = JavaCore.newTypeHierarchy(region, null, monitor);
+      Partition partition = new Partition(region, hierarchy);
+      new SearchEngine()
+          .search(
+              pattern,
+              new SearchParticipant[] {SearchEngine.getDefaultSearchParticipant()},
+              SearchEngine.createJavaSearchScope(packages, false),
+              new SearchRequestor() {
+                @Override
+                public void acceptSearchMatch(SearchMatch match) {
+                  if (match.getAccuracy() != SearchMatch.A_ACCURATE
+                      || match.isInsideDocComment()) {
+                    return;
+                  }
+                  Object element = match.getElement();
+                  if (element instanceof IType) {
+                    partition.annotated.add((IType) element);
+                  } else if (element instanceof IMethod) {
+                    partition.annotated.add(((IMethod) element).getDeclaringType());
+                  }
+                }
+              },
+              monitor);
+      // annotated classes and their subclasses in the partition
+      Set<IType> tests = new LinkedHashSet<>();
+      Set<IType> visited = new HashSet<>();
+      Deque<IType> queue = new ArrayDeque<>(partition.annotated);
+      while (!queue.isEmpty()) {
+        IType type = queue.poll();
+        if (visited.add(type)) {
+          if (isTestClass(type)) {
+            tests.add(type);
+          }
+          Collections.addAll(queue, hierarchy.getSubclasses(type));
+        }
+      }
+      sink.accept(tests);
+      return partition;
+    } catch (CoreException e) {
+      monitor.setCanceled(true);
+      throw new PartitionFailure(e);
+    } catch (RuntimeException e) {
+      monitor.setCanceled(true);
+      throw e;
+    }
+  }
+
+  private static boolean isTestClass(IType type) throws JavaModelException {
+    return AnnotationSearchRequestor.isAccessibleClass(type) && !Flags.isAbstract(type.getFlags());
+  }
+
+  private static SearchPattern createPattern(
+      String testMethodAnnotation, String testClassAnnotation) {
+    int matchRule = SearchPattern.R_CASE_SENSITIVE;
+    SearchPattern testPattern =
+        SearchPattern.createPattern(
+            testMethodAnnotation,
+            IJavaSearchConstants.ANNOTATION_TYPE,
+            IJavaSearchConstants.ANNOTATION_TYPE_REFERENCE,
+            matchRule);
+    if (testClassAnnotation == null || testClassAnnotation.isEmpty()) {
+      return testPattern;
+    }
+    return SearchPattern.createOrPattern(
+        SearchPattern.createPattern(
+            testClassAnnotation,
+            IJavaSearchConstants.ANNOTATION_TYPE,
+            IJavaSearchConstants.ANNOTATION_TYPE_REFERENCE,
+            matchRule),
+        testPattern);
+  }
+
+  /**
+   * Splits the source packages of the container into partitions. Packages are dealt round robin, a
+   * package is a partition of its own.
+   */
+  static List<IJavaElement[]> partition(IJavaElement container, int count)
+      throws JavaModelException {
+    List<IJavaElement> packages = new ArrayList<>();
+    if (container instanceof IPackageFragment) {
+      packages.add(container);
+    } else if (container instanceof IPackageFragmentRoot) {
+      addPackages((IPackageFragmentRoot) container, packages);
+    } else if (container instanceof IJavaProject) {
+      for (IPackageFragmentRoot root : ((IJavaProject) container).getPackageFragmentRoots()) {
+        addPackages(root, packages);
+      }
+    }
+
+    int size = Math.min(count, packages.size());
+    List<List<IJavaElement>> dealt = new ArrayList<>(size);
+    for (int i = 0; i < size; i++) {
+      dealt.add(new ArrayList<>());
+    }
+    for (int i = 0; i < packages.size(); i++) {
+      dealt.get(i % size).add(packages.get(i));
+    }
+    List<IJavaElement[]> partitions = new ArrayList<>(size);
+    for (List<IJavaElement> partition : dealt) {
+      partitions.add(partition.toArray(new IJavaElement[partition.size()]));
+    }
+    return partitions;
+  }
+
+  private static void addPackages(IPackageFragmentRoot root, List<IJavaElement> packages)
+      throws JavaModelException {
+    if (root.getKind() != IPackageFragmentRoot.K_SOURCE) {
+      return;
+    }
+    for (IJavaElement pkg : root.getChildren()) {
+      if (((IPackageFragment) pkg).containsJavaResources()) {
+        packages.add(pkg);
+      }
+    }
+  }
+
+  /** Type hierarchy and annotated classes of the packages of a partition. */
+  private static class Partition {
+    private final IRegion region;
+    private final ITypeHierarchy hierarchy;
+    private final List<IType> classes = new ArrayList<>();
+    private final Set<IType> annotated = new HashSet<>();
+
+    Partition(IRegion region, ITypeHierarchy hierarchy) {
+      this.region = region;
+      this.hierarchy = hierarchy;
+      for (IType type : hierarchy.getAllClasses()) {
+        // the hierarchy contains the superclasses of the partition as well
+        if (region.contains(type)) {
+          classes.add(type);
+        }
+      }
+    }
+
+    /**
+     * Passes on the classes which have not been found yet and inherit from an annotated class of
+     * any partition. Like in the {@link TestRegistry}, the classes in between may be abstract.
+     */
+    void inherit(
+        Set<IType> annotated,
+        Map<IType, Partition> owners,
+        Set<IType> found,
+        Consumer<Collection<IType>> sink,
+        SharedMonitor monitor) {
+      List<IType> tests = new ArrayList<>();
+      try {
+        for (IType type : classes) {
+          ensureNotCancelled(monitor);
+          if (!found.contains(type) && isTestClass(type) && inherits(type, annotated, owners)) {
+            tests.add(type);
+          }
+        }
+      } catch (JavaModelException e) {
+        monitor.setCanceled(true);
+        throw new PartitionFailure(e);
+      }
+      sink.accept(tests);
+    }
+
+    private boolean inherits(IType type, Set<IType> annotated, Map<IType, Partition> owners)
+        throws JavaModelException {
+      Set<IType> visited = new HashSet<>();
+      for (IType current = type; current != null && visited.add(current); ) {
+        if (annotated.contains(current)) {
+          return true;
+        }
+        // superclasses of classes of other partitions are known to their own hierarchy
+        current = owners.getOrDefault(current, this).hierarchy.getSuperclass(current);
+      }
+      return false;
+    }
+
+  }
+
+  /** Progress monitor shared by the partitions, it must be thread safe. */
+  private static class SharedMonitor extends NullProgressMonitor {
+    private final IProgressMonitor parent;
+    private volatile boolean canceled;
+
+    SharedMonitor(IProgressMonitor parent) {
+      this.parent = parent;
+    }
+
+    @Override
+    public boolean isCanceled() {
+      return canceled || (parent != null && parent.isCanceled());
+    }
+
+    @Override
+    public void setCanceled(boolean canceled) {
+      this.canceled = canceled;
+    }
+  }
+
+  /** Carries the checked failure of a partition out of the stream. */
+  private static class PartitionFailure extends RuntimeException {
+    PartitionFailure(CoreException cause) {
+      super(cause);
+    }
+
+    @Override
+    public synchronized CoreException getCause() {
+      return (CoreException) super.getCause();
+    }
+  }
+}
@@ -0,0 +1,181 @@
+/*
+ * Copyright (c) 2012-2018 Red Hat, Inc.
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *   Red Hat, Inc. - initial API and implementation
+ */
+package org.eclipse.che.jdt.ls.extension.core.internal.testdetection;
+
+import static org.eclipse.che.jdt.ls.extension.core.internal.Utils.ensureNotCancelled;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Predicate;
+import org.eclipse.core.runtime.IProgressMonitor;
+import org.eclipse.core.runtime.OperationCanceledException;
+import org.eclipse.jdt.core.ICompilationUnit;
+import org.eclipse.jdt.core.IJavaElement;
+import org.eclipse.jdt.core.IJavaElementDelta;
+import org.eclipse.jdt.core.IJavaProject;
+import org.eclipse.jdt.core.IPackageFragment;
+import org.eclipse.jdt.core.IPackageFragmentRoot;
+import org.eclipse.jdt.core.JavaCore;
+import org.eclipse.jdt.core.JavaModelException;
+
+/**
+ * Facts computed from the compilation units of the source folders of a project, for all the units
+ * on the first update and then for the changed units only.
+ *
+ * <p>Units are read outside of the lock, so that changes can be reported meanwhile. Updates of a
+ * project do not overlap: an update waits for the one in progress, otherwise it could answer from
+ * units which have not been read yet.
+ *
+ * @param <T> facts of a compilation unit
+ */
+abstract class ProjectUnits<T> {
+  private static final long POLL_INTERVAL_MILLIS = 100;
+
+  // facts of the units read so far by unit key, guarded by this
+  protected final Map<String, T> units = new HashMap<>();
+  private final Set<String> changed = new HashSet<>();
+  private boolean complete;
+  private boolean updating;
+
+  /** Returns the key of a compilation unit, the handle identifier of its primary unit. */
+  static String unitKey(ICompilationUnit unit) {
+    return unit.getPrimary().getHandleIdentifier();
+  }
+
+  /** Returns {@code true} if the delta of a compilation unit adds the unit or a type. */
+  static boolean declaresTypes(IJavaElementDelta delta) {
+    if (delta.getKind() == IJavaElementDelta.ADDED) {
+      return true;
+    }
+    for (IJavaElementDelta child : delta.getAffectedChildren()) {
+      if (child.getElement().getElementType() == IJavaElement.TYPE && declaresTypes(child)) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  /** Marks the unit to be read again on the next update. */
+  synchronized void changed(String unit) {
+    changed.add(unit);
+  }
+
+  /** Marks the units whose facts match the predicate to be read again on the next update. */
+  synchronized void changedIf(Predicate<T> predicate) {
+    for (Map.Entry<String, T> entry : units.entrySet()) {
+      if (predicate.test(entry.getValue())) {
+        changed.add(entry.getKey());
+      }
+    }
+  }
+
+  /** Reads all the units of the project on the first call, then the changed ones. */
+  void update(IJavaProject project, IProgressMonitor pm) throws JavaModelException {
+    boolean readAll;
+    Set<String> toRead;
+    synchronized (this) {
+      awaitUpdate(pm);
+      updating = true;
+      readAll = !complete;
+      toRead = new HashSet<>(changed);
+      changed.clear();
+    }
+    // changes during the read are read by the next update
+    Map<String, T> read = new HashMap<>();
+    try {
+      List<ICompilationUnit> toCompute = new ArrayList<>();
+      if (readAll) {
+        for (IPackageFragmentRoot root : project.getPackageFragmentRoots()) {
+          if (root.getKind() != IPackageFragmentRoot.K_SOURCE) {
+            continue;
+          }
+          for (IJavaElement pkg : root.getChildren()) {
+            ensureNotCancelled(pm);
+            Collections.addAll(toCompute, ((IPackageFragment) pkg).getCompilationUnits());
+          }
+        }
+      } else {
+        for (String key : toRead) {
+          IJavaElement unit = JavaCore.create(key);
+          if (unit instanceof ICompilationUnit
+              && unit.exists()
+              && project.isOnClasspath(unit)
+              && isInSourceFolder(unit)) {
+            toCompute.add((ICompilationUnit) unit);
+          } else {
+            read.put(key, null);
+          }
+        }
+      }
+      compute(project, toCompute, read, pm);
+    } catch (RuntimeException | JavaModelException e) {
+      synchronized (this) {
+        changed.addAll(toRead);
+        updating = false;
+        notifyAll();
+      }
+      throw e;
+    }
+
+    synchronized (this) {
+      if (readAll) {
+        units.clear();
+        complete = true;
+      }
+      for (Map.Entry<String, T> entry : read.entrySet()) {
+        if (entry.getValue() == null) {
+          units.remove(entry.getKey());
+        } else {
+          units.put(entry.getKey(), entry.getValue());
+        }
+      }
+      updating = false;
+      notifyAll();
+    }
+  }
+
+  /**
+   * Computes the facts of the units.
+   *
+   * @param toCompute the units to read
+   * @param read receives the facts of every unit, by unit key
+   */
+  protected abstract void compute(
+      IJavaProject project,
+      List<ICompilationUnit> toCompute,
+      Map<String, T> read,
+      IProgressMonitor pm)
+      throws JavaModelException;
+
+  private void awaitUpdate(IProgressMonitor pm) {
+    while (updating) {
+      ensureNotCancelled(pm);
+      try {
+        wait(POLL_INTERVAL_MILLIS);
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+        throw new OperationCanceledException();
+      }
+    }
+  }
+
+  private static boolean isInSourceFolder(IJavaElement unit) throws JavaModelException {
+    IPackageFragmentRoot root =
+        (IPackageFragmentRoot) unit.getAncestor(IJavaElement.PACKAGE_FRAGMENT_ROOT);
+    return root != null && root.getKind() == IPackageFragmentRoot.K_SOURCE;
+  }
+}
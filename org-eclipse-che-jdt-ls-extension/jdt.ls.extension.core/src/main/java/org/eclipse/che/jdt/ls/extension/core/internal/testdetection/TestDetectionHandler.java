@@ -11,33 +11,33 @@
  */
 package org.eclipse.che.jdt.ls.extension.core.internal.testdetection;
 
+import static java.util.Collections.singletonList;
 import static org.eclipse.che.jdt.ls.extension.core.internal.Utils.ensureNotCancelled;
 
-import com.google.gson.Gson;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
+import org.eclipse.che.jdt.ls.extension.api.dto.TestFramework;
 import org.eclipse.che.jdt.ls.extension.api.dto.TestPosition;
 import org.eclipse.che.jdt.ls.extension.api.dto.TestPositionParameters;
-import org.eclipse.che.jdt.ls.extension.core.internal.GsonUtils;
+import org.eclipse.che.jdt.ls.extension.core.internal.JavaModelUtil;
 import org.eclipse.core.runtime.IProgressMonitor;
-import org.eclipse.jdt.core.Flags;
+import org.eclipse.core.runtime.OperationCanceledException;
 import org.eclipse.jdt.core.ICompilationUnit;
-import org.eclipse.jdt.core.IJavaElement;
-import org.eclipse.jdt.core.IMethod;
-import org.eclipse.jdt.core.ISourceRange;
-import org.eclipse.jdt.core.IType;
-import org.eclipse.jdt.core.JavaModelException;
 import org.eclipse.jdt.ls.core.internal.JDTUtils;
 import org.eclipse.jdt.ls.core.internal.JavaLanguageServerPlugin;
 
-/** Handler for test detection events. */
+/**
+ * Handler for test detection events. The methods of a compilation unit are taken from the {@link
+ * TestIndex}, so repeated detection in an unchanged file does not walk the Java model. Working
+ * copies of open editors change with every keystroke, their tests are detected in the shared AST
+ * by the {@link AstTestDetector} instead.
+ */
 public class TestDetectionHandler {
 
-  private static final Gson gson = GsonUtils.getInstance();
-
   /**
-   * Detects if the java class has tests.
+   * Detects if the java class has tests. If the parameters contain test frameworks, tests of all of
+   * them are detected at once and tagged with their framework.
    *
    * @param arguments a list contains file URI, fqn of test method annotation and cursor offset
    * @param pm a progress monitor
@@ -45,7 +45,7 @@ public class TestDetectionHandler {
    */
   public static List<TestPosition> detect(List<Object> arguments, IProgressMonitor pm) {
     TestPositionParameters parameters =
-        gson.fromJson(gson.toJson(arguments.get(0)), TestPositionParameters.class);
+        JavaModelUtil.convertCommandParameter(arguments.get(0), TestPositionParameters.class);
 
     String fileUri = parameters.getFileUri();
     String testAnnotation = parameters.getTestAnnotation();
@@ -56,79 +56,41 @@ public class TestDetectionHandler {
       return Collections.emptyList();
     }
 
+    ensureNotCancelled(pm);
+
     List<TestPosition> result = new ArrayList<>();
 
     try {
-      if (cursorOffset == -1) {
-        addAllTestsMethod(result, unit, testAnnotation, pm);
-      } else {
-        IJavaElement elementAt = unit.getElementAt(cursorOffset);
-        if (elementAt != null && elementAt.getElementType() == IJavaElement.METHOD) {
-          if (isTestMethod((IMethod) elementAt, unit, testAnnotation)) {
-            result.add(createTestPosition((IMethod) elementAt));
-          }
-        } else {
-          addAllTestsMethod(result, unit, testAnnotation, pm);
+      if (unit.isWorkingCopy()) {
+        List<TestFramework> frameworks = parameters.getFrameworks();
+        if (frameworks == null || frameworks.isEmpty()) {
+          frameworks = singletonList(new TestFramework(null, testAnnotation, null));
+        }
+        List<TestPosition> detected = AstTestDetector.detect(unit, frameworks, cursorOffset, pm);
+        if (detected != null) {
+          return detected;
         }
       }
+      IndexedUnit indexed = TestIndex.getInstance().get(unit, pm);
+      IndexedUnit.Method method = cursorOffset == -1 ? null : indexed.getMethodAt(cursorOffset);
+      List<TestFramework> frameworks = parameters.getFrameworks();
+      if (frameworks != null && !frameworks.isEmpty()) {
+        TestFramework framework = method == null ? null : indexed.getFramework(method, frameworks);
+        if (method == null) {
+          result.addAll(indexed.getTests(frameworks));
+        } else if (framework != null) {
+          result.add(method.toTestPosition(framework));
+        }
+      } else if (method == null) {
+        result.addAll(indexed.getTests(testAnnotation));
+      } else if (indexed.isTest(method, testAnnotation)) {
+        result.add(method.toTestPosition());
+      }
+    } catch (OperationCanceledException e) {
+      throw e;
     } catch (Exception e) {
       JavaLanguageServerPlugin.logException("Problem with test detection for " + fileUri, e);
     }
     return result;
   }
-
-  private static void addAllTestsMethod(
-      List<TestPosition> result,
-      ICompilationUnit compilationUnit,
-      String testAnnotation,
-      IProgressMonitor pm)
-      throws JavaModelException {
-    for (IType type : compilationUnit.getAllTypes()) {
-
-      ensureNotCancelled(pm);
-
-      for (IMethod method : type.getMethods()) {
-        if (isTestMethod(method, compilationUnit, testAnnotation)) {
-          result.add(createTestPosition(method));
-        }
-      }
-    }
-  }
-
-  /**
-   * Verify if the method is test method.
-   *
-   * @param unit compilation unit of the method
-   * @param method method declaration
-   * @return {@code true} if the method is test method otherwise returns {@code false}
-   */
-  private static boolean isTestMethod(
-      IMethod method, ICompilationUnit unit, String testAnnotation) {
-    try {
-      int flags = method.getFlags();
-      // 'V' is void signature
-      return !method.isConstructor()
-          && Flags.isPublic(flags)
-          && !Flags.isAbstract(flags)
-          && !Flags.isStatic(flags)
-          && "V".equals(method.getReturnType())
-          && JavaTestFinder.isTest(method, unit, testAnnotation);
-
-    } catch (JavaModelException ignored) {
-      return false;
-    }
-  }
-
-  private static TestPosition createTestPosition(IMethod method) throws JavaModelException {
-    ISourceRange nameRange = method.getNameRange();
-    ISourceRange sourceRange = method.getSourceRange();
-
-    TestPosition testPosition = new TestPosition();
-    testPosition.setTestBodyLength(sourceRange.getLength());
-    testPosition.setTestNameLength(nameRange.getLength());
-    testPosition.setTestNameStartOffset(nameRange.getOffset());
-    testPosition.setTestName(method.getElementName());
-
-    return testPosition;
-  }
 }
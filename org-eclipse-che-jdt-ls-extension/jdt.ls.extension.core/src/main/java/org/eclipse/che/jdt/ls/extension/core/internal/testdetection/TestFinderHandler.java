@@ -18,17 +18,34 @@ import static org.eclipse.che.jdt.ls.extension.core.internal.testdetection.JavaT
 import static org.eclipse.che.jdt.ls.extension.core.internal.testdetection.JavaTestFinder.findTestMethodDeclaration;
 import static org.eclipse.jdt.ls.core.internal.JDTUtils.resolveCompilationUnit;
 
-import com.google.gson.Gson;
+import java.util.Collections;
 import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+import org.eclipse.che.jdt.ls.extension.api.Notifications;
 import org.eclipse.che.jdt.ls.extension.api.dto.TestFindParameters;
-import org.eclipse.che.jdt.ls.extension.core.internal.GsonUtils;
+import org.eclipse.che.jdt.ls.extension.api.dto.TestFindStreamParameters;
+import org.eclipse.che.jdt.ls.extension.api.dto.TestFramework;
+import org.eclipse.che.jdt.ls.extension.api.dto.TestImpact;
+import org.eclipse.che.jdt.ls.extension.api.dto.TestImpactParameters;
+import org.eclipse.che.jdt.ls.extension.api.dto.TestsPartialResult;
+import org.eclipse.che.jdt.ls.extension.api.dto.TestsSummary;
+import org.eclipse.che.jdt.ls.extension.core.internal.JavaModelUtil;
+import org.eclipse.core.resources.IResource;
+import org.eclipse.core.resources.ResourcesPlugin;
+import org.eclipse.core.runtime.CoreException;
 import org.eclipse.core.runtime.IProgressMonitor;
 import org.eclipse.jdt.core.ICompilationUnit;
+import org.eclipse.jdt.core.IJavaElement;
+import org.eclipse.jdt.core.IJavaProject;
+import org.eclipse.jdt.core.JavaCore;
+import org.eclipse.jdt.core.JavaModelException;
+import org.eclipse.jdt.ls.core.internal.JDTUtils;
+import org.eclipse.jdt.ls.core.internal.JavaLanguageServerPlugin;
+import org.eclipse.jdt.ls.core.internal.handlers.JDTLanguageServer;
 
 /** Class for finding test methods in the different areas. */
 public class TestFinderHandler {
-  private static final Gson gson = GsonUtils.getInstance();
-
   /**
    * Returns test class declaration by file uri.
    *
@@ -38,7 +55,7 @@ public class TestFinderHandler {
    */
   public static List<String> getClassFqn(List<Object> arguments, IProgressMonitor pm) {
     TestFindParameters parameters =
-        gson.fromJson(gson.toJson(arguments.get(0)), TestFindParameters.class);
+        JavaModelUtil.convertCommandParameter(arguments.get(0), TestFindParameters.class);
 
     String uriString = parameters.getSourceUri();
     String methodAnnotation = parameters.getTestMethodAnnotation();
@@ -60,7 +77,7 @@ public class TestFinderHandler {
    */
   public static List<String> getClassesFromFolder(List<Object> arguments, IProgressMonitor pm) {
     TestFindParameters parameters =
-        gson.fromJson(gson.toJson(arguments.get(0)), TestFindParameters.class);
+        JavaModelUtil.convertCommandParameter(arguments.get(0), TestFindParameters.class);
 
     String folderUri = parameters.getSourceUri();
     String testMethodAnnotation = parameters.getTestMethodAnnotation();
@@ -81,7 +98,7 @@ public class TestFinderHandler {
    */
   public static List<String> getClassesFromProject(List<Object> arguments, IProgressMonitor pm) {
     TestFindParameters parameters =
-        gson.fromJson(gson.toJson(arguments.get(0)), TestFindParameters.class);
+        JavaModelUtil.convertCommandParameter(arguments.get(0), TestFindParameters.class);
 
     String projectUri = parameters.getSourceUri();
     String testMethodAnnotation = parameters.getTestMethodAnnotation();
@@ -89,7 +106,81 @@ public class TestFinderHandler {
 
     ensureNotCancelled(pm);
 
-    return findTestClassesInProject(projectUri, testMethodAnnotation, testClassAnnotation);
+    return findTestClassesInProject(projectUri, testMethodAnnotation, testClassAnnotation, pm);
+  }
+
+  /**
+   * Returns test classes of several test frameworks from the project, found in one pass.
+   *
+   * @param arguments contain project URI and the test frameworks
+   * @param pm a progress monitor
+   * @return fqns of test classes by framework name
+   */
+  public static Map<String, List<String>> getClassesByFramework(
+      List<Object> arguments, IProgressMonitor pm) {
+    TestFindParameters parameters =
+        JavaModelUtil.convertCommandParameter(arguments.get(0), TestFindParameters.class);
+
+    String projectUri = parameters.getSourceUri();
+    List<TestFramework> frameworks = parameters.getFrameworks();
+
+    ensureNotCancelled(pm);
+
+    IJavaProject javaProject = JavaModelUtil.getJavaProject(projectUri);
+    if (javaProject == null || frameworks == null) {
+      return Collections.emptyMap();
+    }
+    try {
+      return TestRegistry.getInstance().findTestClasses(javaProject, frameworks, pm);
+    } catch (JavaModelException e) {
+      return Collections.emptyMap();
+    }
+  }
+
+  /**
+   * Finds the test classes of a project, source folder or package in parallel, see {@link
+   * ParallelTestFinder}, and sends them to the client in {@link
+   * Notifications#TESTS_PARTIAL_RESULT} notifications as soon as they are found, so the first
+   * classes can be run before the discovery is over.
+   *
+   * @param arguments contain the request id, the container URI, fqn of test method annotation and
+   *     fqn of test class annotation
+   * @param pm a progress monitor
+   * @return summary of the discovery, sent after the last partial result
+   */
+  public static TestsSummary streamClasses(List<Object> arguments, IProgressMonitor pm) {
+    return streamClasses(arguments, pm, TestFinderHandler::notifyClient);
+  }
+
+  static TestsSummary streamClasses(
+      List<Object> arguments, IProgressMonitor pm, Consumer<TestsPartialResult> client) {
+    TestFindStreamParameters parameters =
+        JavaModelUtil.convertCommandParameter(arguments.get(0), TestFindStreamParameters.class);
+    String requestId = parameters.getRequestId();
+
+    ensureNotCancelled(pm);
+
+    IResource resource =
+        JDTUtils.findResource(
+            JDTUtils.toURI(parameters.getSourceUri()),
+            ResourcesPlugin.getWorkspace().getRoot()::findContainersForLocationURI);
+    IJavaElement container = resource == null ? null : JavaCore.create(resource);
+    if (container == null || !container.exists()) {
+      return new TestsSummary(requestId, 0);
+    }
+    try {
+      List<String> classes =
+          ParallelTestFinder.getInstance()
+              .find(
+                  container,
+                  parameters.getTestMethodAnnotation(),
+                  parameters.getTestClassAnnotation(),
+                  found -> client.accept(new TestsPartialResult(requestId, found)),
+                  pm);
+      return new TestsSummary(requestId, classes.size());
+    } catch (CoreException e) {
+      throw new RuntimeException(e);
+    }
   }
 
   /**
@@ -101,7 +192,7 @@ public class TestFinderHandler {
    */
   public static List<String> getTestByCursorPosition(List<Object> arguments, IProgressMonitor pm) {
     TestFindParameters parameters =
-        gson.fromJson(gson.toJson(arguments.get(0)), TestFindParameters.class);
+        JavaModelUtil.convertCommandParameter(arguments.get(0), TestFindParameters.class);
 
     String fileUri = parameters.getSourceUri();
     int cursorOffset = parameters.getCursorOffset();
@@ -113,7 +204,7 @@ public class TestFinderHandler {
   }
 
   /**
-   * Returns classes's fqns.
+   * Returns classes's fqns. The classes are resolved in a batch, see {@link FqnResolver}.
    *
    * @param arguments contain list of classes
    * @param pm a progress monitor
@@ -121,12 +212,52 @@ public class TestFinderHandler {
    */
   public static List<String> getClassesFromSet(List<Object> arguments, IProgressMonitor pm) {
     TestFindParameters parameters =
-        gson.fromJson(gson.toJson(arguments.get(0)), TestFindParameters.class);
+        JavaModelUtil.convertCommandParameter(arguments.get(0), TestFindParameters.class);
 
     List<String> classes = parameters.getEntryClasses();
 
     ensureNotCancelled(pm);
 
-    return JavaTestFinder.getFqns(classes);
+    return classes == null
+        ? Collections.emptyList()
+        : FqnResolver.getInstance().resolve(classes, pm);
+  }
+
+  /**
+   * Returns the tests affected by changes of files, see {@link TestImpactAnalyzer}.
+   *
+   * @param arguments contain URIs of the changed files, fqn of test method annotation and fqn of
+   *     test class annotation
+   * @param pm a progress monitor
+   * @return the affected test classes, with the affected test methods
+   */
+  public static List<TestImpact> getImpactedTests(List<Object> arguments, IProgressMonitor pm) {
+    TestImpactParameters parameters =
+        JavaModelUtil.convertCommandParameter(arguments.get(0), TestImpactParameters.class);
+
+    List<String> changedFiles = parameters.getChangedFiles();
+
+    ensureNotCancelled(pm);
+
+    if (changedFiles == null) {
+      return Collections.emptyList();
+    }
+    try {
+      return TestImpactAnalyzer.findImpactedTests(
+          changedFiles,
+          parameters.getTestMethodAnnotation(),
+          parameters.getTestClassAnnotation(),
+          pm);
+    } catch (JavaModelException e) {
+      return Collections.emptyList();
+    }
+  }
+
+  @SuppressWarnings("restriction")
+  private static void notifyClient(TestsPartialResult result) {
+    JDTLanguageServer ls = JavaLanguageServerPlugin.getInstance().getProtocol();
+    if (ls != null) {
+      ls.getClientConnection().sendNotification(Notifications.TESTS_PARTIAL_RESULT, result);
+    }
   }
 }
@@ -0,0 +1,207 @@
+/*
+ * Copyright (c) 2012-2018 Red Hat, Inc.
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *   Red Hat, Inc. - initial API and implementation
+ */
+package org.eclipse.che.jdt.ls.extension.core.internal.testdetection;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import org.eclipse.che.jdt.ls.extension.api.dto.TestImpact;
+import org.eclipse.che.jdt.ls.extension.api.dto.TestPosition;
+import org.eclipse.che.jdt.ls.extension.core.internal.testdetection.DependencyGraph.UnitDependencies;
+import org.eclipse.che.jdt.ls.extension.core.internal.usages.SearchScopes;
+import org.eclipse.core.resources.ResourcesPlugin;
+import org.eclipse.core.runtime.IProgressMonitor;
+import org.eclipse.jdt.core.ICompilationUnit;
+import org.eclipse.jdt.core.IJavaElement;
+import org.eclipse.jdt.core.IJavaProject;
+import org.eclipse.jdt.core.JavaCore;
+import org.eclipse.jdt.core.JavaModelException;
+import org.eclipse.jdt.ls.core.internal.JDTUtils;
+
+/**
+ * Finds the tests affected by changes of Java files from the {@link DependencyGraph}.
+ *
+ * <p>A type is affected if it is declared in a changed unit or if its unit refers to an affected
+ * type, so the affected types are the transitive dependents of the changed ones. The graph is
+ * limited to the projects of the changed units and to the projects which depend on them.
+ *
+ * <p>An affected test class is narrowed down to the test methods whose bodies refer to affected
+ * types, as long as the rest of the class, e.g. fields, other methods or the super class, does not
+ * refer to any of them. Otherwise, or if the test class itself has changed, the whole class is
+ * affected.
+ */
+public class TestImpactAnalyzer {
+
+  private TestImpactAnalyzer() {}
+
+  /**
+   * Finds the affected tests.
+   *
+   * @param changedFiles URIs of the changed, added or removed Java files
+   * @param testMethodAnnotation java annotation which describes test method in the test framework
+   * @param testClassAnnotation java annotation which describes test class in the test framework,
+   *     may be empty
+   * @return the affected test classes sorted by name
+   */
+  public static List<TestImpact> findImpactedTests(
+      List<String> changedFiles,
+      String testMethodAnnotation,
+      String testClassAnnotation,
+      IProgressMonitor pm)
+      throws JavaModelException {
+    IJavaProject[] all =
+        JavaCore.create(ResourcesPlugin.getWorkspace().getRoot()).getJavaProjects();
+    Set<IJavaProject> projects = new LinkedHashSet<>();
+    Map<String, ICompilationUnit> changedUnits = new HashMap<>();
+    for (String uri : changedFiles) {
+      ICompilationUnit unit = JDTUtils.resolveCompilationUnit(uri);
+      if (unit == null || unit.getJavaProject() == null) {
+        continue;
+      }
+      changedUnits.put(ProjectUnits.unitKey(unit), unit);
+      if (!projects.contains(unit.getJavaProject())) {
+        projects.addAll(SearchScopes.getDependentProjects(unit.getJavaProject(), all));
+      }
+    }
+    if (changedUnits.isEmpty()) {
+      return Collections.emptyList();
+    }
+
+    Map<String, UnitDependencies> graph =
+        DependencyGraph.getInstance().getDependencies(projects, pm);
+    Set<String> affectedTypes = new HashSet<>();
+    for (Map.Entry<String, ICompilationUnit> entry : changedUnits.entrySet()) {
+      UnitDependencies dependencies = graph.get(entry.getKey());
+      if (dependencies != null) {
+        affectedTypes.addAll(dependencies.getTypes());
+      }
+      // a removed unit is not in the graph anymore, its references name the primary type
+      affectedTypes.add(primaryTypeName(entry.getValue()));
+    }
+    Set<String> affectedUnits = findDependents(graph, changedUnits.keySet(), affectedTypes);
+
+    Map<String, String> unitsByType = new HashMap<>();
+    for (String unit : affectedUnits) {
+      UnitDependencies dependencies = graph.get(unit);
+      if (dependencies != null) {
+        for (String type : dependencies.getTypes()) {
+          unitsByType.put(type, unit);
+        }
+      }
+    }
+    Map<String, TestImpact> impacts = new TreeMap<>();
+    for (IJavaProject project : projects) {
+      for (String testClass :
+          TestRegistry.getInstance()
+              .findTestClasses(project, testMethodAnnotation, testClassAnnotation, pm)) {
+        // the registry separates member types by '$', the graph by '.'
+        String typeName = testClass.replace('$', '.');
+        String unit = unitsByType.get(typeName);
+        if (unit != null && !impacts.containsKey(testClass)) {
+          List<String> methods =
+              changedUnits.containsKey(unit)
+                  ? null
+                  : findImpactedMethods(
+                      typeName, unit, graph.get(unit), affectedTypes, testMethodAnnotation, pm);
+          impacts.put(testClass, new TestImpact(testClass, methods));
+        }
+      }
+    }
+    return new ArrayList<>(impacts.values());
+  }
+
+  /**
+   * Adds the types of the units which depend on the affected types, transitively.
+   *
+   * @return the changed units and the units which depend on them
+   */
+  private static Set<String> findDependents(
+      Map<String, UnitDependencies> graph, Set<String> changedUnits, Set<String> affectedTypes) {
+    Map<String, List<String>> referrers = new HashMap<>();
+    for (Map.Entry<String, UnitDependencies> entry : graph.entrySet()) {
+      for (String type : entry.getValue().getReferences()) {
+        referrers.computeIfAbsent(type, t -> new ArrayList<>()).add(entry.getKey());
+      }
+    }
+    Set<String> affectedUnits = new HashSet<>(changedUnits);
+    Deque<String> queue = new ArrayDeque<>(affectedTypes);
+    while (!queue.isEmpty()) {
+      for (String unit : referrers.getOrDefault(queue.poll(), Collections.emptyList())) {
+        if (affectedUnits.add(unit)) {
+          for (String type : graph.get(unit).getTypes()) {
+            if (affectedTypes.add(type)) {
+              queue.add(type);
+            }
+          }
+        }
+      }
+    }
+    return affectedUnits;
+  }
+
+  /**
+   * Returns the test methods of the class whose bodies refer to affected types.
+   *
+   * @return names of the methods, or {@code null} if the whole class is affected
+   */
+  private static List<String> findImpactedMethods(
+      String testClass,
+      String unitKey,
+      UnitDependencies dependencies,
+      Set<String> affectedTypes,
+      String testMethodAnnotation,
+      IProgressMonitor pm)
+      throws JavaModelException {
+    IJavaElement unit = JavaCore.create(unitKey);
+    if (!(unit instanceof ICompilationUnit)) {
+      return null;
+    }
+    Set<String> tests = new LinkedHashSet<>();
+    for (TestPosition test :
+        TestIndex.getInstance().get((ICompilationUnit) unit, pm).getTests(testMethodAnnotation)) {
+      // tests of other member types of the unit have no references kept for this class
+      if (dependencies.getMethodReferences(testClass, test.getTestName()) != null) {
+        tests.add(testClass + '#' + test.getTestName());
+      }
+    }
+    if (tests.isEmpty()
+        || !Collections.disjoint(dependencies.getReferencesOutside(tests), affectedTypes)) {
+      return null;
+    }
+    List<String> methods = new ArrayList<>();
+    for (String test : tests) {
+      String method = test.substring(testClass.length() + 1);
+      if (!Collections.disjoint(
+          dependencies.getMethodReferences(testClass, method), affectedTypes)) {
+        methods.add(method);
+      }
+    }
+    // the references could not be told apart by test, e.g. if made from another member type
+    return methods.isEmpty() ? null : methods;
+  }
+
+  private static String primaryTypeName(ICompilationUnit unit) {
+    String name = unit.getElementName();
+    int dot = name.lastIndexOf('.');
+    String typeName = dot < 0 ? name : name.substring(0, dot);
+    String pkg = unit.getParent().getElementName();
+    return pkg.isEmpty() ? typeName : pkg + '.' + typeName;
+  }
+}
@@ -0,0 +1,127 @@
+/*
+ * Copyright (c) 2012-2018 Red Hat, Inc.
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *   Red Hat, Inc. - initial API and implementation
+ */
+package org.eclipse.che.jdt.ls.extension.core.internal.testdetection;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import org.eclipse.core.runtime.IProgressMonitor;
+import org.eclipse.jdt.core.ElementChangedEvent;
+import org.eclipse.jdt.core.ICompilationUnit;
+import org.eclipse.jdt.core.IElementChangedListener;
+import org.eclipse.jdt.core.IJavaElement;
+import org.eclipse.jdt.core.IJavaElementDelta;
+import org.eclipse.jdt.core.JavaModelException;
+
+/**
+ * In-memory index of the methods of compilation units used by test detection, keyed by the handle
+ * of the primary compilation unit. Units are read on first use and dropped as soon as a Java model
+ * delta, of a save or of a reconcile of the working copy, reports a change of them.
+ */
+public class TestIndex implements IElementChangedListener {
+  public static final String SIZE_PROPERTY = "che.jdt.ls.extension.tests.index.size";
+
+  private static final int DEFAULT_SIZE = 256;
+  private static final TestIndex INSTANCE =
+      new TestIndex(Integer.getInteger(SIZE_PROPERTY, DEFAULT_SIZE));
+
+  private final int maxSize;
+  private final Map<String, IndexedUnit> units;
+  // incremented by every change, a unit read concurrently with a change is not kept
+  private long sequence;
+
+  TestIndex(int maxSize) {
+    this.maxSize = maxSize;
+    this.units =
+        new LinkedHashMap<String, IndexedUnit>(16, 0.75f, true) {
+          @Override
+          protected boolean removeEldestEntry(Map.Entry<String, IndexedUnit> eldest) {
+            return size() > TestIndex.this.maxSize;
+          }
+        };
+  }
+
+  public static TestIndex getInstance() {
+    return INSTANCE;
+  }
+
+  /** Returns {@code false} if the index is disabled by {@link #SIZE_PROPERTY}. */
+  public boolean isEnabled() {
+    return maxSize > 0;
+  }
+
+  /** Returns the methods of the compilation unit, read from the Java model if not indexed. */
+  public IndexedUnit get(ICompilationUnit unit, IProgressMonitor pm) throws JavaModelException {
+    String key = key(unit);
+    long start;
+    synchronized (this) {
+      IndexedUnit indexed = units.get(key);
+      if (indexed != null) {
+        return indexed;
+      }
+      start = sequence;
+    }
+    IndexedUnit indexed = IndexedUnit.of(unit, pm);
+    synchronized (this) {
+      if (isEnabled() && sequence == start) {
+        units.put(key, indexed);
+      }
+    }
+    return indexed;
+  }
+
+  /** Returns the number of indexed compilation units. */
+  public synchronized int size() {
+    return units.size();
+  }
+
+  /** Removes all the compilation units. */
+  public synchronized void clear() {
+    units.clear();
+    sequence++;
+  }
+
+  @Override
+  public void elementChanged(ElementChangedEvent event) {
+    visit(event.getDelta());
+  }
+
+  private void visit(IJavaElementDelta delta) {
+    IJavaElement element = delta.getElement();
+    switch (element.getElementType()) {
+      case IJavaElement.JAVA_PROJECT:
+      case IJavaElement.PACKAGE_FRAGMENT_ROOT:
+      case IJavaElement.PACKAGE_FRAGMENT:
+        if (delta.getKind() != IJavaElementDelta.CHANGED) {
+          clear();
+          return;
+        }
+        break;
+      case IJavaElement.COMPILATION_UNIT:
+        remove(key((ICompilationUnit) element));
+        return;
+      default:
+        break;
+    }
+    for (IJavaElementDelta child : delta.getAffectedChildren()) {
+      visit(child);
+    }
+  }
+
+  private synchronized void remove(String key) {
+    units.remove(key);
+    sequence++;
+  }
+
+  private static String key(ICompilationUnit unit) {
+    return unit.getPrimary().getHandleIdentifier();
+  }
+}
@@ -0,0 +1,367 @@
+/*
+ * Copyright (c) 2012-2018 Red Hat, Inc.
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *   Red Hat, Inc. - initial API and implementation
+ */
+package org.eclipse.che.jdt.ls.extension.core.internal.testdetection;
+
+import static org.eclipse.che.jdt.ls.extension.core.internal.Utils.ensureNotCancelled;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import org.eclipse.che.jdt.ls.extension.api.dto.TestFramework;
+import org.eclipse.core.runtime.IProgressMonitor;
+import org.eclipse.jdt.core.ElementChangedEvent;
+import org.eclipse.jdt.core.Flags;
+import org.eclipse.jdt.core.IAnnotation;
+import org.eclipse.jdt.core.ICompilationUnit;
+import org.eclipse.jdt.core.IElementChangedListener;
+import org.eclipse.jdt.core.IImportDeclaration;
+import org.eclipse.jdt.core.IJavaElement;
+import org.eclipse.jdt.core.IJavaElementDelta;
+import org.eclipse.jdt.core.IJavaProject;
+import org.eclipse.jdt.core.IMethod;
+import org.eclipse.jdt.core.IType;
+import org.eclipse.jdt.core.JavaModelException;
+
+/**
+ * Registry of the test classes of projects, maintained from Java model deltas instead of a type
+ * hierarchy and an annotation search over the whole project.
+ *
+ * <p>For every compilation unit of the source folders of a project the registry keeps the types
+ * declared in it, their resolved superclasses and the annotations of the types and their methods.
+ * A changed unit is read again on the next query, the other units are not touched. Test classes
+ * are the concrete, accessible classes annotated with the test annotations and their subclasses,
+ * abstract base classes included.
+ */
+public class TestRegistry implements IElementChangedListener {
+  private static final int CLASSPATH_CHANGED =
+      IJavaElementDelta.F_CLASSPATH_CHANGED
+          | IJavaElementDelta.F_RESOLVED_CLASSPATH_CHANGED
+          | IJavaElementDelta.F_ADDED_TO_CLASSPATH
+          | IJavaElementDelta.F_REMOVED_FROM_CLASSPATH
+          | IJavaElementDelta.F_OPENED
+          | IJavaElementDelta.F_CLOSED;
+  private static final TestRegistry INSTANCE = new TestRegistry();
+
+  private final Map<String, ProjectTests> projects = new HashMap<>();
+
+  TestRegistry() {}
+
+  public static TestRegistry getInstance() {
+    return INSTANCE;
+  }
+
+  /**
+   * Finds the test classes of the project.
+   *
+   * @param project java project
+   * @param testMethodAnnotation java annotation which describes test method in the test framework
+   * @param testClassAnnotation java annotation which describes test class in the test framework,
+   *     may be empty
+   * @return fully qualified names of the test classes, with '$' separating member types
+   */
+  public List<String> findTestClasses(
+      IJavaProject project,
+      String testMethodAnnotation,
+      String testClassAnnotation,
+      IProgressMonitor pm)
+      throws JavaModelException {
+    TestFramework framework = new TestFramework(null, testMethodAnnotation, testClassAnnotation);
+    return update(project, pm).find(Collections.singletonList(framework)).get(0);
+  }
+
+  /**
+   * Finds the test classes of several test frameworks at once.
+   *
+   * @return fully qualified names of the test classes of every framework, by framework name
+   */
+  public Map<String, List<String>> findTestClasses(
+      IJavaProject project, List<TestFramework> frameworks, IProgressMonitor pm)
+      throws JavaModelException {
+    List<List<String>> found = update(project, pm).find(frameworks);
+    Map<String, List<String>> result = new LinkedHashMap<>();
+    for (int i = 0; i < frameworks.size(); i++) {
+      result.put(frameworks.get(i).getName(), found.get(i));
+    }
+    return result;
+  }
+
+  private ProjectTests update(IJavaProject project, IProgressMonitor pm)
+      throws JavaModelException {
+    ProjectTests tests;
+    synchronized (this) {
+      tests = projects.computeIfAbsent(project.getHandleIdentifier(), p -> new ProjectTests());
+    }
+    tests.update(project, pm);
+    return tests;
+  }
+
+  /** Forgets all the projects. */
+  public synchronized void clear() {
+    projects.clear();
+  }
+
+  @Override
+  public void elementChanged(ElementChangedEvent event) {
+    visit(event.getDelta());
+  }
+
+  private void visit(IJavaElementDelta delta) {
+    IJavaElement element = delta.getElement();
+    switch (element.getElementType()) {
+      case IJavaElement.JAVA_PROJECT:
+        if (delta.getKind() != IJavaElementDelta.CHANGED
+            || (delta.getFlags() & CLASSPATH_CHANGED) != 0) {
+          remove(element);
+          return;
+        }
+        break;
+      case IJavaElement.PACKAGE_FRAGMENT_ROOT:
+      case IJavaElement.PACKAGE_FRAGMENT:
+        if (delta.getKind() != IJavaElementDelta.CHANGED) {
+          remove(element.getJavaProject());
+          return;
+        }
+        break;
+      case IJavaElement.COMPILATION_UNIT:
+        ProjectTests tests;
+        List<ProjectTests> all;
+        synchronized (this) {
+          tests = projects.get(element.getJavaProject().getHandleIdentifier());
+          all = new ArrayList<>(projects.values());
+        }
+        if (tests != null) {
+          tests.changed(ProjectUnits.unitKey((ICompilationUnit) element));
+        }
+        if (ProjectUnits.declaresTypes(delta)) {
+          // a new type, added with its unit or to an existing one, may be the superclass which
+          // could not be resolved before, in this or in a dependent project
+          for (ProjectTests project : all) {
+            project.changedIf(UnitTypes::hasUnresolvedSuperclass);
+          }
+        }
+        return;
+      default:
+        break;
+    }
+    for (IJavaElementDelta child : delta.getAffectedChildren()) {
+      visit(child);
+    }
+  }
+
+  private synchronized void remove(IJavaElement project) {
+    projects.remove(project.getHandleIdentifier());
+  }
+
+  /**
+   * Returns {@code true} if an annotation name as written in a compilation unit refers to the
+   * annotation with the fully qualified name.
+   */
+  static boolean refersTo(String name, String annotation, String packageName, String[] imports) {
+    if (name.equals(annotation)) {
+      return true;
+    }
+    int dot = annotation.lastIndexOf('.');
+    if (!name.equals(annotation.substring(dot + 1))) {
+      return false;
+    }
+    String annotationPackage = dot < 0 ? "" : annotation.substring(0, dot);
+    if (annotationPackage.equals(packageName)) {
+      return true;
+    }
+    for (String imported : imports) {
+      if (imported.equals(annotation) || imported.equals(annotationPackage + ".*")) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  /** The compilation units of a project, read completely once and then unit by unit. */
+  private static class ProjectTests extends ProjectUnits<UnitTypes> {
+    @Override
+    protected void compute(
+        IJavaProject project,
+        List<ICompilationUnit> toCompute,
+        Map<String, UnitTypes> read,
+        IProgressMonitor pm)
+        throws JavaModelException {
+      for (ICompilationUnit unit : toCompute) {
+        ensureNotCancelled(pm);
+        read.put(unitKey(unit), UnitTypes.of(unit));
+      }
+    }
+
+    /** Finds the test classes of every framework in one pass over the units. */
+    synchronized List<List<String>> find(List<TestFramework> frameworks) {
+      Map<String, List<TypeFacts>> subclasses = new HashMap<>();
+      List<Deque<TypeFacts>> queues = new ArrayList<>(frameworks.size());
+      for (int i = 0; i < frameworks.size(); i++) {
+        queues.add(new ArrayDeque<>());
+      }
+      for (UnitTypes unit : units.values()) {
+        for (TypeFacts type : unit.types) {
+          if (type.superclass != null) {
+            subclasses.computeIfAbsent(type.superclass, s -> new ArrayList<>()).add(type);
+          }
+          for (int i = 0; i < frameworks.size(); i++) {
+            if (unit.isAnnotated(type, frameworks.get(i))) {
+              queues.get(i).add(type);
+            }
+          }
+        }
+      }
+
+      List<List<String>> result = new ArrayList<>(frameworks.size());
+      for (Deque<TypeFacts> queue : queues) {
+        Set<String> visited = new HashSet<>();
+        Set<String> tests = new LinkedHashSet<>();
+        while (!queue.isEmpty()) {
+          TypeFacts type = queue.poll();
+          if (!visited.add(type.name)) {
+            continue;
+          }
+          if (type.runnable) {
+            tests.add(type.binaryName);
+          }
+          queue.addAll(subclasses.getOrDefault(type.name, Collections.emptyList()));
+        }
+        result.add(new ArrayList<>(tests));
+      }
+      return result;
+    }
+  }
+
+  /** The types declared in a compilation unit, with what is needed to resolve annotations. */
+  private static class UnitTypes {
+    private final String packageName;
+    private final String[] imports;
+    private final List<TypeFacts> types;
+
+    private UnitTypes(String packageName, String[] imports, List<TypeFacts> types) {
+      this.packageName = packageName;
+      this.imports = imports;
+      this.types = types;
+    }
+
+    static UnitTypes of(ICompilationUnit unit) throws JavaModelException {
+      IImportDeclaration[] declarations = unit.getImports();
+      String[] imports = new String[declarations.length];
+      for (int i = 0; i < declarations.length; i++) {
+        imports[i] = declarations[i].getElementName();
+      }
+      List<TypeFacts> types = new ArrayList<>();
+      for (IType type : unit.getAllTypes()) {
+        types.add(TypeFacts.of(type));
+      }
+      return new UnitTypes(unit.getParent().getElementName(), imports, types);
+    }
+
+    boolean isAnnotated(TypeFacts type, TestFramework framework) {
+      String classAnnotation = framework.getTestClassAnnotation();
+      for (String name : type.annotations) {
+        if (refersTo(name, framework.getTestMethodAnnotation(), packageName, imports)
+            || (classAnnotation != null
+                && !classAnnotation.isEmpty()
+                && refersTo(name, classAnnotation, packageName, imports))) {
+          return true;
+        }
+      }
+      return false;
+    }
+
+    boolean hasUnresolvedSuperclass() {
+      for (TypeFacts type : types) {
+        if (type.unresolved) {
+          return true;
+        }
+      }
+      return false;
+    }
+  }
+
+  private static class TypeFacts {
+    // fully qualified name with '.' separating member types, as superclasses are resolved
+    private final String name;
+    // fully qualified name with '$' separating member types, as class loaders expect it
+    private final String binaryName;
+    // fully qualified name, null for types without a superclass in the sources
+    private final String superclass;
+    private final boolean unresolved;
+    // concrete class which can be run as a test
+    private final boolean runnable;
+    // names of the annotations of the type and of its methods, as written in the source
+    private final Set<String> annotations;
+
+    private TypeFacts(
+        String name,
+        String binaryName,
+        String superclass,
+        boolean unresolved,
+        boolean runnable,
+        Set<String> annotations) {
+      this.name = name;
+      this.binaryName = binaryName;
+      this.superclass = superclass;
+      this.unresolved = unresolved;
+      this.runnable = runnable;
+      this.annotations = annotations;
+    }
+
+    static TypeFacts of(IType type) throws JavaModelException {
+      Set<String> annotations = new HashSet<>();
+      for (IAnnotation annotation : type.getAnnotations()) {
+        annotations.add(annotation.getElementName());
+      }
+      for (IMethod method : type.getMethods()) {
+        for (IAnnotation annotation : method.getAnnotations()) {
+          annotations.add(annotation.getElementName());
+        }
+      }
+
+      String superclass = null;
+      boolean unresolved = false;
+      String superclassName = type.getSuperclassName();
+      if (superclassName != null) {
+        int typeArguments = superclassName.indexOf('<');
+        if (typeArguments >= 0) {
+          superclassName = superclassName.substring(0, typeArguments);
+        }
+        String[][] resolved = type.resolveType(superclassName);
+        if (resolved != null && resolved.length == 1) {
+          superclass =
+              resolved[0][0].isEmpty() ? resolved[0][1] : resolved[0][0] + '.' + resolved[0][1];
+        } else {
+          unresolved = true;
+        }
+      }
+
+      int flags = type.getFlags();
+      boolean runnable =
+          AnnotationSearchRequestor.isAccessibleClass(type) && !Flags.isAbstract(flags);
+      return new TypeFacts(
+          type.getFullyQualifiedName('.'),
+          type.getFullyQualifiedName(),
+          superclass,
+          unresolved,
+          runnable,
+          annotations);
+    }
+  }
+}
@@ -0,0 +1,98 @@
+/*
+ * Copyright (c) 2012-2018 Red Hat, Inc.
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *   Red Hat, Inc. - initial API and implementation
+ */
+package org.eclipse.che.jdt.ls.extension.core.internal.usages;
+
+import java.util.Objects;
+import org.eclipse.jdt.core.IJavaElement;
+import org.eclipse.jdt.core.JavaCore;
+
+/**
+ * A reference found by a search, stored by handle identifiers so that it survives restarts of the
+ * language server.
+ */
+public final class IndexedMatch {
+  private final String element;
+  private final String unit;
+  private final int offset;
+  private final int length;
+
+  public IndexedMatch(String element, String unit, int offset, int length) {
+    this.element = element;
+    this.unit = unit;
+    this.offset = offset;
+    this.length = length;
+  }
+
+  /**
+   * Creates a match located in the given element.
+   *
+   * @param element innermost element containing the match
+   * @param offset offset of the match in the compilation unit or class file
+   * @param length length of the match
+   */
+  public static IndexedMatch of(IJavaElement element, int offset, int length) {
+    IJavaElement unit = element.getAncestor(IJavaElement.COMPILATION_UNIT);
+    if (unit == null) {
+      unit = element.getAncestor(IJavaElement.CLASS_FILE);
+    }
+    String unitHandle = unit == null ? null : ReferenceIndex.unitKey(unit);
+    return new IndexedMatch(element.getHandleIdentifier(), unitHandle, offset, length);
+  }
+
+  /** Returns the element containing the match, it may not exist anymore. */
+  public IJavaElement getElement() {
+    return JavaCore.create(element);
+  }
+
+  /** Returns handle identifier of the element containing the match. */
+  public String getElementHandle() {
+    return element;
+  }
+
+  /** Returns handle identifier of the compilation unit or class file containing the match. */
+  public String getUnitHandle() {
+    return unit;
+  }
+
+  public int getOffset() {
+    return offset;
+  }
+
+  public int getLength() {
+    return length;
+  }
+
+  @Override
+  public boolean equals(Object o) {
+    if (this == o) {
+      return true;
+    }
+    if (!(o instanceof IndexedMatch)) {
+      return false;
+    }
+    IndexedMatch that = (IndexedMatch) o;
+    return offset == that.offset
+        && length == that.length
+        && Objects.equals(element, that.element)
+        && Objects.equals(unit, that.unit);
+  }
+
+  @Override
+  public int hashCode() {
+    return Objects.hash(element, unit, offset, length);
+  }
+
+  @Override
+  public String toString() {
+    return element + "[" + offset + ", " + length + "]";
+  }
+}
@@ -0,0 +1,54 @@
+/*
+ * Copyright (c) 2012-2018 Red Hat, Inc.
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *   Red Hat, Inc. - initial API and implementation
+ */
+package org.eclipse.che.jdt.ls.extension.core.internal.usages;
+
+import java.util.ArrayList;
+import java.util.List;
+import org.eclipse.core.runtime.CoreException;
+import org.eclipse.jdt.core.IJavaElement;
+import org.eclipse.jdt.core.JavaModelException;
+import org.eclipse.jdt.core.search.SearchMatch;
+import org.eclipse.jdt.core.search.SearchRequestor;
+
+/**
+ * Counts references and keeps every reference located in a Java element as an {@link
+ * IndexedMatch}, in the order they have been found.
+ */
+public class MatchCollector extends SearchRequestor {
+  private final List<IndexedMatch> indexedMatches = new ArrayList<>();
+  private int matchCount;
+
+  @Override
+  public void acceptSearchMatch(SearchMatch match) throws CoreException {
+    Object o = match.getElement();
+    if (o instanceof IJavaElement) {
+      IJavaElement element = (IJavaElement) o;
+      accept(element, match.getOffset(), match.getLength());
+      indexedMatches.add(IndexedMatch.of(element, match.getOffset(), match.getLength()));
+    } else {
+      matchCount++;
+    }
+  }
+
+  /** Adds a match located in the given element. */
+  public void accept(IJavaElement element, int offset, int length) throws JavaModelException {
+    matchCount++;
+  }
+
+  public List<IndexedMatch> getIndexedMatches() {
+    return indexedMatches;
+  }
+
+  public int getMatchCount() {
+    return matchCount;
+  }
+}
@@ -0,0 +1,269 @@
+/*
+ * Copyright (c) 2012-2018 Red Hat, Inc.
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *   Red Hat, Inc. - initial API and implementation
+ */
+package org.eclipse.che.jdt.ls.extension.core.internal.usages;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import org.eclipse.core.runtime.CoreException;
+import org.eclipse.core.runtime.IProgressMonitor;
+import org.eclipse.jdt.core.IJavaElement;
+import org.eclipse.jdt.core.IMethod;
+import org.eclipse.jdt.core.IOpenable;
+import org.eclipse.jdt.core.ISourceReference;
+import org.eclipse.jdt.core.JavaModelException;
+import org.eclipse.jdt.core.search.IJavaSearchConstants;
+import org.eclipse.jdt.core.search.IJavaSearchScope;
+import org.eclipse.jdt.core.search.SearchEngine;
+import org.eclipse.jdt.core.search.SearchMatch;
+import org.eclipse.jdt.core.search.SearchParticipant;
+import org.eclipse.jdt.core.search.SearchPattern;
+import org.eclipse.jdt.core.search.SearchRequestor;
+
+/**
+ * Searches the references to several elements at once. A single search for an {@link
+ * SearchPattern#createOrPattern OR pattern} of all the elements scans the workspace, its matches
+ * are then attributed to the elements.
+ *
+ * <p>A match does not tell which part of the pattern it satisfied, so it is attributed by the
+ * source text it covers, which contains the name of the referenced element. Matches whose text
+ * contains the names of several elements, e.g. of overloaded methods, or whose text is not
+ * available are attributed by searching the elements again, in the units of these matches only.
+ * So are the matches which do not start with the name of their element if a constructor is
+ * searched, as {@code super(...)} and {@code this(...)} do not name the constructor they call.
+ */
+public class MultiElementSearch {
+
+  private MultiElementSearch() {}
+
+  /**
+   * Searches the scope for references to the elements.
+   *
+   * @param elements distinct elements to search the references to
+   * @param scope scope containing the references of all the elements
+   * @return the matches of every element, in the order they have been found
+   */
+  public static Map<IJavaElement, List<SearchMatch>> search(
+      List<IJavaElement> elements, IJavaSearchScope scope, IProgressMonitor pm)
+      throws CoreException {
+    Map<IJavaElement, List<SearchMatch>> result = new LinkedHashMap<>();
+    SearchPattern pattern = null;
+    for (IJavaElement element : elements) {
+      result.put(element, new ArrayList<>());
+      SearchPattern elementPattern =
+          SearchPattern.createPattern(element, IJavaSearchConstants.REFERENCES);
+      if (elementPattern == null) {
+        continue;
+      }
+      pattern =
+          pattern == null ? elementPattern : SearchPattern.createOrPattern(pattern, elementPattern);
+    }
+    if (pattern == null) {
+      return result;
+    }
+
+    List<SearchMatch> matches = find(pattern, scope, pm);
+    boolean constructors = containsConstructor(elements);
+    Map<IOpenable, String> sources = new HashMap<>();
+    Map<SearchMatch, Set<IJavaElement>> attributed = new IdentityHashMap<>();
+    Map<SearchMatch, Set<IJavaElement>> ambiguous = new LinkedHashMap<>();
+    for (SearchMatch match : matches) {
+      String text = text(match, sources);
+      Set<IJavaElement> candidates = candidates(text, elements);
+      if (candidates.size() == 1
+          && (!constructors || startsWithName(text, candidates.iterator().next()))) {
+        attributed.put(match, candidates);
+      } else {
+        ambiguous.put(match, candidates.isEmpty() ? new HashSet<>(elements) : candidates);
+      }
+    }
+    if (!ambiguous.isEmpty()) {
+      attributed.putAll(attribute(ambiguous, pm));
+    }
+    // matches of every element keep the order of the search
+    for (SearchMatch match : matches) {
+      for (IJavaElement element : attributed.getOrDefault(match, Collections.emptySet())) {
+        result.get(element).add(match);
+      }
+    }
+    return result;
+  }
+
+  /** Returns the elements whose name is a word of the text of a match. */
+  private static Set<IJavaElement> candidates(String text, List<IJavaElement> elements) {
+    Set<IJavaElement> candidates = new LinkedHashSet<>();
+    if (text == null) {
+      return candidates;
+    }
+    for (IJavaElement element : elements) {
+      if (containsWord(text, referencedName(element))) {
+        candidates.add(element);
+      }
+    }
+    return candidates;
+  }
+
+  /** Searches the ambiguous candidates again, in the units of the ambiguous matches only. */
+  private static Map<SearchMatch, Set<IJavaElement>> attribute(
+      Map<SearchMatch, Set<IJavaElement>> ambiguous, IProgressMonitor pm) throws CoreException {
+    Map<SearchMatch, Set<IJavaElement>> attributed = new IdentityHashMap<>();
+    Set<IJavaElement> units = new LinkedHashSet<>();
+    Set<IJavaElement> candidates = new LinkedHashSet<>();
+    Map<String, SearchMatch> byLocation = new HashMap<>();
+    for (Map.Entry<SearchMatch, Set<IJavaElement>> entry : ambiguous.entrySet()) {
+      SearchMatch match = entry.getKey();
+      IJavaElement unit = unit(match);
+      if (unit != null) {
+        units.add(unit);
+        candidates.addAll(entry.getValue());
+        byLocation.put(location(match), match);
+      }
+    }
+    if (units.isEmpty()) {
+      return attributed;
+    }
+    IJavaSearchScope scope =
+        SearchEngine.createJavaSearchScope(units.toArray(new IJavaElement[units.size()]));
+    for (IJavaElement candidate : candidates) {
+      SearchPattern pattern =
+          SearchPattern.createPattern(candidate, IJavaSearchConstants.REFERENCES);
+      if (pattern == null) {
+        continue;
+      }
+      for (SearchMatch found : find(pattern, scope, pm)) {
+        SearchMatch match = byLocation.get(location(found));
+        if (match != null && ambiguous.get(match).contains(candidate)) {
+          attributed.computeIfAbsent(match, m -> new LinkedHashSet<>()).add(candidate);
+        }
+      }
+    }
+    return attributed;
+  }
+
+  private static List<SearchMatch> find(
+      SearchPattern pattern, IJavaSearchScope scope, IProgressMonitor pm) throws CoreException {
+    List<SearchMatch> matches = new ArrayList<>();
+    new SearchEngine()
+        .search(
+            pattern,
+            new SearchParticipant[] {SearchEngine.getDefaultSearchParticipant()},
+            scope,
+            new SearchRequestor() {
+              @Override
+              public void acceptSearchMatch(SearchMatch match) {
+                matches.add(match);
+              }
+            },
+            pm);
+    return matches;
+  }
+
+  private static String text(SearchMatch match, Map<IOpenable, String> sources) {
+    IJavaElement unit = unit(match);
+    if (!(unit instanceof ISourceReference)) {
+      return null;
+    }
+    IOpenable openable = (IOpenable) unit;
+    String source =
+        sources.computeIfAbsent(
+            openable,
+            o -> {
+              try {
+                return ((ISourceReference) o).getSource();
+              } catch (JavaModelException e) {
+                return null;
+              }
+            });
+    int end = match.getOffset() + match.getLength();
+    if (source == null || match.getOffset() < 0 || end > source.length()) {
+      return null;
+    }
+    return source.substring(match.getOffset(), end);
+  }
+
+  private static IJavaElement unit(SearchMatch match) {
+    Object element = match.getElement();
+    if (!(element instanceof IJavaElement)) {
+      return null;
+    }
+    IJavaElement unit = ((IJavaElement) element).getAncestor(IJavaElement.COMPILATION_UNIT);
+    return unit != null ? unit : ((IJavaElement) element).getAncestor(IJavaElement.CLASS_FILE);
+  }
+
+  private static String location(SearchMatch match) {
+    IJavaElement unit = unit(match);
+    return unit != null ? ReferenceIndex.unitKey(unit) + '@' + match.getOffset() : null;
+  }
+
+  private static String referencedName(IJavaElement element) {
+    if (element instanceof IMethod) {
+      try {
+        if (((IMethod) element).isConstructor()) {
+          // "new A()" references the constructor, "super()" does not name it at all
+          return element.getParent().getElementName();
+        }
+      } catch (JavaModelException e) {
+        return null;
+      }
+    }
+    return element.getElementName();
+  }
+
+  private static boolean containsConstructor(List<IJavaElement> elements) {
+    for (IJavaElement element : elements) {
+      try {
+        if (element instanceof IMethod && ((IMethod) element).isConstructor()) {
+          return true;
+        }
+      } catch (JavaModelException e) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  /** Returns {@code true} if the text of a match starts with the name of the element. */
+  private static boolean startsWithName(String text, IJavaElement element) {
+    String name = referencedName(element);
+    if (name == null) {
+      return false;
+    }
+    if (text.startsWith("new") && (text.length() == 3 || Character.isWhitespace(text.charAt(3)))) {
+      // "new A()" references the constructor
+      text = text.substring(3).trim();
+    }
+    return text.startsWith(name)
+        && (text.length() == name.length()
+            || !Character.isJavaIdentifierPart(text.charAt(name.length())));
+  }
+
+  private static boolean containsWord(String text, String word) {
+    if (word == null || word.isEmpty()) {
+      return false;
+    }
+    for (int i = text.indexOf(word); i >= 0; i = text.indexOf(word, i + 1)) {
+      int end = i + word.length();
+      if ((i == 0 || !Character.isJavaIdentifierPart(text.charAt(i - 1)))
+          && (end == text.length() || !Character.isJavaIdentifierPart(text.charAt(end)))) {
+        return true;
+      }
+    }
+    return false;
+  }
+}
@@ -0,0 +1,249 @@
+/*
+ * Copyright (c) 2012-2018 Red Hat, Inc.
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *   Red Hat, Inc. - initial API and implementation
+ */
+package org.eclipse.che.jdt.ls.extension.core.internal.usages;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.Collectors;
+import org.eclipse.core.resources.ResourcesPlugin;
+import org.eclipse.core.runtime.CoreException;
+import org.eclipse.core.runtime.IPath;
+import org.eclipse.core.runtime.IProgressMonitor;
+import org.eclipse.core.runtime.NullProgressMonitor;
+import org.eclipse.core.runtime.OperationCanceledException;
+import org.eclipse.jdt.core.IJavaElement;
+import org.eclipse.jdt.core.IJavaProject;
+import org.eclipse.jdt.core.IPackageFragmentRoot;
+import org.eclipse.jdt.core.JavaCore;
+import org.eclipse.jdt.core.JavaModelException;
+import org.eclipse.jdt.core.search.IJavaSearchScope;
+import org.eclipse.jdt.core.search.SearchEngine;
+import org.eclipse.jdt.core.search.SearchMatch;
+import org.eclipse.jdt.core.search.SearchParticipant;
+import org.eclipse.jdt.core.search.SearchPattern;
+import org.eclipse.jdt.core.search.SearchRequestor;
+
+/**
+ * Searches a scope in parallel. The scope is split into source packages and library roots, which
+ * are dealt into partitions searched concurrently on a bounded {@link ForkJoinPool}. All the
+ * partitions share one progress monitor, so cancelling the search or a failure of one partition
+ * stops them all.
+ *
+ * <p>Matches of all the partitions are merged sorted by their compilation unit or class file and
+ * offset, so the result does not depend on the partitioning or on the scheduling.
+ */
+public class ParallelSearch {
+  public static final String PARALLELISM_PROPERTY = "che.jdt.ls.extension.usages.parallelism";
+
+  // more partitions than threads even out partitions of different cost
+  private static final int PARTITIONS_PER_THREAD = 4;
+  private static final ParallelSearch INSTANCE =
+      new ParallelSearch(
+          Integer.getInteger(PARALLELISM_PROPERTY, Runtime.getRuntime().availableProcessors()));
+
+  private final int parallelism;
+  private ForkJoinPool pool;
+
+  ParallelSearch(int parallelism) {
+    this.parallelism = parallelism;
+  }
+
+  public static ParallelSearch getInstance() {
+    return INSTANCE;
+  }
+
+  /** Returns {@code false} if {@link #PARALLELISM_PROPERTY} allows a single thread only. */
+  public boolean isEnabled() {
+    return parallelism > 1;
+  }
+
+  /**
+   * Searches the scope for the pattern.
+   *
+   * @return matches sorted by compilation unit or class file and by offset
+   * @throws OperationCanceledException if the search has been cancelled
+   */
+  public List<SearchMatch> search(
+      SearchPattern pattern, IJavaSearchScope scope, IProgressMonitor pm) throws CoreException {
+    List<IJavaElement[]> partitions = partition(scope, parallelism * PARTITIONS_PER_THREAD);
+    SharedMonitor monitor = new SharedMonitor(pm);
+    List<List<SearchMatch>> found;
+    try {
+      found =
+          getPool()
+              .submit(
+                  () ->
+                      partitions
+                          .parallelStream()
+                          .map(partition -> search(pattern, partition, monitor))
+                          .collect(Collectors.toList()))
+              .get();
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new OperationCanceledException();
+    } catch (ExecutionException e) {
+      Throwable cause = e.getCause();
+      if (cause instanceof PartitionFailure) {
+        throw ((PartitionFailure) cause).getCause();
+      }
+      if (cause instanceof RuntimeException) {
+        throw (RuntimeException) cause;
+      }
+      throw new IllegalStateException(cause);
+    }
+
+    List<Sorted> merged = new ArrayList<>();
+    for (List<SearchMatch> matches : found) {
+      for (SearchMatch match : matches) {
+        merged.add(new Sorted(match));
+      }
+    }
+    merged.sort(Comparator.comparing((Sorted s) -> s.unit).thenComparingInt(s -> s.offset));
+    return merged.stream().map(s -> s.match).collect(Collectors.toList());
+  }
+
+  /** Stops the threads of the pool, a following search starts new ones. */
+  public synchronized void shutdown() {
+    if (pool != null) {
+      pool.shutdown();
+      pool = null;
+    }
+  }
+
+  private synchronized ForkJoinPool getPool() {
+    if (pool == null) {
+      pool = new ForkJoinPool(parallelism);
+    }
+    return pool;
+  }
+
+  private static List<SearchMatch> search(
+      SearchPattern pattern, IJavaElement[] partition, SharedMonitor monitor) {
+    List<SearchMatch> matches = new ArrayList<>();
+    try {
+      new SearchEngine()
+          .search(
+              pattern,
+              new SearchParticipant[] {SearchEngine.getDefaultSearchParticipant()},
+              SearchEngine.createJavaSearchScope(partition, false),
+              new SearchRequestor() {
+                @Override
+                public void acceptSearchMatch(SearchMatch match) {
+                  matches.add(match);
+                }
+              },
+              monitor);
+    } catch (CoreException e) {
+      monitor.setCanceled(true);
+      throw new PartitionFailure(e);
+    } catch (RuntimeException e) {
+      monitor.setCanceled(true);
+      throw e;
+    }
+    return matches;
+  }
+
+  /**
+   * Splits the part of the workspace enclosed by the scope into partitions. Packages of source
+   * roots and whole library roots are dealt round robin, libraries shared by several projects are
+   * searched once.
+   */
+  static List<IJavaElement[]> partition(IJavaSearchScope scope, int count)
+      throws JavaModelException {
+    List<IJavaElement> units = new ArrayList<>();
+    Set<IPath> roots = new HashSet<>();
+    IJavaProject[] projects =
+        JavaCore.create(ResourcesPlugin.getWorkspace().getRoot()).getJavaProjects();
+    for (IJavaProject project : projects) {
+      for (IPackageFragmentRoot root : project.getPackageFragmentRoots()) {
+        if (!scope.encloses(root) || !roots.add(root.getPath())) {
+          continue;
+        }
+        if (root.getKind() == IPackageFragmentRoot.K_SOURCE) {
+          for (IJavaElement pkg : root.getChildren()) {
+            units.add(pkg);
+          }
+        } else {
+          units.add(root);
+        }
+      }
+    }
+
+    int size = Math.min(count, units.size());
+    List<List<IJavaElement>> dealt = new ArrayList<>(size);
+    for (int i = 0; i < size; i++) {
+      dealt.add(new ArrayList<>());
+    }
+    for (int i = 0; i < units.size(); i++) {
+      dealt.get(i % size).add(units.get(i));
+    }
+    List<IJavaElement[]> partitions = new ArrayList<>(size);
+    for (List<IJavaElement> partition : dealt) {
+      partitions.add(partition.toArray(new IJavaElement[partition.size()]));
+    }
+    return partitions;
+  }
+
+  /** Progress monitor shared by the partitions, it must be thread safe. */
+  private static class SharedMonitor extends NullProgressMonitor {
+    private final IProgressMonitor parent;
+    private volatile boolean canceled;
+
+    SharedMonitor(IProgressMonitor parent) {
+      this.parent = parent;
+    }
+
+    @Override
+    public boolean isCanceled() {
+      return canceled || (parent != null && parent.isCanceled());
+    }
+
+    @Override
+    public void setCanceled(boolean canceled) {
+      this.canceled = canceled;
+    }
+  }
+
+  /** Carries the checked failure of a partition out of the stream. */
+  private static class PartitionFailure extends RuntimeException {
+    PartitionFailure(CoreException cause) {
+      super(cause);
+    }
+
+    @Override
+    public synchronized CoreException getCause() {
+      return (CoreException) super.getCause();
+    }
+  }
+
+  private static class Sorted {
+    private final SearchMatch match;
+    private final String unit;
+    private final int offset;
+
+    Sorted(SearchMatch match) {
+      this.match = match;
+      Object element = match.getElement();
+      String key = null;
+      if (element instanceof IJavaElement) {
+        key = IndexedMatch.of((IJavaElement) element, 0, 0).getUnitHandle();
+      }
+      this.unit = key != null ? key : "";
+      this.offset = match.getOffset();
+    }
+  }
+}
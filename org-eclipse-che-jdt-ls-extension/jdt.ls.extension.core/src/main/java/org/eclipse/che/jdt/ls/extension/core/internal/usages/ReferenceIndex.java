@@ -0,0 +1,620 @@
+/*
+ * Copyright (c) 2012-2018 Red Hat, Inc.
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *   Red Hat, Inc. - initial API and implementation
+ */
+package org.eclipse.che.jdt.ls.extension.core.internal.usages;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+import com.google.gson.Gson;
+import com.google.gson.JsonParseException;
+import java.io.File;
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import org.eclipse.core.resources.IFile;
+import org.eclipse.core.resources.IResource;
+import org.eclipse.core.resources.IResourceDelta;
+import org.eclipse.core.resources.ISaveContext;
+import org.eclipse.core.resources.ISaveParticipant;
+import org.eclipse.core.resources.ISavedState;
+import org.eclipse.core.runtime.CoreException;
+import org.eclipse.core.runtime.IProgressMonitor;
+import org.eclipse.core.runtime.IStatus;
+import org.eclipse.core.runtime.Status;
+import org.eclipse.core.runtime.jobs.Job;
+import org.eclipse.jdt.core.ElementChangedEvent;
+import org.eclipse.jdt.core.ICompilationUnit;
+import org.eclipse.jdt.core.IElementChangedListener;
+import org.eclipse.jdt.core.IJavaElement;
+import org.eclipse.jdt.core.IJavaElementDelta;
+import org.eclipse.jdt.core.IMember;
+import org.eclipse.jdt.core.IPackageFragment;
+import org.eclipse.jdt.core.IType;
+import org.eclipse.jdt.core.JavaCore;
+import org.eclipse.jdt.core.JavaModelException;
+import org.eclipse.jdt.ls.core.internal.JavaLanguageServerPlugin;
+
+/**
+ * Persistent index of the references to Java elements. An entry holds all the references to an
+ * element found by a complete search, it is recorded by {@code UsagesCommand} and used instead of
+ * the search as long as it is fresh.
+ *
+ * <p>Changes of compilation units are tracked from Java model deltas. An entry becomes stale when a
+ * compilation unit changed after the entry had been recorded either contained a reference to the
+ * element or now contains the name of the element. A stale entry can be brought up to date by
+ * searching these compilation units only, see {@link #getSnapshot}. References in units which did
+ * not change may bind to another method or field when members of the hierarchy of its declaring
+ * type change, such a change drops the entry. Any change of a classpath or of a library drops all
+ * the entries.
+ *
+ * <p>The index is saved to the state location of the bundle together with the workspace. Changes
+ * done while the language server was not running are taken from the delta of the saved workspace
+ * state, without it the loaded index is discarded. The index is loaded by a job, it answers no
+ * request until it is loaded and changes reported meanwhile are applied to the loaded index.
+ */
+public class ReferenceIndex implements IElementChangedListener, ISaveParticipant {
+  public static final String SIZE_PROPERTY = "che.jdt.ls.extension.usages.index.size";
+
+  private static final int DEFAULT_SIZE = 256;
+  // number of changed units above which the changes older than all the entries are forgotten
+  private static final int PRUNE_THRESHOLD = 1024;
+  private static final char UNIT_HANDLE_SEPARATOR = '{';
+  private static final String JRE_SCOPE_PREFIX = "jre:";
+  private static final int CLASSPATH_CHANGED =
+      IJavaElementDelta.F_CLASSPATH_CHANGED
+          | IJavaElementDelta.F_RESOLVED_CLASSPATH_CHANGED
+          | IJavaElementDelta.F_ADDED_TO_CLASSPATH
+          | IJavaElementDelta.F_REMOVED_FROM_CLASSPATH
+          | IJavaElementDelta.F_ARCHIVE_CONTENT_CHANGED
+          | IJavaElementDelta.F_OPENED
+          | IJavaElementDelta.F_CLOSED;
+  private static final ReferenceIndex INSTANCE =
+      new ReferenceIndex(Integer.getInteger(SIZE_PROPERTY, DEFAULT_SIZE));
+
+  private final int maxSize;
+  private final Map<String, Entry> entries;
+  // last change of every compilation unit changed since the oldest entry has been recorded
+  private final Map<String, Long> changedUnits = new HashMap<>();
+  private long sequence;
+  // changes up to this sequence number are not known anymore
+  private long forgottenBefore;
+  private int pruneThreshold = PRUNE_THRESHOLD;
+  private File file;
+  private boolean loading;
+  // changes reported while the index is being loaded, applied once it is loaded
+  private final List<Runnable> pendingChanges = new ArrayList<>();
+
+  ReferenceIndex(int maxSize) {
+    this.maxSize = maxSize;
+    this.entries =
+        new LinkedHashMap<String, Entry>(16, 0.75f, true) {
+          @Override
+          protected boolean removeEldestEntry(Map.Entry<String, Entry> eldest) {
+            return size() > ReferenceIndex.this.maxSize;
+          }
+        };
+  }
+
+  public static ReferenceIndex getInstance() {
+    return INSTANCE;
+  }
+
+  /** Returns {@code false} if the index is disabled by {@link #SIZE_PROPERTY}. */
+  public boolean isEnabled() {
+    return maxSize > 0;
+  }
+
+  /**
+   * Returns the current sequence number. It has to be obtained before a search whose results are
+   * recorded by {@link #put}, so that changes done during the search make the entry stale.
+   */
+  public synchronized long getSequence() {
+    return sequence;
+  }
+
+  /**
+   * Returns all the references to the element.
+   *
+   * @param includeJRE whether the references have been searched in the system libraries too
+   * @return the references, or {@code null} if the element is not indexed or its entry is stale
+   */
+  public List<IndexedMatch> get(IJavaElement element, boolean includeJRE) {
+    Snapshot snapshot = getSnapshot(element, includeJRE);
+    return snapshot == null || !snapshot.changedUnits.isEmpty() ? null : snapshot.matches;
+  }
+
+  /**
+   * Returns the references to the element recorded last, even if the entry is stale, together with
+   * the compilation units which make it stale. Searching these units again brings the references
+   * up to date.
+   *
+   * @param includeJRE whether the references have been searched in the system libraries too
+   * @return the recorded references, or {@code null} if the element is not indexed or members of
+   *     the hierarchy of its declaring type changed
+   */
+  public Snapshot getSnapshot(IJavaElement element, boolean includeJRE) {
+    if (!isEnabled()) {
+      return null;
+    }
+    Entry entry;
+    Set<String> changed = new HashSet<>();
+    synchronized (this) {
+      entry = loading ? null : entries.get(key(element, includeJRE));
+      if (entry == null) {
+        return null;
+      }
+      for (Map.Entry<String, Long> unit : changedUnits.entrySet()) {
+        if (unit.getValue() > entry.sequence) {
+          changed.add(unit.getKey());
+        }
+      }
+    }
+    // sources are read outside of the lock, the entry itself is never modified
+    for (String unit : changed) {
+      // entries saved by older versions have no hierarchy
+      Integer members = entry.hierarchy != null ? entry.hierarchy.get(unit) : null;
+      if (members != null && members != members(unit)) {
+        synchronized (this) {
+          entries.remove(key(element, includeJRE), entry);
+        }
+        return null;
+      }
+    }
+    Set<String> stale = new HashSet<>();
+    for (String unit : changed) {
+      if (entry.units.contains(unit) || mayReference(unit, entry.name)) {
+        stale.add(unit);
+      }
+    }
+    return new Snapshot(entry.matches, stale);
+  }
+
+  /**
+   * Records the references found by a complete search.
+   *
+   * @param element the element which has been searched for
+   * @param includeJRE whether the system libraries have been searched too
+   * @param matches all the references to the element
+   * @param sequence value of {@link #getSequence()} obtained before the search
+   */
+  public void put(
+      IJavaElement element, boolean includeJRE, List<IndexedMatch> matches, long sequence) {
+    if (!isEnabled()) {
+      return;
+    }
+    Map<String, Integer> hierarchy = hierarchyMembers(element);
+    if (hierarchy == null) {
+      return;
+    }
+    Entry entry = new Entry(sequence, simpleName(element), new ArrayList<>(matches), hierarchy);
+    synchronized (this) {
+      // changes done during the search may have been forgotten
+      if (!loading && sequence >= forgottenBefore) {
+        entries.put(key(element, includeJRE), entry);
+      }
+    }
+  }
+
+  /** Returns the number of entries, including the stale ones. */
+  public synchronized int size() {
+    return entries.size();
+  }
+
+  /** Removes all the entries. */
+  public synchronized void clear() {
+    if (loading) {
+      pendingChanges.add(this::clear);
+      return;
+    }
+    entries.clear();
+    changedUnits.clear();
+    forgottenBefore = sequence;
+  }
+
+  /**
+   * Schedules a job loading the index, see {@link #load}. The index is empty until it is loaded.
+   *
+   * @param file file the index is stored in
+   * @param savedState state of the workspace when the index was saved, or {@code null} if unknown
+   * @return the scheduled job
+   */
+  public Job scheduleLoad(File file, ISavedState savedState) {
+    synchronized (this) {
+      // a save before the job runs has to discard the file
+      this.file = file;
+      loading = true;
+    }
+    Job job =
+        new Job("Loading usages index") {
+          @Override
+          protected IStatus run(IProgressMonitor monitor) {
+            load(file, savedState);
+            return Status.OK_STATUS;
+          }
+        };
+    job.setSystem(true);
+    job.schedule();
+    return job;
+  }
+
+  /**
+   * Loads the index saved by a previous session and applies the changes done since then.
+   *
+   * @param file file the index is stored in
+   * @param savedState state of the workspace when the index was saved, or {@code null} if unknown
+   */
+  public void load(File file, ISavedState savedState) {
+    synchronized (this) {
+      this.file = file;
+      loading = true;
+    }
+    try {
+      read(file, savedState);
+    } finally {
+      finishLoading();
+    }
+  }
+
+  private void read(File file, ISavedState savedState) {
+    if (!isEnabled() || !file.isFile()) {
+      return;
+    }
+    if (savedState == null) {
+      file.delete();
+      return;
+    }
+    try (Reader reader = Files.newBufferedReader(file.toPath(), UTF_8)) {
+      State state = new Gson().fromJson(reader, State.class);
+      if (state != null && state.entries != null && state.changedUnits != null) {
+        synchronized (this) {
+          entries.clear();
+          entries.putAll(state.entries);
+          changedUnits.clear();
+          changedUnits.putAll(state.changedUnits);
+          sequence = state.sequence;
+          forgottenBefore = sequence;
+        }
+      }
+      savedState.processResourceChangeEvents(event -> visit(event.getDelta()));
+    } catch (IOException | JsonParseException e) {
+      JavaLanguageServerPlugin.logException("Failed to load the usages index", e);
+      clear();
+    }
+  }
+
+  private synchronized void finishLoading() {
+    loading = false;
+    for (Runnable change : pendingChanges) {
+      change.run();
+    }
+    pendingChanges.clear();
+  }
+
+  /**
+   * Writes the index to the file it has been loaded from. A file which could not be written is
+   * deleted, it would not match the saved workspace state.
+   *
+   * @return {@code true} if the index has been written
+   */
+  public boolean save() {
+    File target;
+    State state = new State();
+    synchronized (this) {
+      if (file == null || !isEnabled()) {
+        return false;
+      }
+      if (loading) {
+        // the saved state would not match the file anymore
+        file.delete();
+        return false;
+      }
+      target = file;
+      state.sequence = sequence;
+      state.entries = new LinkedHashMap<>(entries);
+      state.changedUnits = new HashMap<>(changedUnits);
+    }
+    try {
+      Files.createDirectories(target.toPath().getParent());
+      try (Writer writer = Files.newBufferedWriter(target.toPath(), UTF_8)) {
+        new Gson().toJson(state, writer);
+      }
+      return true;
+    } catch (IOException e) {
+      JavaLanguageServerPlugin.logException("Failed to save the usages index", e);
+      target.delete();
+      return false;
+    }
+  }
+
+  @Override
+  public void elementChanged(ElementChangedEvent event) {
+    visit(event.getDelta());
+  }
+
+  @Override
+  public void saving(ISaveContext context) throws CoreException {
+    // the delta of the next session starts at this save, snapshots included, so the index has to
+    // be written every time
+    if (save()) {
+      context.needDelta();
+    }
+  }
+
+  @Override
+  public void doneSaving(ISaveContext context) {}
+
+  @Override
+  public void prepareToSave(ISaveContext context) throws CoreException {}
+
+  @Override
+  public void rollback(ISaveContext context) {}
+
+  /** Returns the key under which changes of a compilation unit or class file are tracked. */
+  static String unitKey(IJavaElement unit) {
+    if (unit instanceof ICompilationUnit) {
+      return ((ICompilationUnit) unit).getPrimary().getHandleIdentifier();
+    }
+    return unit.getHandleIdentifier();
+  }
+
+  private void visit(IJavaElementDelta delta) {
+    IJavaElement element = delta.getElement();
+    switch (element.getElementType()) {
+      case IJavaElement.JAVA_PROJECT:
+      case IJavaElement.PACKAGE_FRAGMENT_ROOT:
+        if (delta.getKind() != IJavaElementDelta.CHANGED
+            || (delta.getFlags() & CLASSPATH_CHANGED) != 0) {
+          clear();
+          return;
+        }
+        break;
+      case IJavaElement.PACKAGE_FRAGMENT:
+        // a package removed or renamed as a whole has no deltas of its compilation units
+        if (delta.getKind() == IJavaElementDelta.REMOVED) {
+          markPackageRemoved(element);
+          return;
+        }
+        if (delta.getKind() == IJavaElementDelta.ADDED) {
+          markPackageAdded(element);
+          return;
+        }
+        break;
+      case IJavaElement.COMPILATION_UNIT:
+        if (delta.getKind() != IJavaElementDelta.CHANGED
+            || (delta.getFlags()
+                    & (IJavaElementDelta.F_CONTENT | IJavaElementDelta.F_PRIMARY_RESOURCE))
+                != 0) {
+          markChanged(unitKey(element));
+        }
+        return;
+      case IJavaElement.CLASS_FILE:
+        clear();
+        return;
+      default:
+        break;
+    }
+    for (IJavaElementDelta child : delta.getAffectedChildren()) {
+      visit(child);
+    }
+  }
+
+  private void visit(IResourceDelta delta) {
+    if (delta == null) {
+      return;
+    }
+    IResource resource = delta.getResource();
+    if (resource.getType() == IResource.FILE) {
+      String name = resource.getName();
+      if (name.endsWith(".java")) {
+        IJavaElement unit = JavaCore.create((IFile) resource);
+        if (unit != null) {
+          markChanged(unitKey(unit));
+        }
+      } else if (name.endsWith(".jar") || name.equals(".classpath") || name.equals("pom.xml")) {
+        clear();
+      }
+      return;
+    }
+    for (IResourceDelta child : delta.getAffectedChildren()) {
+      visit(child);
+    }
+  }
+
+  private synchronized void markChanged(String unit) {
+    if (loading) {
+      pendingChanges.add(() -> markChanged(unit));
+      return;
+    }
+    changedUnits.put(unit, ++sequence);
+    if (changedUnits.size() > pruneThreshold) {
+      prune();
+      pruneThreshold = Math.max(PRUNE_THRESHOLD, 2 * changedUnits.size());
+    }
+  }
+
+  /**
+   * Forgets the changes recorded before all the entries, they make none of them stale. Entries of
+   * searches started before that are not recorded anymore, see {@link #put}.
+   */
+  private void prune() {
+    long oldest = sequence;
+    for (Entry entry : entries.values()) {
+      oldest = Math.min(oldest, entry.sequence);
+    }
+    long pruned = oldest;
+    changedUnits.values().removeIf(changed -> changed <= pruned);
+    forgottenBefore = Math.max(forgottenBefore, pruned);
+  }
+
+  private synchronized void markPackageRemoved(IJavaElement pkg) {
+    if (loading) {
+      pendingChanges.add(() -> markPackageRemoved(pkg));
+      return;
+    }
+    String prefix = pkg.getHandleIdentifier() + UNIT_HANDLE_SEPARATOR;
+    Set<String> units = new HashSet<>();
+    for (Entry entry : entries.values()) {
+      for (String unit : entry.units) {
+        if (unit.startsWith(prefix)) {
+          units.add(unit);
+        }
+      }
+    }
+    for (String unit : units) {
+      markChanged(unit);
+    }
+  }
+
+  private void markPackageAdded(IJavaElement pkg) {
+    try {
+      for (ICompilationUnit unit : ((IPackageFragment) pkg).getCompilationUnits()) {
+        markChanged(unitKey(unit));
+      }
+    } catch (JavaModelException e) {
+      clear();
+    }
+  }
+
+  private static boolean mayReference(String unit, String name) {
+    IJavaElement element = JavaCore.create(unit);
+    if (!(element instanceof ICompilationUnit) || !element.exists()) {
+      return false;
+    }
+    try {
+      String source = ((ICompilationUnit) element).getSource();
+      return source == null || source.contains(name);
+    } catch (JavaModelException e) {
+      return true;
+    }
+  }
+
+  // results of a search in the system libraries differ, they are kept apart
+  private static String key(IJavaElement element, boolean includeJRE) {
+    String handle = element.getHandleIdentifier();
+    return includeJRE ? JRE_SCOPE_PREFIX + handle : handle;
+  }
+
+  /**
+   * Computes a digest of the members of every compilation unit declaring a type of the hierarchy of
+   * the type declaring a method or field. Overloads, hiding fields and new supertypes there change
+   * the bindings of references in other units.
+   *
+   * @return the digests by unit, or {@code null} if the hierarchy can not be computed
+   */
+  private static Map<String, Integer> hierarchyMembers(IJavaElement element) {
+    Map<String, Integer> hierarchy = new HashMap<>();
+    if (element.getElementType() != IJavaElement.METHOD
+        && element.getElementType() != IJavaElement.FIELD) {
+      return hierarchy;
+    }
+    try {
+      IType declaringType = ((IMember) element).getDeclaringType();
+      for (IType type : declaringType.newTypeHierarchy(null).getAllTypes()) {
+        ICompilationUnit unit = type.getCompilationUnit();
+        if (unit != null) {
+          hierarchy.computeIfAbsent(unitKey(unit), ReferenceIndex::members);
+        }
+      }
+      return hierarchy;
+    } catch (JavaModelException e) {
+      JavaLanguageServerPlugin.log(e);
+      return null;
+    }
+  }
+
+  private static int members(String unit) {
+    IJavaElement element = JavaCore.create(unit);
+    if (!(element instanceof ICompilationUnit) || !element.exists()) {
+      return 0;
+    }
+    List<String> members = new ArrayList<>();
+    try {
+      for (IType type : ((ICompilationUnit) element).getAllTypes()) {
+        members.add(type.getHandleIdentifier() + type.getFlags() + type.getSuperclassName());
+        members.addAll(Arrays.asList(type.getSuperInterfaceNames()));
+        for (IJavaElement child : type.getChildren()) {
+          if (child instanceof IMember) {
+            members.add(child.getHandleIdentifier() + ((IMember) child).getFlags());
+          }
+        }
+      }
+    } catch (JavaModelException e) {
+      return 0;
+    }
+    return members.hashCode();
+  }
+
+  private static String simpleName(IJavaElement element) {
+    String name = element.getElementName();
+    if (element.getElementType() == IJavaElement.PACKAGE_FRAGMENT) {
+      name = name.substring(name.lastIndexOf('.') + 1);
+    }
+    return name;
+  }
+
+  private static class Entry {
+    private final long sequence;
+    private final String name;
+    private final List<IndexedMatch> matches;
+    private final Set<String> units = new HashSet<>();
+    // digest of the members of the units of the hierarchy by unit
+    private final Map<String, Integer> hierarchy;
+
+    Entry(
+        long sequence, String name, List<IndexedMatch> matches, Map<String, Integer> hierarchy) {
+      this.sequence = sequence;
+      this.name = name;
+      this.matches = matches;
+      this.hierarchy = hierarchy;
+      for (IndexedMatch match : matches) {
+        units.add(match.getUnitHandle());
+      }
+    }
+  }
+
+  /** References recorded for an element and the compilation units changed since. */
+  public static class Snapshot {
+    private final List<IndexedMatch> matches;
+    private final Set<String> changedUnits;
+
+    Snapshot(List<IndexedMatch> matches, Set<String> changedUnits) {
+      this.matches = matches;
+      this.changedUnits = changedUnits;
+    }
+
+    public List<IndexedMatch> getMatches() {
+      return matches;
+    }
+
+    /**
+     * Returns handle identifiers of the changed compilation units which contained a reference or
+     * may contain one now, removed units included.
+     */
+    public Set<String> getChangedUnits() {
+      return changedUnits;
+    }
+  }
+
+  private static class State {
+    private long sequence;
+    private Map<String, Entry> entries;
+    private Map<String, Long> changedUnits;
+  }
+}
@@ -0,0 +1,136 @@
+/*
+ * Copyright (c) 2012-2018 Red Hat, Inc.
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *   Red Hat, Inc. - initial API and implementation
+ */
+package org.eclipse.che.jdt.ls.extension.core.internal.usages;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import org.eclipse.core.resources.ResourcesPlugin;
+import org.eclipse.core.runtime.IPath;
+import org.eclipse.jdt.core.IClasspathEntry;
+import org.eclipse.jdt.core.IJavaElement;
+import org.eclipse.jdt.core.IJavaProject;
+import org.eclipse.jdt.core.IPackageFragmentRoot;
+import org.eclipse.jdt.core.JavaCore;
+import org.eclipse.jdt.core.JavaModelException;
+import org.eclipse.jdt.core.search.IJavaSearchScope;
+import org.eclipse.jdt.core.search.SearchEngine;
+import org.eclipse.jdt.ls.core.internal.JavaLanguageServerPlugin;
+
+/** Creates the scopes in which references to Java elements are searched. */
+public class SearchScopes {
+
+  private SearchScopes() {}
+
+  /**
+   * Creates the smallest scope which contains all the references to the element.
+   *
+   * <p>An element declared in source can only be referenced from its own project and from the
+   * projects which depend on it, directly or through other projects, and never from a library. The
+   * scope is limited to the sources of these projects then. Elements of libraries are searched in
+   * the sources and libraries of all the projects of the workspace.
+   *
+   * @param element element whose references are searched
+   * @param includeJRE whether the system libraries are searched for references to library elements
+   */
+  public static IJavaSearchScope referencesScope(IJavaElement element, boolean includeJRE) {
+    return referencesScope(Collections.singletonList(element), includeJRE);
+  }
+
+  /**
+   * Creates the smallest scope which contains all the references to any of the elements, see
+   * {@link #referencesScope(IJavaElement, boolean)}.
+   */
+  public static IJavaSearchScope referencesScope(
+      List<IJavaElement> elements, boolean includeJRE) {
+    IJavaProject[] projects =
+        JavaCore.create(ResourcesPlugin.getWorkspace().getRoot()).getJavaProjects();
+    Set<IJavaProject> dependents = new LinkedHashSet<>();
+    for (IJavaElement element : elements) {
+      IJavaProject project = element.getJavaProject();
+      if (project == null || !isDeclaredInSource(element)) {
+        dependents = null;
+        break;
+      }
+      if (!dependents.contains(project)) {
+        dependents.addAll(getDependentProjects(project, projects));
+      }
+    }
+    if (dependents != null) {
+      return SearchEngine.createJavaSearchScope(
+          dependents.toArray(new IJavaProject[dependents.size()]), IJavaSearchScope.SOURCES);
+    }
+    int flags = IJavaSearchScope.SOURCES | IJavaSearchScope.APPLICATION_LIBRARIES;
+    if (includeJRE) {
+      flags |= IJavaSearchScope.SYSTEM_LIBRARIES;
+    }
+    return SearchEngine.createJavaSearchScope(projects, flags);
+  }
+
+  /**
+   * Computes the reverse dependency closure of a project from the resolved classpaths, so project
+   * dependencies contributed by classpath containers, e.g. the Maven one, are taken into account.
+   *
+   * @param project project whose dependents are computed
+   * @param projects all the projects of the workspace
+   * @return the project itself followed by all the projects which depend on it, or all the
+   *     projects if a classpath can not be resolved
+   */
+  public static Set<IJavaProject> getDependentProjects(
+      IJavaProject project, IJavaProject[] projects) {
+    Map<IPath, List<IJavaProject>> dependents = new HashMap<>();
+    for (IJavaProject candidate : projects) {
+      try {
+        for (IClasspathEntry entry : candidate.getResolvedClasspath(true)) {
+          if (entry.getEntryKind() == IClasspathEntry.CPE_PROJECT) {
+            dependents.computeIfAbsent(entry.getPath(), path -> new ArrayList<>()).add(candidate);
+          }
+        }
+      } catch (JavaModelException e) {
+        JavaLanguageServerPlugin.log(e);
+        return new LinkedHashSet<>(Arrays.asList(projects));
+      }
+    }
+
+    Set<IJavaProject> closure = new LinkedHashSet<>();
+    Deque<IJavaProject> queue = new ArrayDeque<>();
+    closure.add(project);
+    queue.add(project);
+    while (!queue.isEmpty()) {
+      IPath path = queue.poll().getPath();
+      for (IJavaProject dependent : dependents.getOrDefault(path, Collections.emptyList())) {
+        if (closure.add(dependent)) {
+          queue.add(dependent);
+        }
+      }
+    }
+    return closure;
+  }
+
+  private static boolean isDeclaredInSource(IJavaElement element) {
+    IPackageFragmentRoot root =
+        (IPackageFragmentRoot) element.getAncestor(IJavaElement.PACKAGE_FRAGMENT_ROOT);
+    try {
+      return root != null && root.getKind() == IPackageFragmentRoot.K_SOURCE;
+    } catch (JavaModelException e) {
+      JavaLanguageServerPlugin.log(e);
+      return false;
+    }
+  }
+}
@@ -0,0 +1,128 @@
+/*
+ * Copyright (c) 2012-2018 Red Hat, Inc.
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *   Red Hat, Inc. - initial API and implementation
+ */
+package org.eclipse.che.jdt.ls.extension.core.internal.usages;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import org.eclipse.lsp4j.SymbolKind;
+
+/**
+ * Keeps the references found by paginated usages searches, so that the following pages are taken
+ * from the first search instead of searching again. A continuation token names the search and the
+ * index of the first reference of the next page. The number of kept searches is bounded, least
+ * recently used searches are evicted first and their tokens expire.
+ */
+public class UsagesPages {
+  public static final String SIZE_PROPERTY = "che.jdt.ls.extension.usages.pages.size";
+
+  private static final int DEFAULT_SIZE = 16;
+  private static final char SEPARATOR = ':';
+  private static final UsagesPages INSTANCE =
+      new UsagesPages(Integer.getInteger(SIZE_PROPERTY, DEFAULT_SIZE));
+
+  private final int maxSize;
+  private final Map<String, Search> searches;
+
+  UsagesPages(int maxSize) {
+    this.maxSize = maxSize;
+    this.searches =
+        new LinkedHashMap<String, Search>(16, 0.75f, true) {
+          @Override
+          protected boolean removeEldestEntry(Map.Entry<String, Search> eldest) {
+            return size() > UsagesPages.this.maxSize;
+          }
+        };
+  }
+
+  public static UsagesPages getInstance() {
+    return INSTANCE;
+  }
+
+  /** Keeps the references of a search, they must not be modified afterwards. */
+  public Search put(String searchedElement, SymbolKind elementKind, List<IndexedMatch> matches) {
+    Search search =
+        new Search(UUID.randomUUID().toString(), searchedElement, elementKind, matches);
+    if (maxSize > 0) {
+      synchronized (searches) {
+        searches.put(search.id, search);
+      }
+    }
+    return search;
+  }
+
+  /**
+   * Returns the search a continuation token belongs to.
+   *
+   * @throws IllegalArgumentException if the token is malformed or has expired
+   */
+  public Search get(String token) {
+    int separator = token.lastIndexOf(SEPARATOR);
+    Search search = null;
+    if (separator > 0) {
+      synchronized (searches) {
+        search = searches.get(token.substring(0, separator));
+      }
+    }
+    if (search == null) {
+      throw new IllegalArgumentException("Unknown or expired continuation token: " + token);
+    }
+    return search;
+  }
+
+  /**
+   * Returns the index of the first reference of the page named by a token.
+   *
+   * @throws IllegalArgumentException if the token is malformed
+   */
+  public static int offset(String token) {
+    try {
+      return Integer.parseInt(token.substring(token.lastIndexOf(SEPARATOR) + 1));
+    } catch (NumberFormatException e) {
+      throw new IllegalArgumentException("Malformed continuation token: " + token, e);
+    }
+  }
+
+  /** References found by a search. */
+  public static class Search {
+    private final String id;
+    private final String searchedElement;
+    private final SymbolKind elementKind;
+    private final List<IndexedMatch> matches;
+
+    Search(
+        String id, String searchedElement, SymbolKind elementKind, List<IndexedMatch> matches) {
+      this.id = id;
+      this.searchedElement = searchedElement;
+      this.elementKind = elementKind;
+      this.matches = matches;
+    }
+
+    public String getSearchedElement() {
+      return searchedElement;
+    }
+
+    public SymbolKind getElementKind() {
+      return elementKind;
+    }
+
+    public List<IndexedMatch> getMatches() {
+      return matches;
+    }
+
+    /** Creates the token of the page starting at the given reference. */
+    public String token(int offset) {
+      return id + SEPARATOR + offset;
+    }
+  }
+}
@@ -0,0 +1,219 @@
+/*
+ * Copyright (c) 2012-2018 Red Hat, Inc.
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *   Red Hat, Inc. - initial API and implementation
+ */
+package org.eclipse.che.jdt.ls.extension.core.internal.usages;
+
+import java.net.URI;
+import java.net.URISyntaxException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+import org.eclipse.che.jdt.ls.extension.api.dto.LinearRange;
+import org.eclipse.che.jdt.ls.extension.api.dto.SearchResult;
+import org.eclipse.che.jdt.ls.extension.core.internal.JavaModelUtil;
+import org.eclipse.core.resources.IResource;
+import org.eclipse.jdt.core.IClassFile;
+import org.eclipse.jdt.core.ICompilationUnit;
+import org.eclipse.jdt.core.IJavaElement;
+import org.eclipse.jdt.core.IPackageFragment;
+import org.eclipse.jdt.core.ISourceReference;
+import org.eclipse.jdt.core.JavaModelException;
+import org.eclipse.jdt.ls.core.internal.JDTUtils;
+import org.eclipse.jdt.ls.core.internal.JavaLanguageServerPlugin;
+import org.eclipse.jdt.ls.core.internal.ResourceUtils;
+import org.eclipse.jdt.ls.core.internal.hover.JavaElementLabels;
+
+/**
+ * Collects references into a tree of {@link SearchResult}s rooted in package nodes. Labels are
+ * computed once for every node, URIs once for every compilation unit or class file.
+ *
+ * <p>If a package consumer is set, the requestor passes on a package node as soon as the matches
+ * of another package start to arrive and forgets it. The search engine reports matches document
+ * by document sorted by path, so a package is usually complete at that point. Nodes of the same
+ * package may still be passed on more than once, e.g. for a package split between source folders,
+ * and have to be merged by the consumer.
+ */
+public class UsagesRequestor extends MatchCollector {
+  private static final Set<Integer> INTERESTING_ELEMENT_TYPES;
+
+  static {
+    INTERESTING_ELEMENT_TYPES = new HashSet<>();
+    INTERESTING_ELEMENT_TYPES.add(IJavaElement.METHOD);
+    INTERESTING_ELEMENT_TYPES.add(IJavaElement.INITIALIZER);
+    INTERESTING_ELEMENT_TYPES.add(IJavaElement.TYPE);
+    INTERESTING_ELEMENT_TYPES.add(IJavaElement.CLASS_FILE);
+    INTERESTING_ELEMENT_TYPES.add(IJavaElement.COMPILATION_UNIT);
+    INTERESTING_ELEMENT_TYPES.add(IJavaElement.PACKAGE_FRAGMENT);
+  }
+
+  private final Map<IJavaElement, SearchResult> results = new HashMap<>();
+  // every compilation unit or class file has one URI, shared by all the nodes in it
+  private final Map<IJavaElement, String> unitUris = new HashMap<>();
+  private boolean deferLabels;
+  private Consumer<SearchResult> packageConsumer;
+  private IJavaElement currentPackage;
+  private int packageCount;
+
+  /** Streams package nodes to the consumer instead of keeping them. */
+  public void setPackageConsumer(Consumer<SearchResult> packageConsumer) {
+    this.packageConsumer = packageConsumer;
+  }
+
+  /**
+   * Leaves out the labels of types and members, which are the most expensive part of the result.
+   * Their nodes get the handle identifier of the element instead, to be resolved by the client when
+   * the node is expanded.
+   */
+  public void setDeferLabels(boolean deferLabels) {
+    this.deferLabels = deferLabels;
+  }
+
+  @Override
+  public void accept(IJavaElement element, int offset, int length) throws JavaModelException {
+    super.accept(element, offset, length);
+    IJavaElement pkg = element.getAncestor(IJavaElement.PACKAGE_FRAGMENT);
+    if (packageConsumer != null && currentPackage != null && !currentPackage.equals(pkg)) {
+      flush();
+    }
+    currentPackage = pkg;
+    SearchResult result = ensureCreated(element);
+    result.getMatches().add(new LinearRange(offset, length));
+  }
+
+  /**
+   * Adds the number of matches in a compilation unit or class file without their locations. The
+   * count is added to the package node as well.
+   */
+  public void acceptCount(IJavaElement unit, int count) throws JavaModelException {
+    SearchResult result = ensureCreated(unit);
+    result.setMatchCount(count);
+    SearchResult pkg = ensureCreated(unit.getAncestor(IJavaElement.PACKAGE_FRAGMENT));
+    pkg.setMatchCount((pkg.getMatchCount() == null ? 0 : pkg.getMatchCount()) + count);
+  }
+
+  /** Passes on the last package node to the consumer, if there is one. */
+  public void complete() {
+    if (packageConsumer != null && currentPackage != null) {
+      flush();
+    }
+  }
+
+  /** Returns the package nodes which have not been passed on to the consumer. */
+  public List<SearchResult> getPackageResults() {
+    return results
+        .entrySet()
+        .stream()
+        .filter(entry -> entry.getKey() instanceof IPackageFragment)
+        .map(e -> e.getValue())
+        .collect(Collectors.toList());
+  }
+
+  /** Returns the number of package nodes passed on to the consumer. */
+  public int getPackageCount() {
+    return packageCount;
+  }
+
+  private void flush() {
+    SearchResult node = results.get(currentPackage);
+    for (Iterator<IJavaElement> it = results.keySet().iterator(); it.hasNext(); ) {
+      IJavaElement element = it.next();
+      if (currentPackage.equals(element.getAncestor(IJavaElement.PACKAGE_FRAGMENT))) {
+        it.remove();
+      }
+    }
+    currentPackage = null;
+    if (node != null) {
+      packageCount++;
+      packageConsumer.accept(node);
+    }
+  }
+
+  private SearchResult ensureCreated(IJavaElement element) throws JavaModelException {
+    try {
+      while (element != null && !isInteresting(element)) {
+        // transparent elements don't show up in result
+        element = element.getParent();
+      }
+      SearchResult r = results.get(element);
+      if (r == null) {
+        r = new SearchResult();
+        r.setChildren(new ArrayList<>());
+        r.setMatches(new ArrayList<>());
+        r.setKind(JavaModelUtil.mapKind(element));
+        if (deferLabels && isMember(element)) {
+          r.setHandle(element.getHandleIdentifier());
+        } else {
+          r.setName(JavaElementLabels.getElementLabel(element, JavaElementLabels.ALL_DEFAULT));
+        }
+        if (element instanceof ISourceReference) {
+          r.setUri(unitUris.computeIfAbsent(getTypeRoot(element), UsagesRequestor::toUri));
+          SearchResult parent = ensureCreated(element.getParent());
+          parent.getChildren().add(r);
+        } else if (element instanceof IPackageFragment) {
+          IJavaElement parent = element.getParent();
+          IResource resource = parent.getCorrespondingResource();
+          if (resource != null) {
+            r.setUri(ResourceUtils.fixURI(resource.getLocationURI()));
+          } else {
+            r.setUri(
+                new URI(
+                        "jdt",
+                        "/"
+                            + parent.getJavaProject().getElementName()
+                            + "/"
+                            + parent.getElementName(),
+                        element.getElementName())
+                    .toString());
+          }
+        }
+        results.put(element, r);
+      }
+      return r;
+    } catch (URISyntaxException e) {
+      JavaLanguageServerPlugin.logException("Uri syntax should not happen", e);
+      return null;
+    }
+  }
+
+  private boolean isInteresting(IJavaElement element) {
+    return INTERESTING_ELEMENT_TYPES.contains(element.getElementType());
+  }
+
+  private static boolean isMember(IJavaElement element) {
+    int type = element.getElementType();
+    return type == IJavaElement.TYPE
+        || type == IJavaElement.METHOD
+        || type == IJavaElement.INITIALIZER;
+  }
+
+  /** Returns the URI of the compilation unit or class file containing the element. */
+  public static String toUri(IJavaElement element) {
+    IJavaElement typeRoot = getTypeRoot(element);
+    if (typeRoot instanceof ICompilationUnit) {
+      return JDTUtils.toURI((ICompilationUnit) typeRoot);
+    }
+    if (typeRoot instanceof IClassFile) {
+      return JDTUtils.toUri((IClassFile) typeRoot);
+    }
+    return null;
+  }
+
+  private static IJavaElement getTypeRoot(IJavaElement element) {
+    IJavaElement typeRoot = element.getAncestor(IJavaElement.COMPILATION_UNIT);
+    return typeRoot != null ? typeRoot : element.getAncestor(IJavaElement.CLASS_FILE);
+  }
+}
@@ -0,0 +1,98 @@
+/*
+ * Copyright (c) 2012-2018 Red Hat, Inc.
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *   Red Hat, Inc. - initial API and implementation
+ */
+package org.eclipse.che.jdt.ls.extension.generator;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.jar.Attributes;
+import java.util.jar.JarEntry;
+import java.util.jar.JarOutputStream;
+import java.util.jar.Manifest;
+
+/**
+ * Writes a jar with a single interface declaring one {@code int} method. Interfaces need no byte
+ * code, so the class file is written directly and no compiler is needed at generation time.
+ */
+class LibraryJarWriter {
+  private static final int JAVA_8 = 52;
+  private static final int ACC_PUBLIC = 0x0001;
+  private static final int ACC_INTERFACE = 0x0200;
+  private static final int ACC_ABSTRACT = 0x0400;
+  private static final byte CONSTANT_UTF8 = 1;
+  private static final byte CONSTANT_CLASS = 7;
+  // fixed entry time, so the same configuration always produces the same bytes
+  private static final long ENTRY_TIME = 946684800000L;
+
+  private LibraryJarWriter() {}
+
+  /**
+   * @param interfaceName internal name of the interface, e.g. {@code org/example/Api}
+   * @param methodName name of the {@code int} method without parameters
+   * @return content of the jar
+   */
+  static byte[] write(String interfaceName, String methodName) throws IOException {
+    Manifest manifest = new Manifest();
+    manifest.getMainAttributes().put(Attributes.Name.MANIFEST_VERSION, "1.0");
+    ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+    try (JarOutputStream jar = new JarOutputStream(bytes)) {
+      JarEntry manifestEntry = new JarEntry("META-INF/MANIFEST.MF");
+      manifestEntry.setTime(ENTRY_TIME);
+      jar.putNextEntry(manifestEntry);
+      manifest.write(jar);
+      jar.closeEntry();
+      JarEntry classEntry = new JarEntry(interfaceName + ".class");
+      classEntry.setTime(ENTRY_TIME);
+      jar.putNextEntry(classEntry);
+      jar.write(classFile(interfaceName, methodName));
+      jar.closeEntry();
+    }
+    return bytes.toByteArray();
+  }
+
+  private static byte[] classFile(String interfaceName, String methodName) throws IOException {
+    ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+    DataOutputStream out = new DataOutputStream(bytes);
+    out.writeInt(0xCAFEBABE);
+    out.writeShort(0);
+    out.writeShort(JAVA_8);
+    // constant pool: #1 this class, #3 super class, #5 method name, #6 method descriptor
+    out.writeShort(7);
+    out.writeByte(CONSTANT_CLASS);
+    out.writeShort(2);
+    out.writeByte(CONSTANT_UTF8);
+    out.writeUTF(interfaceName);
+    out.writeByte(CONSTANT_CLASS);
+    out.writeShort(4);
+    out.writeByte(CONSTANT_UTF8);
+    out.writeUTF("java/lang/Object");
+    out.writeByte(CONSTANT_UTF8);
+    out.writeUTF(methodName);
+    out.writeByte(CONSTANT_UTF8);
+    out.writeUTF("()I");
+    out.writeShort(ACC_PUBLIC | ACC_INTERFACE | ACC_ABSTRACT);
+    out.writeShort(1);
+    out.writeShort(3);
+    // no interfaces and no fields
+    out.writeShort(0);
+    out.writeShort(0);
+    out.writeShort(1);
+    out.writeShort(ACC_PUBLIC | ACC_ABSTRACT);
+    out.writeShort(5);
+    out.writeShort(6);
+    out.writeShort(0);
+    // no class attributes
+    out.writeShort(0);
+    out.flush();
+    return bytes.toByteArray();
+  }
+}
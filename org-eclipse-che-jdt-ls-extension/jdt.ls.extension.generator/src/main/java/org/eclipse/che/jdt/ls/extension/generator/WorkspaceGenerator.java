@@ -0,0 +1,313 @@
+/*
+ * Copyright (c) 2012-2018 Red Hat, Inc.
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *   Red Hat, Inc. - initial API and implementation
+ */
+package org.eclipse.che.jdt.ls.extension.generator;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * Writes a synthetic Maven workspace to the disk. The workspace has {@code modules} modules with
+ * {@code packages} packages each and {@code classesPerPackage} classes in every package. Classes
+ * of a package form inheritance chains {@code inheritanceDepth} classes long, the first class of a
+ * chain implements an interface of one of the {@code dependencyJars} generated jars and every
+ * class calls {@link #ROOT_CLASS}, so searches for references and hierarchies have real work to
+ * do. Every {@code testRatio}-th class gets a JUnit 4 test class.
+ *
+ * <p>A single module is written as a plain Maven project, several modules are written as an
+ * aggregator project whose module {@code i} depends on module {@code i - 1}. Package indexes are
+ * unique in the workspace, module {@code i} holds the packages from {@code i * packages}.
+ *
+ * <p>The output depends only on the configuration. The generated jars are written byte by byte and
+ * are referenced with the system scope, the only other dependency is JUnit 4.12, which the test
+ * fixtures use as well, so the workspace can be imported without network access once the local
+ * Maven repository holds it.
+ */
+public class WorkspaceGenerator {
+
+  /** Package which contains the generated classes, followed by the package index. */
+  public static final String BASE_PACKAGE = "org.eclipse.che.generated.p";
+
+  /** Fully qualified name of the class every generated class refers to. */
+  public static final String ROOT_CLASS = BASE_PACKAGE + "0.Class0";
+
+  /** Package which contains the interface of a generated jar, followed by the jar index. */
+  public static final String LIBRARY_PACKAGE = "org.eclipse.che.generated.lib";
+
+  private static final String GROUP_ID = "org.eclipse.che.generated";
+  private static final String VERSION = "1.0-SNAPSHOT";
+  private static final String LIBRARY_DIRECTORY = "lib";
+
+  private final String projectName;
+  private int modules = 1;
+  private int packages = 10;
+  private int classesPerPackage = 10;
+  private int inheritanceDepth = 5;
+  private int testRatio = 4;
+  private int dependencyJars = 0;
+
+  public WorkspaceGenerator(String projectName) {
+    this.projectName = projectName;
+  }
+
+  /** Sets the number of generated modules. */
+  public WorkspaceGenerator modules(int modules) {
+    this.modules = modules;
+    return this;
+  }
+
+  /** Sets the number of generated packages in every module. */
+  public WorkspaceGenerator packages(int packages) {
+    this.packages = packages;
+    return this;
+  }
+
+  /** Sets the number of classes in every generated package. */
+  public WorkspaceGenerator classesPerPackage(int classesPerPackage) {
+    this.classesPerPackage = classesPerPackage;
+    return this;
+  }
+
+  /** Sets the length of the inheritance chains, 1 generates classes without a superclass. */
+  public WorkspaceGenerator inheritanceDepth(int inheritanceDepth) {
+    this.inheritanceDepth = inheritanceDepth;
+    return this;
+  }
+
+  /** Generates a test class for every {@code testRatio}-th class, 0 disables tests. */
+  public WorkspaceGenerator testRatio(int testRatio) {
+    this.testRatio = testRatio;
+    return this;
+  }
+
+  /** Sets the number of generated jars every module depends on. */
+  public WorkspaceGenerator dependencyJars(int dependencyJars) {
+    this.dependencyJars = dependencyJars;
+    return this;
+  }
+
+  /** Returns the number of classes, tests excluded, the generated workspace will contain. */
+  public int getClassCount() {
+    return modules * packages * classesPerPackage;
+  }
+
+  /** Returns the number of test classes the generated workspace will contain. */
+  public int getTestClassCount() {
+    int perModule = packages * classesPerPackage;
+    return testRatio > 0 ? modules * ((perModule + testRatio - 1) / testRatio) : 0;
+  }
+
+  /** Returns the names of the generated Maven projects, which m2e uses as project names. */
+  public String[] getProjectNames() {
+    if (modules == 1) {
+      return new String[] {projectName};
+    }
+    String[] names = new String[modules + 1];
+    names[0] = projectName;
+    for (int m = 0; m < modules; m++) {
+      names[m + 1] = moduleName(m);
+    }
+    return names;
+  }
+
+  /**
+   * Writes the workspace into a new directory named after the project.
+   *
+   * @param parent directory in which the project directory is created
+   * @return the project directory, the aggregator project if there are several modules
+   */
+  public Path generate(Path parent) throws IOException {
+    Path root = parent.resolve(projectName);
+    for (int j = 0; j < dependencyJars; j++) {
+      Path jar = root.resolve(LIBRARY_DIRECTORY).resolve(libraryJarName(j));
+      Files.createDirectories(jar.getParent());
+      Files.write(jar, LibraryJarWriter.write(libraryInterface(j), libraryMethod(j)));
+    }
+    if (modules == 1) {
+      writeModule(root, projectName, 0, null, "lib/");
+      return root;
+    }
+    write(root.resolve("pom.xml"), aggregatorPom());
+    for (int m = 0; m < modules; m++) {
+      String dependency = m > 0 ? moduleName(m - 1) : null;
+      writeModule(root.resolve(moduleName(m)), moduleName(m), m, dependency, "../lib/");
+    }
+    return root;
+  }
+
+  private void writeModule(
+      Path module, String artifactId, int moduleIndex, String dependency, String libraryPath)
+      throws IOException {
+    Path main = module.resolve("src/main/java");
+    Path test = module.resolve("src/test/java");
+    write(module.resolve("pom.xml"), modulePom(artifactId, dependency, libraryPath));
+    int index = 0;
+    for (int p = moduleIndex * packages; p < (moduleIndex + 1) * packages; p++) {
+      String packageName = BASE_PACKAGE + p;
+      for (int c = 0; c < classesPerPackage; c++) {
+        write(sourceFile(main, packageName, "Class" + c), mainClass(p, c));
+        if (testRatio > 0 && index % testRatio == 0) {
+          write(sourceFile(test, packageName, "Class" + c + "Test"), testClass(packageName, c));
+        }
+        index++;
+      }
+    }
+  }
+
+  private String moduleName(int module) {
+    return projectName + "-" + module;
+  }
+
+  private String aggregatorPom() {
+    StringBuilder pom = new StringBuilder();
+    pom.append("<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n");
+    pom.append("<project xmlns=\"http://maven.apache.org/POM/4.0.0\">\n");
+    pom.append("  <modelVersion>4.0.0</modelVersion>\n");
+    pom.append("  <groupId>").append(GROUP_ID).append("</groupId>\n");
+    pom.append("  <artifactId>").append(projectName).append("</artifactId>\n");
+    pom.append("  <version>").append(VERSION).append("</version>\n");
+    pom.append("  <packaging>pom</packaging>\n");
+    pom.append("  <modules>\n");
+    for (int m = 0; m < modules; m++) {
+      pom.append("    <module>").append(moduleName(m)).append("</module>\n");
+    }
+    pom.append("  </modules>\n");
+    pom.append("</project>\n");
+    return pom.toString();
+  }
+
+  private String modulePom(String artifactId, String dependency, String libraryPath) {
+    StringBuilder pom = new StringBuilder();
+    pom.append("<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n");
+    pom.append("<project xmlns=\"http://maven.apache.org/POM/4.0.0\">\n");
+    pom.append("  <modelVersion>4.0.0</modelVersion>\n");
+    pom.append("  <groupId>").append(GROUP_ID).append("</groupId>\n");
+    pom.append("  <artifactId>").append(artifactId).append("</artifactId>\n");
+    pom.append("  <version>").append(VERSION).append("</version>\n");
+    pom.append("  <packaging>jar</packaging>\n");
+    pom.append("  <properties>\n");
+    pom.append("    <maven.compiler.source>1.8</maven.compiler.source>\n");
+    pom.append("    <maven.compiler.target>1.8</maven.compiler.target>\n");
+    pom.append("  </properties>\n");
+    pom.append("  <dependencies>\n");
+    if (dependency != null) {
+      dependency(pom, GROUP_ID, dependency, VERSION, null);
+    }
+    for (int j = 0; j < dependencyJars; j++) {
+      dependency(pom, GROUP_ID, "lib" + j, VERSION, libraryPath + libraryJarName(j));
+    }
+    dependency(pom, "junit", "junit", "4.12", null);
+    pom.append("  </dependencies>\n");
+    pom.append("</project>\n");
+    return pom.toString();
+  }
+
+  private static void dependency(
+      StringBuilder pom, String groupId, String artifactId, String version, String systemPath) {
+    pom.append("    <dependency>\n");
+    pom.append("      <groupId>").append(groupId).append("</groupId>\n");
+    pom.append("      <artifactId>").append(artifactId).append("</artifactId>\n");
+    pom.append("      <version>").append(version).append("</version>\n");
+    if (systemPath != null) {
+      pom.append("      <scope>system</scope>\n");
+      pom.append("      <systemPath>${project.basedir}/").append(systemPath);
+      pom.append("</systemPath>\n");
+    } else if ("junit".equals(groupId)) {
+      pom.append("      <scope>test</scope>\n");
+    }
+    pom.append("    </dependency>\n");
+  }
+
+  private String mainClass(int packageIndex, int index) {
+    String packageName = BASE_PACKAGE + packageIndex;
+    boolean chainStart = inheritanceDepth <= 1 || index % inheritanceDepth == 0;
+    StringBuilder source = new StringBuilder();
+    source.append("package ").append(packageName).append(";\n\n");
+    source.append("public class Class").append(index);
+    int library = -1;
+    if (!chainStart) {
+      source.append(" extends Class").append(index - 1);
+    } else if (dependencyJars > 0) {
+      library = packageIndex % dependencyJars;
+      source.append(" implements ").append(libraryInterface(library).replace('/', '.'));
+    }
+    source.append(" {\n");
+    if (ROOT_CLASS.equals(packageName + ".Class" + index)) {
+      source.append("  public static int shared(int value) {\n");
+      source.append("    return value * 31;\n");
+      source.append("  }\n\n");
+    }
+    source.append("  private int field").append(index).append(";\n\n");
+    source.append("  public int compute").append(index).append("(int value) {\n");
+    source.append("    field").append(index).append(" += value;\n");
+    source.append("    return ").append(ROOT_CLASS).append(".shared(field").append(index);
+    source.append(");\n");
+    source.append("  }\n\n");
+    if (library >= 0) {
+      source.append("  @Override\n");
+      source.append("  public int ").append(libraryMethod(library)).append("() {\n");
+      source.append("    return ").append(library).append(";\n");
+      source.append("  }\n\n");
+    }
+    source.append("  @Override\n");
+    source.append("  public String toString() {\n");
+    source.append("    return \"Class").append(index).append("[\" + field").append(index);
+    source.append(" + \"]\";\n");
+    source.append("  }\n");
+    source.append("}\n");
+    return source.toString();
+  }
+
+  private String testClass(String packageName, int index) {
+    String name = "Class" + index;
+    StringBuilder source = new StringBuilder();
+    source.append("package ").append(packageName).append(";\n\n");
+    source.append("import static org.junit.Assert.assertEquals;\n\n");
+    source.append("import org.junit.Test;\n\n");
+    source.append("public class ").append(name).append("Test {\n\n");
+    source.append("  @Test\n");
+    source.append("  public void shouldCompute() {\n");
+    source.append("    assertEquals(31, new ").append(name).append("().compute");
+    source.append(index).append("(1));\n");
+    source.append("  }\n\n");
+    source.append("  @Test\n");
+    source.append("  public void shouldPrint() {\n");
+    source.append("    assertEquals(\"").append(name).append("[0]\", new ").append(name);
+    source.append("().toString());\n");
+    source.append("  }\n");
+    source.append("}\n");
+    return source.toString();
+  }
+
+  private static String libraryJarName(int library) {
+    return "lib" + library + ".jar";
+  }
+
+  private static String libraryInterface(int library) {
+    return LIBRARY_PACKAGE.replace('.', '/') + library + "/Api" + library;
+  }
+
+  private static String libraryMethod(int library) {
+    return "value" + library;
+  }
+
+  private static Path sourceFile(Path root, String packageName, String className) {
+    return root.resolve(packageName.replace('.', '/')).resolve(className + ".java");
+  }
+
+  private static void write(Path file, String content) throws IOException {
+    Files.createDirectories(file.getParent());
+    Files.write(file, content.getBytes(UTF_8));
+  }
+}
@@ -11,11 +11,13 @@
  */
 package org.eclipse.che.jdt.ls.extension.core.internal;
 
+import static java.nio.charset.StandardCharsets.UTF_8;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertTrue;
 import static org.mockito.Mockito.when;
 
+import java.io.ByteArrayInputStream;
 import java.io.File;
 import java.io.IOException;
 import java.lang.reflect.InvocationHandler;
@@ -30,6 +32,7 @@ import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import org.apache.commons.io.FileUtils;
+import org.eclipse.che.jdt.ls.extension.generator.WorkspaceGenerator;
 import org.eclipse.core.resources.IFile;
 import org.eclipse.core.resources.IMarker;
 import org.eclipse.core.resources.IProject;
@@ -156,6 +159,28 @@ public abstract class AbstractProjectsManagerBasedTest {
       File file = copyFiles(path, true);
       roots.add(Path.fromOSString(file.getAbsolutePath()));
     }
+    return importRoots(roots);
+  }
+
+  /**
+   * Writes the workspace described by the generator into the working directory and imports all its
+   * projects. Intended for performance tests which need thousands of classes.
+   */
+  protected List<IProject> importGeneratedProjects(WorkspaceGenerator generator) throws Exception {
+    java.nio.file.Path root = generator.generate(getWorkingProjectDirectory().toPath());
+    return importRoots(Collections.singletonList(Path.fromOSString(root.toString())));
+  }
+
+  /** Creates a file in the project, together with its missing parent folders. */
+  protected IFile createFile(IProject project, String path, String contents) throws Exception {
+    IFile file = project.getFile(path);
+    JDTUtils.createFolders(file.getParent(), monitor);
+    file.create(new ByteArrayInputStream(contents.getBytes(UTF_8)), true, monitor);
+    waitForBackgroundJobs();
+    return file;
+  }
+
+  private List<IProject> importRoots(List<IPath> roots) throws Exception {
     IWorkspaceRunnable runnable =
         new IWorkspaceRunnable() {
           @Override
@@ -0,0 +1,70 @@
+/*
+ * Copyright (c) 2012-2018 Red Hat, Inc.
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *   Red Hat, Inc. - initial API and implementation
+ */
+package org.eclipse.che.jdt.ls.extension.core.internal;
+
+import static java.util.Arrays.asList;
+import static java.util.Collections.singletonList;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.util.List;
+import org.eclipse.che.jdt.ls.extension.api.Commands;
+import org.eclipse.che.jdt.ls.extension.api.dto.BatchCommandEntry;
+import org.eclipse.che.jdt.ls.extension.api.dto.BatchCommandParameters;
+import org.eclipse.che.jdt.ls.extension.api.dto.BatchCommandResult;
+import org.eclipse.core.resources.IProject;
+import org.eclipse.core.runtime.NullProgressMonitor;
+import org.junit.Before;
+import org.junit.Test;
+
+public class BatchCommandTest extends AbstractProjectsManagerBasedTest {
+  private IProject project;
+
+  @Before
+  public void setup() throws Exception {
+    importProjects("maven/testproject");
+    project = WorkspaceHelper.getProject("testproject");
+  }
+
+  @Test
+  public void shouldReturnResultsInRequestedOrder() throws Exception {
+    String projectUri = getResourceUriAsString(project.getRawLocationURI());
+    BatchCommandParameters parameters =
+        new BatchCommandParameters(
+            asList(
+                new BatchCommandEntry(Commands.GET_OUTPUT_DIR_COMMAND, singletonList(projectUri)),
+                new BatchCommandEntry("unknown.command", singletonList(projectUri)),
+                new BatchCommandEntry(
+                    Commands.RESOLVE_CLASSPATH_COMMAND, singletonList(projectUri))));
+
+    List<BatchCommandResult> results =
+        BatchCommand.execute(singletonList(parameters), new NullProgressMonitor());
+
+    assertEquals(3, results.size());
+
+    BatchCommandResult outputDir = results.get(0);
+    assertEquals(Commands.GET_OUTPUT_DIR_COMMAND, outputDir.getCommandId());
+    assertNull(outputDir.getError());
+    assertTrue(((String) outputDir.getResult()).endsWith("testproject/target/classes"));
+
+    BatchCommandResult unknown = results.get(1);
+    assertNull(unknown.getResult());
+    assertNotNull(unknown.getError());
+
+    BatchCommandResult classpath = results.get(2);
+    assertNull(classpath.getError());
+    assertFalse(((List<?>) classpath.getResult()).isEmpty());
+  }
+}
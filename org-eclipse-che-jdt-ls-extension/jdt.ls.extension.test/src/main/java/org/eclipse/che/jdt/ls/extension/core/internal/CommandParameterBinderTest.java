@@ -0,0 +1,73 @@
+/*
+ * Copyright (c) 2012-2018 Red Hat, Inc.
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *   Red Hat, Inc. - initial API and implementation
+ */
+package org.eclipse.che.jdt.ls.extension.core.internal;
+
+import static java.util.Collections.singletonList;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.util.HashMap;
+import java.util.Map;
+import org.eclipse.che.jdt.ls.extension.api.dto.ClasspathEntry;
+import org.eclipse.che.jdt.ls.extension.api.dto.TestFindParameters;
+import org.eclipse.che.jdt.ls.extension.api.dto.UpdateClasspathParameters;
+import org.junit.Test;
+
+public class CommandParameterBinderTest {
+
+  @Test
+  public void shouldBindParsedJsonTree() {
+    Map<String, Object> library = new HashMap<>();
+    library.put("entryKind", 1.0);
+    library.put("path", "/lib/a.jar");
+    Map<String, Object> container = new HashMap<>();
+    container.put("entryKind", 5.0);
+    container.put("path", "org.eclipse.jdt.launching.JRE_CONTAINER");
+    container.put("children", singletonList(library));
+    Map<String, Object> parameters = new HashMap<>();
+    parameters.put("uri", "file:///projects/plain");
+    parameters.put("entries", singletonList(container));
+
+    UpdateClasspathParameters bound =
+        CommandParameterBinder.bind(parameters, UpdateClasspathParameters.class);
+
+    assertEquals("file:///projects/plain", bound.getUri());
+    assertEquals(1, bound.getEntries().size());
+    ClasspathEntry boundContainer = bound.getEntries().get(0);
+    assertEquals(5, boundContainer.getEntryKind());
+    ClasspathEntry boundLibrary = boundContainer.getChildren().get(0);
+    assertEquals(1, boundLibrary.getEntryKind());
+    assertEquals("/lib/a.jar", boundLibrary.getPath());
+  }
+
+  @Test
+  public void shouldReturnArgumentOfExpectedType() {
+    TestFindParameters parameters = new TestFindParameters();
+
+    assertSame(parameters, CommandParameterBinder.bind(parameters, TestFindParameters.class));
+  }
+
+  @Test
+  public void shouldKeepMissingFieldsUnset() {
+    Map<String, Object> parameters = new HashMap<>();
+    parameters.put("sourceUri", "file:///projects/test/A.java");
+
+    TestFindParameters bound = CommandParameterBinder.bind(parameters, TestFindParameters.class);
+
+    assertEquals("file:///projects/test/A.java", bound.getSourceUri());
+    assertNull(bound.getTestMethodAnnotation());
+    assertEquals(0, bound.getCursorOffset());
+    assertTrue(CommandParameterBinder.toJsonTree(null).isJsonNull());
+  }
+}
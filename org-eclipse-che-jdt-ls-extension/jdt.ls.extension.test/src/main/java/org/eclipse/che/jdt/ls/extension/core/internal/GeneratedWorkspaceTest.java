@@ -0,0 +1,81 @@
+/*
+ * Copyright (c) 2012-2018 Red Hat, Inc.
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *   Red Hat, Inc. - initial API and implementation
+ */
+package org.eclipse.che.jdt.ls.extension.core.internal;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+
+import java.util.List;
+import org.eclipse.che.jdt.ls.extension.core.internal.testdetection.JavaTestFinder;
+import org.eclipse.che.jdt.ls.extension.generator.WorkspaceGenerator;
+import org.eclipse.core.resources.IProject;
+import org.eclipse.jdt.core.IJavaProject;
+import org.eclipse.jdt.core.IType;
+import org.eclipse.jdt.core.ITypeHierarchy;
+import org.eclipse.jdt.core.JavaCore;
+import org.junit.Before;
+import org.junit.Test;
+
+public class GeneratedWorkspaceTest extends AbstractProjectsManagerBasedTest {
+  private WorkspaceGenerator generator =
+      new WorkspaceGenerator("generated")
+          .modules(2)
+          .packages(3)
+          .classesPerPackage(10)
+          .inheritanceDepth(5)
+          .testRatio(4)
+          .dependencyJars(2);
+
+  @Before
+  public void setup() throws Exception {
+    importGeneratedProjects(generator);
+  }
+
+  @Test
+  public void shouldImportAllModulesWithoutErrors() throws Exception {
+    for (String name : generator.getProjectNames()) {
+      IProject project = WorkspaceHelper.getProject(name);
+      assertNotNull(name + " is not imported", project);
+      assertNoErrors(project);
+    }
+  }
+
+  @Test
+  public void shouldResolveClassesOfAllModules() throws Exception {
+    IJavaProject lastModule = JavaCore.create(WorkspaceHelper.getProject("generated-1"));
+    IType root = lastModule.findType(WorkspaceGenerator.ROOT_CLASS);
+    assertNotNull(root);
+
+    ITypeHierarchy hierarchy = root.newTypeHierarchy(lastModule, null);
+    // every package has two chains of five classes, the root class starts one of them
+    assertEquals(4, hierarchy.getAllSubtypes(root).length);
+
+    IType library = lastModule.findType(WorkspaceGenerator.LIBRARY_PACKAGE + "1.Api1");
+    assertNotNull(library);
+  }
+
+  @Test
+  public void shouldFindGeneratedTests() throws Exception {
+    int tests = 0;
+    for (int module = 0; module < 2; module++) {
+      IProject project = WorkspaceHelper.getProject("generated-" + module);
+      List<String> found =
+          JavaTestFinder.findTestClassesInProject(
+              getResourceUriAsString(project.getRawLocationURI()),
+              "org.junit.Test",
+              "org.junit.runner.RunWith",
+              monitor);
+      tests += found.size();
+    }
+    assertEquals(generator.getTestClassCount(), tests);
+  }
+}
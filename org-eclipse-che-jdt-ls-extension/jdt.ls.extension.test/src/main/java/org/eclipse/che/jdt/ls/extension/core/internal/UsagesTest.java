@@ -12,16 +12,27 @@
 package org.eclipse.che.jdt.ls.extension.core.internal;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
 
 import java.net.URI;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
 import java.util.function.BiConsumer;
 import java.util.function.Function;
+import org.eclipse.che.jdt.ls.extension.api.UsagesMode;
 import org.eclipse.che.jdt.ls.extension.api.dto.LinearRange;
 import org.eclipse.che.jdt.ls.extension.api.dto.SearchResult;
+import org.eclipse.che.jdt.ls.extension.api.dto.UsagesBatchParameters;
+import org.eclipse.che.jdt.ls.extension.api.dto.UsagesParameters;
+import org.eclipse.che.jdt.ls.extension.api.dto.UsagesPartialResult;
 import org.eclipse.che.jdt.ls.extension.api.dto.UsagesResponse;
+import org.eclipse.che.jdt.ls.extension.api.dto.UsagesStreamParameters;
+import org.eclipse.che.jdt.ls.extension.api.dto.UsagesSummary;
+import org.eclipse.che.jdt.ls.extension.core.internal.usages.ReferenceIndex;
 import org.eclipse.core.resources.IProject;
 import org.eclipse.core.runtime.NullProgressMonitor;
 import org.eclipse.lsp4j.Position;
@@ -87,6 +98,207 @@ public class UsagesTest extends AbstractProjectsManagerBasedTest {
         usages.getSearchResults(), "TestMethod.class", "TestMethod", 250, 14, Assert::assertTrue);
   }
 
+  @Test
+  public void testStreamUsagesByPackage() {
+    TextDocumentPositionParams parameter = createParameter("src/test/java/pkg1/ATest.java", 6, 5);
+    UsagesResponse usages =
+        UsagesCommand.execute(Collections.singletonList(parameter), new NullProgressMonitor())
+            .get(0);
+
+    List<UsagesPartialResult> partialResults = new ArrayList<>();
+    UsagesSummary summary =
+        UsagesCommand.stream(
+            Collections.singletonList(
+                new UsagesStreamParameters(
+                    "request", parameter.getTextDocument(), parameter.getPosition())),
+            new NullProgressMonitor(),
+            partialResults::add);
+
+    assertEquals("request", summary.getRequestId());
+    assertEquals("Test", summary.getSearchedElement());
+    assertEquals(SymbolKind.Interface, summary.getElementKind());
+    assertEquals(partialResults.size(), summary.getPackageCount());
+    List<SearchResult> streamed = new ArrayList<>();
+    for (UsagesPartialResult partialResult : partialResults) {
+      assertEquals("request", partialResult.getRequestId());
+      assertEquals(1, partialResult.getSearchResults().size());
+      streamed.addAll(partialResult.getSearchResults());
+    }
+    List<LinearRange> matches = collectMatches(usages.getSearchResults());
+    assertEquals(matches.size(), summary.getMatchCount());
+    assertEquals(matches.size(), collectMatches(streamed).size());
+    findResult(streamed, "src/test/java/pkg1/ATest.java", "ATest.java", 47, 14, Assert::assertTrue);
+    findResult(streamed, "TestMethod.class", "TestMethod", 250, 14, Assert::assertTrue);
+  }
+
+  @Test
+  public void testCountUsages() {
+    TextDocumentPositionParams parameter = createParameter("src/test/java/pkg1/ATest.java", 6, 5);
+    UsagesResponse usages =
+        UsagesCommand.execute(Collections.singletonList(parameter), new NullProgressMonitor())
+            .get(0);
+
+    UsagesResponse counts =
+        UsagesCommand.execute(
+                Collections.singletonList(
+                    new UsagesParameters(
+                        parameter.getTextDocument(),
+                        parameter.getPosition(),
+                        UsagesMode.COUNT,
+                        0)),
+                new NullProgressMonitor())
+            .get(0);
+
+    assertEquals("Test", counts.getSearchedElement());
+    assertEquals(usages.getMatchCount(), counts.getMatchCount());
+    int total = 0;
+    for (SearchResult pkg : counts.getSearchResults()) {
+      int files = 0;
+      for (SearchResult file : pkg.getChildren()) {
+        assertTrue(file.getMatches().isEmpty());
+        assertTrue(file.getChildren().isEmpty());
+        files += file.getMatchCount();
+      }
+      assertEquals(pkg.getMatchCount().intValue(), files);
+      total += files;
+    }
+    assertEquals(collectMatches(usages.getSearchResults()).size(), total);
+  }
+
+  @Test
+  public void testPaginateUsages() {
+    TextDocumentPositionParams parameter = createParameter("src/test/java/pkg1/ATest.java", 6, 5);
+    UsagesResponse usages =
+        UsagesCommand.execute(Collections.singletonList(parameter), new NullProgressMonitor())
+            .get(0);
+
+    UsagesParameters pageParameter =
+        new UsagesParameters(
+            parameter.getTextDocument(), parameter.getPosition(), UsagesMode.PAGE, 1);
+    List<SearchResult> paged = new ArrayList<>();
+    int pages = 0;
+    UsagesResponse page;
+    do {
+      page =
+          UsagesCommand.execute(Collections.singletonList(pageParameter), new NullProgressMonitor())
+              .get(0);
+      assertEquals("Test", page.getSearchedElement());
+      assertEquals(usages.getMatchCount(), page.getMatchCount());
+      assertEquals(1, collectMatches(page.getSearchResults()).size());
+      paged.addAll(page.getSearchResults());
+      pageParameter = new UsagesParameters();
+      pageParameter.setContinuationToken(page.getContinuationToken());
+      pages++;
+    } while (page.getContinuationToken() != null);
+
+    assertEquals(usages.getMatchCount(), pages);
+    assertEquals(collectMatches(usages.getSearchResults()).size(), collectMatches(paged).size());
+    findResult(paged, "src/test/java/pkg1/ATest.java", "ATest.java", 47, 14, Assert::assertTrue);
+  }
+
+  @Test
+  public void testDeferLabels() {
+    TextDocumentPositionParams parameter =
+        createParameter("src/main/java/pkg1/AInterface.java", 2, 22);
+    UsagesResponse usages =
+        UsagesCommand.execute(Collections.singletonList(parameter), new NullProgressMonitor())
+            .get(0);
+    UsagesParameters deferred =
+        new UsagesParameters(
+            parameter.getTextDocument(), parameter.getPosition(), UsagesMode.FULL, 0);
+    deferred.setDeferLabels(true);
+    UsagesResponse lazy =
+        UsagesCommand.execute(Collections.singletonList(deferred), new NullProgressMonitor())
+            .get(0);
+
+    List<SearchResult> members = new ArrayList<>();
+    List<SearchResult> labeled = new ArrayList<>();
+    for (SearchResult pkg : lazy.getSearchResults()) {
+      iterate(pkg, SearchResult::getChildren, node -> addMember(node, members));
+    }
+    for (SearchResult pkg : usages.getSearchResults()) {
+      iterate(pkg, SearchResult::getChildren, node -> addMember(node, labeled));
+    }
+    assertEquals(1, members.size());
+    assertNull(members.get(0).getName());
+    assertNotNull(members.get(0).getHandle());
+
+    List<SearchResult> resolved =
+        UsagesCommand.resolve(
+            Collections.singletonList(members.get(0).getHandle()), new NullProgressMonitor());
+    assertEquals(1, resolved.size());
+    assertEquals(labeled.get(0).getName(), resolved.get(0).getName());
+    assertEquals(labeled.get(0).getUri(), resolved.get(0).getUri());
+    assertEquals(labeled.get(0).getKind(), resolved.get(0).getKind());
+  }
+
+  @Test
+  public void testParallelSearch() {
+    TextDocumentPositionParams parameter = createParameter("src/test/java/pkg1/ATest.java", 6, 5);
+    ReferenceIndex.getInstance().clear();
+    UsagesResponse usages =
+        UsagesCommand.execute(Collections.singletonList(parameter), new NullProgressMonitor())
+            .get(0);
+
+    UsagesParameters parallel =
+        new UsagesParameters(
+            parameter.getTextDocument(), parameter.getPosition(), UsagesMode.FULL, 0);
+    parallel.setParallel(true);
+    ReferenceIndex.getInstance().clear();
+    UsagesResponse parallelUsages =
+        UsagesCommand.execute(Collections.singletonList(parallel), new NullProgressMonitor())
+            .get(0);
+
+    assertEquals(usages.getMatchCount(), parallelUsages.getMatchCount());
+    findResult(
+        parallelUsages.getSearchResults(),
+        "src/test/java/pkg1/ATest.java",
+        "ATest.java",
+        47,
+        14,
+        Assert::assertTrue);
+    findResult(
+        parallelUsages.getSearchResults(),
+        "TestMethod.class",
+        "TestMethod",
+        250,
+        14,
+        Assert::assertTrue);
+  }
+
+  @Test
+  public void testBatchUsages() {
+    TextDocumentPositionParams type = createParameter("src/main/java/pkg1/AInterface.java", 2, 22);
+    TextDocumentPositionParams constructor =
+        createParameter("src/main/java/pkg1/AClass.java", 3, 12);
+    ReferenceIndex.getInstance().clear();
+    UsagesBatchParameters parameters =
+        new UsagesBatchParameters(
+            Arrays.asList(type, constructor), Collections.singletonList("=usages/missing"));
+
+    List<UsagesResponse> usages =
+        UsagesCommand.executeBatch(
+            Collections.singletonList(parameters), new NullProgressMonitor());
+
+    assertEquals(3, usages.size());
+    assertEquals("AInterface", usages.get(0).getSearchedElement());
+    assertEquals(
+        Collections.singletonList(new LinearRange(46, 10)),
+        collectMatches(usages.get(0).getSearchResults()));
+    assertEquals("AClass()", usages.get(1).getSearchedElement());
+    assertEquals(
+        Collections.singletonList(new LinearRange(83, 12)),
+        collectMatches(usages.get(1).getSearchResults()));
+    assertNull(usages.get(2));
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testRejectUnknownContinuationToken() {
+    UsagesParameters parameter = new UsagesParameters();
+    parameter.setContinuationToken("unknown:10");
+    UsagesCommand.execute(Collections.singletonList(parameter), new NullProgressMonitor());
+  }
+
   private void findResult(
       List<SearchResult> searchResults,
       String path,
@@ -114,6 +326,15 @@ public class UsagesTest extends AbstractProjectsManagerBasedTest {
     ifFound.accept("No matches in " + path, false);
   }
 
+  private static boolean addMember(SearchResult node, List<SearchResult> members) {
+    if (node.getKind() == SymbolKind.Class
+        || node.getKind() == SymbolKind.Interface
+        || node.getKind() == SymbolKind.Method) {
+      members.add(node);
+    }
+    return true;
+  }
+
   private TextDocumentPositionParams createParameter(
       String workspacePath, int line, int character) {
     URI locationURI = project.findMember(workspacePath).getLocationURI();
@@ -0,0 +1,92 @@
+/*
+ * Copyright (c) 2012-2018 Red Hat, Inc.
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *   Red Hat, Inc. - initial API and implementation
+ */
+package org.eclipse.che.jdt.ls.extension.core.internal.cache;
+
+import static java.util.Collections.singletonList;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.eclipse.che.jdt.ls.extension.api.dto.CommandMetricsReport;
+import org.eclipse.che.jdt.ls.extension.core.internal.JobHelpers;
+import org.eclipse.che.jdt.ls.extension.core.internal.metrics.CommandMetrics;
+import org.junit.Before;
+import org.junit.Test;
+
+public class CommandResultCacheTest {
+  private AtomicInteger computations;
+
+  @Before
+  public void setUp() {
+    JobHelpers.waitForJobsToComplete();
+    CommandMetrics.getInstance().reset();
+    computations = new AtomicInteger();
+  }
+
+  @Test
+  public void shouldReturnCachedResultUntilWorkspaceIsChanged() throws Exception {
+    CommandResultCache cache = new CommandResultCache(10);
+
+    assertEquals(1, get(cache, "command", "uri"));
+    assertEquals(1, get(cache, "command", "uri"));
+    assertEquals(2, get(cache, "command", "otherUri"));
+
+    WorkspaceGeneration.getInstance().increment();
+
+    assertEquals(3, get(cache, "command", "uri"));
+
+    CommandMetricsReport report = CommandMetrics.getInstance().getReports().get(0);
+    assertEquals(1, report.getCacheHits());
+    assertEquals(3, report.getCacheMisses());
+  }
+
+  @Test
+  public void shouldEvictLeastRecentlyUsedEntries() throws Exception {
+    CommandResultCache cache = new CommandResultCache(2);
+
+    get(cache, "command", "a");
+    get(cache, "command", "b");
+    get(cache, "command", "a");
+    get(cache, "command", "c");
+
+    assertEquals(2, cache.size());
+    // "a" has been used recently, "b" is evicted
+    assertEquals(1, get(cache, "command", "a"));
+    assertEquals(4, get(cache, "command", "b"));
+  }
+
+  @Test
+  public void shouldCompareArgumentsByContent() {
+    Map<String, Object> first = new LinkedHashMap<>();
+    first.put("uri", "file:///project");
+    first.put("offset", 1);
+    Map<String, Object> second = new LinkedHashMap<>();
+    second.put("offset", 1.0);
+    second.put("uri", "file:///project");
+
+    CommandKey firstKey = new CommandKey("command", singletonList(first));
+    CommandKey secondKey = new CommandKey("command", singletonList(second));
+
+    assertEquals(firstKey, secondKey);
+    assertEquals(firstKey.hashCode(), secondKey.hashCode());
+    assertNotEquals(firstKey, new CommandKey("other", singletonList(second)));
+  }
+
+  private Object get(CommandResultCache cache, String commandId, String argument)
+      throws Exception {
+    List<Object> arguments = singletonList(argument);
+    return cache.get(commandId, arguments, computations::incrementAndGet);
+  }
+}
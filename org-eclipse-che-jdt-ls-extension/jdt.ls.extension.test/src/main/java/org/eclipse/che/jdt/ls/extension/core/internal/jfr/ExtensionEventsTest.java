@@ -0,0 +1,38 @@
+/*
+ * Copyright (c) 2012-2018 Red Hat, Inc.
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *   Red Hat, Inc. - initial API and implementation
+ */
+package org.eclipse.che.jdt.ls.extension.core.internal.jfr;
+
+import static java.util.Arrays.asList;
+import static java.util.Collections.singletonMap;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+
+import org.junit.Test;
+
+public class ExtensionEventsTest {
+
+  @Test
+  public void shouldNotRecordWithoutRunningRecording() {
+    EventSpan span = ExtensionEvents.COMMAND.begin();
+
+    assertFalse(span.isRecording());
+    // committing a span which is not recorded is a no-op
+    span.commit("command", 0, 0, false);
+  }
+
+  @Test
+  public void shouldMeasureJsonSize() {
+    assertEquals(0, ExtensionEvents.sizeOf(null));
+    assertEquals("[\"a\",1]".length(), ExtensionEvents.sizeOf(asList("a", 1)));
+    assertEquals("{\"key\":true}".length(), ExtensionEvents.sizeOf(singletonMap("key", true)));
+  }
+}
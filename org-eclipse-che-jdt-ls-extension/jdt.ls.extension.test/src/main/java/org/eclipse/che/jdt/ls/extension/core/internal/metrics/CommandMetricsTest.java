@@ -0,0 +1,107 @@
+/*
+ * Copyright (c) 2012-2018 Red Hat, Inc.
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *   Red Hat, Inc. - initial API and implementation
+ */
+package org.eclipse.che.jdt.ls.extension.core.internal.metrics;
+
+import static java.util.Collections.emptyList;
+import static java.util.Collections.singletonList;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.util.List;
+import org.eclipse.che.jdt.ls.extension.api.Commands;
+import org.eclipse.che.jdt.ls.extension.api.dto.CommandMetricsReport;
+import org.eclipse.che.jdt.ls.extension.core.internal.CheDelegateCommandHandler;
+import org.eclipse.core.runtime.NullProgressMonitor;
+import org.eclipse.core.runtime.OperationCanceledException;
+import org.junit.Before;
+import org.junit.Test;
+
+public class CommandMetricsTest {
+  private CommandMetrics metrics;
+
+  @Before
+  public void setUp() {
+    metrics = CommandMetrics.getInstance();
+    metrics.reset();
+  }
+
+  @Test
+  public void shouldCountCallsCancellationsAndFailures() throws Exception {
+    NullProgressMonitor pm = new NullProgressMonitor();
+    metrics.execute("command", pm, () -> "result");
+    try {
+      metrics.execute(
+          "command",
+          pm,
+          () -> {
+            throw new OperationCanceledException();
+          });
+      fail("Cancellation is expected to be rethrown");
+    } catch (OperationCanceledException e) {
+      // expected
+    }
+    try {
+      metrics.execute(
+          "command",
+          pm,
+          () -> {
+            throw new IllegalStateException();
+          });
+      fail("Failure is expected to be rethrown");
+    } catch (IllegalStateException e) {
+      // expected
+    }
+
+    List<CommandMetricsReport> reports = metrics.getReports();
+    assertEquals(1, reports.size());
+    CommandMetricsReport report = reports.get(0);
+    assertEquals("command", report.getCommandId());
+    assertEquals(3, report.getCalls());
+    assertEquals(1, report.getCancellations());
+    assertEquals(1, report.getFailures());
+  }
+
+  @Test
+  public void shouldComputeLatencyPercentiles() {
+    LatencyHistogram histogram = new LatencyHistogram();
+    for (int i = 1; i <= 100; i++) {
+      histogram.record(i * 1_000_000L);
+    }
+
+    assertEquals(100, histogram.getCount());
+    assertEquals(100.0, histogram.getMax(), 0.001);
+    assertEquals(50.0, histogram.getPercentile(50), 50.0 * 0.3);
+    assertEquals(95.0, histogram.getPercentile(95), 95.0 * 0.3);
+    assertTrue(histogram.getPercentile(99) <= histogram.getMax());
+  }
+
+  @Test
+  public void shouldExposeMetricsThroughCommand() throws Exception {
+    CheDelegateCommandHandler handler = new CheDelegateCommandHandler();
+    handler.executeCommand(
+        Commands.GET_COMMAND_METRICS_COMMAND, emptyList(), new NullProgressMonitor());
+
+    @SuppressWarnings("unchecked")
+    List<CommandMetricsReport> reports =
+        (List<CommandMetricsReport>)
+            handler.executeCommand(
+                Commands.GET_COMMAND_METRICS_COMMAND,
+                singletonList(true),
+                new NullProgressMonitor());
+
+    assertEquals(1, reports.size());
+    assertEquals(Commands.GET_COMMAND_METRICS_COMMAND, reports.get(0).getCommandId());
+    // only the call which has reset the statistics is left
+    assertEquals(1, metrics.getReports().get(0).getCalls());
+  }
+}
@@ -0,0 +1,138 @@
+/*
+ * Copyright (c) 2012-2018 Red Hat, Inc.
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *   Red Hat, Inc. - initial API and implementation
+ */
+package org.eclipse.che.jdt.ls.extension.core.internal.scheduling;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import org.eclipse.che.jdt.ls.extension.api.dto.CommandMetricsReport;
+import org.eclipse.che.jdt.ls.extension.core.internal.metrics.CommandMetrics;
+import org.eclipse.core.runtime.NullProgressMonitor;
+import org.eclipse.core.runtime.OperationCanceledException;
+import org.junit.After;
+import org.junit.Test;
+
+public class BulkheadTest {
+  private final ExecutorService executor = Executors.newCachedThreadPool();
+
+  @After
+  public void tearDown() {
+    executor.shutdownNow();
+  }
+
+  @Test
+  public void shouldRejectCommandsOverQueueDepth() throws Exception {
+    Bulkhead bulkhead = new Bulkhead("search", 1, 1);
+    CountDownLatch running = new CountDownLatch(1);
+    CountDownLatch release = new CountDownLatch(1);
+
+    CompletableFuture<String> first =
+        runAsync(
+            bulkhead,
+            new NullProgressMonitor(),
+            () -> {
+              running.countDown();
+              release.await();
+              return "first";
+            });
+    assertTrue(running.await(10, TimeUnit.SECONDS));
+    CompletableFuture<String> second =
+        runAsync(bulkhead, new NullProgressMonitor(), () -> "second");
+    waitForWaitingCount(bulkhead, 1);
+
+    CommandMetrics metrics = CommandMetrics.getInstance();
+    metrics.reset();
+    try {
+      metrics.execute(
+          "command",
+          new NullProgressMonitor(),
+          () -> bulkhead.execute("command", new NullProgressMonitor(), () -> "third"));
+      fail("Command over the queue depth is expected to be rejected");
+    } catch (RejectedExecutionException e) {
+      // expected
+    }
+    CommandMetricsReport report = metrics.getReports().get(0);
+    assertEquals(1, report.getRejections());
+    assertEquals(0, report.getFailures());
+
+    release.countDown();
+    assertEquals("first", first.get(10, TimeUnit.SECONDS));
+    assertEquals("second", second.get(10, TimeUnit.SECONDS));
+  }
+
+  @Test
+  public void shouldStopWaitingWhenCancelled() throws Exception {
+    Bulkhead bulkhead = new Bulkhead("build", 1, 1);
+    CountDownLatch running = new CountDownLatch(1);
+    CountDownLatch release = new CountDownLatch(1);
+
+    CompletableFuture<String> first =
+        runAsync(
+            bulkhead,
+            new NullProgressMonitor(),
+            () -> {
+              running.countDown();
+              release.await();
+              return "first";
+            });
+    assertTrue(running.await(10, TimeUnit.SECONDS));
+
+    NullProgressMonitor pm = new NullProgressMonitor();
+    CompletableFuture<String> second = runAsync(bulkhead, pm, () -> "second");
+    waitForWaitingCount(bulkhead, 1);
+    pm.setCanceled(true);
+
+    try {
+      second.get(10, TimeUnit.SECONDS);
+      fail("Waiting command is expected to be cancelled");
+    } catch (ExecutionException e) {
+      assertTrue(e.getCause() instanceof OperationCanceledException);
+    }
+    assertEquals(0, bulkhead.getWaitingCount());
+
+    release.countDown();
+    assertEquals("first", first.get(10, TimeUnit.SECONDS));
+  }
+
+  private CompletableFuture<String> runAsync(
+      Bulkhead bulkhead, NullProgressMonitor pm, Callable<String> command) {
+    return CompletableFuture.supplyAsync(
+        () -> {
+          try {
+            return bulkhead.execute("command", pm, command);
+          } catch (RuntimeException e) {
+            throw e;
+          } catch (Exception e) {
+            throw new IllegalStateException(e);
+          }
+        },
+        executor);
+  }
+
+  private static void waitForWaitingCount(Bulkhead bulkhead, int count)
+      throws InterruptedException {
+    long deadline = System.currentTimeMillis() + 10_000;
+    while (bulkhead.getWaitingCount() != count && System.currentTimeMillis() < deadline) {
+      Thread.sleep(10);
+    }
+    assertEquals(count, bulkhead.getWaitingCount());
+  }
+}
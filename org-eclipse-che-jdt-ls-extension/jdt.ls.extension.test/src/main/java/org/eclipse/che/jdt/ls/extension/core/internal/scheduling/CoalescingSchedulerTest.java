@@ -0,0 +1,143 @@
+/*
+ * Copyright (c) 2012-2018 Red Hat, Inc.
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *   Red Hat, Inc. - initial API and implementation
+ */
+package org.eclipse.che.jdt.ls.extension.core.internal.scheduling;
+
+import static java.util.Collections.singletonList;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.eclipse.che.jdt.ls.extension.api.dto.CommandMetricsReport;
+import org.eclipse.che.jdt.ls.extension.core.internal.JobHelpers;
+import org.eclipse.che.jdt.ls.extension.core.internal.metrics.CommandMetrics;
+import org.eclipse.core.runtime.IProgressMonitor;
+import org.eclipse.core.runtime.NullProgressMonitor;
+import org.eclipse.core.runtime.OperationCanceledException;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+public class CoalescingSchedulerTest {
+  private final CoalescingScheduler scheduler = CoalescingScheduler.getInstance();
+  private final ExecutorService executor = Executors.newCachedThreadPool();
+  private final List<Object> arguments = singletonList("file:///project");
+
+  private AtomicInteger computations;
+  private CountDownLatch started;
+  private CountDownLatch release;
+  private IProgressMonitor[] sharedMonitor;
+
+  @Before
+  public void setUp() {
+    JobHelpers.waitForJobsToComplete();
+    CommandMetrics.getInstance().reset();
+    computations = new AtomicInteger();
+    started = new CountDownLatch(1);
+    release = new CountDownLatch(1);
+    sharedMonitor = new IProgressMonitor[1];
+  }
+
+  @After
+  public void tearDown() {
+    executor.shutdownNow();
+  }
+
+  @Test
+  public void shouldShareComputationBetweenIdenticalRequests() throws Exception {
+    CompletableFuture<Object> first = executeAsync(new NullProgressMonitor());
+    assertTrue(started.await(10, TimeUnit.SECONDS));
+    CompletableFuture<Object> second = executeAsync(new NullProgressMonitor());
+    waitUntilJoined();
+
+    release.countDown();
+
+    assertEquals(1, first.get(10, TimeUnit.SECONDS));
+    assertEquals(1, second.get(10, TimeUnit.SECONDS));
+    assertEquals(1, computations.get());
+    assertEquals(0, scheduler.getInFlightCount());
+  }
+
+  @Test
+  public void shouldKeepComputingWhileAnyCallerIsWaiting() throws Exception {
+    NullProgressMonitor firstMonitor = new NullProgressMonitor();
+    NullProgressMonitor secondMonitor = new NullProgressMonitor();
+    CompletableFuture<Object> first = executeAsync(firstMonitor);
+    assertTrue(started.await(10, TimeUnit.SECONDS));
+    CompletableFuture<Object> second = executeAsync(secondMonitor);
+    waitUntilJoined();
+
+    secondMonitor.setCanceled(true);
+    try {
+      second.get(10, TimeUnit.SECONDS);
+      fail("Cancelled caller is expected to stop waiting");
+    } catch (ExecutionException e) {
+      assertTrue(e.getCause() instanceof OperationCanceledException);
+    }
+    assertFalse(sharedMonitor[0].isCanceled());
+
+    firstMonitor.setCanceled(true);
+    assertTrue(sharedMonitor[0].isCanceled());
+
+    release.countDown();
+    first.get(10, TimeUnit.SECONDS);
+  }
+
+  private CompletableFuture<Object> executeAsync(IProgressMonitor pm) {
+    return CompletableFuture.supplyAsync(
+        () -> {
+          try {
+            return scheduler.execute(
+                "command",
+                arguments,
+                pm,
+                monitor -> {
+                  sharedMonitor[0] = monitor;
+                  started.countDown();
+                  release.await();
+                  return computations.incrementAndGet();
+                });
+          } catch (RuntimeException e) {
+            throw e;
+          } catch (Exception e) {
+            throw new IllegalStateException(e);
+          }
+        },
+        executor);
+  }
+
+  private void waitUntilJoined() throws InterruptedException {
+    long deadline = System.currentTimeMillis() + 10_000;
+    while (getCoalesced() == 0 && System.currentTimeMillis() < deadline) {
+      Thread.sleep(10);
+    }
+    assertEquals(1, getCoalesced());
+    assertEquals(1, scheduler.getInFlightCount());
+  }
+
+  private static long getCoalesced() {
+    return CommandMetrics.getInstance()
+        .getReports()
+        .stream()
+        .filter(report -> "command".equals(report.getCommandId()))
+        .mapToLong(CommandMetricsReport::getCoalesced)
+        .sum();
+  }
+}
@@ -0,0 +1,100 @@
+/*
+ * Copyright (c) 2012-2018 Red Hat, Inc.
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *   Red Hat, Inc. - initial API and implementation
+ */
+package org.eclipse.che.jdt.ls.extension.core.internal.scheduling;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import org.eclipse.core.runtime.IProgressMonitor;
+import org.eclipse.core.runtime.NullProgressMonitor;
+import org.eclipse.core.runtime.OperationCanceledException;
+import org.junit.Test;
+
+public class SupersedingSchedulerTest {
+  private final SupersedingScheduler scheduler = SupersedingScheduler.getInstance();
+
+  @Test
+  public void shouldCancelPreviousRequestForTheSameDocument() throws Exception {
+    CountDownLatch started = new CountDownLatch(1);
+    CompletableFuture<String> first =
+        CompletableFuture.supplyAsync(() -> execute("file:///A.java", started));
+    assertTrue(started.await(10, TimeUnit.SECONDS));
+
+    String second = scheduler.execute("command", "file:///A.java", null, pm -> "second");
+
+    assertEquals("second", second);
+    try {
+      first.get(10, TimeUnit.SECONDS);
+      fail("Superseded request is expected to be cancelled");
+    } catch (ExecutionException e) {
+      assertTrue(e.getCause() instanceof OperationCanceledException);
+    }
+    assertEquals(0, scheduler.getInFlightCount());
+  }
+
+  @Test
+  public void shouldNotCancelRequestForOtherDocument() throws Exception {
+    CountDownLatch started = new CountDownLatch(1);
+    IProgressMonitor[] monitor = new IProgressMonitor[1];
+    CompletableFuture<Void> first =
+        CompletableFuture.runAsync(
+            () -> {
+              try {
+                scheduler.execute(
+                    "command",
+                    "file:///A.java",
+                    new NullProgressMonitor(),
+                    pm -> {
+                      monitor[0] = pm;
+                      started.countDown();
+                      Thread.sleep(200);
+                      return null;
+                    });
+              } catch (Exception e) {
+                throw new IllegalStateException(e);
+              }
+            });
+    assertTrue(started.await(10, TimeUnit.SECONDS));
+
+    scheduler.execute("command", "file:///B.java", null, pm -> null);
+    scheduler.execute("otherCommand", "file:///A.java", null, pm -> null);
+
+    assertFalse(monitor[0].isCanceled());
+    first.get(10, TimeUnit.SECONDS);
+  }
+
+  private String execute(String uri, CountDownLatch started) {
+    try {
+      return scheduler.execute(
+          "command",
+          uri,
+          new NullProgressMonitor(),
+          pm -> {
+            started.countDown();
+            while (!pm.isCanceled()) {
+              Thread.sleep(10);
+            }
+            throw new OperationCanceledException();
+          });
+    } catch (OperationCanceledException e) {
+      throw e;
+    } catch (Exception e) {
+      throw new IllegalStateException(e);
+    }
+  }
+}
@@ -0,0 +1,123 @@
+/*
+ * Copyright (c) 2012-2018 Red Hat, Inc.
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *   Red Hat, Inc. - initial API and implementation
+ */
+package org.eclipse.che.jdt.ls.extension.core.internal.testdetection;
+
+import static java.util.Arrays.asList;
+import static java.util.Collections.singletonList;
+import static org.eclipse.che.jdt.ls.extension.core.internal.CommandParameterBinder.toJsonTree;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+
+import java.util.List;
+import org.eclipse.che.jdt.ls.extension.api.dto.TestFramework;
+import org.eclipse.che.jdt.ls.extension.api.dto.TestPosition;
+import org.eclipse.che.jdt.ls.extension.api.dto.TestPositionParameters;
+import org.eclipse.che.jdt.ls.extension.core.internal.AbstractProjectsManagerBasedTest;
+import org.eclipse.che.jdt.ls.extension.core.internal.WorkspaceHelper;
+import org.eclipse.core.resources.IFile;
+import org.eclipse.core.resources.IProject;
+import org.eclipse.jdt.core.ICompilationUnit;
+import org.eclipse.jdt.core.JavaCore;
+import org.eclipse.jdt.core.manipulation.CoreASTProvider;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+public class AstTestDetectorTest extends AbstractProjectsManagerBasedTest {
+  private static final String TEST_ANNOTATION = "org.junit.Test";
+
+  private ICompilationUnit unit;
+  private String fileUri;
+
+  @Before
+  public void setup() throws Exception {
+    importProjects("maven/testproject");
+    IProject project = WorkspaceHelper.getProject("testproject");
+    IFile file = project.getFile("src/test/java/org/eclipse/che/examples/AppOneTest.java");
+    unit = JavaCore.createCompilationUnitFrom(file);
+    fileUri = file.getLocationURI().toString();
+    TestIndex.getInstance().clear();
+  }
+
+  @After
+  public void tearDown() throws Exception {
+    CoreASTProvider.getInstance().setActiveJavaElement(null);
+    if (unit.isWorkingCopy()) {
+      unit.discardWorkingCopy();
+    }
+  }
+
+  @Test
+  public void shouldDetectSameTestsAsModel() throws Exception {
+    List<TestPosition> model = detect(-1, null);
+    openInActiveEditor();
+
+    List<TestPosition> ast = detect(-1, null);
+
+    assertEquals(3, ast.size());
+    assertEquals(toJsonTree(model), toJsonTree(ast));
+  }
+
+  @Test
+  public void shouldDetectTestAtCursor() throws Exception {
+    openInActiveEditor();
+
+    List<TestPosition> result = detect(700, null);
+
+    assertEquals(1, result.size());
+    assertEquals("shouldSuccessOfAppOne", result.get(0).getTestName());
+    assertEquals(673, result.get(0).getTestNameStartOffset());
+    assertEquals(3, detect(0, null).size());
+  }
+
+  @Test
+  public void shouldUseSharedAstOfActiveEditorOnly() throws Exception {
+    List<TestFramework> frameworks = singletonList(new TestFramework(null, TEST_ANNOTATION, null));
+    unit.becomeWorkingCopy(monitor);
+
+    assertNull(AstTestDetector.detect(unit, frameworks, -1, monitor));
+    assertEquals(3, detect(-1, null).size());
+
+    CoreASTProvider.getInstance().setActiveJavaElement(unit);
+
+    assertNotNull(AstTestDetector.detect(unit, frameworks, -1, monitor));
+  }
+
+  @Test
+  public void shouldTagTestsWithResolvedFramework() throws Exception {
+    openInActiveEditor();
+    List<TestFramework> frameworks =
+        asList(
+            new TestFramework("testng", "org.testng.annotations.Test", null),
+            new TestFramework("junit4", TEST_ANNOTATION, null));
+
+    List<TestPosition> result = detect(-1, frameworks);
+
+    assertEquals(3, result.size());
+    for (TestPosition position : result) {
+      assertEquals("junit4", position.getFramework());
+    }
+  }
+
+  private void openInActiveEditor() throws Exception {
+    unit.becomeWorkingCopy(monitor);
+    CoreASTProvider.getInstance().setActiveJavaElement(unit);
+  }
+
+  private List<TestPosition> detect(int cursorOffset, List<TestFramework> frameworks) {
+    TestPositionParameters parameters =
+        new TestPositionParameters(fileUri, TEST_ANNOTATION, cursorOffset);
+    parameters.setFrameworks(frameworks);
+    return TestDetectionHandler.detect(singletonList(parameters), monitor);
+  }
+}
@@ -0,0 +1,79 @@
+/*
+ * Copyright (c) 2012-2018 Red Hat, Inc.
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *   Red Hat, Inc. - initial API and implementation
+ */
+package org.eclipse.che.jdt.ls.extension.core.internal.testdetection;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static java.util.Arrays.asList;
+import static java.util.Collections.singletonList;
+import static org.junit.Assert.assertEquals;
+
+import java.io.ByteArrayInputStream;
+import org.eclipse.che.jdt.ls.extension.core.internal.AbstractProjectsManagerBasedTest;
+import org.eclipse.che.jdt.ls.extension.core.internal.WorkspaceHelper;
+import org.eclipse.core.resources.IFile;
+import org.eclipse.core.resources.IProject;
+import org.junit.Before;
+import org.junit.Test;
+
+public class FqnResolverTest extends AbstractProjectsManagerBasedTest {
+  private static final String TEST_DIRECTORY = "src/test/java/org/eclipse/che/examples/";
+  private static final String MAIN_DIRECTORY = "src/main/java/org/eclipse/che/examples/";
+
+  private IProject project;
+
+  @Before
+  public void setup() throws Exception {
+    importProjects("maven/testproject");
+    project = WorkspaceHelper.getProject("testproject");
+    FqnResolver.getInstance().clear();
+  }
+
+  @Test
+  public void shouldResolveFilesInInputOrder() throws Exception {
+    assertEquals(
+        asList(
+            "org.eclipse.che.examples.AppOneTest",
+            "org.eclipse.che.examples.HelloWorld",
+            "org.eclipse.che.examples.AppAnotherTest"),
+        FqnResolver.getInstance()
+            .resolve(
+                asList(
+                    uri(TEST_DIRECTORY + "AppOneTest.java"),
+                    uri(MAIN_DIRECTORY + "HelloWorld.java"),
+                    uri(TEST_DIRECTORY + "Wrong.java"),
+                    uri(TEST_DIRECTORY + "AppAnotherTest.java")),
+                monitor));
+    assertEquals(3, FqnResolver.getInstance().size());
+  }
+
+  @Test
+  public void shouldDropNameOfChangedFile() throws Exception {
+    IFile file = project.getFile(TEST_DIRECTORY + "AppOneTest.java");
+    String uri = uri(TEST_DIRECTORY + "AppOneTest.java");
+    FqnResolver.getInstance().resolve(singletonList(uri), monitor);
+
+    file.setContents(
+        new ByteArrayInputStream(
+            "package org.eclipse.che.examples;\n\nclass Other {}\n".getBytes(UTF_8)),
+        true,
+        false,
+        monitor);
+    waitForBackgroundJobs();
+
+    assertEquals(0, FqnResolver.getInstance().size());
+    assertEquals(0, FqnResolver.getInstance().resolve(singletonList(uri), monitor).size());
+  }
+
+  private String uri(String path) {
+    return getResourceUriAsString(project.getFile(path).getRawLocationURI());
+  }
+}
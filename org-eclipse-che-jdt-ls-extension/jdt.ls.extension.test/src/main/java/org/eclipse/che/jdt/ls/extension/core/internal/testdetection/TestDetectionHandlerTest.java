@@ -21,6 +21,7 @@ import static org.junit.Assert.assertTrue;
 
 import java.net.URI;
 import java.util.List;
+import org.eclipse.che.jdt.ls.extension.api.dto.TestFramework;
 import org.eclipse.che.jdt.ls.extension.api.dto.TestPosition;
 import org.eclipse.che.jdt.ls.extension.api.dto.TestPositionParameters;
 import org.eclipse.che.jdt.ls.extension.core.internal.AbstractProjectsManagerBasedTest;
@@ -100,6 +101,23 @@ public class TestDetectionHandlerTest extends AbstractProjectsManagerBasedTest {
     assertEquals(104, testPosition.getTestBodyLength());
   }
 
+  @Test
+  public void shouldDetectTestsOfSeveralFrameworks() throws Exception {
+    String fileURI = createFileUri("src/test/java/org/eclipse/che/examples/AppOneTest.java");
+
+    TestPositionParameters arguments = new TestPositionParameters(fileURI, null, -1);
+    arguments.setFrameworks(
+        asList(
+            new TestFramework("testng", "org.testng.annotations.Test", null),
+            new TestFramework("junit4", "org.junit.Test", "org.junit.runner.RunWith")));
+
+    List<TestPosition> result = detect(singletonList(arguments), new NullProgressMonitor());
+    assertEquals(3, result.size());
+    for (TestPosition position : result) {
+      assertEquals("junit4", position.getFramework());
+    }
+  }
+
   private String createFileUri(String file) {
     URI uri = project.getFile(file).getRawLocationURI();
     return getResourceUriAsString(uri);
@@ -23,8 +23,16 @@ import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertThat;
 
 import java.net.URI;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
 import org.eclipse.che.jdt.ls.extension.api.dto.TestFindParameters;
+import org.eclipse.che.jdt.ls.extension.api.dto.TestFindStreamParameters;
+import org.eclipse.che.jdt.ls.extension.api.dto.TestFramework;
+import org.eclipse.che.jdt.ls.extension.api.dto.TestsPartialResult;
+import org.eclipse.che.jdt.ls.extension.api.dto.TestsSummary;
 import org.eclipse.che.jdt.ls.extension.core.internal.AbstractProjectsManagerBasedTest;
 import org.eclipse.che.jdt.ls.extension.core.internal.WorkspaceHelper;
 import org.eclipse.core.resources.IProject;
@@ -127,6 +135,97 @@ public class TestFinderHandlerTest extends AbstractProjectsManagerBasedTest {
     assertThat(espected, hasItems(result.get(0), result.get(1), result.get(2)));
   }
 
+  @Test
+  public void testClassesOfSeveralFrameworksShouldBeFoundInTheProject() throws Exception {
+    String projectUri = getResourceUriAsString(project.getRawLocationURI());
+
+    TestFindParameters params = new TestFindParameters(projectUri, null, null, 0, emptyList());
+    params.setFrameworks(
+        asList(
+            new TestFramework("junit4", TEST_METHOD_ANNOTATION, TEST_CLASS_ANNOTATION),
+            new TestFramework("testng", "org.testng.annotations.Test", null)));
+
+    Map<String, List<String>> result =
+        TestFinderHandler.getClassesByFramework(
+            singletonList(params), new NullProgressMonitor());
+    assertEquals(3, result.get("junit4").size());
+    assertEquals(emptyList(), result.get("testng"));
+  }
+
+  @Test
+  public void testClassesShouldBeStreamedFromTheProject() throws Exception {
+    String projectUri = getResourceUriAsString(project.getRawLocationURI());
+    TestFindStreamParameters params =
+        new TestFindStreamParameters(
+            "request", projectUri, TEST_METHOD_ANNOTATION, TEST_CLASS_ANNOTATION);
+    List<TestsPartialResult> partialResults = new ArrayList<>();
+
+    TestsSummary summary =
+        TestFinderHandler.streamClasses(
+            singletonList(params), new NullProgressMonitor(), partialResults::add);
+
+    assertEquals("request", summary.getRequestId());
+    assertEquals(3, summary.getTestClassCount());
+    Set<String> streamed = new TreeSet<>();
+    for (TestsPartialResult partialResult : partialResults) {
+      assertEquals("request", partialResult.getRequestId());
+      streamed.addAll(partialResult.getTestClasses());
+    }
+    assertEquals(
+        new TreeSet<>(
+            asList(
+                "org.eclipse.che.examples.AppOneTest",
+                "org.eclipse.che.examples.Junit4TestSuite",
+                "org.eclipse.che.examples.AppAnotherTest")),
+        streamed);
+  }
+
+  @Test
+  public void streamedClassesShouldIncludeSubclassesOfAbstractBase() throws Exception {
+    createFile(
+        project,
+        "src/test/java/org/eclipse/che/examples/BaseTest.java",
+        "package org.eclipse.che.examples;\n\n"
+            + "import org.junit.Test;\n\n"
+            + "public abstract class BaseTest {\n"
+            + "  @Test\n"
+            + "  public void shouldRun() {}\n"
+            + "}\n");
+    createFile(
+        project,
+        "src/test/java/org/eclipse/che/examples/ConcreteTest.java",
+        "package org.eclipse.che.examples;\n\npublic class ConcreteTest extends BaseTest {}\n");
+    // another package is searched in another partition
+    createFile(
+        project,
+        "src/test/java/org/eclipse/che/other/OtherConcreteTest.java",
+        "package org.eclipse.che.other;\n\n"
+            + "public class OtherConcreteTest extends org.eclipse.che.examples.BaseTest {}\n");
+    String projectUri = getResourceUriAsString(project.getRawLocationURI());
+    TestFindStreamParameters params =
+        new TestFindStreamParameters(
+            "request", projectUri, TEST_METHOD_ANNOTATION, TEST_CLASS_ANNOTATION);
+    Set<String> streamed = new TreeSet<>();
+
+    TestFinderHandler.streamClasses(
+        singletonList(params),
+        new NullProgressMonitor(),
+        partialResult -> streamed.addAll(partialResult.getTestClasses()));
+
+    assertThat(
+        streamed,
+        hasItems(
+            "org.eclipse.che.examples.ConcreteTest", "org.eclipse.che.other.OtherConcreteTest"));
+    assertEquals(
+        new TreeSet<>(
+            TestFinderHandler.getClassesFromProject(
+                singletonList(
+                    new TestFindParameters(
+                        projectUri, TEST_METHOD_ANNOTATION, TEST_CLASS_ANNOTATION, 0, emptyList())),
+                new NullProgressMonitor())),
+        streamed);
+  }
+
   private String createFileUri(String file) {
     URI uri = project.getFile(file).getRawLocationURI();
     return getResourceUriAsString(uri);
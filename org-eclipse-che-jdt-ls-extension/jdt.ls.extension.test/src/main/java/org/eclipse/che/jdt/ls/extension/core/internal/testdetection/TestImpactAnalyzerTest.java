@@ -0,0 +1,166 @@
+/*
+ * Copyright (c) 2012-2018 Red Hat, Inc.
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *   Red Hat, Inc. - initial API and implementation
+ */
+package org.eclipse.che.jdt.ls.extension.core.internal.testdetection;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static java.util.Arrays.asList;
+import static java.util.Collections.singletonList;
+import static org.eclipse.che.jdt.ls.extension.core.internal.CommandParameterBinder.toJsonTree;
+import static org.junit.Assert.assertEquals;
+
+import java.io.ByteArrayInputStream;
+import java.util.List;
+import org.eclipse.che.jdt.ls.extension.api.dto.TestImpact;
+import org.eclipse.che.jdt.ls.extension.api.dto.TestImpactParameters;
+import org.eclipse.che.jdt.ls.extension.core.internal.AbstractProjectsManagerBasedTest;
+import org.eclipse.che.jdt.ls.extension.core.internal.WorkspaceHelper;
+import org.eclipse.core.resources.IProject;
+import org.junit.Before;
+import org.junit.Test;
+
+public class TestImpactAnalyzerTest extends AbstractProjectsManagerBasedTest {
+  private static final String TEST_METHOD_ANNOTATION = "org.junit.Test";
+  private static final String TEST_CLASS_ANNOTATION = "org.junit.runner.RunWith";
+  private static final String TEST_DIRECTORY = "src/test/java/org/eclipse/che/examples/";
+  private static final String MAIN_DIRECTORY = "src/main/java/org/eclipse/che/examples/";
+
+  private IProject project;
+
+  @Before
+  public void setup() throws Exception {
+    importProjects("maven/testproject");
+    project = WorkspaceHelper.getProject("testproject");
+    DependencyGraph.getInstance().clear();
+    TestRegistry.getInstance().clear();
+  }
+
+  @Test
+  public void testMethodsReferringToChangedTypeShouldBeImpacted() throws Exception {
+    assertEquals(
+        toJsonTree(
+            asList(
+                new TestImpact(
+                    "org.eclipse.che.examples.AppAnotherTest",
+                    asList("shouldSuccessOfAppAnother", "shouldFailOfAppAnother")),
+                new TestImpact(
+                    "org.eclipse.che.examples.AppOneTest",
+                    asList("shouldSuccessOfAppOne", "shouldFailOfAppOne")),
+                new TestImpact("org.eclipse.che.examples.Junit4TestSuite", null))),
+        toJsonTree(findImpactedTests(MAIN_DIRECTORY + "HelloWorld.java")));
+  }
+
+  @Test
+  public void changedTestClassShouldBeImpactedAsWhole() throws Exception {
+    assertEquals(
+        toJsonTree(
+            asList(
+                new TestImpact("org.eclipse.che.examples.AppOneTest", null),
+                new TestImpact("org.eclipse.che.examples.Junit4TestSuite", null))),
+        toJsonTree(findImpactedTests(TEST_DIRECTORY + "AppOneTest.java")));
+  }
+
+  @Test
+  public void testsShouldNotBeImpactedByUnreferencedType() throws Exception {
+    assertEquals(0, findImpactedTests(MAIN_DIRECTORY + "ParentClass.java").size());
+  }
+
+  @Test
+  public void changedReferencesShouldBeTakenIntoAccount() throws Exception {
+    findImpactedTests(MAIN_DIRECTORY + "HelloWorld.java");
+
+    project
+        .getFile(TEST_DIRECTORY + "AppAnotherTest.java")
+        .setContents(
+            new ByteArrayInputStream(
+                ("package org.eclipse.che.examples;\n\n"
+                        + "public class AppAnotherTest {\n"
+                        + "  @org.junit.Test\n"
+                        + "  public void shouldSuccessOfAppAnother() {}\n"
+                        + "}\n")
+                    .getBytes(UTF_8)),
+            true,
+            false,
+            monitor);
+    waitForBackgroundJobs();
+
+    assertEquals(
+        toJsonTree(
+            asList(
+                new TestImpact(
+                    "org.eclipse.che.examples.AppOneTest",
+                    asList("shouldSuccessOfAppOne", "shouldFailOfAppOne")),
+                new TestImpact("org.eclipse.che.examples.Junit4TestSuite", null))),
+        toJsonTree(findImpactedTests(MAIN_DIRECTORY + "HelloWorld.java")));
+  }
+
+  @Test
+  public void referencesToTypesAddedLaterShouldBeTakenIntoAccount() throws Exception {
+    createFile(
+        project,
+        TEST_DIRECTORY + "FooTest.java",
+        "package org.eclipse.che.examples;\n\n"
+            + "public class FooTest {\n"
+            + "  @org.junit.Test\n"
+            + "  public void shouldFoo() {\n"
+            + "    new Foo();\n"
+            + "  }\n"
+            + "}\n");
+    findImpactedTests(MAIN_DIRECTORY + "HelloWorld.java");
+
+    createFile(
+        project,
+        MAIN_DIRECTORY + "Foo.java",
+        "package org.eclipse.che.examples;\n\npublic class Foo {}\n");
+
+    assertEquals(
+        toJsonTree(
+            singletonList(
+                new TestImpact("org.eclipse.che.examples.FooTest", singletonList("shouldFoo")))),
+        toJsonTree(findImpactedTests(MAIN_DIRECTORY + "Foo.java")));
+  }
+
+  @Test
+  public void nestedTestClassesShouldBeNamedWithBinaryNames() throws Exception {
+    createFile(
+        project,
+        MAIN_DIRECTORY + "Foo.java",
+        "package org.eclipse.che.examples;\n\npublic class Foo {}\n");
+    createFile(
+        project,
+        TEST_DIRECTORY + "OuterTest.java",
+        "package org.eclipse.che.examples;\n\n"
+            + "public class OuterTest {\n"
+            + "  public static class InnerTest {\n"
+            + "    @org.junit.Test\n"
+            + "    public void shouldFoo() {\n"
+            + "      new Foo();\n"
+            + "    }\n"
+            + "  }\n"
+            + "}\n");
+
+    assertEquals(
+        toJsonTree(
+            singletonList(
+                new TestImpact(
+                    "org.eclipse.che.examples.OuterTest$InnerTest", singletonList("shouldFoo")))),
+        toJsonTree(findImpactedTests(MAIN_DIRECTORY + "Foo.java")));
+  }
+
+  private List<TestImpact> findImpactedTests(String path) {
+    TestImpactParameters parameters =
+        new TestImpactParameters(
+            singletonList(getResourceUriAsString(project.getFile(path).getRawLocationURI())),
+            TEST_METHOD_ANNOTATION,
+            TEST_CLASS_ANNOTATION);
+    return TestFinderHandler.getImpactedTests(singletonList(parameters), monitor);
+  }
+}
@@ -0,0 +1,89 @@
+/*
+ * Copyright (c) 2012-2018 Red Hat, Inc.
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *   Red Hat, Inc. - initial API and implementation
+ */
+package org.eclipse.che.jdt.ls.extension.core.internal.testdetection;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+
+import java.io.ByteArrayInputStream;
+import org.eclipse.che.jdt.ls.extension.core.internal.AbstractProjectsManagerBasedTest;
+import org.eclipse.che.jdt.ls.extension.core.internal.WorkspaceHelper;
+import org.eclipse.core.resources.IFile;
+import org.eclipse.core.resources.IProject;
+import org.eclipse.jdt.core.ICompilationUnit;
+import org.eclipse.jdt.core.JavaCore;
+import org.junit.Before;
+import org.junit.Test;
+
+public class TestIndexTest extends AbstractProjectsManagerBasedTest {
+  private static final String TEST_ANNOTATION = "org.junit.Test";
+
+  private IFile file;
+  private ICompilationUnit unit;
+
+  @Before
+  public void setup() throws Exception {
+    importProjects("maven/testproject");
+    IProject project = WorkspaceHelper.getProject("testproject");
+    file = project.getFile("src/test/java/org/eclipse/che/examples/AppOneTest.java");
+    unit = JavaCore.createCompilationUnitFrom(file);
+    TestIndex.getInstance().clear();
+  }
+
+  @Test
+  public void shouldReuseUnchangedUnit() throws Exception {
+    IndexedUnit indexed = TestIndex.getInstance().get(unit, monitor);
+
+    assertSame(indexed, TestIndex.getInstance().get(unit, monitor));
+    assertEquals(1, TestIndex.getInstance().size());
+    assertEquals("org.eclipse.che.examples.AppOneTest", indexed.getPrimaryType());
+    assertEquals(3, indexed.getTests(TEST_ANNOTATION).size());
+  }
+
+  @Test
+  public void shouldFindMethodAtOffset() throws Exception {
+    IndexedUnit indexed = TestIndex.getInstance().get(unit, monitor);
+
+    IndexedUnit.Method method = indexed.getMethodAt(700);
+    assertEquals("shouldSuccessOfAppOne", method.getName());
+    assertEquals(673, method.toTestPosition().getTestNameStartOffset());
+    assertNull(indexed.getMethodAt(0));
+  }
+
+  @Test
+  public void shouldDropChangedUnit() throws Exception {
+    IndexedUnit indexed = TestIndex.getInstance().get(unit, monitor);
+
+    file.setContents(
+        new ByteArrayInputStream(
+            ("package org.eclipse.che.examples;\n\n"
+                    + "import org.junit.Test;\n\n"
+                    + "public class AppOneTest {\n"
+                    + "  @Test\n"
+                    + "  public void shouldRun() {}\n"
+                    + "}\n")
+                .getBytes(UTF_8)),
+        true,
+        false,
+        monitor);
+    waitForBackgroundJobs();
+
+    assertEquals(0, TestIndex.getInstance().size());
+    IndexedUnit changed = TestIndex.getInstance().get(unit, monitor);
+    assertNotSame(indexed, changed);
+    assertEquals(1, changed.getTests(TEST_ANNOTATION).size());
+    assertEquals("shouldRun", changed.getTests(TEST_ANNOTATION).get(0).getTestName());
+  }
+}
@@ -0,0 +1,232 @@
+/*
+ * Copyright (c) 2012-2018 Red Hat, Inc.
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *   Red Hat, Inc. - initial API and implementation
+ */
+package org.eclipse.che.jdt.ls.extension.core.internal.testdetection;
+
+import static org.hamcrest.CoreMatchers.hasItems;
+import static org.hamcrest.CoreMatchers.not;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.assertTrue;
+
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import org.eclipse.che.jdt.ls.extension.core.internal.AbstractProjectsManagerBasedTest;
+import org.eclipse.che.jdt.ls.extension.core.internal.WorkspaceHelper;
+import org.eclipse.core.resources.IFile;
+import org.eclipse.core.resources.IProject;
+import org.eclipse.core.runtime.NullProgressMonitor;
+import org.eclipse.jdt.core.ICompilationUnit;
+import org.eclipse.jdt.core.IJavaProject;
+import org.eclipse.jdt.core.JavaCore;
+import org.junit.Before;
+import org.junit.Test;
+
+public class TestRegistryTest extends AbstractProjectsManagerBasedTest {
+  private static final String TEST_METHOD_ANNOTATION = "org.junit.Test";
+  private static final String TEST_CLASS_ANNOTATION = "org.junit.runner.RunWith";
+  private static final String PACKAGE_PATH = "src/test/java/org/eclipse/che/examples/";
+
+  private IProject project;
+  private IJavaProject javaProject;
+
+  @Before
+  public void setup() throws Exception {
+    importProjects("maven/testproject");
+    project = WorkspaceHelper.getProject("testproject");
+    javaProject = JavaCore.create(project);
+    TestRegistry.getInstance().clear();
+  }
+
+  @Test
+  public void shouldFindAnnotatedClasses() throws Exception {
+    List<String> tests = findTestClasses();
+
+    assertEquals(3, tests.size());
+    assertThat(
+        tests,
+        hasItems(
+            "org.eclipse.che.examples.AppOneTest",
+            "org.eclipse.che.examples.Junit4TestSuite",
+            "org.eclipse.che.examples.AppAnotherTest"));
+  }
+
+  @Test
+  public void shouldFindSubclassesOfAbstractBaseAddedLater() throws Exception {
+    findTestClasses();
+
+    createFile(
+        project,
+        PACKAGE_PATH + "BaseTest.java",
+        "package org.eclipse.che.examples;\n\n"
+            + "import org.junit.Test;\n\n"
+            + "public abstract class BaseTest {\n"
+            + "  @Test\n"
+            + "  public void shouldRun() {}\n"
+            + "}\n");
+    createFile(
+        project,
+        PACKAGE_PATH + "ConcreteTest.java",
+        "package org.eclipse.che.examples;\n\npublic class ConcreteTest extends BaseTest {}\n");
+    List<String> tests = findTestClasses();
+
+    assertEquals(4, tests.size());
+    assertThat(tests, hasItems("org.eclipse.che.examples.ConcreteTest"));
+    assertThat(tests, not(hasItems("org.eclipse.che.examples.BaseTest")));
+  }
+
+  @Test
+  public void shouldFindSubclassesOfBaseAddedToExistingUnit() throws Exception {
+    IFile helpers =
+        createFile(
+            project,
+            PACKAGE_PATH + "Helpers.java",
+            "package org.eclipse.che.examples;\n\nclass Helpers {}\n");
+    createFile(
+        project,
+        PACKAGE_PATH + "ConcreteTest.java",
+        "package org.eclipse.che.examples;\n\npublic class ConcreteTest extends BaseTest {}\n");
+    assertThat(findTestClasses(), not(hasItems("org.eclipse.che.examples.ConcreteTest")));
+
+    ICompilationUnit unit = JavaCore.createCompilationUnitFrom(helpers);
+    unit.becomeWorkingCopy(monitor);
+    try {
+      unit.getBuffer()
+          .append(
+              "\nabstract class BaseTest {\n  @org.junit.Test\n  public void shouldRun() {}\n}\n");
+      unit.reconcile(ICompilationUnit.NO_AST, false, null, monitor);
+
+      assertThat(findTestClasses(), hasItems("org.eclipse.che.examples.ConcreteTest"));
+    } finally {
+      unit.discardWorkingCopy();
+    }
+  }
+
+  @Test
+  public void shouldNameNestedClassesWithBinaryNames() throws Exception {
+    createFile(
+        project,
+        PACKAGE_PATH + "OuterTest.java",
+        "package org.eclipse.che.examples;\n\n"
+            + "public class OuterTest {\n"
+            + "  public static class InnerTest {\n"
+            + "    @org.junit.Test\n"
+            + "    public void shouldRun() {}\n"
+            + "  }\n"
+            + "}\n");
+    createFile(
+        project,
+        PACKAGE_PATH + "SubTest.java",
+        "package org.eclipse.che.examples;\n\n"
+            + "public class SubTest extends OuterTest.InnerTest {}\n");
+    List<String> tests = findTestClasses();
+
+    assertThat(
+        tests,
+        hasItems(
+            "org.eclipse.che.examples.OuterTest$InnerTest", "org.eclipse.che.examples.SubTest"));
+    assertThat(tests, not(hasItems("org.eclipse.che.examples.OuterTest.InnerTest")));
+  }
+
+  @Test
+  public void shouldForgetRemovedClasses() throws Exception {
+    findTestClasses();
+
+    project.getFile(PACKAGE_PATH + "AppOneTest.java").delete(true, monitor);
+    waitForBackgroundJobs();
+    List<String> tests = findTestClasses();
+
+    assertEquals(2, tests.size());
+    assertThat(tests, not(hasItems("org.eclipse.che.examples.AppOneTest")));
+  }
+
+  @Test
+  public void concurrentCallerShouldWaitForTheFirstRead() throws Exception {
+    TestRegistry registry = new TestRegistry();
+    CountDownLatch reading = new CountDownLatch(1);
+    CountDownLatch waiting = new CountDownLatch(1);
+    CountDownLatch release = new CountDownLatch(1);
+    ExecutorService executor = Executors.newFixedThreadPool(2);
+    try {
+      Future<List<String>> first =
+          executor.submit(
+              () ->
+                  registry.findTestClasses(
+                      javaProject,
+                      TEST_METHOD_ANNOTATION,
+                      TEST_CLASS_ANNOTATION,
+                      new SignallingMonitor(reading, release)));
+      assertTrue(reading.await(10, TimeUnit.SECONDS));
+      Future<List<String>> second =
+          executor.submit(
+              () ->
+                  registry.findTestClasses(
+                      javaProject,
+                      TEST_METHOD_ANNOTATION,
+                      TEST_CLASS_ANNOTATION,
+                      new SignallingMonitor(waiting, null)));
+      // the second caller checks its monitor while it waits, unless it does not wait at all
+      waiting.await(1, TimeUnit.SECONDS);
+      release.countDown();
+
+      assertEquals(3, first.get(10, TimeUnit.SECONDS).size());
+      assertEquals(3, second.get(10, TimeUnit.SECONDS).size());
+    } finally {
+      release.countDown();
+      executor.shutdownNow();
+    }
+  }
+
+  @Test
+  public void shouldResolveAnnotationNames() {
+    String[] imports = {"org.junit.*"};
+
+    assertTrue(TestRegistry.refersTo("Test", "org.junit.Test", "a.b", imports));
+    assertTrue(TestRegistry.refersTo("org.junit.Test", "org.junit.Test", "a.b", new String[0]));
+    assertTrue(TestRegistry.refersTo("Test", "org.junit.Test", "org.junit", new String[0]));
+    assertFalse(TestRegistry.refersTo("Test", "org.junit.Test", "a.b", new String[0]));
+    assertFalse(TestRegistry.refersTo("Ignore", "org.junit.Test", "a.b", imports));
+  }
+
+  private List<String> findTestClasses() throws Exception {
+    return TestRegistry.getInstance()
+        .findTestClasses(javaProject, TEST_METHOD_ANNOTATION, TEST_CLASS_ANNOTATION, monitor);
+  }
+
+  /** Monitor signalling that it has been checked, the checks block until it is released. */
+  private static class SignallingMonitor extends NullProgressMonitor {
+    private final CountDownLatch checked;
+    private final CountDownLatch release;
+
+    SignallingMonitor(CountDownLatch checked, CountDownLatch release) {
+      this.checked = checked;
+      this.release = release;
+    }
+
+    @Override
+    public boolean isCanceled() {
+      checked.countDown();
+      if (release != null) {
+        try {
+          release.await(10, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+          Thread.currentThread().interrupt();
+        }
+      }
+      return false;
+    }
+  }
+}
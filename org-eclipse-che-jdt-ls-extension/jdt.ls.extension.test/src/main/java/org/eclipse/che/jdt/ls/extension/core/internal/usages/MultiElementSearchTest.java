@@ -0,0 +1,70 @@
+/*
+ * Copyright (c) 2012-2018 Red Hat, Inc.
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *   Red Hat, Inc. - initial API and implementation
+ */
+package org.eclipse.che.jdt.ls.extension.core.internal.usages;
+
+import static java.util.Arrays.asList;
+import static org.junit.Assert.assertEquals;
+
+import java.util.List;
+import java.util.Map;
+import org.eclipse.che.jdt.ls.extension.core.internal.AbstractProjectsManagerBasedTest;
+import org.eclipse.che.jdt.ls.extension.core.internal.WorkspaceHelper;
+import org.eclipse.core.resources.IProject;
+import org.eclipse.jdt.core.IJavaElement;
+import org.eclipse.jdt.core.IType;
+import org.eclipse.jdt.core.JavaCore;
+import org.eclipse.jdt.core.search.SearchMatch;
+import org.junit.Before;
+import org.junit.Test;
+
+public class MultiElementSearchTest extends AbstractProjectsManagerBasedTest {
+  private IProject project;
+
+  @Before
+  public void setup() throws Exception {
+    importProjects("maven/usages");
+    project = WorkspaceHelper.getProject("usages");
+  }
+
+  @Test
+  public void shouldAttributeSuperConstructorCallToConstructor() throws Exception {
+    createFile(
+        project,
+        "src/main/java/pkg1/Base.java",
+        "package pkg1;\n\n"
+            + "public class Base {\n"
+            + "  public Base(int value) {}\n\n"
+            + "  public static int bar() {\n"
+            + "    return 0;\n"
+            + "  }\n"
+            + "}\n");
+    createFile(
+        project,
+        "src/main/java/pkg1/Sub.java",
+        "package pkg1;\n\n"
+            + "class Sub extends Base {\n"
+            + "  Sub() {\n"
+            + "    super(bar());\n"
+            + "  }\n"
+            + "}\n");
+    IType base = JavaCore.create(project).findType("pkg1.Base");
+    IJavaElement constructor = base.getMethod("Base", new String[] {"I"});
+    IJavaElement bar = base.getMethod("bar", new String[0]);
+    List<IJavaElement> elements = asList(constructor, bar);
+
+    Map<IJavaElement, List<SearchMatch>> matches =
+        MultiElementSearch.search(elements, SearchScopes.referencesScope(elements, false), monitor);
+
+    assertEquals(1, matches.get(constructor).size());
+    assertEquals(1, matches.get(bar).size());
+  }
+}
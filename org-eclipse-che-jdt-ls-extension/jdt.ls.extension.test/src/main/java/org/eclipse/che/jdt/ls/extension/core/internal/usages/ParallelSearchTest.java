@@ -0,0 +1,128 @@
+/*
+ * Copyright (c) 2012-2018 Red Hat, Inc.
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *   Red Hat, Inc. - initial API and implementation
+ */
+package org.eclipse.che.jdt.ls.extension.core.internal.usages;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import org.eclipse.che.jdt.ls.extension.core.internal.AbstractProjectsManagerBasedTest;
+import org.eclipse.che.jdt.ls.extension.core.internal.WorkspaceHelper;
+import org.eclipse.che.jdt.ls.extension.generator.WorkspaceGenerator;
+import org.eclipse.core.runtime.NullProgressMonitor;
+import org.eclipse.core.runtime.OperationCanceledException;
+import org.eclipse.jdt.core.IJavaElement;
+import org.eclipse.jdt.core.IType;
+import org.eclipse.jdt.core.JavaCore;
+import org.eclipse.jdt.core.search.IJavaSearchConstants;
+import org.eclipse.jdt.core.search.IJavaSearchScope;
+import org.eclipse.jdt.core.search.SearchEngine;
+import org.eclipse.jdt.core.search.SearchMatch;
+import org.eclipse.jdt.core.search.SearchParticipant;
+import org.eclipse.jdt.core.search.SearchPattern;
+import org.eclipse.jdt.core.search.SearchRequestor;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+public class ParallelSearchTest extends AbstractProjectsManagerBasedTest {
+  private ParallelSearch parallelSearch = new ParallelSearch(4);
+  private SearchPattern pattern;
+  private IJavaSearchScope scope;
+
+  @Before
+  public void setup() throws Exception {
+    importGeneratedProjects(
+        new WorkspaceGenerator("generated")
+            .modules(2)
+            .packages(3)
+            .classesPerPackage(4)
+            .testRatio(0)
+            .dependencyJars(1));
+    IType root =
+        JavaCore.create(WorkspaceHelper.getProject("generated-0"))
+            .findType(WorkspaceGenerator.ROOT_CLASS);
+    pattern = SearchPattern.createPattern(root, IJavaSearchConstants.REFERENCES);
+    scope = SearchScopes.referencesScope(root, false);
+  }
+
+  @After
+  public void shutdown() {
+    parallelSearch.shutdown();
+  }
+
+  @Test
+  public void shouldFindSameMatchesAsSerialSearch() throws Exception {
+    List<String> serial = new ArrayList<>();
+    new SearchEngine()
+        .search(
+            pattern,
+            new SearchParticipant[] {SearchEngine.getDefaultSearchParticipant()},
+            scope,
+            new SearchRequestor() {
+              @Override
+              public void acceptSearchMatch(SearchMatch match) {
+                serial.add(describe(match));
+              }
+            },
+            new NullProgressMonitor());
+
+    List<String> parallel = describe(parallelSearch.search(pattern, scope, null));
+
+    assertTrue(parallel.size() >= 24);
+    assertEquals(serial.size(), parallel.size());
+    assertEquals(new HashSet<>(serial), new HashSet<>(parallel));
+    assertEquals(parallel, describe(parallelSearch.search(pattern, scope, null)));
+  }
+
+  @Test
+  public void shouldPartitionEveryPackageOnce() throws Exception {
+    Set<IJavaElement> partitioned = new HashSet<>();
+    int count = 0;
+    for (IJavaElement[] partition : ParallelSearch.partition(scope, 4)) {
+      for (IJavaElement element : partition) {
+        assertTrue(scope.encloses(element));
+        partitioned.add(element);
+        count++;
+      }
+    }
+    assertEquals(partitioned.size(), count);
+    for (int p = 0; p < 6; p++) {
+      String name = WorkspaceGenerator.BASE_PACKAGE + p;
+      assertTrue(
+          name + " is not searched",
+          partitioned.stream().anyMatch(element -> name.equals(element.getElementName())));
+    }
+  }
+
+  @Test(expected = OperationCanceledException.class)
+  public void shouldStopWhenCancelled() throws Exception {
+    NullProgressMonitor monitor = new NullProgressMonitor();
+    monitor.setCanceled(true);
+    parallelSearch.search(pattern, scope, monitor);
+  }
+
+  private static List<String> describe(List<SearchMatch> matches) {
+    List<String> described = new ArrayList<>();
+    for (SearchMatch match : matches) {
+      described.add(describe(match));
+    }
+    return described;
+  }
+
+  private static String describe(SearchMatch match) {
+    return ((IJavaElement) match.getElement()).getHandleIdentifier() + "@" + match.getOffset();
+  }
+}
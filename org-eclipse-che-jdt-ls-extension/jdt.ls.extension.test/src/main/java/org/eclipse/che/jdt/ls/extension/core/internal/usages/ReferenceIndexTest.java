@@ -0,0 +1,298 @@
+/*
+ * Copyright (c) 2012-2018 Red Hat, Inc.
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *   Red Hat, Inc. - initial API and implementation
+ */
+package org.eclipse.che.jdt.ls.extension.core.internal.usages;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static java.util.Collections.singletonList;
+import static org.eclipse.che.jdt.ls.extension.core.internal.CommandParameterBinder.toJsonTree;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.util.List;
+import org.eclipse.che.jdt.ls.extension.api.dto.LinearRange;
+import org.eclipse.che.jdt.ls.extension.api.dto.UsagesDelta;
+import org.eclipse.che.jdt.ls.extension.api.dto.UsagesResponse;
+import org.eclipse.che.jdt.ls.extension.core.internal.AbstractProjectsManagerBasedTest;
+import org.eclipse.che.jdt.ls.extension.core.internal.UsagesCommand;
+import org.eclipse.che.jdt.ls.extension.core.internal.WorkspaceHelper;
+import org.eclipse.core.resources.IFile;
+import org.eclipse.core.resources.IFolder;
+import org.eclipse.core.resources.IProject;
+import org.eclipse.core.resources.ISaveContext;
+import org.eclipse.core.resources.ISavedState;
+import org.eclipse.core.runtime.NullProgressMonitor;
+import org.eclipse.jdt.core.ElementChangedEvent;
+import org.eclipse.jdt.core.IType;
+import org.eclipse.jdt.core.JavaCore;
+import org.eclipse.lsp4j.Position;
+import org.eclipse.lsp4j.TextDocumentIdentifier;
+import org.eclipse.lsp4j.TextDocumentPositionParams;
+import org.junit.Before;
+import org.junit.Test;
+
+public class ReferenceIndexTest extends AbstractProjectsManagerBasedTest {
+  private IProject project;
+  private IType searched;
+
+  @Before
+  public void setup() throws Exception {
+    importProjects("maven/usages");
+    project = WorkspaceHelper.getProject("usages");
+    searched = JavaCore.create(project).findType("pkg1.AInterface");
+    ReferenceIndex.getInstance().clear();
+  }
+
+  @Test
+  public void shouldAnswerRepeatedSearchFromIndex() throws Exception {
+    UsagesResponse first = findUsages();
+
+    List<IndexedMatch> indexed = ReferenceIndex.getInstance().get(searched, false);
+    assertNotNull(indexed);
+    assertEquals(1, indexed.size());
+    assertEquals(toJsonTree(first), toJsonTree(findUsages()));
+  }
+
+  @Test
+  public void shouldKeepEntriesOfSearchesWithAndWithoutJREApart() throws Exception {
+    findUsages();
+
+    assertNotNull(ReferenceIndex.getInstance().get(searched, false));
+    assertNull(ReferenceIndex.getInstance().get(searched, true));
+  }
+
+  @Test
+  public void shouldInvalidateEntryWhenReferencingUnitChanges() throws Exception {
+    findUsages();
+
+    setContents(
+        project.getFile("src/main/java/pkg1/AClass.java"),
+        "package pkg1;\n\npublic class AClass {\n  public void doStuff() {}\n}\n");
+
+    assertNull(ReferenceIndex.getInstance().get(searched, false));
+    assertEquals(0, findUsages().getSearchResults().size());
+  }
+
+  @Test
+  public void shouldInvalidateEntryWhenUnitStartsToReferenceElement() throws Exception {
+    findUsages();
+
+    setContents(
+        project.getFile("src/main/java/pkg1/AMain.java"),
+        "package pkg1;\n\npublic class AMain {\n  AInterface field;\n}\n");
+
+    assertNull(ReferenceIndex.getInstance().get(searched, false));
+  }
+
+  @Test
+  public void shouldKeepEntryWhenUnrelatedUnitChanges() throws Exception {
+    findUsages();
+
+    setContents(
+        project.getFile("src/main/java/pkg1/AMain.java"),
+        "package pkg1;\n\npublic class AMain {\n  int field;\n}\n");
+
+    assertNotNull(ReferenceIndex.getInstance().get(searched, false));
+  }
+
+  @Test
+  public void shouldInvalidateEntryWhenReferencingPackageIsRemoved() throws Exception {
+    IFolder folder = project.getFolder("src/main/java/pkg3");
+    folder.create(true, true, monitor);
+    folder
+        .getFile("Ref.java")
+        .create(
+            new ByteArrayInputStream(
+                "package pkg3;\n\nclass Ref {\n  pkg1.AInterface field;\n}\n".getBytes(UTF_8)),
+            true,
+            monitor);
+    waitForBackgroundJobs();
+    assertEquals(2, findUsages().getSearchResults().size());
+    assertNotNull(ReferenceIndex.getInstance().get(searched, false));
+
+    folder.delete(true, monitor);
+    waitForBackgroundJobs();
+
+    assertNull(ReferenceIndex.getInstance().get(searched, false));
+    assertEquals(1, findUsages().getSearchResults().size());
+  }
+
+  @Test
+  public void shouldRefreshChangedUnitsOnly() throws Exception {
+    findUsages();
+
+    setContents(
+        project.getFile("src/main/java/pkg1/AClass.java"),
+        "package pkg1;\n\npublic class AClass {\n  public void doStuff() {}\n}\n");
+    setContents(
+        project.getFile("src/main/java/pkg1/AMain.java"),
+        "package pkg1;\n\npublic class AMain {\n  AInterface field;\n}\n");
+    UsagesDelta delta = UsagesCommand.refresh(singletonList(parameter()), monitor);
+
+    assertFalse(delta.isReset());
+    assertEquals(1, delta.getMatchCount());
+    assertEquals(1, delta.getRemoved().size());
+    assertEquals("AClass.java", delta.getRemoved().get(0).getName());
+    assertEquals(singletonList(new LinearRange(46, 10)), delta.getRemoved().get(0).getMatches());
+    assertEquals(1, delta.getAdded().size());
+    List<IndexedMatch> indexed = ReferenceIndex.getInstance().get(searched, false);
+    assertNotNull(indexed);
+    assertEquals(38, indexed.get(0).getOffset());
+  }
+
+  @Test
+  public void shouldResetRefreshWhenOverloadIsAdded() throws Exception {
+    IFile overloads =
+        createFile(
+            project,
+            "src/main/java/pkg1/Overloads.java",
+            "package pkg1;\n\npublic class Overloads {\n  public void m(Object o) {}\n}\n");
+    createFile(
+        project,
+        "src/main/java/pkg1/Caller.java",
+        "package pkg1;\n\n"
+            + "class Caller {\n"
+            + "  void call() {\n"
+            + "    new Overloads().m(\"x\");\n"
+            + "  }\n"
+            + "}\n");
+    TextDocumentPositionParams position = parameter(overloads, new Position(3, 14));
+    assertEquals(
+        1, UsagesCommand.execute(singletonList(position), monitor).get(0).getMatchCount());
+
+    // the call in the unchanged caller binds to the new overload
+    setContents(
+        overloads,
+        "package pkg1;\n\n"
+            + "public class Overloads {\n"
+            + "  public void m(Object o) {}\n\n"
+            + "  public void m(String s) {}\n"
+            + "}\n");
+    UsagesDelta delta = UsagesCommand.refresh(singletonList(position), monitor);
+
+    assertTrue(delta.isReset());
+    assertEquals(0, delta.getMatchCount());
+  }
+
+  @Test
+  public void shouldResetRefreshWithoutPreviousResult() throws Exception {
+    UsagesDelta delta = UsagesCommand.refresh(singletonList(parameter()), monitor);
+
+    assertTrue(delta.isReset());
+    assertEquals(1, delta.getMatchCount());
+    assertEquals(0, delta.getRemoved().size());
+  }
+
+  @Test
+  public void shouldRestoreSavedIndex() throws Exception {
+    File file = new File(getWorkingProjectDirectory(), "usages-index.json");
+    ISavedState savedState = mock(ISavedState.class);
+    List<IndexedMatch> matches =
+        singletonList(IndexedMatch.of(searched.getCompilationUnit(), 10, 5));
+    ReferenceIndex saved = new ReferenceIndex(16);
+    saved.load(file, savedState);
+    saved.put(searched, false, matches, saved.getSequence());
+    saved.save();
+
+    ReferenceIndex loaded = new ReferenceIndex(16);
+    loaded.load(file, savedState);
+
+    assertEquals(matches, loaded.get(searched, false));
+  }
+
+  @Test
+  public void shouldRestoreIndexInBackground() throws Exception {
+    File file = new File(getWorkingProjectDirectory(), "usages-index.json");
+    ISavedState savedState = mock(ISavedState.class);
+    List<IndexedMatch> matches =
+        singletonList(IndexedMatch.of(searched.getCompilationUnit(), 10, 5));
+    ReferenceIndex saved = new ReferenceIndex(16);
+    saved.load(file, savedState);
+    saved.put(searched, false, matches, saved.getSequence());
+    saved.save();
+
+    ReferenceIndex loaded = new ReferenceIndex(16);
+    loaded.scheduleLoad(file, savedState).join();
+
+    assertEquals(matches, loaded.get(searched, false));
+  }
+
+  @Test
+  public void shouldSaveIndexOnSnapshot() throws Exception {
+    File file = new File(getWorkingProjectDirectory(), "usages-index.json");
+    ISavedState savedState = mock(ISavedState.class);
+    IType referencing = JavaCore.create(project).findType("pkg1.AClass");
+    ReferenceIndex saved = new ReferenceIndex(16);
+    saved.load(file, savedState);
+    saved.put(
+        searched, false, singletonList(IndexedMatch.of(referencing, 46, 10)), saved.getSequence());
+    saved.save();
+    JavaCore.addElementChangedListener(saved, ElementChangedEvent.POST_CHANGE);
+    try {
+      setContents(
+          project.getFile("src/main/java/pkg1/AClass.java"),
+          "package pkg1;\n\npublic class AClass {\n  public void doStuff() {}\n}\n");
+    } finally {
+      JavaCore.removeElementChangedListener(saved);
+    }
+    ISaveContext snapshot = mock(ISaveContext.class);
+    when(snapshot.getKind()).thenReturn(ISaveContext.SNAPSHOT);
+    saved.saving(snapshot);
+    verify(snapshot).needDelta();
+
+    // the delta of the saved state starts at the snapshot, it does not contain the change
+    ReferenceIndex loaded = new ReferenceIndex(16);
+    loaded.load(file, savedState);
+
+    assertNull(loaded.get(searched, false));
+  }
+
+  @Test
+  public void shouldDiscardSavedIndexWithoutSavedState() throws Exception {
+    File file = new File(getWorkingProjectDirectory(), "usages-index.json");
+    ReferenceIndex saved = new ReferenceIndex(16);
+    saved.load(file, mock(ISavedState.class));
+    saved.put(
+        searched, false, singletonList(IndexedMatch.of(searched, 10, 5)), saved.getSequence());
+    saved.save();
+
+    ReferenceIndex loaded = new ReferenceIndex(16);
+    loaded.load(file, null);
+
+    assertNull(loaded.get(searched, false));
+  }
+
+  private UsagesResponse findUsages() {
+    return UsagesCommand.execute(singletonList(parameter()), new NullProgressMonitor()).get(0);
+  }
+
+  private TextDocumentPositionParams parameter() {
+    return parameter(project.getFile("src/main/java/pkg1/AInterface.java"), new Position(2, 22));
+  }
+
+  private TextDocumentPositionParams parameter(IFile file, Position position) {
+    String uri = file.getLocationURI().toString();
+    return new TextDocumentPositionParams(new TextDocumentIdentifier(uri), position);
+  }
+
+  private void setContents(IFile file, String contents) throws Exception {
+    file.setContents(new ByteArrayInputStream(contents.getBytes(UTF_8)), true, false, monitor);
+    waitForBackgroundJobs();
+  }
+}
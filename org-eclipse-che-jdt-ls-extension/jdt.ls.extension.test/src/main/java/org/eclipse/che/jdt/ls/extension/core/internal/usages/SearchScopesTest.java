@@ -0,0 +1,89 @@
+/*
+ * Copyright (c) 2012-2018 Red Hat, Inc.
+ * This program and the accompanying materials are made
+ * available under the terms of the Eclipse Public License 2.0
+ * which is available at https://www.eclipse.org/legal/epl-2.0/
+ *
+ * SPDX-License-Identifier: EPL-2.0
+ *
+ * Contributors:
+ *   Red Hat, Inc. - initial API and implementation
+ */
+package org.eclipse.che.jdt.ls.extension.core.internal.usages;
+
+import static java.util.Arrays.asList;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.HashSet;
+import org.eclipse.che.jdt.ls.extension.core.internal.AbstractProjectsManagerBasedTest;
+import org.eclipse.che.jdt.ls.extension.core.internal.WorkspaceHelper;
+import org.eclipse.che.jdt.ls.extension.generator.WorkspaceGenerator;
+import org.eclipse.core.resources.ResourcesPlugin;
+import org.eclipse.jdt.core.IJavaProject;
+import org.eclipse.jdt.core.IType;
+import org.eclipse.jdt.core.JavaCore;
+import org.eclipse.jdt.core.search.IJavaSearchScope;
+import org.junit.Before;
+import org.junit.Test;
+
+public class SearchScopesTest extends AbstractProjectsManagerBasedTest {
+  private IJavaProject[] modules = new IJavaProject[3];
+
+  @Before
+  public void setup() throws Exception {
+    importGeneratedProjects(
+        new WorkspaceGenerator("generated")
+            .modules(3)
+            .packages(1)
+            .classesPerPackage(2)
+            .testRatio(0)
+            .dependencyJars(1));
+    for (int m = 0; m < modules.length; m++) {
+      modules[m] = JavaCore.create(WorkspaceHelper.getProject("generated-" + m));
+    }
+  }
+
+  @Test
+  public void shouldComputeReverseDependencyClosure() throws Exception {
+    IJavaProject[] projects =
+        JavaCore.create(ResourcesPlugin.getWorkspace().getRoot()).getJavaProjects();
+
+    assertEquals(
+        new HashSet<>(asList(modules[1], modules[2])),
+        SearchScopes.getDependentProjects(modules[1], projects));
+    assertEquals(
+        new HashSet<>(asList(modules)), SearchScopes.getDependentProjects(modules[0], projects));
+  }
+
+  @Test
+  public void shouldSearchSourcesOfDependentProjectsOnly() throws Exception {
+    IType type = modules[1].findType(WorkspaceGenerator.BASE_PACKAGE + "1.Class0");
+    IJavaSearchScope scope = SearchScopes.referencesScope(type, false);
+
+    assertFalse(scope.encloses(findClass(modules[0], 0)));
+    assertTrue(scope.encloses(findClass(modules[1], 1)));
+    assertTrue(scope.encloses(findClass(modules[2], 2)));
+    assertFalse(scope.encloses(findLibrary(modules[2])));
+  }
+
+  @Test
+  public void shouldSearchAllProjectsForLibraryElements() throws Exception {
+    IType library = findLibrary(modules[0]);
+    IJavaSearchScope scope = SearchScopes.referencesScope(library, false);
+
+    for (int m = 0; m < modules.length; m++) {
+      assertTrue(scope.encloses(findClass(modules[m], m)));
+    }
+    assertTrue(scope.encloses(library));
+  }
+
+  private static IType findClass(IJavaProject project, int packageIndex) throws Exception {
+    return project.findType(WorkspaceGenerator.BASE_PACKAGE + packageIndex + ".Class0");
+  }
+
+  private static IType findLibrary(IJavaProject project) throws Exception {
+    return project.findType(WorkspaceGenerator.LIBRARY_PACKAGE + "0.Api0");
+  }
+}